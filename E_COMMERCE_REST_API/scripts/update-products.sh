@@ -46,7 +46,19 @@ reload_products() {
         -H "Authorization: Bearer $TOKEN" \
         -H "Content-Type: application/json")
     
-    if [[ $RESPONSE == *"successfully"* ]]; then
+    if [[ $RESPONSE != *"RUNNING"* ]]; then
+        echo -e "${RED}Failed to start reload: $RESPONSE${NC}"
+        exit 1
+    fi
+    
+    # The reload runs in the background; poll its status until it finishes
+    while [[ $RESPONSE == *"RUNNING"* ]]; do
+        sleep 1
+        RESPONSE=$(curl -s -X GET "$API_BASE_URL/api/products/reload" \
+            -H "Authorization: Bearer $TOKEN")
+    done
+    
+    if [[ $RESPONSE == *"SUCCEEDED"* ]]; then
         echo -e "${GREEN}Products reloaded successfully!${NC}"
         echo -e "${BLUE}Response: $RESPONSE${NC}"
     else
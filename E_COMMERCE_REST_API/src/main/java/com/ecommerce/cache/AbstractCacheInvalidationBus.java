@@ -0,0 +1,105 @@
+package com.ecommerce.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transport-independent part of the bus: local fan-out, sequence numbering and gap detection.
+ *
+ * A node applies its own invalidations immediately and ignores their echo. For every other
+ * origin it expects consecutive sequence numbers; a gap means a notification was lost, and the
+ * only safe answer is a full resync, i.e. dropping every local cache and reloading on demand.
+ */
+public abstract class AbstractCacheInvalidationBus implements CacheInvalidationBus {
+    
+    private static final Logger log = LoggerFactory.getLogger(AbstractCacheInvalidationBus.class);
+    
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<CacheRegion, List<Invalidatable>> caches = new EnumMap<>(CacheRegion.class);
+    private final Map<String, Long> lastSequenceByOrigin = new HashMap<>();
+    
+    protected AbstractCacheInvalidationBus() {
+        for (CacheRegion region : CacheRegion.values()) {
+            caches.put(region, new CopyOnWriteArrayList<>());
+        }
+    }
+    
+    @Override
+    public void register(CacheRegion region, Invalidatable cache) {
+        caches.get(region).add(cache);
+    }
+    
+    @Override
+    public void publish(CacheRegion region, String key) {
+        apply(region, key);
+        // The sequence is consumed even if sending fails, so peers see the gap and resync
+        send(InvalidationMessage.invalidate(nodeId, sequence.incrementAndGet(), region, key).encode());
+    }
+    
+    /**
+     * Deliver an encoded message to every node, including this one.
+     */
+    protected abstract void send(String payload);
+    
+    protected synchronized void receive(String payload) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring cache invalidation message: {}", e.getMessage());
+            return;
+        }
+        if (message.origin().equals(nodeId)) {
+            return;
+        }
+        
+        Long last = lastSequenceByOrigin.get(message.origin());
+        if (last != null && message.sequence() <= last) {
+            return; // duplicate, or a heartbeat with nothing new
+        }
+        lastSequenceByOrigin.put(message.origin(), message.sequence());
+        
+        long expected = message.type() == InvalidationMessage.Type.INVALIDATE ? message.sequence() - 1 : message.sequence();
+        if (last != null && last != expected) {
+            resync("missed invalidations from node " + message.origin() + " (last seen " + last + ", got " + message.sequence() + ")");
+        } else if (message.type() == InvalidationMessage.Type.INVALIDATE) {
+            apply(message.region(), message.key());
+        }
+    }
+    
+    /**
+     * Drop every local cache; entries are reloaded from the database on next access.
+     */
+    protected void resync(String reason) {
+        log.info("Resynchronizing local caches: {}", reason);
+        caches.values().forEach(regionCaches -> regionCaches.forEach(Invalidatable::invalidateAll));
+    }
+    
+    /**
+     * Bypass local caches while this node cannot be sure it hears every invalidation.
+     */
+    protected void setCachesEnabled(boolean enabled) {
+        caches.values().forEach(regionCaches -> regionCaches.forEach(cache -> cache.setEnabled(enabled)));
+    }
+    
+    protected String nodeId() {
+        return nodeId;
+    }
+    
+    protected long currentSequence() {
+        return sequence.get();
+    }
+    
+    private void apply(CacheRegion region, String key) {
+        caches.get(region).forEach(cache -> cache.applyInvalidation(key));
+    }
+} 
\ No newline at end of file
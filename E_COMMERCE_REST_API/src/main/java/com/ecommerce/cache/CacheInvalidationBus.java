@@ -0,0 +1,17 @@
+package com.ecommerce.cache;
+
+/**
+ * Broadcasts cache invalidations to every application node sharing the database.
+ */
+public interface CacheInvalidationBus {
+    
+    /**
+     * Invalidate {@code key} (or the whole region when {@code null}) locally and on every other node.
+     */
+    void publish(CacheRegion region, String key);
+    
+    /**
+     * Attach a local cache (or other derived state) so that it receives invalidations for {@code region}.
+     */
+    void register(CacheRegion region, Invalidatable cache);
+} 
\ No newline at end of file
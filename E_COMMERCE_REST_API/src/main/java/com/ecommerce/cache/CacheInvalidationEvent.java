@@ -0,0 +1,17 @@
+package com.ecommerce.cache;
+
+/**
+ * Application event raised by services when cached data changes. It is handed to the
+ * {@link CacheInvalidationBus} only after the surrounding transaction commits, so other
+ * nodes never reload the old row. A {@code null} key invalidates the whole region.
+ */
+public record CacheInvalidationEvent(CacheRegion region, String key) {
+    
+    public static CacheInvalidationEvent of(CacheRegion region, Object key) {
+        return new CacheInvalidationEvent(region, key != null ? key.toString() : null);
+    }
+    
+    public static CacheInvalidationEvent all(CacheRegion region) {
+        return new CacheInvalidationEvent(region, null);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.ecommerce.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hands {@link CacheInvalidationEvent}s to the bus once the publishing transaction has committed,
+ * or right away when there is no transaction.
+ */
+@Component
+public class CacheInvalidationPublisher {
+    
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        cacheInvalidationBus.publish(event.region(), event.key());
+    }
+} 
\ No newline at end of file
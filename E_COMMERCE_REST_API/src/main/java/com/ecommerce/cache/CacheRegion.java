@@ -0,0 +1,11 @@
+package com.ecommerce.cache;
+
+/**
+ * Groups of locally cached data that are invalidated together across the cluster.
+ */
+public enum CacheRegion {
+    PRODUCT,
+    USER,
+    CART_SHARD,
+    CART_TOTALS
+} 
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.ecommerce.cache;
+
+/**
+ * Local state derived from the database that must hear every invalidation of its region, such
+ * as a {@link LocalCache} or a {@link SingleFlight}. Registered with the {@link CacheInvalidationBus}.
+ */
+public interface Invalidatable {
+    
+    /**
+     * Apply an invalidation received as text; an empty key means the whole region.
+     */
+    void applyInvalidation(String key);
+    
+    void invalidateAll();
+    
+    /**
+     * Called with {@code false} while the node cannot be sure it hears every invalidation, and
+     * with {@code true} once it can again.
+     */
+    default void setEnabled(boolean enabled) {
+    }
+} 
\ No newline at end of file
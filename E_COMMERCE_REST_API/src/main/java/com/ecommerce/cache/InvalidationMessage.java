@@ -0,0 +1,43 @@
+package com.ecommerce.cache;
+
+/**
+ * Wire format shared by the bus transports: {@code type|origin|sequence|region|key}.
+ *
+ * Every node numbers its invalidations; receivers use the per-origin sequence to spot lost
+ * messages. Heartbeats repeat the sender's latest sequence without consuming a new one.
+ */
+record InvalidationMessage(Type type, String origin, long sequence, CacheRegion region, String key) {
+    
+    enum Type {
+        INVALIDATE,
+        HEARTBEAT
+    }
+    
+    private static final String SEPARATOR = "|";
+    
+    static InvalidationMessage invalidate(String origin, long sequence, CacheRegion region, String key) {
+        return new InvalidationMessage(Type.INVALIDATE, origin, sequence, region, key);
+    }
+    
+    static InvalidationMessage heartbeat(String origin, long sequence) {
+        return new InvalidationMessage(Type.HEARTBEAT, origin, sequence, null, null);
+    }
+    
+    String encode() {
+        return type.name() + SEPARATOR + origin + SEPARATOR + sequence + SEPARATOR
+                + (region != null ? region.name() : "") + SEPARATOR + (key != null ? key : "");
+    }
+    
+    static InvalidationMessage decode(String payload) {
+        String[] parts = payload.split("\\|", 5);
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Malformed cache invalidation message: " + payload);
+        }
+        Type type = Type.valueOf(parts[0]);
+        CacheRegion region = parts[3].isEmpty() ? null : CacheRegion.valueOf(parts[3]);
+        if (type == Type.INVALIDATE && region == null) {
+            throw new IllegalArgumentException("Cache invalidation without region: " + payload);
+        }
+        return new InvalidationMessage(type, parts[1], Long.parseLong(parts[2]), region, parts[4].isEmpty() ? null : parts[4]);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.ecommerce.cache;
+
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Small in-process read-through cache kept coherent by the {@link CacheInvalidationBus}.
+ *
+ * Values loaded while an invalidation is in flight are discarded rather than cached, so a
+ * concurrent reload can never resurrect the old value after the invalidation has been applied.
+ *
+ * Once {@code maxSize} keys are cached, a new key evicts an old one with the clock (second
+ * chance) policy: entries sit in a ring, a hit only sets the entry's referenced bit, and the
+ * eviction hand skips and clears referenced entries until it finds one that was not read since
+ * its last pass. Hits stay lock-free; only misses that cache a value take the ring's lock.
+ */
+public class LocalCache<K, V> implements Invalidatable {
+    
+    private final String name;
+    private final Function<String, K> keyParser;
+    private final int maxSize;
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean enabled = true;
+    
+    /**
+     * The eviction ring, oldest first. Invalidated entries stay in it until the hand or a purge
+     * reaches them, so it is purged when it grows to twice the capacity.
+     */
+    private final ArrayDeque<Entry<K, V>> clock = new ArrayDeque<>();
+    
+    public LocalCache(String name, Function<String, K> keyParser, int maxSize) {
+        this.name = name;
+        this.keyParser = keyParser;
+        this.maxSize = maxSize;
+    }
+    
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+        Entry<K, V> cached = entries.get(key);
+        if (cached != null) {
+            if (!cached.referenced) {
+                cached.referenced = true;
+            }
+            return Optional.of(cached.value);
+        }
+        
+        long loadGeneration = generation.get();
+        Optional<V> loaded = loader.apply(key);
+        if (loaded.isPresent() && enabled) {
+            Entry<K, V> entry = new Entry<>(key, loaded.get());
+            admit(entry);
+            if (generation.get() != loadGeneration) {
+                // An invalidation raced with the load; the value may predate it
+                entries.remove(key, entry);
+            }
+        }
+        return loaded;
+    }
+    
+    private void admit(Entry<K, V> entry) {
+        synchronized (clock) {
+            entries.put(entry.key, entry);
+            clock.addLast(entry);
+            if (clock.size() > 2 * Math.max(maxSize, 1)) {
+                clock.removeIf(node -> entries.get(node.key) != node);
+            }
+            while (entries.size() > maxSize) {
+                if (!evictOne()) {
+                    break;
+                }
+            }
+        }
+    }
+    
+    private boolean evictOne() {
+        Entry<K, V> node;
+        while ((node = clock.pollFirst()) != null) {
+            if (entries.get(node.key) != node) {
+                continue;
+            }
+            if (node.referenced) {
+                node.referenced = false;
+                clock.addLast(node);
+            } else {
+                entries.remove(node.key, node);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+    }
+    
+    @Override
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (clock) {
+            entries.clear();
+            clock.clear();
+        }
+    }
+    @Override
+    public void applyInvalidation(String key) {
+        if (key == null || key.isEmpty()) {
+            invalidateAll();
+        } else {
+            invalidate(keyParser.apply(key));
+        }
+    }
+    
+    /**
+     * While disabled every read goes to the loader, e.g. while the node cannot hear invalidations.
+     */
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            invalidateAll();
+        }
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        volatile boolean referenced;
+        
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.ecommerce.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process transport for single-node deployments and tests. Several instances can be
+ * {@linkplain #connect(LoopbackCacheInvalidationBus) connected} to simulate a cluster; delivery is
+ * synchronous, so a publish has reached every connected node when it returns.
+ */
+public class LoopbackCacheInvalidationBus extends AbstractCacheInvalidationBus {
+    
+    private final List<LoopbackCacheInvalidationBus> nodes = new CopyOnWriteArrayList<>(List.of(this));
+    
+    /**
+     * Join two nodes (and everything already connected to either of them) into one cluster.
+     */
+    public void connect(LoopbackCacheInvalidationBus other) {
+        for (LoopbackCacheInvalidationBus node : List.copyOf(other.nodes)) {
+            if (!nodes.contains(node)) {
+                nodes.add(node);
+            }
+        }
+        for (LoopbackCacheInvalidationBus node : List.copyOf(nodes)) {
+            if (node != this) {
+                node.nodes.clear();
+                node.nodes.addAll(nodes);
+            }
+        }
+    }
+    
+    @Override
+    protected void send(String payload) {
+        for (LoopbackCacheInvalidationBus node : nodes) {
+            node.receive(payload);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.ecommerce.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Cluster transport over Postgres {@code LISTEN/NOTIFY}.
+ *
+ * Notifications are sent on a short-lived pooled connection in auto-commit mode, so they are
+ * delivered immediately. Each node listens on its own dedicated connection (outside the pool)
+ * from a background thread and sends a periodic heartbeat carrying its latest sequence number,
+ * which lets peers detect a lost trailing notification. Postgres does not queue notifications
+ * for disconnected listeners, so while the listener is down the local caches are bypassed and
+ * a full resync happens on reconnect.
+ */
+public class PostgresCacheInvalidationBus extends AbstractCacheInvalidationBus {
+    
+    private static final Logger log = LoggerFactory.getLogger(PostgresCacheInvalidationBus.class);
+    
+    private static final String CHANNEL = "cache_invalidation";
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(2);
+    
+    private final DataSource dataSource;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Duration heartbeatInterval;
+    
+    private volatile boolean running;
+    private boolean listening;
+    private Thread listenerThread;
+    
+    public PostgresCacheInvalidationBus(DataSource dataSource, String url, String username, String password, Duration heartbeatInterval) {
+        this.dataSource = dataSource;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+    
+    @PostConstruct
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread.join(RECONNECT_DELAY.toMillis());
+        }
+    }
+    
+    @Override
+    public synchronized void register(CacheRegion region, Invalidatable cache) {
+        super.register(region, cache);
+        // Caches stay bypassed until the first LISTEN succeeds
+        cache.setEnabled(listening);
+    }
+    
+    @Override
+    protected void send(String payload) {
+        // Not DataSourceUtils: inside an after-commit callback that would reuse the finished
+        // transaction's connection, and the NOTIFY would never be committed
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            if (!connection.getAutoCommit()) {
+                connection.setAutoCommit(true);
+            }
+            statement.setString(1, CHANNEL);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException e) {
+            log.warn("Could not publish cache invalidation; peers will resync on the next message: {}", e.getMessage());
+        }
+    }
+    
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Anything published while we were not listening is lost
+                resync("listening on channel " + CHANNEL);
+                setListening(true);
+                
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                long nextHeartbeat = System.nanoTime() + heartbeatInterval.toNanos();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                    if (System.nanoTime() - nextHeartbeat >= 0) {
+                        send(InvalidationMessage.heartbeat(nodeId(), currentSequence()).encode());
+                        nextHeartbeat = System.nanoTime() + heartbeatInterval.toNanos();
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener disconnected, bypassing local caches: {}", e.getMessage());
+                }
+            }
+            setListening(false);
+            sleepBeforeReconnect();
+        }
+    }
+    
+    private synchronized void setListening(boolean listening) {
+        this.listening = listening;
+        setCachesEnabled(listening);
+    }
+    
+    private void sleepBeforeReconnect() {
+        if (!running) {
+            return;
+        }
+        try {
+            Thread.sleep(RECONNECT_DELAY.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.ecommerce.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical loads: the first caller for a key runs the loader, and callers
+ * asking for the same key while it runs wait for and share its result (or its exception)
+ * instead of running their own. Nothing is kept once the load finishes; it is a cache of
+ * in-flight work only, so it works with or without a {@link LocalCache} in front of it.
+ *
+ * Registered with the {@link CacheInvalidationBus}, any invalidation of its region detaches the
+ * loads in flight: they still complete for the callers already waiting, but callers arriving
+ * after a write start a fresh load rather than joining one that may have read the old data.
+ */
+public class SingleFlight<K, V> implements Invalidatable {
+    
+    private final String name;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private volatile boolean enabled = true;
+    
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+    
+    public V execute(K key, Supplier<V> loader) {
+        calls.increment();
+        if (!enabled) {
+            loads.increment();
+            return loader.get();
+        }
+        
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return join(existing);
+        }
+        
+        loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+    
+    /**
+     * Any invalidation detaches every load in flight, since a region-wide change can affect any key.
+     */
+    @Override
+    public void applyInvalidation(String key) {
+        invalidateAll();
+    }
+    
+    @Override
+    public void invalidateAll() {
+        inFlight.clear();
+    }
+    
+    /**
+     * While disabled every call runs its own load, e.g. to measure what coalescing saves.
+     */
+    public void setCoalescing(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Stats getStats() {
+        long callCount = calls.sum();
+        long loadCount = loads.sum();
+        return new Stats(callCount, loadCount, callCount - loadCount, inFlight.size());
+    }
+    
+    private static <V> V join(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Rethrow what the loader threw, as if this caller had run it
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * {@code shared} calls were answered by another caller's load instead of running their own.
+     */
+    public record Stats(long calls, long loads, long shared, int inFlight) {
+    }
+} 
\ No newline at end of file
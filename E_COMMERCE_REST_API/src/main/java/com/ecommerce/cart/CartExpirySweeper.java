@@ -0,0 +1,190 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.cache.CacheInvalidationEvent;
+import com.ecommerce.cache.CacheRegion;
+import com.ecommerce.limit.Lane;
+import com.ecommerce.limit.LaneContext;
+import com.ecommerce.limit.LaneRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes cart items nobody has touched for {@code cart.expiry.idle-ttl}.
+ *
+ * A pass deletes in batches of {@code cart.expiry.batch-size} with set-based deletes on the
+ * indexed {@code updated_at} column. After each batch it sleeps long enough to keep its share of
+ * database time at {@code cart.expiry.duty-cycle}, and it waits while request threads are queueing
+ * for a connection. A pass stops once {@code cart.expiry.max-pass-duration} is spent, and the
+ * next pass continues the work. Passes run on the admin lane and use its connection pool.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class CartExpirySweeper {
+    
+    private static final Logger log = LoggerFactory.getLogger(CartExpirySweeper.class);
+    
+    private static final long BUSY_BACKOFF_MILLIS = 100;
+    
+    @Autowired
+    private CartStore cartStore;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${cart.expiry.idle-ttl:7d}")
+    private Duration idleTtl;
+    
+    @Value("${cart.expiry.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${cart.expiry.duty-cycle:0.1}")
+    private double dutyCycle;
+    
+    @Value("${cart.expiry.max-pass-duration:30s}")
+    private Duration maxPassDuration;
+    
+    private Clock clock = Clock.systemDefaultZone();
+    
+    private final AtomicLong passes = new AtomicLong();
+    private final AtomicLong totalReclaimed = new AtomicLong();
+    private volatile Pass lastPass;
+    
+    /**
+     * Run one throttled pass. Returns what it reclaimed.
+     */
+    @Scheduled(fixedDelayString = "${cart.expiry.interval-ms:600000}", initialDelayString = "${cart.expiry.initial-delay-ms:60000}")
+    public synchronized Pass sweep() {
+        // Run on the admin lane so the pass draws from the admin connection pool, not the customers' pools
+        Lane previous = LaneContext.enter(Lane.ADMIN);
+        try {
+            return sweepPass();
+        } finally {
+            LaneContext.restore(previous);
+        }
+    }
+    
+    private Pass sweepPass() {
+        Instant startedAt = clock.instant();
+        long start = System.nanoTime();
+        long deadline = start + maxPassDuration.toNanos();
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(idleTtl);
+        
+        long reclaimed = 0;
+        int batches = 0;
+        boolean complete = false;
+        try {
+            while (true) {
+                waitWhileBusy(deadline);
+                long batchStart = System.nanoTime();
+                int deleted = cartStore.deleteIdleBefore(cutoff, batchSize);
+                long batchNanos = System.nanoTime() - batchStart;
+                reclaimed += deleted;
+                batches++;
+                if (deleted < batchSize) {
+                    complete = true;
+                    break;
+                }
+                if (System.nanoTime() >= deadline) {
+                    break;
+                }
+                pause(throttleDelay(batchNanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Cart expiry pass failed after {} items: {}", reclaimed, e.getMessage());
+        }
+        
+        Pass pass = new Pass(startedAt, reclaimed, batches, Duration.ofNanos(System.nanoTime() - start).toMillis(), complete);
+        passes.incrementAndGet();
+        totalReclaimed.addAndGet(reclaimed);
+        lastPass = pass;
+        if (reclaimed > 0) {
+            // Which carts lost items isn't tracked, so drop every cached total
+            eventPublisher.publishEvent(CacheInvalidationEvent.all(CacheRegion.CART_TOTALS));
+        }
+        if (reclaimed > 0 || !complete) {
+            log.info("Cart expiry pass reclaimed {} items in {} batches, {} ms{}", reclaimed, batches,
+                    pass.durationMillis(), complete ? "" : " (stopped early)");
+        }
+        return pass;
+    }
+    
+    public long getPassCount() {
+        return passes.get();
+    }
+    
+    public long getTotalReclaimed() {
+        return totalReclaimed.get();
+    }
+    
+    public Pass getLastPass() {
+        return lastPass;
+    }
+    
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+    
+    void pause(Duration duration) throws InterruptedException {
+        if (!duration.isZero()) {
+            Thread.sleep(duration);
+        }
+    }
+    
+    /**
+     * Idle time after a batch that took {@code batchNanos}, so the sweeper is busy only {@code dutyCycle} of the time.
+     */
+    private Duration throttleDelay(long batchNanos) {
+        if (dutyCycle >= 1) {
+            return Duration.ZERO;
+        }
+        double share = Math.max(dutyCycle, 0.01);
+        return Duration.ofNanos((long) (batchNanos * (1 - share) / share));
+    }
+    
+    /**
+     * Back off while requests are waiting for a database connection, up to the pass deadline.
+     */
+    private void waitWhileBusy(long deadline) throws InterruptedException {
+        while (threadsAwaitingConnection() > 0 && System.nanoTime() < deadline) {
+            pause(Duration.ofMillis(BUSY_BACKOFF_MILLIS));
+        }
+    }
+    
+    private int threadsAwaitingConnection() {
+        if (dataSource instanceof LaneRoutingDataSource lanes) {
+            return lanes.getCustomerThreadsAwaitingConnection();
+        }
+        if (dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+        }
+        return 0;
+    }
+    
+    /**
+     * Outcome of one pass. {@code complete} is false when the pass ran out of time or failed
+     * before reaching the last idle item.
+     */
+    public record Pass(Instant startedAt, long reclaimed, int batches, long durationMillis, boolean complete) {
+    }
+} 
\ No newline at end of file
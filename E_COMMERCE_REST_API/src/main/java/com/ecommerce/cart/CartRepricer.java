@@ -0,0 +1,93 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.cache.CacheInvalidationBus;
+import com.ecommerce.cache.CacheRegion;
+import com.ecommerce.limit.Lane;
+import com.ecommerce.limit.LaneContext;
+import com.ecommerce.limit.LaneExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Brings cart lines to a product's new price after the price change commits.
+ *
+ * Only carts holding the product are touched: they are found through the index on
+ * {@code cart_items.product_id}, repriced in batches of {@code cart.repricing.batch-size} rows
+ * (each its own short transaction), and only their cached totals are dropped. The pass runs on
+ * the admin lane, so the request that changed the price doesn't wait for it.
+ */
+@Component
+public class CartRepricer {
+    
+    private static final Logger log = LoggerFactory.getLogger(CartRepricer.class);
+    
+    @Autowired
+    private CartStore cartStore;
+    
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private LaneExecutor adminLaneExecutor;
+    
+    @Value("${cart.repricing.batch-size:500}")
+    private int batchSize;
+    
+    // Above this many carts one region-wide invalidation is cheaper than a message per user
+    @Value("${cart.repricing.max-keyed-invalidations:1000}")
+    private int maxKeyedInvalidations;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceChanged(ProductPriceChangedEvent event) {
+        try {
+            adminLaneExecutor.execute(() -> reprice(event.productId(), event.price()));
+        } catch (RejectedExecutionException e) {
+            // Carts must not keep the old price, so a busy admin lane only costs this request the wait
+            log.warn("Admin lane is busy, repricing carts of product {} on the request thread", event.productId());
+            LaneContext.run(Lane.ADMIN, () -> reprice(event.productId(), event.price()));
+        }
+    }
+    
+    /**
+     * Reprice every cart line of {@code productId} to {@code price}. Returns the number of lines changed.
+     */
+    public int reprice(Long productId, BigDecimal price) {
+        Set<Long> users = cartStore.findUsersToReprice(productId, price);
+        if (users.isEmpty()) {
+            return 0;
+        }
+        
+        // Runs after the price change committed, so each batch needs a transaction of its own
+        TransactionTemplate batchTransaction = new TransactionTemplate(transactionManager);
+        batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int repriced = 0;
+        int batch;
+        do {
+            Integer updated = batchTransaction.execute(status -> cartStore.repriceBatch(productId, price, batchSize));
+            batch = updated != null ? updated : 0;
+            repriced += batch;
+        } while (batch == batchSize);
+        
+        if (users.size() > maxKeyedInvalidations) {
+            cacheInvalidationBus.publish(CacheRegion.CART_TOTALS, null);
+        } else {
+            users.forEach(userId -> cacheInvalidationBus.publish(CacheRegion.CART_TOTALS, userId.toString()));
+        }
+        log.info("Repriced {} cart lines of product {} in {} carts", repriced, productId, users.size());
+        return repriced;
+    }
+} 
\ No newline at end of file
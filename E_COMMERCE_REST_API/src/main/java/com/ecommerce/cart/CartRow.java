@@ -0,0 +1,11 @@
+package com.ecommerce.cart;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A {@code cart_items} row as stored on a shard.
+ */
+record CartRow(long id, long userId, long productId, int quantity, BigDecimal unitPrice, LocalDateTime createdAt,
+               LocalDateTime updatedAt) {
+} 
\ No newline at end of file
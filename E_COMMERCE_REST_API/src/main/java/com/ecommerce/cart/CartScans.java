@@ -0,0 +1,123 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.limit.Lane;
+import com.ecommerce.limit.LaneContext;
+import com.ecommerce.repository.CartItemRepository;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Helpers for {@link CartStore#scanCarts}: reading partitions on parallel threads and grouping
+ * cart lines, read in user order, into one array of product ids per cart.
+ */
+final class CartScans {
+    
+    private static final int PAGE_SIZE = 1000;
+    
+    private CartScans() {}
+    
+    /**
+     * Run {@code scan} for every partition, at most {@code parallelism} at a time, in the caller's
+     * lane. Returns when all are done; the first failure is rethrown.
+     */
+    static void inParallel(int partitions, int parallelism, IntConsumer scan) {
+        Lane lane = LaneContext.current();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(partitions, parallelism)));
+        try {
+            List<Future<?>> scans = new ArrayList<>(partitions);
+            for (int i = 0; i < partitions; i++) {
+                int partition = i;
+                scans.add(executor.submit(() -> LaneContext.run(lane, () -> scan.accept(partition))));
+            }
+            for (Future<?> future : scans) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Cart scan failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cart scan interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Scan {@code cart_items} in the main database as {@code parallelism} partitions of users, each
+     * read in pages by (user, item) keyset so no page splits a cart.
+     */
+    static void scanRepository(CartItemRepository repository, int parallelism, Consumer<long[]> consumer) {
+        int partitions = Math.max(1, parallelism);
+        inParallel(partitions, partitions, partition -> {
+            Grouper grouper = new Grouper(consumer);
+            long userId = 0;
+            long itemId = 0;
+            List<Object[]> lines;
+            do {
+                lines = repository.findCartLinesAfter(partitions, partition, userId, itemId, PageRequest.of(0, PAGE_SIZE));
+                for (Object[] line : lines) {
+                    userId = (Long) line[0];
+                    itemId = (Long) line[1];
+                    grouper.accept(userId, (Long) line[2]);
+                }
+            } while (lines.size() == PAGE_SIZE);
+            grouper.finish();
+        });
+    }
+    
+    @FunctionalInterface
+    interface LineConsumer {
+        
+        void accept(long userId, long productId);
+    }
+    
+    /**
+     * Collects consecutive lines of the same user and hands each cart on when the user changes.
+     */
+    static final class Grouper implements LineConsumer {
+        
+        private final Consumer<long[]> consumer;
+        private long userId;
+        private long[] productIds = new long[16];
+        private int size;
+        
+        Grouper(Consumer<long[]> consumer) {
+            this.consumer = consumer;
+        }
+        
+        @Override
+        public void accept(long userId, long productId) {
+            if (size > 0 && userId != this.userId) {
+                emit();
+            }
+            this.userId = userId;
+            if (size == productIds.length) {
+                productIds = Arrays.copyOf(productIds, size * 2);
+            }
+            productIds[size++] = productId;
+        }
+        
+        void finish() {
+            if (size > 0) {
+                emit();
+            }
+        }
+        
+        private void emit() {
+            consumer.accept(Arrays.copyOf(productIds, size));
+            size = 0;
+        }
+    }
+} 
\ No newline at end of file
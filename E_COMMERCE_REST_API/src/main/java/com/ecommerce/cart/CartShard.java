@@ -0,0 +1,228 @@
+package com.ecommerce.cart;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One cart shard: its own database holding a {@code cart_items} table with no foreign keys
+ * to the main database.
+ *
+ * Ids come from a hi/lo block allocator on the shard and carry the shard index in their low
+ * bits, so they stay unique across the cluster when a cart is copied to another shard.
+ */
+class CartShard {
+    
+    static final int SHARD_BITS = 6;
+    static final int MAX_SHARDS = 1 << SHARD_BITS;
+    
+    private static final int ID_BLOCK_SIZE = 1000;
+    private static final String COLUMNS = "id, user_id, product_id, quantity, unit_price, created_at, updated_at";
+    private static final RowMapper<CartRow> ROW_MAPPER = (rs, rowNum) -> new CartRow(
+            rs.getLong("id"),
+            rs.getLong("user_id"),
+            rs.getLong("product_id"),
+            rs.getInt("quantity"),
+            rs.getBigDecimal("unit_price"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class)
+    );
+    
+    private final int index;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    private long nextId;
+    private long idBlockEnd;
+    
+    CartShard(int index, DataSource dataSource) {
+        this.index = index;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+    
+    void createSchema() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS cart_items ("
+                + "id BIGINT PRIMARY KEY, "
+                + "user_id BIGINT NOT NULL, "
+                + "product_id BIGINT NOT NULL, "
+                + "quantity INT NOT NULL, "
+                + "unit_price DECIMAL(10, 2), "
+                + "created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP, "
+                + "CONSTRAINT uk_cart_items_user_product UNIQUE (user_id, product_id))");
+        // Shards created before prices were recorded on cart lines
+        jdbcTemplate.execute("ALTER TABLE cart_items ADD COLUMN IF NOT EXISTS unit_price DECIMAL(10, 2)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_cart_items_updated_at ON cart_items (updated_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_cart_items_product_id ON cart_items (product_id)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS cart_id_blocks (id INT PRIMARY KEY, next_block BIGINT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO cart_id_blocks (id, next_block) SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM cart_id_blocks WHERE id = 1)");
+    }
+    
+    int getIndex() {
+        return index;
+    }
+    
+    DataSource getDataSource() {
+        return dataSource;
+    }
+    
+    List<CartRow> findByUser(long userId) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM cart_items WHERE user_id = ? ORDER BY id", ROW_MAPPER, userId);
+    }
+    
+    Optional<CartRow> findByUserAndProduct(long userId, long productId) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM cart_items WHERE user_id = ? AND product_id = ?",
+                ROW_MAPPER, userId, productId).stream().findFirst();
+    }
+    
+    Optional<CartRow> findByUserAndId(long userId, long id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM cart_items WHERE user_id = ? AND id = ?",
+                ROW_MAPPER, userId, id).stream().findFirst();
+    }
+    
+    CartRow insert(long userId, long productId, int quantity, BigDecimal unitPrice, LocalDateTime createdAt) {
+        CartRow row = newRow(userId, productId, quantity, unitPrice, createdAt);
+        insert(row);
+        return row;
+    }
+    
+    /**
+     * A row with a freshly allocated id, not yet written.
+     */
+    CartRow newRow(long userId, long productId, int quantity, BigDecimal unitPrice, LocalDateTime createdAt) {
+        return new CartRow(allocateId(), userId, productId, quantity, unitPrice, createdAt, createdAt);
+    }
+    
+    int updateQuantity(long userId, long id, int quantity, LocalDateTime updatedAt) {
+        return jdbcTemplate.update("UPDATE cart_items SET quantity = ?, updated_at = ? WHERE user_id = ? AND id = ?",
+                quantity, updatedAt, userId, id);
+    }
+    
+    int delete(long userId, long id) {
+        return jdbcTemplate.update("DELETE FROM cart_items WHERE user_id = ? AND id = ?", userId, id);
+    }
+    
+    int deleteByUser(long userId) {
+        return jdbcTemplate.update("DELETE FROM cart_items WHERE user_id = ?", userId);
+    }
+    
+    /**
+     * Apply one user's changes in a local transaction as three JDBC batches. Deletes run first so
+     * a product removed and re-added in the same batch doesn't trip the unique constraint.
+     */
+    void applyBatch(long userId, List<Long> deletedIds, List<CartRow> updated, List<CartRow> inserted) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!deletedIds.isEmpty()) {
+                jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE user_id = ? AND id = ?",
+                        deletedIds.stream().map(id -> new Object[]{userId, id}).toList());
+            }
+            if (!updated.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE cart_items SET quantity = ?, updated_at = ? WHERE user_id = ? AND id = ?",
+                        updated.stream().map(row -> new Object[]{row.quantity(), row.updatedAt(), userId, row.id()}).toList());
+            }
+            if (!inserted.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO cart_items (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)",
+                        inserted.stream().map(row -> new Object[]{row.id(), row.userId(), row.productId(), row.quantity(), row.unitPrice(), row.createdAt(), row.updatedAt()}).toList());
+            }
+        });
+    }
+    
+    int deleteByProduct(long productId) {
+        return jdbcTemplate.update("DELETE FROM cart_items WHERE product_id = ?", productId);
+    }
+    
+    List<Long> findUsersToReprice(long productId, BigDecimal unitPrice) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM cart_items "
+                + "WHERE product_id = ? AND (unit_price IS NULL OR unit_price <> ?)", Long.class, productId, unitPrice);
+    }
+    
+    int repriceBatch(long productId, BigDecimal unitPrice, int limit) {
+        return jdbcTemplate.update("UPDATE cart_items SET unit_price = ? WHERE id IN (SELECT id FROM cart_items "
+                + "WHERE product_id = ? AND (unit_price IS NULL OR unit_price <> ?) LIMIT ?)", unitPrice, productId, unitPrice, limit);
+    }
+    
+    void deleteAll() {
+        jdbcTemplate.update("DELETE FROM cart_items");
+    }
+    
+    /**
+     * Make this shard's copy of a user's cart exactly {@code rows}, in one local transaction.
+     */
+    void replaceUserRows(long userId, List<CartRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            deleteByUser(userId);
+            rows.forEach(this::insert);
+        });
+    }
+    
+    /**
+     * Delete the given rows of a user, but only in the versions that were read, so a concurrent
+     * update is never dropped. Returns the number of rows deleted.
+     */
+    int deleteRows(List<CartRow> rows) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            int count = 0;
+            for (CartRow row : rows) {
+                count += row.updatedAt() == null
+                        ? jdbcTemplate.update("DELETE FROM cart_items WHERE id = ? AND quantity = ? AND updated_at IS NULL", row.id(), row.quantity())
+                        : jdbcTemplate.update("DELETE FROM cart_items WHERE id = ? AND quantity = ? AND updated_at = ?", row.id(), row.quantity(), row.updatedAt());
+            }
+            return count;
+        });
+        return deleted != null ? deleted : 0;
+    }
+    
+    /**
+     * Delete up to {@code limit} rows last touched before {@code cutoff}; see {@link CartStore#deleteIdleBefore}.
+     */
+    int deleteIdleBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM cart_items WHERE id IN (SELECT id FROM cart_items "
+                + "WHERE updated_at < ? OR (updated_at IS NULL AND created_at < ?) LIMIT ?)", cutoff, cutoff, limit);
+    }
+    
+    /**
+     * Stream every line's user and product, in user order.
+     */
+    void scanLines(CartScans.LineConsumer consumer) {
+        jdbcTemplate.query("SELECT user_id, product_id FROM cart_items ORDER BY user_id, id",
+                (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2)));
+    }
+    
+    long countItems() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items", Long.class);
+        return count != null ? count : 0;
+    }
+    
+    long countUsers() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT user_id) FROM cart_items", Long.class);
+        return count != null ? count : 0;
+    }
+    
+    private void insert(CartRow row) {
+        jdbcTemplate.update("INSERT INTO cart_items (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)",
+                row.id(), row.userId(), row.productId(), row.quantity(), row.unitPrice(), row.createdAt(), row.updatedAt());
+    }
+    
+    private synchronized long allocateId() {
+        if (nextId == idBlockEnd) {
+            Long block = transactionTemplate.execute(status -> {
+                jdbcTemplate.update("UPDATE cart_id_blocks SET next_block = next_block + 1 WHERE id = 1");
+                return jdbcTemplate.queryForObject("SELECT next_block FROM cart_id_blocks WHERE id = 1", Long.class);
+            });
+            nextId = (block - 1) * ID_BLOCK_SIZE + 1;
+            idBlockEnd = block * ID_BLOCK_SIZE + 1;
+        }
+        return (nextId++ << SHARD_BITS) | index;
+    }
+} 
\ No newline at end of file
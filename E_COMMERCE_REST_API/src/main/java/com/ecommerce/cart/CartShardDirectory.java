@@ -0,0 +1,69 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.cache.CacheInvalidationBus;
+import com.ecommerce.cache.CacheInvalidationEvent;
+import com.ecommerce.cache.CacheRegion;
+import com.ecommerce.cache.LocalCache;
+import com.ecommerce.entity.CartShardAssignment;
+import com.ecommerce.repository.CartShardAssignmentRepository;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+/**
+ * Resolves the shard that owns a user's cart: an explicit directory entry if the cart was moved,
+ * otherwise a hash of the user id. Resolutions are cached locally and invalidated cluster-wide
+ * when a cart moves, so every node routes the user to the new shard.
+ */
+public class CartShardDirectory {
+    
+    private final CartShardAssignmentRepository assignmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int shardCount;
+    private final LocalCache<Long, Integer> resolved;
+    
+    public CartShardDirectory(CartShardAssignmentRepository assignmentRepository, ApplicationEventPublisher eventPublisher,
+                              CacheInvalidationBus cacheInvalidationBus, int shardCount, int cacheSize) {
+        this.assignmentRepository = assignmentRepository;
+        this.eventPublisher = eventPublisher;
+        this.shardCount = shardCount;
+        this.resolved = new LocalCache<>("cart-shards", Long::valueOf, cacheSize);
+        cacheInvalidationBus.register(CacheRegion.CART_SHARD, resolved);
+    }
+    
+    public int shardFor(Long userId) {
+        return resolved.get(userId, id -> Optional.of(lookup(id))).orElseThrow();
+    }
+    
+    /**
+     * Pin {@code userId} to {@code shard}; committed before it returns.
+     */
+    public void assign(Long userId, int shard) {
+        assignmentRepository.save(new CartShardAssignment(userId, shard));
+        eventPublisher.publishEvent(CacheInvalidationEvent.of(CacheRegion.CART_SHARD, userId));
+    }
+    
+    public int getShardCount() {
+        return shardCount;
+    }
+    
+    /**
+     * Default placement: a mixed hash so that sequential user ids still spread evenly.
+     */
+    public static int hashShard(long userId, int shardCount) {
+        long h = userId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) shardCount);
+    }
+    
+    private int lookup(Long userId) {
+        return assignmentRepository.findById(userId)
+                .map(CartShardAssignment::getShard)
+                .filter(shard -> shard < shardCount)
+                .orElseGet(() -> hashShard(userId, shardCount));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Persistence for cart items, selected with {@code cart.store}. Every operation except the
+ * housekeeping sweep is scoped to a single user, which is what lets an implementation partition
+ * carts by user.
+ */
+public interface CartStore {
+    
+    List<CartItem> findByUser(User user);
+    
+    Optional<CartItem> findByUserAndProductId(User user, Long productId);
+    
+    Optional<CartItem> findByUserIdAndCartItemId(Long userId, Long cartItemId);
+    
+    CartItem save(CartItem cartItem);
+    
+    void delete(CartItem cartItem);
+    
+    void deleteByUser(User user);
+    
+    /**
+     * Write one user's batch of changes together: delete {@code removed}, then insert or update
+     * {@code saved}. New items get their ids assigned. Returns {@code saved}.
+     */
+    List<CartItem> applyChanges(List<CartItem> saved, List<CartItem> removed);
+    
+    /**
+     * Remove a product from every cart. Returns the number of items deleted.
+     */
+    int deleteByProductId(Long productId);
+    
+    /**
+     * Delete every cart item, for a catalog wipe.
+     */
+    void deleteAll();
+    
+    /**
+     * Users with a line of {@code productId} not priced at {@code unitPrice}: the carts a price
+     * change affects, found through the product index rather than by scanning carts.
+     */
+    Set<Long> findUsersToReprice(Long productId, BigDecimal unitPrice);
+    
+    /**
+     * Set the unit price on up to {@code limit} lines of {@code productId} not yet at
+     * {@code unitPrice}. Returns the number updated.
+     */
+    int repriceBatch(Long productId, BigDecimal unitPrice, int limit);
+    
+    /**
+     * Delete up to {@code limit} items, of any user, last touched before {@code cutoff}.
+     * Returns the number deleted.
+     */
+    int deleteIdleBefore(LocalDateTime cutoff, int limit);
+    
+    /**
+     * Pass the product ids of every stored cart to {@code consumer}, one call per user, reading up
+     * to {@code parallelism} partitions at once. {@code consumer} is called from several threads.
+     */
+    void scanCarts(int parallelism, Consumer<long[]> consumer);
+} 
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.exception.InvalidRequestException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One anonymous shopper's cart as two parallel primitive arrays, product ids and quantities,
+ * so a line costs 12 bytes instead of a {@code CartItem} with its boxed fields and entity state.
+ * Guarded by its own monitor.
+ */
+final class GuestCart {
+    
+    static final int INITIAL_CAPACITY = 4;
+    
+    // GuestCart object (header, two array refs, size, lastAccess) + map node + Long key + map table slots
+    private static final long FIXED_OVERHEAD_BYTES = 32 + 32 + 16 + 16;
+    private static final long ARRAY_HEADER_BYTES = 16;
+    
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private int size;
+    private volatile long lastAccess;
+    
+    GuestCart(long now) {
+        this.lastAccess = now;
+    }
+    
+    /**
+     * Add {@code quantity} to the product's line, creating it if there is room.
+     */
+    synchronized void add(long productId, int quantity, int maxLines) {
+        int index = indexOf(productId);
+        if (index >= 0) {
+            quantities[index] = Math.addExact(quantities[index], quantity);
+            return;
+        }
+        if (size == maxLines) {
+            throw new InvalidRequestException("Guest cart cannot hold more than " + maxLines + " products");
+        }
+        if (size == productIds.length) {
+            int capacity = Math.min(productIds.length * 2, maxLines);
+            productIds = Arrays.copyOf(productIds, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+        }
+        productIds[size] = productId;
+        quantities[size] = quantity;
+        size++;
+    }
+    
+    /**
+     * Set the product's quantity. Returns false if the cart has no line for it.
+     */
+    synchronized boolean set(long productId, int quantity) {
+        int index = indexOf(productId);
+        if (index < 0) {
+            return false;
+        }
+        quantities[index] = quantity;
+        return true;
+    }
+    
+    /**
+     * Remove the product's line, keeping the others in the order they were added.
+     */
+    synchronized boolean remove(long productId) {
+        int index = indexOf(productId);
+        if (index < 0) {
+            return false;
+        }
+        int tail = size - index - 1;
+        System.arraycopy(productIds, index + 1, productIds, index, tail);
+        System.arraycopy(quantities, index + 1, quantities, index, tail);
+        size--;
+        return true;
+    }
+    
+    synchronized List<GuestCartStore.Line> lines() {
+        List<GuestCartStore.Line> lines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            lines.add(new GuestCartStore.Line(productIds[i], quantities[i]));
+        }
+        return lines;
+    }
+    
+    synchronized long footprintBytes() {
+        return footprintBytes(productIds.length);
+    }
+    
+    long lastAccess() {
+        return lastAccess;
+    }
+    
+    void touch(long now) {
+        lastAccess = now;
+    }
+    
+    private int indexOf(long productId) {
+        for (int i = 0; i < size; i++) {
+            if (productIds[i] == productId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Estimated heap held by a cart whose arrays have room for {@code capacity} lines, assuming
+     * compressed references and 8-byte object alignment.
+     */
+    static long footprintBytes(int capacity) {
+        return FIXED_OVERHEAD_BYTES + align(ARRAY_HEADER_BYTES + 8L * capacity) + align(ARRAY_HEADER_BYTES + 4L * capacity);
+    }
+    
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.exception.InvalidRequestException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Carts of shoppers who haven't logged in, kept only in memory and keyed by a random guest id
+ * (handed to the client as a signed {@link com.ecommerce.security.GuestCartToken}).
+ *
+ * The store is bounded: at most {@code cart.guest.max-carts} carts of at most
+ * {@code cart.guest.max-lines} products each, so its worst-case heap is known up front. Carts
+ * untouched for {@code cart.guest.ttl} are evicted by a periodic sweep. Guest carts don't hold
+ * stock; that happens when they are merged into a user's cart at login.
+ */
+@Component
+public class GuestCartStore {
+    
+    private static final Logger log = LoggerFactory.getLogger(GuestCartStore.class);
+    
+    @Value("${cart.guest.max-carts:100000}")
+    private int maxCarts;
+    
+    @Value("${cart.guest.max-lines:50}")
+    private int maxLines;
+    
+    @Value("${cart.guest.ttl:2h}")
+    private Duration ttl;
+    
+    private Clock clock = Clock.systemDefaultZone();
+    
+    private final ConcurrentHashMap<Long, GuestCart> carts = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    
+    @PostConstruct
+    void logCapacity() {
+        log.info("Guest carts capped at {} carts of {} products, at most ~{} MB", maxCarts, maxLines,
+                getMaxFootprintBytes() / (1024 * 1024));
+    }
+    
+    /**
+     * A fresh guest id. Nothing is stored until the first item is added.
+     */
+    public long newGuestId() {
+        long guestId;
+        do {
+            guestId = random.nextLong();
+        } while (carts.containsKey(guestId));
+        return guestId;
+    }
+    
+    /**
+     * The guest's lines in the order they were added; empty for an unknown or expired guest.
+     */
+    public List<Line> getLines(long guestId) {
+        GuestCart cart = liveCart(guestId);
+        if (cart == null) {
+            return List.of();
+        }
+        cart.touch(clock.millis());
+        return cart.lines();
+    }
+    
+    /**
+     * Add {@code quantity} of a product, creating the guest's cart if needed. Fails when the
+     * store is full or the cart already holds {@code max-lines} products.
+     */
+    public void add(long guestId, long productId, int quantity) {
+        // Checked outside compute, which must not modify the map; racing adds may overshoot slightly
+        if (!carts.containsKey(guestId) && carts.size() >= maxCarts && evictExpired() == 0) {
+            throw new InvalidRequestException("Guest carts are at capacity; please log in to keep a cart");
+        }
+        long now = clock.millis();
+        carts.compute(guestId, (id, cart) -> {
+            if (cart == null || isExpired(cart, now)) {
+                cart = new GuestCart(now);
+            }
+            cart.add(productId, quantity, maxLines);
+            cart.touch(now);
+            return cart;
+        });
+    }
+    
+    /**
+     * Set a product's quantity. Returns false if the guest has no line for it.
+     */
+    public boolean setQuantity(long guestId, long productId, int quantity) {
+        GuestCart cart = liveCart(guestId);
+        if (cart == null || !cart.set(productId, quantity)) {
+            return false;
+        }
+        cart.touch(clock.millis());
+        return true;
+    }
+    
+    /**
+     * Remove a product's line. Returns false if the guest has no line for it.
+     */
+    public boolean remove(long guestId, long productId) {
+        GuestCart cart = liveCart(guestId);
+        if (cart == null || !cart.remove(productId)) {
+            return false;
+        }
+        cart.touch(clock.millis());
+        return true;
+    }
+    
+    /**
+     * Remove the guest's cart and return its lines, for merging into a user's cart.
+     */
+    public List<Line> take(long guestId) {
+        GuestCart cart = carts.remove(guestId);
+        return cart == null || isExpired(cart, clock.millis()) ? List.of() : cart.lines();
+    }
+    
+    /**
+     * Drop carts idle longer than the TTL. Returns the number evicted.
+     */
+    @Scheduled(fixedDelayString = "${cart.guest.sweep-interval-ms:60000}", initialDelayString = "${cart.guest.sweep-interval-ms:60000}")
+    public int evictExpired() {
+        long now = clock.millis();
+        int evicted = 0;
+        for (var entry : carts.entrySet()) {
+            if (isExpired(entry.getValue(), now) && carts.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} expired guest carts", evicted);
+        }
+        return evicted;
+    }
+    
+    public int getCartCount() {
+        return carts.size();
+    }
+    
+    /**
+     * Estimated heap currently held by guest carts.
+     */
+    public long getFootprintBytes() {
+        return carts.values().stream().mapToLong(GuestCart::footprintBytes).sum();
+    }
+    
+    /**
+     * Estimated heap when every cart slot is taken by a cart at the line limit.
+     */
+    public long getMaxFootprintBytes() {
+        return maxCarts * GuestCart.footprintBytes(maxLines);
+    }
+    
+    private GuestCart liveCart(long guestId) {
+        GuestCart cart = carts.get(guestId);
+        return cart == null || isExpired(cart, clock.millis()) ? null : cart;
+    }
+    
+    private boolean isExpired(GuestCart cart, long now) {
+        return now - cart.lastAccess() > ttl.toMillis();
+    }
+    
+    /**
+     * One product in a guest cart.
+     */
+    public record Line(long productId, int quantity) {}
+} 
\ No newline at end of file
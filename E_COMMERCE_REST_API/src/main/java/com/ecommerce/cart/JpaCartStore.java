@@ -0,0 +1,106 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CartItemRepository;
+import org.hibernate.Hibernate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Default store: the {@code cart_items} table in the main database.
+ */
+public class JpaCartStore implements CartStore {
+    
+    private final CartItemRepository cartItemRepository;
+    
+    public JpaCartStore(CartItemRepository cartItemRepository) {
+        this.cartItemRepository = cartItemRepository;
+    }
+    
+    @Override
+    public List<CartItem> findByUser(User user) {
+        return cartItemRepository.findByUser(user);
+    }
+    
+    @Override
+    public Optional<CartItem> findByUserAndProductId(User user, Long productId) {
+        return cartItemRepository.findByUserAndProductId(user, productId);
+    }
+    
+    @Override
+    public Optional<CartItem> findByUserIdAndCartItemId(Long userId, Long cartItemId) {
+        return cartItemRepository.findByUserIdAndCartItemId(userId, cartItemId);
+    }
+    
+    /**
+     * Saving a detached item merges it into a copy whose product is an unloaded reference;
+     * the copy gets the caller's already loaded product so it can be rendered after the save.
+     */
+    @Override
+    public CartItem save(CartItem cartItem) {
+        CartItem saved = cartItemRepository.save(cartItem);
+        if (!Hibernate.isInitialized(saved.getProduct())) {
+            saved.setProduct(cartItem.getProduct());
+        }
+        return saved;
+    }
+    
+    @Override
+    public void delete(CartItem cartItem) {
+        cartItemRepository.delete(cartItem);
+    }
+    
+    @Override
+    public void deleteByUser(User user) {
+        cartItemRepository.deleteAllByUserId(user.getId());
+    }
+    
+    /**
+     * Deletes with one statement; inserts and updates go out as JDBC batches when the
+     * surrounding transaction flushes.
+     */
+    @Override
+    public List<CartItem> applyChanges(List<CartItem> saved, List<CartItem> removed) {
+        if (!removed.isEmpty()) {
+            cartItemRepository.deleteAllInBatch(removed);
+        }
+        return cartItemRepository.saveAll(saved);
+    }
+    
+    @Override
+    public int deleteByProductId(Long productId) {
+        return cartItemRepository.deleteAllByProductId(productId);
+    }
+    
+    @Override
+    public void deleteAll() {
+        cartItemRepository.deleteAllInBatch();
+    }
+    
+    @Override
+    public Set<Long> findUsersToReprice(Long productId, BigDecimal unitPrice) {
+        return new HashSet<>(cartItemRepository.findUserIdsToReprice(productId, unitPrice));
+    }
+    
+    @Override
+    public int repriceBatch(Long productId, BigDecimal unitPrice, int limit) {
+        return cartItemRepository.repriceBatch(productId, unitPrice, limit);
+    }
+    
+    @Override
+    public int deleteIdleBefore(LocalDateTime cutoff, int limit) {
+        return cartItemRepository.deleteIdleBefore(cutoff, limit);
+    }
+    
+    @Override
+    public void scanCarts(int parallelism, Consumer<long[]> consumer) {
+        CartScans.scanRepository(cartItemRepository, parallelism, consumer);
+    }
+} 
\ No newline at end of file
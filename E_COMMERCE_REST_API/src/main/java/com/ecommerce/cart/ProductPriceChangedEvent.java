@@ -0,0 +1,9 @@
+package com.ecommerce.cart;
+
+import java.math.BigDecimal;
+
+/**
+ * Raised when a product's price changes, so the carts holding it can be repriced once the change commits.
+ */
+public record ProductPriceChangedEvent(Long productId, BigDecimal price) {
+} 
\ No newline at end of file
@@ -0,0 +1,367 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cart store partitioned by user across several databases. Each user's cart lives on one shard,
+ * chosen by {@link CartShardDirectory}, so all cart writes for different users spread over
+ * independent tables and connection pools.
+ *
+ * Products and users stay in the main database; cart items reference them by id only and are
+ * hydrated with a single batched product lookup per cart.
+ */
+public class ShardedCartStore implements CartStore, AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(ShardedCartStore.class);
+    
+    private static final int LOCK_STRIPES = 256;
+    
+    private final List<CartShard> shards;
+    private final CartShardDirectory directory;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final Duration moveGrace;
+    private final ReadWriteLock[] userLocks = new ReadWriteLock[LOCK_STRIPES];
+    
+    public ShardedCartStore(List<DataSource> shardDataSources, CartShardDirectory directory,
+                            ProductRepository productRepository, UserRepository userRepository, Duration moveGrace) {
+        if (shardDataSources.isEmpty() || shardDataSources.size() > CartShard.MAX_SHARDS) {
+            throw new IllegalArgumentException("Cart sharding needs between 1 and " + CartShard.MAX_SHARDS + " shards");
+        }
+        this.shards = new ArrayList<>(shardDataSources.size());
+        for (int i = 0; i < shardDataSources.size(); i++) {
+            CartShard shard = new CartShard(i, shardDataSources.get(i));
+            shard.createSchema();
+            shards.add(shard);
+        }
+        this.directory = directory;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.moveGrace = moveGrace;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            userLocks[i] = new ReentrantReadWriteLock();
+        }
+    }
+    
+    @Override
+    public List<CartItem> findByUser(User user) {
+        List<CartRow> rows = withUser(user.getId(), shard -> shard.findByUser(user.getId()));
+        Map<Long, Product> products = productRepository.findAllById(rows.stream().map(CartRow::productId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return rows.stream()
+                .filter(row -> products.containsKey(row.productId()))
+                .map(row -> toCartItem(row, user, products.get(row.productId())))
+                .toList();
+    }
+    
+    @Override
+    public Optional<CartItem> findByUserAndProductId(User user, Long productId) {
+        return withUser(user.getId(), shard -> shard.findByUserAndProduct(user.getId(), productId))
+                .flatMap(row -> productRepository.findById(productId).map(product -> toCartItem(row, user, product)));
+    }
+    
+    @Override
+    public Optional<CartItem> findByUserIdAndCartItemId(Long userId, Long cartItemId) {
+        return withUser(userId, shard -> shard.findByUserAndId(userId, cartItemId))
+                .flatMap(row -> productRepository.findById(row.productId())
+                        .map(product -> toCartItem(row, userRepository.getReferenceById(userId), product)));
+    }
+    
+    @Override
+    public CartItem save(CartItem cartItem) {
+        Long userId = cartItem.getUser().getId();
+        withUser(userId, shard -> {
+            if (cartItem.getId() == null) {
+                CartRow row = shard.insert(userId, cartItem.getProduct().getId(), cartItem.getQuantity(), cartItem.getUnitPrice(),
+                        cartItem.getCreatedAt());
+                cartItem.setId(row.id());
+            } else {
+                shard.updateQuantity(userId, cartItem.getId(), cartItem.getQuantity(), cartItem.getUpdatedAt());
+            }
+            return null;
+        });
+        return cartItem;
+    }
+    
+    @Override
+    public void delete(CartItem cartItem) {
+        Long userId = cartItem.getUser().getId();
+        withUser(userId, shard -> shard.delete(userId, cartItem.getId()));
+    }
+    
+    /**
+     * The shards are outside the caller's transaction, so within one the cart is deleted only after
+     * it commits: a checkout whose order fails to commit keeps its cart. A delete that then fails
+     * leaves the cart in place rather than failing a transaction that already committed.
+     */
+    @Override
+    public void deleteByUser(User user) {
+        Long userId = user.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            withUser(userId, shard -> shard.deleteByUser(userId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    withUser(userId, shard -> shard.deleteByUser(userId));
+                } catch (RuntimeException e) {
+                    log.error("Could not delete the cart of user {} after commit", userId, e);
+                }
+            }
+        });
+    }
+    
+    @Override
+    public List<CartItem> applyChanges(List<CartItem> saved, List<CartItem> removed) {
+        if (saved.isEmpty() && removed.isEmpty()) {
+            return saved;
+        }
+        Long userId = (saved.isEmpty() ? removed : saved).get(0).getUser().getId();
+        withUser(userId, shard -> {
+            List<CartRow> inserted = new ArrayList<>();
+            List<CartRow> updated = new ArrayList<>();
+            for (CartItem cartItem : saved) {
+                if (cartItem.getId() == null) {
+                    CartRow row = shard.newRow(userId, cartItem.getProduct().getId(), cartItem.getQuantity(), cartItem.getUnitPrice(),
+                            cartItem.getCreatedAt());
+                    cartItem.setId(row.id());
+                    inserted.add(row);
+                } else {
+                    updated.add(new CartRow(cartItem.getId(), userId, cartItem.getProduct().getId(), cartItem.getQuantity(),
+                            cartItem.getUnitPrice(), cartItem.getCreatedAt(), cartItem.getUpdatedAt()));
+                }
+            }
+            shard.applyBatch(userId, removed.stream().map(CartItem::getId).toList(), updated, inserted);
+            return null;
+        });
+        return saved;
+    }
+    
+    @Override
+    public int deleteByProductId(Long productId) {
+        int deleted = 0;
+        for (CartShard shard : shards) {
+            deleted += shard.deleteByProduct(productId);
+        }
+        return deleted;
+    }
+    
+    @Override
+    public void deleteAll() {
+        shards.forEach(CartShard::deleteAll);
+    }
+    
+    @Override
+    public Set<Long> findUsersToReprice(Long productId, BigDecimal unitPrice) {
+        Set<Long> users = new HashSet<>();
+        for (CartShard shard : shards) {
+            users.addAll(shard.findUsersToReprice(productId, unitPrice));
+        }
+        return users;
+    }
+    
+    @Override
+    public int repriceBatch(Long productId, BigDecimal unitPrice, int limit) {
+        int repriced = 0;
+        for (CartShard shard : shards) {
+            if (repriced >= limit) {
+                break;
+            }
+            repriced += shard.repriceBatch(productId, unitPrice, limit - repriced);
+        }
+        return repriced;
+    }
+    
+    /**
+     * Sweeps the shards in order until {@code limit} rows are deleted. Stale copies left behind by
+     * an interrupted move are never touched again, so they age out here too.
+     */
+    @Override
+    public int deleteIdleBefore(LocalDateTime cutoff, int limit) {
+        int deleted = 0;
+        for (CartShard shard : shards) {
+            if (deleted >= limit) {
+                break;
+            }
+            deleted += shard.deleteIdleBefore(cutoff, limit - deleted);
+        }
+        return deleted;
+    }
+    
+    /**
+     * Scans the shards in parallel. Stale copies left behind by an interrupted move are skipped.
+     */
+    @Override
+    public void scanCarts(int parallelism, Consumer<long[]> consumer) {
+        CartScans.inParallel(shards.size(), parallelism, index -> {
+            CartScans.Grouper grouper = new CartScans.Grouper(consumer);
+            shards.get(index).scanLines(new CartScans.LineConsumer() {
+                
+                private long userId = -1;
+                private boolean owned;
+                
+                @Override
+                public void accept(long userId, long productId) {
+                    if (userId != this.userId) {
+                        this.userId = userId;
+                        owned = directory.shardFor(userId) == index;
+                    }
+                    if (owned) {
+                        grouper.accept(userId, productId);
+                    }
+                }
+            });
+            grouper.finish();
+        });
+    }
+    
+    /**
+     * Move a user's cart to {@code targetShard}. Returns the number of items moved.
+     *
+     * Cart operations for the user on this node wait while the rows are copied and while the
+     * carry-over runs, but not during the grace period. The steps are ordered so a crash at any
+     * point leaves exactly one authoritative copy: (1) replace the target's copy with the source
+     * rows, (2) switch the directory entry, (3) after a grace period for other nodes to see the new
+     * route, carry over what they added, changed or removed on the source meanwhile and delete the
+     * source copy. A crash before (2) leaves the source in charge and the move can simply be rerun;
+     * a crash after it leaves a stale source copy that is never read.
+     */
+    public int moveUser(Long userId, int targetShard) {
+        if (targetShard < 0 || targetShard >= shards.size()) {
+            throw new IllegalArgumentException("No cart shard " + targetShard);
+        }
+        CartShard target = shards.get(targetShard);
+        CartShard source;
+        List<CartRow> rows;
+        Lock lock = lockFor(userId).writeLock();
+        lock.lock();
+        try {
+            source = shards.get(directory.shardFor(userId));
+            if (source == target) {
+                return 0;
+            }
+            rows = source.findByUser(userId);
+            target.replaceUserRows(userId, rows);
+            directory.assign(userId, targetShard);
+        } finally {
+            lock.unlock();
+        }
+        
+        // This node already routes the user to the target; only other nodes may still write to the source
+        sleep(moveGrace);
+        
+        lock.lock();
+        try {
+            List<CartRow> remaining = source.findByUser(userId);
+            List<CartRow> changed = remaining.stream().filter(row -> !rows.contains(row)).toList();
+            Set<Long> remainingIds = remaining.stream().map(CartRow::id).collect(Collectors.toSet());
+            Set<Long> removedIds = rows.stream().map(CartRow::id).filter(id -> !remainingIds.contains(id)).collect(Collectors.toSet());
+            if (!changed.isEmpty() || !removedIds.isEmpty()) {
+                log.info("Carrying over {} changed and {} removed cart items from the move of user {}",
+                        changed.size(), removedIds.size(), userId);
+                List<CartRow> merged = new ArrayList<>(target.findByUser(userId));
+                merged.removeIf(row -> removedIds.contains(row.id())
+                        || changed.stream().anyMatch(c -> c.id() == row.id() || c.productId() == row.productId()));
+                merged.addAll(changed);
+                target.replaceUserRows(userId, merged);
+            }
+            source.deleteRows(remaining);
+            
+            log.info("Moved cart of user {} from shard {} to shard {} ({} items)", userId, source.getIndex(), targetShard, remaining.size());
+            return remaining.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getShardCount() {
+        return shards.size();
+    }
+    
+    public int shardFor(Long userId) {
+        return directory.shardFor(userId);
+    }
+    
+    public long countItems(int shard) {
+        return shards.get(shard).countItems();
+    }
+    
+    public long countUsers(int shard) {
+        return shards.get(shard).countUsers();
+    }
+    
+    @Override
+    public void close() throws Exception {
+        for (CartShard shard : shards) {
+            if (shard.getDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+    
+    private <T> T withUser(Long userId, Function<CartShard, T> operation) {
+        Lock lock = lockFor(userId).readLock();
+        lock.lock();
+        try {
+            return operation.apply(shards.get(directory.shardFor(userId)));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private ReadWriteLock lockFor(Long userId) {
+        return userLocks[Math.floorMod(Long.hashCode(userId), LOCK_STRIPES)];
+    }
+    
+    private static CartItem toCartItem(CartRow row, User user, Product product) {
+        // Setters rather than the constructor, which would read the price through a product reference
+        CartItem cartItem = new CartItem();
+        cartItem.setUser(user);
+        cartItem.setProduct(product);
+        cartItem.setQuantity(row.quantity());
+        cartItem.setId(row.id());
+        cartItem.setUnitPrice(row.unitPrice());
+        cartItem.setCreatedAt(row.createdAt());
+        cartItem.setUpdatedAt(row.updatedAt());
+        return cartItem;
+    }
+    
+    private static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+} 
\ No newline at end of file
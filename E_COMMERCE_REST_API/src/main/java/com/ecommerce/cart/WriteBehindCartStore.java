@@ -0,0 +1,630 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.cache.CacheInvalidationBus;
+import com.ecommerce.cache.CacheRegion;
+import com.ecommerce.cache.LocalCache;
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Cart store that keeps each active user's cart in memory and writes changes to the main
+ * database behind the request ({@code cart.store=memory}).
+ *
+ * Operations on one cart are serialized by a striped per-user lock, so different users never
+ * wait on each other. Changes accumulate per cart and are written every {@code flush-interval}
+ * in one transaction of batched deletes, updates and inserts; several updates to the same item
+ * between flushes cost a single row write. A crash loses at most the changes made since the last
+ * flush. Carts untouched for {@code idle-timeout} are dropped from memory once written.
+ *
+ * New items take their ids from the entity's own pooled sequence, so ids are known immediately
+ * and never collide with rows Hibernate inserts. The in-memory copy is authoritative: every
+ * request for a user must reach the same node, so run one node or route users stickily.
+ */
+public class WriteBehindCartStore implements CartStore, AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindCartStore.class);
+    
+    private static final int LOCK_STRIPES = 256;
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+    private static final String INSERT = "INSERT INTO cart_items (id, user_id, product_id, quantity, unit_price, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    private final CartItemRepository cartItemRepository;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTransaction;
+    private final SessionFactoryImplementor sessionFactory;
+    private final IdentifierGenerator idGenerator;
+    private final LocalCache<Long, Product> products;
+    private final long idleTimeoutNanos;
+    private final ConcurrentHashMap<Long, CachedCart> carts = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+    private final Lock[] userLocks = new Lock[LOCK_STRIPES];
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    
+    public WriteBehindCartStore(CartItemRepository cartItemRepository, UserRepository userRepository,
+                                ProductRepository productRepository, DataSource dataSource,
+                                PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+                                CacheInvalidationBus cacheInvalidationBus, Duration flushInterval, Duration idleTimeout,
+                                int productCacheSize) {
+        this.cartItemRepository = cartItemRepository;
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Flushes commit on their own, even when triggered from inside a caller's transaction
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.idGenerator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(CartItem.class)
+                .getGenerator();
+        this.products = new LocalCache<>("cart-products", Long::valueOf, productCacheSize);
+        cacheInvalidationBus.register(CacheRegion.PRODUCT, products);
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            userLocks[i] = new ReentrantLock();
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, flushInterval.toMillis());
+        flusher.scheduleWithFixedDelay(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public List<CartItem> findByUser(User user) {
+        return withCart(user.getId(), user, cart -> cart.items.values().stream()
+                .map(entry -> toCartItem(cart, entry))
+                .flatMap(Optional::stream)
+                .toList());
+    }
+    
+    @Override
+    public Optional<CartItem> findByUserAndProductId(User user, Long productId) {
+        return withCart(user.getId(), user, cart -> cart.items.values().stream()
+                .filter(entry -> entry.productId == productId)
+                .findFirst()
+                .flatMap(entry -> toCartItem(cart, entry)));
+    }
+    
+    @Override
+    public Optional<CartItem> findByUserIdAndCartItemId(Long userId, Long cartItemId) {
+        return withCart(userId, null, cart -> Optional.ofNullable(cart.items.get(cartItemId))
+                .flatMap(entry -> toCartItem(cart, entry)));
+    }
+    
+    @Override
+    public CartItem save(CartItem cartItem) {
+        Long userId = cartItem.getUser().getId();
+        withCart(userId, cartItem.getUser(), cart -> put(cart, cartItem));
+        dirtyUsers.add(userId);
+        return cartItem;
+    }
+    
+    @Override
+    public void delete(CartItem cartItem) {
+        Long userId = cartItem.getUser().getId();
+        withCart(userId, cartItem.getUser(), cart -> remove(cart, cartItem.getId()));
+        dirtyUsers.add(userId);
+    }
+    
+    /**
+     * Deletes the rows right away, in the caller's transaction, and drops the cart with any
+     * unwritten changes. The cart is dropped again when that transaction completes, in case a
+     * concurrent request reloaded the rows it had not yet committed the deletion of.
+     */
+    @Override
+    public void deleteByUser(User user) {
+        Long userId = user.getId();
+        flushLock.lock();
+        try {
+            Lock lock = lockFor(userId);
+            lock.lock();
+            try {
+                carts.remove(userId);
+                cartItemRepository.deleteAllByUserId(userId);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        afterCompletion(() -> evict(userId));
+    }
+    
+    @Override
+    public List<CartItem> applyChanges(List<CartItem> saved, List<CartItem> removed) {
+        if (saved.isEmpty() && removed.isEmpty()) {
+            return saved;
+        }
+        User user = (saved.isEmpty() ? removed : saved).get(0).getUser();
+        withCart(user.getId(), user, cart -> {
+            removed.forEach(cartItem -> remove(cart, cartItem.getId()));
+            saved.forEach(cartItem -> put(cart, cartItem));
+            return null;
+        });
+        dirtyUsers.add(user.getId());
+        return saved;
+    }
+    
+    @Override
+    public int deleteByProductId(Long productId) {
+        flush();
+        int deleted = cartItemRepository.deleteAllByProductId(productId);
+        Runnable dropProduct = () -> removeFromCarts(entry -> entry.productId == productId);
+        dropProduct.run();
+        afterCompletion(dropProduct);
+        return deleted;
+    }
+    
+    @Override
+    public void deleteAll() {
+        flush();
+        cartItemRepository.deleteAllInBatch();
+        Runnable dropAll = () -> forEachCart((userId, cart) -> carts.remove(userId));
+        dropAll.run();
+        afterCompletion(dropAll);
+    }
+    
+    @Override
+    public Set<Long> findUsersToReprice(Long productId, BigDecimal unitPrice) {
+        flush();
+        return new HashSet<>(cartItemRepository.findUserIdsToReprice(productId, unitPrice));
+    }
+    
+    /**
+     * Reprices written rows in the database and every cached line of the product, which also
+     * covers lines not written yet.
+     */
+    @Override
+    public int repriceBatch(Long productId, BigDecimal unitPrice, int limit) {
+        int repriced = cartItemRepository.repriceBatch(productId, unitPrice, limit);
+        forEachCart((userId, cart) -> cart.items.values().stream()
+                .filter(entry -> entry.productId == productId)
+                .forEach(entry -> entry.unitPrice = unitPrice));
+        return repriced;
+    }
+    
+    /**
+     * Cached carts are active ones, but an item in them can still be older than {@code cutoff};
+     * those are dropped from memory as well so the two copies agree. The batch's ids are selected
+     * first, so only the items this call deleted leave memory, not every idle one.
+     */
+    @Override
+    public int deleteIdleBefore(LocalDateTime cutoff, int limit) {
+        flush();
+        List<Long> ids = cartItemRepository.findIdleIdsBefore(cutoff, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int deleted = cartItemRepository.deleteIdleByIds(ids, cutoff);
+        Set<Long> batch = new HashSet<>(ids);
+        removeFromCarts(entry -> entry.persisted && batch.contains(entry.id)
+                && entry.updatedAt != null && entry.updatedAt.isBefore(cutoff));
+        return deleted;
+    }
+    
+    /**
+     * Writes pending changes first, so the scan of the table sees the carts held in memory.
+     */
+    @Override
+    public void scanCarts(int parallelism, Consumer<long[]> consumer) {
+        flush();
+        CartScans.scanRepository(cartItemRepository, parallelism, consumer);
+    }
+    
+    /**
+     * Write every pending change now. Changes that fail are kept and retried on the next flush.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<PendingWrite> batch = new ArrayList<>();
+            for (Long userId : dirtyUsers) {
+                dirtyUsers.remove(userId);
+                PendingWrite pending = takePending(userId);
+                if (pending != null) {
+                    batch.add(pending);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                flushTransaction.executeWithoutResult(status -> write(batch));
+                batch.forEach(this::written);
+            } catch (RuntimeException e) {
+                // Retry user by user so one bad cart can't hold back everyone else's writes
+                log.warn("Cart write-behind flush of {} carts failed, retrying per cart: {}", batch.size(), e.getMessage());
+                for (PendingWrite pending : batch) {
+                    try {
+                        flushTransaction.executeWithoutResult(status -> write(List.of(pending)));
+                        written(pending);
+                    } catch (RuntimeException userFailure) {
+                        failedFlushes.incrementAndGet();
+                        restore(pending, userFailure);
+                    }
+                }
+            }
+            flushes.incrementAndGet();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    /**
+     * Drop written carts that have not been touched for {@code idle-timeout}.
+     */
+    void evictIdle() {
+        long now = System.nanoTime();
+        forEachCart((userId, cart) -> {
+            if (now - cart.lastAccess >= idleTimeoutNanos && cart.isClean() && !dirtyUsers.contains(userId)) {
+                carts.remove(userId);
+            }
+        });
+    }
+    
+    public int getCachedCartCount() {
+        return carts.size();
+    }
+    
+    public int getPendingCartCount() {
+        return dirtyUsers.size();
+    }
+    
+    public long getFlushCount() {
+        return flushes.get();
+    }
+    
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+    
+    public long getFailedFlushCount() {
+        return failedFlushes.get();
+    }
+    
+    /**
+     * Stop the background flusher and write whatever is still pending.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+    
+    private void tick() {
+        try {
+            flush();
+            evictIdle();
+        } catch (RuntimeException e) {
+            log.warn("Cart write-behind pass failed: {}", e.getMessage());
+        }
+    }
+    
+    private <T> T withCart(Long userId, User user, Function<CachedCart, T> operation) {
+        Lock lock = lockFor(userId);
+        lock.lock();
+        try {
+            CachedCart cart = carts.get(userId);
+            if (cart == null) {
+                cart = load(userId, user);
+                carts.put(userId, cart);
+            }
+            cart.lastAccess = System.nanoTime();
+            return operation.apply(cart);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private CachedCart load(Long userId, User user) {
+        CachedCart cart = new CachedCart(user != null ? user : userRepository.getReferenceById(userId));
+        for (CartItem cartItem : cartItemRepository.findByUserId(userId)) {
+            Product product = cartItem.getProduct();
+            products.get(product.getId(), id -> Optional.of(product));
+            Entry entry = new Entry(cartItem.getId(), product.getId(), cartItem.getCreatedAt());
+            entry.quantity = cartItem.getQuantity();
+            entry.unitPrice = cartItem.getUnitPrice();
+            entry.updatedAt = cartItem.getUpdatedAt();
+            entry.persisted = true;
+            cart.items.put(entry.id, entry);
+        }
+        return cart;
+    }
+    
+    private Void put(CachedCart cart, CartItem cartItem) {
+        Entry entry = cartItem.getId() == null ? null : cart.items.get(cartItem.getId());
+        if (entry == null) {
+            // New, or removed meanwhile: either way it becomes a fresh row
+            entry = new Entry(nextId(), cartItem.getProduct().getId(), cartItem.getCreatedAt());
+            entry.unitPrice = cartItem.getUnitPrice();
+            cartItem.setId(entry.id);
+            cart.items.put(entry.id, entry);
+        }
+        entry.quantity = cartItem.getQuantity();
+        entry.updatedAt = cartItem.getUpdatedAt();
+        cart.dirty.add(entry.id);
+        if (Hibernate.isInitialized(cartItem.getProduct())) {
+            products.get(entry.productId, id -> Optional.of(cartItem.getProduct()));
+        }
+        return null;
+    }
+    
+    private Void remove(CachedCart cart, Long cartItemId) {
+        Entry entry = cartItemId == null ? null : cart.items.remove(cartItemId);
+        if (entry != null) {
+            cart.dirty.remove(entry.id);
+            if (entry.persisted) {
+                cart.deleted.add(entry.id);
+            }
+        }
+        return null;
+    }
+    
+    private Optional<CartItem> toCartItem(CachedCart cart, Entry entry) {
+        return products.get(entry.productId, productRepository::findById).map(product -> {
+            CartItem cartItem = new CartItem(cart.user, product, entry.quantity);
+            cartItem.setId(entry.id);
+            cartItem.setUnitPrice(entry.unitPrice);
+            cartItem.setCreatedAt(entry.createdAt);
+            cartItem.setUpdatedAt(entry.updatedAt);
+            return cartItem;
+        });
+    }
+    
+    private long nextId() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return ((Number) idGenerator.generate((SharedSessionContractImplementor) session, null)).longValue();
+        }
+    }
+    
+    /**
+     * Take a user's unwritten changes, marking new rows as persisted so later updates to them
+     * become updates rather than second inserts.
+     */
+    private PendingWrite takePending(Long userId) {
+        Lock lock = lockFor(userId);
+        lock.lock();
+        try {
+            CachedCart cart = carts.get(userId);
+            if (cart == null || cart.isClean()) {
+                return null;
+            }
+            List<Row> rows = new ArrayList<>(cart.dirty.size());
+            for (Long id : cart.dirty) {
+                Entry entry = cart.items.get(id);
+                rows.add(new Row(entry.id, userId, entry.productId, entry.quantity, entry.unitPrice, entry.createdAt, entry.updatedAt,
+                        !entry.persisted));
+                entry.persisted = true;
+            }
+            PendingWrite pending = new PendingWrite(userId, rows, new ArrayList<>(cart.deleted));
+            cart.dirty.clear();
+            cart.deleted.clear();
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void write(List<PendingWrite> batch) {
+        List<Object[]> deletes = new ArrayList<>();
+        List<Row> updates = new ArrayList<>();
+        List<Row> inserts = new ArrayList<>();
+        for (PendingWrite pending : batch) {
+            pending.deletedIds().forEach(id -> deletes.add(new Object[]{id}));
+            pending.rows().forEach(row -> (row.insert() ? inserts : updates).add(row));
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE id = ?", deletes);
+        }
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate("UPDATE cart_items SET quantity = ?, updated_at = ? WHERE id = ?",
+                    updates.stream().map(row -> new Object[]{row.quantity(), row.updatedAt(), row.id()}).toList());
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    // Row went away underneath the cached cart (e.g. swept): write it back
+                    inserts.add(updates.get(i));
+                }
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, inserts.stream()
+                    .map(row -> new Object[]{row.id(), row.userId(), row.productId(), row.quantity(), row.unitPrice(), row.createdAt(), row.updatedAt()})
+                    .toList());
+        }
+    }
+    
+    private void written(PendingWrite pending) {
+        rowsWritten.addAndGet(pending.rows().size() + pending.deletedIds().size());
+        Lock lock = lockFor(pending.userId());
+        lock.lock();
+        try {
+            CachedCart cart = carts.get(pending.userId());
+            if (cart != null) {
+                cart.failedFlushes = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Put a failed write back so the next flush retries it. A cart that keeps failing is dropped
+     * and reloaded from the database, losing its unwritten changes, rather than retried forever.
+     */
+    private void restore(PendingWrite pending, RuntimeException failure) {
+        Long userId = pending.userId();
+        Lock lock = lockFor(userId);
+        lock.lock();
+        try {
+            CachedCart cart = carts.get(userId);
+            if (cart == null) {
+                return;
+            }
+            if (++cart.failedFlushes >= MAX_FLUSH_ATTEMPTS) {
+                log.error("Dropping {} unwritten cart changes of user {} after {} failed flushes",
+                        pending.rows().size() + pending.deletedIds().size(), userId, cart.failedFlushes, failure);
+                carts.remove(userId);
+                return;
+            }
+            for (Row row : pending.rows()) {
+                Entry entry = cart.items.get(row.id());
+                if (entry != null) {
+                    entry.persisted &= !row.insert();
+                    cart.dirty.add(row.id());
+                }
+            }
+            cart.deleted.addAll(pending.deletedIds());
+            dirtyUsers.add(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void evict(Long userId) {
+        Lock lock = lockFor(userId);
+        lock.lock();
+        try {
+            carts.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Forget cached items whose rows were deleted in the database.
+     */
+    private void removeFromCarts(Predicate<Entry> deleted) {
+        forEachCart((userId, cart) -> {
+            if (cart.items.values().removeIf(deleted)) {
+                cart.dirty.retainAll(cart.items.keySet());
+            }
+        });
+    }
+    
+    private void forEachCart(BiConsumer<Long, CachedCart> action) {
+        for (Long userId : carts.keySet()) {
+            Lock lock = lockFor(userId);
+            lock.lock();
+            try {
+                CachedCart cart = carts.get(userId);
+                if (cart != null) {
+                    action.accept(userId, cart);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+    
+    private static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+    
+    private Lock lockFor(Long userId) {
+        return userLocks[Math.floorMod(Long.hashCode(userId), LOCK_STRIPES)];
+    }
+    
+    /**
+     * One user's cart as this node knows it, plus what has not been written yet.
+     */
+    private static final class CachedCart {
+        
+        private final User user;
+        private final Map<Long, Entry> items = new LinkedHashMap<>();
+        private final Set<Long> dirty = new LinkedHashSet<>();
+        private final Set<Long> deleted = new HashSet<>();
+        private long lastAccess;
+        private int failedFlushes;
+        
+        private CachedCart(User user) {
+            this.user = user;
+        }
+        
+        private boolean isClean() {
+            return dirty.isEmpty() && deleted.isEmpty();
+        }
+    }
+    
+    private static final class Entry {
+        
+        private final long id;
+        private final long productId;
+        private final LocalDateTime createdAt;
+        private int quantity;
+        private BigDecimal unitPrice;
+        private LocalDateTime updatedAt;
+        private boolean persisted;
+        
+        private Entry(long id, long productId, LocalDateTime createdAt) {
+            this.id = id;
+            this.productId = productId;
+            this.createdAt = createdAt;
+        }
+    }
+    
+    private record Row(long id, long userId, long productId, int quantity, BigDecimal unitPrice, LocalDateTime createdAt,
+                       LocalDateTime updatedAt, boolean insert) {
+    }
+    
+    private record PendingWrite(Long userId, List<Row> rows, List<Long> deletedIds) {
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.ecommerce.config;
+
+import com.ecommerce.cache.CacheInvalidationBus;
+import com.ecommerce.cache.LoopbackCacheInvalidationBus;
+import com.ecommerce.cache.PostgresCacheInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Selects the cache invalidation transport with {@code cache.invalidation.transport}:
+ * {@code loopback} (single node, the default) or {@code postgres} (LISTEN/NOTIFY across nodes).
+ */
+@Configuration
+public class CacheConfig {
+    
+    @Bean
+    @ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "postgres")
+    public CacheInvalidationBus postgresCacheInvalidationBus(
+            DataSource dataSource,
+            DataSourceProperties dataSourceProperties,
+            @Value("${cache.invalidation.heartbeat-interval:5s}") Duration heartbeatInterval) {
+        return new PostgresCacheInvalidationBus(dataSource, dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(), heartbeatInterval);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "loopback", matchIfMissing = true)
+    public CacheInvalidationBus loopbackCacheInvalidationBus() {
+        return new LoopbackCacheInvalidationBus();
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.ecommerce.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for {@code cart.store=sharded}. Either list the shard databases explicitly or set
+ * {@code embedded-shards} to run that many in-memory H2 shards for local testing.
+ */
+@ConfigurationProperties(prefix = "cart.sharding")
+public class CartShardingProperties {
+    
+    private List<Shard> shards = new ArrayList<>();
+    private int embeddedShards = 4;
+    private String embeddedName = "cart_shard";
+    private int poolSize = 10;
+    private int directoryCacheSize = 100_000;
+    private Duration moveGrace = Duration.ofMillis(200);
+    
+    public static class Shard {
+        
+        private String url;
+        private String username;
+        private String password;
+        
+        public String getUrl() {
+            return url;
+        }
+        
+        public void setUrl(String url) {
+            this.url = url;
+        }
+        
+        public String getUsername() {
+            return username;
+        }
+        
+        public void setUsername(String username) {
+            this.username = username;
+        }
+        
+        public String getPassword() {
+            return password;
+        }
+        
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+    
+    // Getters and Setters
+    public List<Shard> getShards() {
+        return shards;
+    }
+    
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+    
+    public int getEmbeddedShards() {
+        return embeddedShards;
+    }
+    
+    public void setEmbeddedShards(int embeddedShards) {
+        this.embeddedShards = embeddedShards;
+    }
+    
+    public String getEmbeddedName() {
+        return embeddedName;
+    }
+    
+    public void setEmbeddedName(String embeddedName) {
+        this.embeddedName = embeddedName;
+    }
+    
+    public int getPoolSize() {
+        return poolSize;
+    }
+    
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+    
+    public int getDirectoryCacheSize() {
+        return directoryCacheSize;
+    }
+    
+    public void setDirectoryCacheSize(int directoryCacheSize) {
+        this.directoryCacheSize = directoryCacheSize;
+    }
+    
+    public Duration getMoveGrace() {
+        return moveGrace;
+    }
+    
+    public void setMoveGrace(Duration moveGrace) {
+        this.moveGrace = moveGrace;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.ecommerce.config;
+
+import com.ecommerce.cache.CacheInvalidationBus;
+import com.ecommerce.cart.CartShardDirectory;
+import com.ecommerce.cart.CartStore;
+import com.ecommerce.cart.JpaCartStore;
+import com.ecommerce.cart.ShardedCartStore;
+import com.ecommerce.cart.WriteBehindCartStore;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.CartShardAssignmentRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Selects where cart items live with {@code cart.store}: {@code jpa} (the main database, the
+ * default), {@code sharded} (partitioned by user across the databases in {@code cart.sharding})
+ * or {@code memory} (active carts in memory, written to the main database behind the request).
+ */
+@Configuration
+@EnableConfigurationProperties({CartShardingProperties.class, CartWriteBehindProperties.class})
+public class CartStoreConfig {
+    
+    @Bean
+    @ConditionalOnProperty(name = "cart.store", havingValue = "jpa", matchIfMissing = true)
+    public CartStore jpaCartStore(CartItemRepository cartItemRepository) {
+        return new JpaCartStore(cartItemRepository);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "cart.store", havingValue = "sharded")
+    public ShardedCartStore shardedCartStore(CartShardingProperties properties,
+                                             CartShardAssignmentRepository assignmentRepository,
+                                             ProductRepository productRepository,
+                                             UserRepository userRepository,
+                                             CacheInvalidationBus cacheInvalidationBus,
+                                             ApplicationEventPublisher eventPublisher) {
+        // Shard pools are owned by the store, not exposed as beans, so the main DataSource stays auto-configured
+        List<DataSource> dataSources = createShardDataSources(properties);
+        CartShardDirectory directory = new CartShardDirectory(assignmentRepository, eventPublisher, cacheInvalidationBus,
+                dataSources.size(), properties.getDirectoryCacheSize());
+        return new ShardedCartStore(dataSources, directory, productRepository, userRepository, properties.getMoveGrace());
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "cart.store", havingValue = "memory")
+    public WriteBehindCartStore writeBehindCartStore(CartWriteBehindProperties properties,
+                                                     CartItemRepository cartItemRepository,
+                                                     UserRepository userRepository,
+                                                     ProductRepository productRepository,
+                                                     DataSource dataSource,
+                                                     PlatformTransactionManager transactionManager,
+                                                     EntityManagerFactory entityManagerFactory,
+                                                     CacheInvalidationBus cacheInvalidationBus) {
+        return new WriteBehindCartStore(cartItemRepository, userRepository, productRepository, dataSource,
+                transactionManager, entityManagerFactory, cacheInvalidationBus, properties.getFlushInterval(),
+                properties.getIdleTimeout(), properties.getProductCacheSize());
+    }
+    
+    public static List<DataSource> createShardDataSources(CartShardingProperties properties) {
+        List<CartShardingProperties.Shard> shards = properties.getShards();
+        if (shards.isEmpty()) {
+            shards = new ArrayList<>();
+            for (int i = 0; i < properties.getEmbeddedShards(); i++) {
+                CartShardingProperties.Shard shard = new CartShardingProperties.Shard();
+                shard.setUrl("jdbc:h2:mem:" + properties.getEmbeddedName() + "_" + i + ";DB_CLOSE_DELAY=-1");
+                shard.setUsername("sa");
+                shard.setPassword("");
+                shards.add(shard);
+            }
+        }
+        
+        List<DataSource> dataSources = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("cart-shard-" + i);
+            dataSource.setJdbcUrl(shards.get(i).getUrl());
+            dataSource.setUsername(shards.get(i).getUsername());
+            dataSource.setPassword(shards.get(i).getPassword());
+            dataSource.setMaximumPoolSize(properties.getPoolSize());
+            dataSources.add(dataSource);
+        }
+        return dataSources;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.ecommerce.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@code cart.store=memory}. {@code flush-interval} bounds how much acknowledged
+ * cart activity a crash can lose; carts untouched for {@code idle-timeout} leave memory.
+ */
+@ConfigurationProperties(prefix = "cart.write-behind")
+public class CartWriteBehindProperties {
+    
+    private Duration flushInterval = Duration.ofMillis(200);
+    private Duration idleTimeout = Duration.ofMinutes(5);
+    private int productCacheSize = 10_000;
+    
+    // Getters and Setters
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+    
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+    
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+    
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+    
+    public int getProductCacheSize() {
+        return productCacheSize;
+    }
+    
+    public void setProductCacheSize(int productCacheSize) {
+        this.productCacheSize = productCacheSize;
+    }
+} 
\ No newline at end of file
@@ -1,27 +1,39 @@
 package com.ecommerce.config;
 
-import com.ecommerce.dto.ProductJsonDto;
+import com.ecommerce.cart.CartStore;
+import com.ecommerce.data.SyntheticDataGenerator;
+import com.ecommerce.dto.RegisterRequest;
+import com.ecommerce.entity.CartItem;
 import com.ecommerce.entity.Product;
 import com.ecommerce.entity.User;
+import com.ecommerce.limit.Lane;
+import com.ecommerce.limit.LaneContext;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.repository.UserRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ecommerce.service.ProductDataService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
     
+    private static final int SYNTHETIC_BATCH_SIZE = 500;
+    
     @Autowired
     private ProductRepository productRepository;
     
@@ -31,8 +43,36 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private ProductDataService productDataService;
+    
+    @Autowired
+    private CartStore cartStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${catalog.synthetic.users:0}")
+    private long syntheticUserCount;
+    
+    @Value("${catalog.synthetic.seed:42}")
+    private long syntheticSeed;
+    
+    @Value("${catalog.synthetic.user-password:password123}")
+    private String syntheticUserPassword;
+    
     @Override
     public void run(String... args) throws Exception {
+        // Bulk loading is admin work: keep it on the admin connection pool
+        Lane previous = LaneContext.enter(Lane.ADMIN);
+        try {
+            initialize();
+        } finally {
+            LaneContext.restore(previous);
+        }
+    }
+    
+    private void initialize() {
         // Initialize sample products
         if (productRepository.count() == 0) {
             initializeProducts();
@@ -41,44 +81,21 @@ public class DataInitializer implements CommandLineRunner {
         // Initialize sample users
         if (userRepository.count() == 0) {
             initializeUsers();
+            
+            if (syntheticUserCount > 0) {
+                initializeSyntheticUsersAndCarts();
+            }
         }
     }
     
     private void initializeProducts() {
         try {
-            // Load products from JSON file
-            ObjectMapper mapper = new ObjectMapper();
-            ClassPathResource resource = new ClassPathResource("products.json");
-            InputStream inputStream = resource.getInputStream();
-            
-            List<ProductJsonDto> productDtos = mapper.readValue(inputStream, new TypeReference<List<ProductJsonDto>>() {});
-            
-            for (ProductJsonDto dto : productDtos) {
-                Product product = new Product();
-                product.setName(dto.getName());
-                product.setShortDescription(dto.getShortDescription());
-                product.setFullDescription(dto.getFullDescription());
-                product.setPrice(dto.getPrice());
-                product.setStockQuantity(dto.getStockQuantity());
-                product.setCategory(dto.getCategory());
-                product.setImages(dto.getImages());
-                
-                // Convert technical specifications to JSON string
-                if (dto.getTechnicalSpecifications() != null) {
-                    String techSpecsJson = mapper.writeValueAsString(dto.getTechnicalSpecifications());
-                    product.setTechnicalSpecifications(techSpecsJson);
-                }
-                
-                // Set primary image URL from images list
-                if (dto.getImages() != null && !dto.getImages().isEmpty()) {
-                    product.setImageUrl(dto.getImages().get(0));
-                }
-                
-                productRepository.save(product);
-            }
+            long loaded = productDataService.loadProducts();
             
-            System.out.println("Products loaded from JSON file successfully!");
-            System.out.println("Total products loaded: " + productDtos.size());
+            System.out.println(productDataService.isSyntheticSource()
+                    ? "Synthetic catalog generated successfully!"
+                    : "Products loaded from JSON file successfully!");
+            System.out.println("Total products loaded: " + loaded);
             
         } catch (IOException e) {
             System.err.println("Error loading products from JSON file: " + e.getMessage());
@@ -215,4 +232,59 @@ public class DataInitializer implements CommandLineRunner {
         System.out.println("Admin credentials: admin / admin123");
         System.out.println("User credentials: user / user123");
     }
+    
+    /**
+     * Create generated users together with their cart contents, in chunks so that
+     * neither the user list nor the carts are ever held in memory as a whole.
+     */
+    private void initializeSyntheticUsersAndCarts() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(syntheticSeed);
+        // Every synthetic user shares one password, so hash it once instead of once per user
+        String passwordHash = passwordEncoder.encode(syntheticUserPassword);
+        // Cart lines name products by position; map positions to the ids the catalog actually has
+        long[] productIds = productRepository.findAllIds().stream().mapToLong(Long::longValue).toArray();
+        long productCount = productIds.length;
+        
+        for (long start = 0; start < syntheticUserCount; start += SYNTHETIC_BATCH_SIZE) {
+            long end = Math.min(syntheticUserCount, start + SYNTHETIC_BATCH_SIZE);
+            long chunkStart = start;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<User> users = new ArrayList<>();
+                for (long index = chunkStart; index < end; index++) {
+                    RegisterRequest request = generator.user(index, syntheticUserPassword);
+                    User user = new User(request.getUsername(), request.getEmail(), passwordHash);
+                    user.setRole(User.Role.USER);
+                    users.add(user);
+                }
+                userRepository.saveAll(users);
+                
+                if (productCount > 0) {
+                    List<List<SyntheticDataGenerator.CartLine>> carts = new ArrayList<>();
+                    Set<Long> chunkProductIds = new HashSet<>();
+                    for (int i = 0; i < users.size(); i++) {
+                        List<SyntheticDataGenerator.CartLine> lines = generator.cart(chunkStart + i, productCount);
+                        lines.forEach(line -> chunkProductIds.add(productIds[(int) line.productIndex()]));
+                        carts.add(lines);
+                    }
+                    // One query for the chunk's products; a cart item reads its product's price when created
+                    Map<Long, Product> products = productRepository.findAllById(chunkProductIds).stream()
+                            .collect(Collectors.toMap(Product::getId, Function.identity()));
+                    
+                    // Through the configured cart store, so sharded and write-behind carts see the seed too
+                    for (int i = 0; i < users.size(); i++) {
+                        List<CartItem> cartItems = new ArrayList<>();
+                        for (SyntheticDataGenerator.CartLine line : carts.get(i)) {
+                            Product product = products.get(productIds[(int) line.productIndex()]);
+                            cartItems.add(new CartItem(users.get(i), product, line.quantity()));
+                        }
+                        if (!cartItems.isEmpty()) {
+                            cartStore.applyChanges(cartItems, List.of());
+                        }
+                    }
+                }
+            });
+        }
+        System.out.println("Synthetic users initialized successfully!");
+        System.out.println("Total synthetic users: " + syntheticUserCount + " (password: " + syntheticUserPassword + ")");
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.ecommerce.config;
+
+import com.ecommerce.limit.Lane;
+import com.ecommerce.limit.LaneExecutor;
+import com.ecommerce.limit.LaneRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Bulkheads between lanes: a connection pool per configured lane behind one routing
+ * {@code DataSource}, and a bounded executor for admin work.
+ *
+ * The main pool is built exactly as Boot would build it (same {@code spring.datasource} and
+ * {@code spring.datasource.hikari} settings); lane pools copy its settings and change only the
+ * name and size.
+ */
+@Configuration
+@EnableConfigurationProperties(LaneProperties.class)
+public class LaneConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource mainDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean
+    @Primary
+    public LaneRoutingDataSource dataSource(HikariDataSource mainDataSource, LaneProperties properties) {
+        Map<Lane, HikariDataSource> lanePools = new EnumMap<>(Lane.class);
+        properties.getPools().forEach((lane, size) -> {
+            HikariConfig config = new HikariConfig();
+            mainDataSource.copyStateTo(config);
+            config.setPoolName("lane-" + lane.name().toLowerCase());
+            config.setMaximumPoolSize(size);
+            if (config.getMinimumIdle() > size) {
+                config.setMinimumIdle(size);
+            }
+            lanePools.put(lane, new HikariDataSource(config));
+        });
+        return new LaneRoutingDataSource(mainDataSource, lanePools);
+    }
+    
+    @Bean
+    public LaneExecutor adminLaneExecutor(LaneProperties properties) {
+        LaneProperties.Executor executor = properties.getAdminExecutor();
+        return new LaneExecutor(Lane.ADMIN, executor.getThreads(), executor.getQueueCapacity());
+    }
+} 
\ No newline at end of file
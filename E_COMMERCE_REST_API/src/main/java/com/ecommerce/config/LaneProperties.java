@@ -0,0 +1,58 @@
+package com.ecommerce.config;
+
+import com.ecommerce.limit.Lane;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Bulkhead sizes per {@link Lane}: {@code pools} gives a lane its own connection pool of that many
+ * connections (lanes not listed share the main pool), and {@code admin-executor} bounds the
+ * background threads that run admin work such as catalog reloads.
+ */
+@ConfigurationProperties(prefix = "lanes")
+public class LaneProperties {
+    
+    private Map<Lane, Integer> pools = new EnumMap<>(Lane.class);
+    private Executor adminExecutor = new Executor();
+    
+    public static class Executor {
+        
+        private int threads = 1;
+        private int queueCapacity = 4;
+        
+        public int getThreads() {
+            return threads;
+        }
+        
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+        
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+        
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+    
+    // Getters and Setters
+    public Map<Lane, Integer> getPools() {
+        return pools;
+    }
+    
+    public void setPools(Map<Lane, Integer> pools) {
+        this.pools = pools;
+    }
+    
+    public Executor getAdminExecutor() {
+        return adminExecutor;
+    }
+    
+    public void setAdminExecutor(Executor adminExecutor) {
+        this.adminExecutor = adminExecutor;
+    }
+} 
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.ecommerce.config;
 
+import com.ecommerce.limit.ConcurrencyLimitFilter;
+import com.ecommerce.limit.ConcurrencyLimiters;
 import com.ecommerce.security.JwtAuthenticationFilter;
 import com.ecommerce.security.JwtUtil;
+import com.ecommerce.security.TokenRevocationList;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -29,20 +33,26 @@ import java.util.Arrays;
 public class SecurityConfig {
     
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, UserDetailsService userDetailsService) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, UserDetailsService userDetailsService,
+                                                   TokenRevocationList revocationList, ConcurrencyLimiters concurrencyLimiters,
+                                                   ObjectMapper objectMapper) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**", "/h2-console/**", "/swagger-ui/**", "/api-docs/**").permitAll()
                 .requestMatchers("/api/products/**").permitAll()
+                .requestMatchers("/api/guest-cart/**").permitAll()
+                .requestMatchers("/api/health/**").permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
             .authenticationProvider(authenticationProvider(userDetailsService))
-            .addFilterBefore(jwtAuthenticationFilter(jwtUtil(), userDetailsService), UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(jwtAuthenticationFilter(jwtUtil(), userDetailsService, revocationList), UsernamePasswordAuthenticationFilter.class)
+            // Shed overload once the token is verified, so a forged header cannot claim priority
+            .addFilterAfter(new ConcurrencyLimitFilter(concurrencyLimiters, objectMapper), JwtAuthenticationFilter.class)
             .headers(headers -> headers.contentSecurityPolicy(csp -> csp.policyDirectives("frame-ancestors 'self'"))); // For H2 console
         
         return http.build();
@@ -85,7 +95,8 @@ public class SecurityConfig {
     }
     
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
-        return new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                                                           TokenRevocationList revocationList) {
+        return new JwtAuthenticationFilter(jwtUtil, userDetailsService, revocationList);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.ErrorResponse;
+import com.ecommerce.exception.ConflictException;
+import com.ecommerce.exception.DomainException;
+import com.ecommerce.exception.InvalidRequestException;
+import com.ecommerce.exception.NotFoundException;
+import com.ecommerce.exception.ServiceBusyException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+import java.util.stream.Collectors;
+
+/**
+ * Maps domain rejections and Spring MVC request errors to {@link ErrorResponse} bodies.
+ *
+ * Request errors (invalid bodies, missing parameters, ...) are answered here instead of being
+ * forwarded to {@code /error}, where the security filter chain would turn them into a 403.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
+    
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNotFound(NotFoundException e, HttpServletRequest request) {
+        return respond(HttpStatus.NOT_FOUND, e, request);
+    }
+    
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflict(ConflictException e, HttpServletRequest request) {
+        return respond(HttpStatus.CONFLICT, e, request);
+    }
+    
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(InvalidRequestException e, HttpServletRequest request) {
+        return respond(HttpStatus.BAD_REQUEST, e, request);
+    }
+    
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ErrorResponse> handleServiceBusy(ServiceBusyException e, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(status.value(), status.getReasonPhrase(), e.getMessage(), request.getRequestURI()));
+    }
+    
+    @Override
+    protected ResponseEntity<Object> handleMethodArgumentNotValid(@NonNull MethodArgumentNotValidException ex, @NonNull HttpHeaders headers,
+                                                                  @NonNull HttpStatusCode status, @NonNull WebRequest request) {
+        String message = ex.getBindingResult().getFieldErrors().stream()
+                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                .collect(Collectors.joining(", "));
+        return ResponseEntity.status(status).headers(headers)
+                .body(new ErrorResponse(status.value(), reason(status), message, path(request)));
+    }
+    
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(@NonNull Exception ex, Object body, HttpHeaders headers,
+                                                             @NonNull HttpStatusCode statusCode, @NonNull WebRequest request) {
+        String message = body instanceof ProblemDetail problem ? problem.getDetail() : ex.getMessage();
+        return ResponseEntity.status(statusCode).headers(headers)
+                .body(new ErrorResponse(statusCode.value(), reason(statusCode), message, path(request)));
+    }
+    
+    private static ResponseEntity<ErrorResponse> respond(HttpStatus status, DomainException e, HttpServletRequest request) {
+        return ResponseEntity.status(status)
+                .body(new ErrorResponse(status.value(), status.getReasonPhrase(), e.getMessage(), request.getRequestURI()));
+    }
+    
+    private static String reason(HttpStatusCode status) {
+        HttpStatus resolved = HttpStatus.resolve(status.value());
+        return resolved != null ? resolved.getReasonPhrase() : null;
+    }
+    
+    private static String path(WebRequest request) {
+        return request instanceof ServletWebRequest servletRequest ? servletRequest.getRequest().getRequestURI() : null;
+    }
+} 
\ No newline at end of file
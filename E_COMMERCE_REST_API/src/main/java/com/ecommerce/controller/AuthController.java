@@ -2,14 +2,24 @@ package com.ecommerce.controller;
 
 import com.ecommerce.dto.AuthRequest;
 import com.ecommerce.dto.AuthResponse;
+import com.ecommerce.dto.CartOperationError;
+import com.ecommerce.dto.RefreshRequest;
 import com.ecommerce.dto.RegisterRequest;
 import com.ecommerce.entity.User;
-import com.ecommerce.security.JwtUtil;
+import com.ecommerce.security.GuestCartToken;
+import com.ecommerce.security.InvalidRefreshTokenException;
+import com.ecommerce.service.CartService;
+import com.ecommerce.service.TokenService;
 import com.ecommerce.service.UserService;
+import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,12 +27,18 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Authentication", description = "Authentication management APIs")
 @CrossOrigin(origins = "*")
 public class AuthController {
     
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+    
     @Autowired
     private AuthenticationManager authenticationManager;
     
@@ -30,43 +46,93 @@ public class AuthController {
     private UserService userService;
     
     @Autowired
-    private JwtUtil jwtUtil;
+    private TokenService tokenService;
+    
+    @Autowired
+    private GuestCartToken guestCartToken;
+    
+    @Autowired
+    private CartService cartService;
     
     @PostMapping("/register")
     @Operation(summary = "Register a new user", description = "Creates a new user account")
     public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
-        try {
-            User user = new User();
-            user.setUsername(registerRequest.getUsername());
-            user.setEmail(registerRequest.getEmail());
-            user.setPassword(registerRequest.getPassword());
-            
-            User savedUser = userService.registerUser(user);
-            
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body("User registered successfully with username: " + savedUser.getUsername());
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+        User user = new User();
+        user.setUsername(registerRequest.getUsername());
+        user.setEmail(registerRequest.getEmail());
+        user.setPassword(registerRequest.getPassword());
+        
+        User savedUser = userService.registerUser(user);
+        
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body("User registered successfully with username: " + savedUser.getUsername());
     }
     
     @PostMapping("/login")
-    @Operation(summary = "Authenticate user", description = "Authenticates user and returns JWT token")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody AuthRequest authRequest) {
+    @Operation(summary = "Authenticate user", description = "Authenticates user and returns a short-lived JWT access token and a refresh token. A guest cart sent with the request is merged into the user's cart; lines that cannot be merged stay in the guest cart and are listed in guestCartErrors.")
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody AuthRequest authRequest, HttpServletRequest request) {
+        User user;
+        TokenService.TokenPair tokens;
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword())
             );
             
-            User user = (User) authentication.getPrincipal();
-            String jwt = jwtUtil.generateToken(user);
-            
-            AuthResponse authResponse = new AuthResponse(jwt, user.getUsername(), user.getRole().name());
-            
-            return ResponseEntity.ok(authResponse);
+            user = (User) authentication.getPrincipal();
+            tokens = tokenService.issue(user);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body("Invalid username or password");
         }
+        
+        AuthResponse authResponse = new AuthResponse(tokens.accessToken(), tokens.refreshToken(), user.getUsername(), user.getRole().name());
+        Optional<Long> guestId = guestCartToken.resolve(request);
+        if (guestId.isEmpty()) {
+            return ResponseEntity.ok(authResponse);
+        }
+        List<CartOperationError> errors;
+        try {
+            errors = cartService.mergeGuestCart(user.getId(), guestId.get())
+                    .map(CartService.CartBatchResult::errors)
+                    .orElse(List.of());
+        } catch (RuntimeException e) {
+            // The guest cart is kept; logging in must not fail because of it
+            log.warn("Could not merge guest cart into the cart of user {}", user.getId(), e);
+            return ResponseEntity.ok(authResponse);
+        }
+        if (!errors.isEmpty()) {
+            // The lines that failed are still in the guest cart, so the guest token stays valid
+            authResponse.setGuestCartErrors(errors);
+            return ResponseEntity.ok(authResponse);
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, GuestCartToken.cookie("", Duration.ZERO).toString())
+                .body(authResponse);
+    }
+    
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh tokens", description = "Exchanges a refresh token for a new access token and a new refresh token. Each refresh token can be used once.")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshRequest refreshRequest) {
+        try {
+            TokenService.TokenPair tokens = tokenService.refresh(refreshRequest.getRefreshToken());
+            User user = tokens.user();
+            return ResponseEntity.ok(new AuthResponse(tokens.accessToken(), tokens.refreshToken(), user.getUsername(), user.getRole().name()));
+        } catch (InvalidRefreshTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
+    }
+    
+    @PostMapping("/logout")
+    @Operation(summary = "Log out", description = "Revokes the bearer access token and all of the user's refresh tokens")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Bearer token required");
+        }
+        try {
+            tokenService.logout(authorization.substring(7));
+            return ResponseEntity.noContent().build();
+        } catch (JwtException | IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+        }
     }
 } 
\ No newline at end of file
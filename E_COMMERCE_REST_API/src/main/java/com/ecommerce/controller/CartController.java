@@ -1,9 +1,13 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.AddToCartRequest;
+import com.ecommerce.dto.CartBatchRequest;
+import com.ecommerce.dto.CartBatchResponse;
 import com.ecommerce.dto.CartItemDto;
+import com.ecommerce.dto.CartSummaryDto;
 import com.ecommerce.entity.CartItem;
 import com.ecommerce.entity.User;
+import com.ecommerce.exception.NotFoundException;
 import com.ecommerce.service.CartService;
 import com.ecommerce.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -38,7 +42,7 @@ public class CartController {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
         User user = userService.findByUsername(username).orElseThrow(
-                () -> new RuntimeException("User not found")
+                () -> new NotFoundException("User not found")
         );
         return user.getId();
     }
@@ -46,32 +50,48 @@ public class CartController {
     @GetMapping
     @Operation(summary = "Get cart contents", description = "Retrieve all items in the user's cart")
     public ResponseEntity<List<CartItemDto>> getCart() {
-        try {
-            Long userId = getCurrentUserId();
-            List<CartItem> cartItems = cartService.getUserCart(userId);
-            
-            List<CartItemDto> cartItemDtos = cartItems.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
-            
-            return ResponseEntity.ok(cartItemDtos);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+        Long userId = getCurrentUserId();
+        List<CartItem> cartItems = cartService.getUserCart(userId);
+        
+        List<CartItemDto> cartItemDtos = cartItems.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        
+        return ResponseEntity.ok(cartItemDtos);
+    }
+    
+    @GetMapping("/summary")
+    @Operation(summary = "Get cart summary", description = "Retrieve the cart items together with the cart total and item count")
+    public ResponseEntity<CartSummaryDto> getCartSummary() {
+        Long userId = getCurrentUserId();
+        CartService.CartSummary summary = cartService.getCartSummary(userId);
+        
+        List<CartItemDto> cartItemDtos = summary.items().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new CartSummaryDto(cartItemDtos, summary.total(), summary.itemCount()));
     }
     
     @PostMapping("/add")
     @Operation(summary = "Add item to cart", description = "Add a product to the user's cart")
     public ResponseEntity<CartItemDto> addToCart(@Valid @RequestBody AddToCartRequest request) {
-        try {
-            Long userId = getCurrentUserId();
-            CartItem cartItem = cartService.addToCart(userId, request.getProductId(), request.getQuantity());
-            
-            CartItemDto cartItemDto = convertToDto(cartItem);
-            return ResponseEntity.ok(cartItemDto);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+        Long userId = getCurrentUserId();
+        CartItem cartItem = cartService.addToCart(userId, request.getProductId(), request.getQuantity());
+        
+        CartItemDto cartItemDto = convertToDto(cartItem);
+        return ResponseEntity.ok(cartItemDto);
+    }
+    
+    @PostMapping("/batch")
+    @Operation(summary = "Apply cart operations", description = "Apply a list of add/set/remove operations in one transaction and return the resulting cart. Operations that fail are skipped and listed in errors.")
+    public ResponseEntity<CartBatchResponse> applyBatch(@Valid @RequestBody CartBatchRequest request) {
+        Long userId = getCurrentUserId();
+        CartService.CartBatchResult result = cartService.applyBatch(userId, request.getOperations());
+        
+        List<CartItemDto> cartItemDtos = result.items().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new CartBatchResponse(cartItemDtos, result.total(), result.itemCount(), result.errors()));
     }
     
     @PutMapping("/item/{id}")
@@ -79,63 +99,43 @@ public class CartController {
     public ResponseEntity<CartItemDto> updateCartItemQuantity(
             @Parameter(description = "Cart item ID") @PathVariable Long id,
             @Parameter(description = "New quantity") @RequestParam Integer quantity) {
-        try {
-            Long userId = getCurrentUserId();
-            CartItem cartItem = cartService.updateCartItemQuantity(userId, id, quantity);
-            
-            CartItemDto cartItemDto = convertToDto(cartItem);
-            return ResponseEntity.ok(cartItemDto);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+        Long userId = getCurrentUserId();
+        CartItem cartItem = cartService.updateCartItemQuantity(userId, id, quantity);
+        
+        CartItemDto cartItemDto = convertToDto(cartItem);
+        return ResponseEntity.ok(cartItemDto);
     }
     
     @DeleteMapping("/item/{id}")
     @Operation(summary = "Remove item from cart", description = "Remove a specific item from the user's cart")
     public ResponseEntity<Void> removeFromCart(@Parameter(description = "Cart item ID") @PathVariable Long id) {
-        try {
-            Long userId = getCurrentUserId();
-            cartService.removeFromCart(userId, id);
-            return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+        Long userId = getCurrentUserId();
+        cartService.removeFromCart(userId, id);
+        return ResponseEntity.noContent().build();
     }
     
     @DeleteMapping("/clear")
     @Operation(summary = "Clear cart", description = "Remove all items from the user's cart")
     public ResponseEntity<Void> clearCart() {
-        try {
-            Long userId = getCurrentUserId();
-            cartService.clearCart(userId);
-            return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+        Long userId = getCurrentUserId();
+        cartService.clearCart(userId);
+        return ResponseEntity.noContent().build();
     }
     
     @GetMapping("/total")
     @Operation(summary = "Get cart total", description = "Get the total price of all items in the cart")
     public ResponseEntity<BigDecimal> getCartTotal() {
-        try {
-            Long userId = getCurrentUserId();
-            BigDecimal total = cartService.getCartTotal(userId);
-            return ResponseEntity.ok(total);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+        Long userId = getCurrentUserId();
+        BigDecimal total = cartService.getCartTotal(userId);
+        return ResponseEntity.ok(total);
     }
     
     @GetMapping("/count")
     @Operation(summary = "Get cart item count", description = "Get the total number of items in the cart")
     public ResponseEntity<Integer> getCartItemCount() {
-        try {
-            Long userId = getCurrentUserId();
-            int count = cartService.getCartItemCount(userId);
-            return ResponseEntity.ok(count);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
-        }
+        Long userId = getCurrentUserId();
+        int count = cartService.getCartItemCount(userId);
+        return ResponseEntity.ok(count);
     }
     
     private CartItemDto convertToDto(CartItem cartItem) {
@@ -144,7 +144,7 @@ public class CartController {
                 cartItem.getProduct().getId(),
                 cartItem.getProduct().getName(),
                 cartItem.getProduct().getDescription(),
-                cartItem.getProduct().getPrice(),
+                cartItem.getUnitPrice(),
                 cartItem.getProduct().getImageUrl(),
                 cartItem.getQuantity(),
                 cartItem.getTotalPrice(),
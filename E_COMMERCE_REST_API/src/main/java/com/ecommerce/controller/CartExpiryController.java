@@ -0,0 +1,42 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.cart.CartExpirySweeper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/cart-expiry")
+@Tag(name = "Cart Expiry", description = "Abandoned cart sweeper statistics (Admin only)")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+@ConditionalOnProperty(name = "cart.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class CartExpiryController {
+    
+    @Autowired
+    private CartExpirySweeper cartExpirySweeper;
+    
+    @GetMapping
+    @Operation(summary = "Get sweeper statistics", description = "Passes run, cart items reclaimed and the last pass")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("passes", cartExpirySweeper.getPassCount());
+        stats.put("totalReclaimed", cartExpirySweeper.getTotalReclaimed());
+        stats.put("lastPass", cartExpirySweeper.getLastPass());
+        return ResponseEntity.ok(stats);
+    }
+    
+    @PostMapping("/run")
+    @Operation(summary = "Run a sweep now", description = "Run one throttled pass and return what it reclaimed")
+    public ResponseEntity<CartExpirySweeper.Pass> runSweep() {
+        return ResponseEntity.ok(cartExpirySweeper.sweep());
+    }
+} 
\ No newline at end of file
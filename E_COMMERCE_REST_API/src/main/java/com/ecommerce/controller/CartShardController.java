@@ -0,0 +1,62 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.cart.ShardedCartStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/cart-shards")
+@Tag(name = "Cart Shards", description = "Cart shard inspection and rebalancing (Admin only)")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+@ConditionalOnProperty(name = "cart.store", havingValue = "sharded")
+public class CartShardController {
+    
+    @Autowired
+    private ShardedCartStore shardedCartStore;
+    
+    @GetMapping
+    @Operation(summary = "Get shard usage", description = "Number of cart items and users stored on each shard")
+    public ResponseEntity<List<Map<String, Long>>> getShards() {
+        List<Map<String, Long>> shards = new ArrayList<>();
+        for (int i = 0; i < shardedCartStore.getShardCount(); i++) {
+            Map<String, Long> shard = new LinkedHashMap<>();
+            shard.put("shard", (long) i);
+            shard.put("items", shardedCartStore.countItems(i));
+            shard.put("users", shardedCartStore.countUsers(i));
+            shards.add(shard);
+        }
+        return ResponseEntity.ok(shards);
+    }
+    
+    @GetMapping("/users/{userId}")
+    @Operation(summary = "Get a user's shard", description = "Shard currently holding the user's cart")
+    public ResponseEntity<Integer> getUserShard(@Parameter(description = "User ID") @PathVariable Long userId) {
+        return ResponseEntity.ok(shardedCartStore.shardFor(userId));
+    }
+    
+    @PostMapping("/users/{userId}/move")
+    @Operation(summary = "Move a user's cart", description = "Move the user's cart to another shard")
+    public ResponseEntity<String> moveUser(
+            @Parameter(description = "User ID") @PathVariable Long userId,
+            @Parameter(description = "Target shard") @RequestParam int shard) {
+        try {
+            int moved = shardedCartStore.moveUser(userId, shard);
+            return ResponseEntity.ok("Moved " + moved + " cart items of user " + userId + " to shard " + shard);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+} 
\ No newline at end of file
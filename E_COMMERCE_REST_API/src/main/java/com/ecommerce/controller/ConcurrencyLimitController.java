@@ -0,0 +1,31 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.limit.ConcurrencyLimiter;
+import com.ecommerce.limit.ConcurrencyLimiters;
+import com.ecommerce.limit.Lane;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/concurrency-limits")
+@Tag(name = "Concurrency Limits", description = "Adaptive concurrency limits and load shedding (Admin only)")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+public class ConcurrencyLimitController {
+    
+    @Autowired
+    private ConcurrencyLimiters concurrencyLimiters;
+    
+    @GetMapping
+    @Operation(summary = "Get concurrency limits", description = "Current limit, in-flight requests, and admitted and shed request counts per lane")
+    public ResponseEntity<Map<Lane, ConcurrencyLimiter.Stats>> getStats() {
+        return ResponseEntity.ok(concurrencyLimiters.getStats());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.limit.LaneExecutor;
+import com.ecommerce.limit.LaneRoutingDataSource;
+import com.ecommerce.monitoring.ConnectionHoldTimeTracker;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/connections")
+@Tag(name = "Connections", description = "Database connection pool and hold time statistics (Admin only)")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+public class ConnectionStatsController {
+    
+    @Autowired
+    private ConnectionHoldTimeTracker connectionHoldTimeTracker;
+    
+    @Autowired
+    private LaneRoutingDataSource dataSource;
+    
+    @Autowired
+    private LaneExecutor adminLaneExecutor;
+    
+    @GetMapping
+    @Operation(summary = "Get connection hold times", description = "How long requests and individual checkouts held pooled connections")
+    public ResponseEntity<ConnectionHoldTimeTracker.Stats> getStats() {
+        return ResponseEntity.ok(connectionHoldTimeTracker.getStats());
+    }
+    
+    @GetMapping("/pools")
+    @Operation(summary = "Get connection pools", description = "Size and usage of the main pool and each lane's pool")
+    public ResponseEntity<Map<String, LaneRoutingDataSource.PoolStats>> getPools() {
+        return ResponseEntity.ok(dataSource.getPoolStats());
+    }
+    
+    @GetMapping("/admin-executor")
+    @Operation(summary = "Get admin executor", description = "Threads and queue of the executor running background admin work")
+    public ResponseEntity<LaneExecutor.Stats> getAdminExecutor() {
+        return ResponseEntity.ok(adminLaneExecutor.getStats());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.cart.GuestCartStore;
+import com.ecommerce.dto.AddToCartRequest;
+import com.ecommerce.dto.CartItemDto;
+import com.ecommerce.dto.CartSummaryDto;
+import com.ecommerce.entity.Product;
+import com.ecommerce.exception.NotFoundException;
+import com.ecommerce.security.GuestCartToken;
+import com.ecommerce.service.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cart for shoppers who haven't logged in. The cart is identified by the signed token returned in
+ * the {@value GuestCartToken#HEADER} header (and a cookie) of every change; send it back the same
+ * way, and with the login request to move the items into the user's cart.
+ */
+@RestController
+@RequestMapping("/api/guest-cart")
+@Tag(name = "Guest Cart", description = "Cart APIs for anonymous shoppers")
+@CrossOrigin(origins = "*", exposedHeaders = GuestCartToken.HEADER)
+public class GuestCartController {
+    
+    @Autowired
+    private GuestCartStore guestCartStore;
+    
+    @Autowired
+    private GuestCartToken guestCartToken;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Value("${cart.guest.ttl:2h}")
+    private Duration guestCartTtl;
+    
+    @GetMapping
+    @Operation(summary = "Get guest cart", description = "Retrieve the guest cart with its total and item count")
+    public ResponseEntity<CartSummaryDto> getCart(HttpServletRequest request) {
+        return guestCartToken.resolve(request)
+                .map(this::respond)
+                .orElseGet(() -> ResponseEntity.ok(new CartSummaryDto(List.of(), BigDecimal.ZERO, 0)));
+    }
+    
+    @PostMapping("/add")
+    @Operation(summary = "Add item to guest cart", description = "Add a product to the guest cart, starting a new cart if the request carries none")
+    public ResponseEntity<CartSummaryDto> addToCart(@Valid @RequestBody AddToCartRequest addRequest, HttpServletRequest request) {
+        if (productService.getProductById(addRequest.getProductId()).isEmpty()) {
+            throw new NotFoundException("Product", addRequest.getProductId());
+        }
+        long guestId = guestCartToken.resolve(request).orElseGet(guestCartStore::newGuestId);
+        guestCartStore.add(guestId, addRequest.getProductId(), addRequest.getQuantity());
+        return respond(guestId);
+    }
+    
+    @PutMapping("/item/{productId}")
+    @Operation(summary = "Update guest cart item quantity", description = "Set the quantity of a product in the guest cart")
+    public ResponseEntity<CartSummaryDto> updateQuantity(
+            @Parameter(description = "Product ID") @PathVariable Long productId,
+            @Parameter(description = "New quantity") @RequestParam Integer quantity,
+            HttpServletRequest request) {
+        Long guestId = guestCartToken.resolve(request).orElse(null);
+        if (guestId == null || quantity <= 0 || !guestCartStore.setQuantity(guestId, productId, quantity)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return respond(guestId);
+    }
+    
+    @DeleteMapping("/item/{productId}")
+    @Operation(summary = "Remove item from guest cart", description = "Remove a product from the guest cart")
+    public ResponseEntity<CartSummaryDto> removeFromCart(
+            @Parameter(description = "Product ID") @PathVariable Long productId,
+            HttpServletRequest request) {
+        Long guestId = guestCartToken.resolve(request).orElse(null);
+        if (guestId == null || !guestCartStore.remove(guestId, productId)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return respond(guestId);
+    }
+    
+    @DeleteMapping("/clear")
+    @Operation(summary = "Clear guest cart", description = "Discard the guest cart")
+    public ResponseEntity<Void> clearCart(HttpServletRequest request) {
+        guestCartToken.resolve(request).ifPresent(guestCartStore::take);
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE, GuestCartToken.cookie("", Duration.ZERO).toString())
+                .build();
+    }
+    
+    private ResponseEntity<CartSummaryDto> respond(long guestId) {
+        String token = guestCartToken.issue(guestId);
+        return ResponseEntity.ok()
+                .header(GuestCartToken.HEADER, token)
+                .header(HttpHeaders.SET_COOKIE, GuestCartToken.cookie(token, guestCartTtl).toString())
+                .body(summary(guestId));
+    }
+    
+    /**
+     * The guest's lines at current product prices. Products deleted since they were added are left out.
+     */
+    private CartSummaryDto summary(long guestId) {
+        List<GuestCartStore.Line> lines = guestCartStore.getLines(guestId);
+        Map<Long, Product> products = productService.getProductsByIds(lines.stream().map(GuestCartStore.Line::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
+        List<CartItemDto> items = new ArrayList<>(lines.size());
+        BigDecimal total = BigDecimal.ZERO;
+        int itemCount = 0;
+        for (GuestCartStore.Line line : lines) {
+            Product product = products.get(line.productId());
+            if (product == null) {
+                continue;
+            }
+            BigDecimal lineTotal = product.getPrice().multiply(BigDecimal.valueOf(line.quantity()));
+            items.add(new CartItemDto(null, product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                    product.getImageUrl(), line.quantity(), lineTotal, null, null));
+            total = total.add(lineTotal);
+            itemCount += line.quantity();
+        }
+        return new CartSummaryDto(items, total, itemCount);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.warmup.CacheWarmer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/health")
+@Tag(name = "Health", description = "Probes for load balancers and orchestrators")
+public class HealthController {
+    
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+    
+    @Autowired
+    private CacheWarmer cacheWarmer;
+    
+    @GetMapping("/ready")
+    @Operation(summary = "Readiness probe", description = "200 once the application accepts traffic and the startup cache warm-up is done, 503 before")
+    public ResponseEntity<Readiness> getReadiness() {
+        boolean ready = applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC && cacheWarmer.isReady();
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new Readiness(ready, cacheWarmer.getStatus()));
+    }
+    
+    public record Readiness(boolean ready, CacheWarmer.WarmupStatus warmup) {
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.OrderDto;
+import com.ecommerce.entity.User;
+import com.ecommerce.exception.NotFoundException;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/orders")
+@Tag(name = "Orders", description = "Checkout and order history APIs")
+@CrossOrigin(origins = "*")
+@SecurityRequirement(name = "Bearer Authentication")
+public class OrderController {
+    
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserService userService;
+    
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        User user = userService.findByUsername(username).orElseThrow(
+                () -> new NotFoundException("User not found")
+        );
+        return user.getId();
+    }
+    
+    @PostMapping("/checkout")
+    @Operation(summary = "Checkout cart", description = "Place an order for the items in the user's cart. Retrying with the same Idempotency-Key returns the original order.")
+    public ResponseEntity<OrderDto> checkout(
+            @Parameter(description = "Client-chosen key that makes retries safe")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Long userId = getCurrentUserId();
+        OrderService.CheckoutResult result = orderService.checkout(userId, idempotencyKey);
+        OrderDto orderDto = OrderDto.from(result.order());
+        if (result.replayed()) {
+            return ResponseEntity.ok().header(IDEMPOTENT_REPLAYED_HEADER, "true").body(orderDto);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(orderDto);
+    }
+    
+    @GetMapping
+    @Operation(summary = "Get orders", description = "Retrieve the user's orders, newest first")
+    public ResponseEntity<List<OrderDto>> getOrders() {
+        Long userId = getCurrentUserId();
+        return ResponseEntity.ok(orderService.getUserOrders(userId).stream().map(OrderDto::from).toList());
+    }
+    
+    @GetMapping("/{id}")
+    @Operation(summary = "Get order by ID", description = "Retrieve one of the user's orders")
+    public ResponseEntity<OrderDto> getOrder(@Parameter(description = "Order ID") @PathVariable Long id) {
+        Long userId = getCurrentUserId();
+        return orderService.getUserOrder(userId, id)
+                .map(order -> ResponseEntity.ok(OrderDto.from(order)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.popularity.PopularityService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/popularity")
+@Tag(name = "Product Popularity", description = "View and cart-add counters behind popularity sorting (Admin only)")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+public class PopularityController {
+    
+    @Autowired
+    private PopularityService popularityService;
+    
+    @GetMapping
+    @Operation(summary = "Get popularity statistics", description = "Current ranking, flushes, tracked products and dropped events")
+    public ResponseEntity<PopularityService.Stats> getStats() {
+        return ResponseEntity.ok(popularityService.getStats());
+    }
+} 
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.dto.PageResponse;
 import com.ecommerce.dto.ProductDto;
 import com.ecommerce.entity.Product;
+import com.ecommerce.service.CatalogReloadService;
 import com.ecommerce.service.ProductService;
 import com.ecommerce.service.ProductDataService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/products")
@@ -24,67 +27,80 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class ProductController {
     
+    private static final String POPULARITY = "popularity";
+    private static final int MAX_RELATED = 50;
+    
     @Autowired
     private ProductService productService;
     
     @Autowired
     private ProductDataService productDataService;
     
+    @Autowired
+    private CatalogReloadService catalogReloadService;
+    
     @GetMapping
     @Operation(summary = "Get all products", description = "Retrieve all products with pagination, sorting, and filtering")
-    public ResponseEntity<Page<Product>> getAllProducts(
+    public ResponseEntity<PageResponse<ProductDto>> getAllProducts(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
-            @Parameter(description = "Sort field") @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Sort field, or \"popularity\" for the most viewed and added-to-cart products first") @RequestParam(defaultValue = "id") String sortBy,
             @Parameter(description = "Sort direction") @RequestParam(defaultValue = "ASC") String sortDir,
             @Parameter(description = "Product name filter") @RequestParam(required = false) String name,
             @Parameter(description = "Category filter") @RequestParam(required = false) String category,
             @Parameter(description = "Minimum price filter") @RequestParam(required = false) Double minPrice,
             @Parameter(description = "Maximum price filter") @RequestParam(required = false) Double maxPrice) {
         
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        Page<Product> products;
-        if (name != null || category != null || minPrice != null || maxPrice != null) {
-            products = productService.getProductsByFilters(name, category, minPrice, maxPrice, pageable);
+        Page<ProductDto> products;
+        if (POPULARITY.equalsIgnoreCase(sortBy)) {
+            products = productService.getPopularProductPage(name, category, minPrice, maxPrice, PageRequest.of(page, size));
         } else {
-            products = productService.getAllProducts(pageable);
+            Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
+            products = productService.getProductPage(name, category, minPrice, maxPrice, PageRequest.of(page, size, sort));
         }
-        
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok(PageResponse.from(products, Function.identity()));
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
-    public ResponseEntity<Product> getProductById(@Parameter(description = "Product ID") @PathVariable Long id) {
-        Optional<Product> product = productService.getProductById(id);
+    public ResponseEntity<ProductDto> getProductById(@Parameter(description = "Product ID") @PathVariable Long id) {
+        Optional<ProductDto> product = productService.getProductDtoById(id);
         return product.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/category/{category}")
     @Operation(summary = "Get products by category", description = "Retrieve products filtered by category")
-    public ResponseEntity<Page<Product>> getProductsByCategory(
+    public ResponseEntity<PageResponse<ProductDto>> getProductsByCategory(
             @Parameter(description = "Category name") @PathVariable String category,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productService.getProductsByCategory(category, pageable);
-        return ResponseEntity.ok(products);
+        Page<ProductDto> products = productService.getProductPageByCategory(category, pageable);
+        return ResponseEntity.ok(PageResponse.from(products, Function.identity()));
     }
     
     @GetMapping("/search")
     @Operation(summary = "Search products by name", description = "Search products by name with pagination")
-    public ResponseEntity<Page<Product>> searchProducts(
+    public ResponseEntity<PageResponse<ProductDto>> searchProducts(
             @Parameter(description = "Search term") @RequestParam String name,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Product> products = productService.searchProductsByName(name, pageable);
-        return ResponseEntity.ok(products);
+        Page<ProductDto> products = productService.searchProductPage(name, pageable);
+        return ResponseEntity.ok(PageResponse.from(products, Function.identity()));
+    }
+    
+    @GetMapping("/{id}/related")
+    @Operation(summary = "Get related products", description = "Products most often added to a cart together with this one")
+    public ResponseEntity<List<ProductDto>> getRelatedProducts(
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            @Parameter(description = "Maximum number of products (at most 50)") @RequestParam(defaultValue = "10") int limit) {
+        return productService.getRelatedProducts(id, Math.max(1, Math.min(limit, MAX_RELATED)))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/categories")
@@ -117,50 +133,41 @@ public class ProductController {
     public ResponseEntity<Product> updateProduct(
             @Parameter(description = "Product ID") @PathVariable Long id,
             @RequestBody ProductDto productDto) {
-        try {
-            Product product = new Product();
-            product.setName(productDto.getName());
-            product.setShortDescription(productDto.getShortDescription());
-            product.setFullDescription(productDto.getFullDescription());
-            product.setPrice(productDto.getPrice());
-            product.setStockQuantity(productDto.getStockQuantity());
-            product.setCategory(productDto.getCategory());
-            product.setImageUrl(productDto.getImageUrl());
-            product.setImages(productDto.getImages());
-            product.setTechnicalSpecifications(productDto.getTechnicalSpecifications());
-            
-            Product updatedProduct = productService.updateProduct(id, product);
-            return ResponseEntity.ok(updatedProduct);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        Product product = new Product();
+        product.setName(productDto.getName());
+        product.setShortDescription(productDto.getShortDescription());
+        product.setFullDescription(productDto.getFullDescription());
+        product.setPrice(productDto.getPrice());
+        product.setStockQuantity(productDto.getStockQuantity());
+        product.setCategory(productDto.getCategory());
+        product.setImageUrl(productDto.getImageUrl());
+        product.setImages(productDto.getImages());
+        product.setTechnicalSpecifications(productDto.getTechnicalSpecifications());
+        
+        Product updatedProduct = productService.updateProduct(id, product);
+        return ResponseEntity.ok(updatedProduct);
     }
     
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a product", description = "Delete a product (Admin only)")
     public ResponseEntity<Void> deleteProduct(@Parameter(description = "Product ID") @PathVariable Long id) {
-        try {
-            productService.deleteProduct(id);
-            return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+        productService.deleteProduct(id);
+        return ResponseEntity.noContent().build();
     }
     
     @PostMapping("/reload")
-    @Operation(summary = "Reload products from JSON", description = "Reload all products from products.json file (Admin only)")
-    public ResponseEntity<String> reloadProductsFromJson() {
-        try {
-            if (!productDataService.isJsonFileAvailable()) {
-                return ResponseEntity.badRequest().body("products.json file not found in resources directory");
-            }
-            
-            productDataService.reloadProductsFromJson();
-            long count = productDataService.getProductCount();
-            return ResponseEntity.ok("Products reloaded successfully! Total products: " + count);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error reloading products: " + e.getMessage());
+    @Operation(summary = "Reload products from JSON", description = "Start reloading all products from products.json file, or regenerating the synthetic catalog when catalog.source=synthetic, in the background (Admin only)")
+    public ResponseEntity<?> reloadProductsFromJson() {
+        if (!productDataService.isSyntheticSource() && !productDataService.isJsonFileAvailable()) {
+            return ResponseEntity.badRequest().body("products.json file not found in resources directory");
         }
+        return ResponseEntity.accepted().body(catalogReloadService.start());
+    }
+    
+    @GetMapping("/reload")
+    @Operation(summary = "Get reload status", description = "State of the latest catalog reload (Admin only)")
+    public ResponseEntity<CatalogReloadService.ReloadStatus> getReloadStatus() {
+        return ResponseEntity.ok(catalogReloadService.getStatus());
     }
     
     @GetMapping("/count")
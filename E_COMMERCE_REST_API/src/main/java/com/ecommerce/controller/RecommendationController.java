@@ -0,0 +1,27 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.recommendation.RecommendationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/recommendations")
+@Tag(name = "Recommendations", description = "Co-occurrence counts behind related products (Admin only)")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+public class RecommendationController {
+    
+    @Autowired
+    private RecommendationService recommendationService;
+    
+    @GetMapping
+    @Operation(summary = "Get recommendation statistics", description = "Bootstrap state, products and pairs tracked, and rows dropped for lack of room")
+    public ResponseEntity<RecommendationService.Stats> getStats() {
+        return ResponseEntity.ok(recommendationService.getStats());
+    }
+} 
\ No newline at end of file
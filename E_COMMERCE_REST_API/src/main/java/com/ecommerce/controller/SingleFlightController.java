@@ -0,0 +1,30 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.cache.SingleFlight;
+import com.ecommerce.service.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/single-flight")
+@Tag(name = "Request Coalescing", description = "Catalog reads shared between identical concurrent requests (Admin only)")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+public class SingleFlightController {
+    
+    @Autowired
+    private ProductService productService;
+    
+    @GetMapping
+    @Operation(summary = "Get coalescing statistics", description = "Calls, database loads and shared results for catalog pages and product details")
+    public ResponseEntity<Map<String, SingleFlight.Stats>> getStats() {
+        return ResponseEntity.ok(productService.getSingleFlightStats());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,280 @@
+package com.ecommerce.data;
+
+import com.ecommerce.dto.ProductJsonDto;
+import com.ecommerce.dto.RegisterRequest;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic generator for scale-test data: products in the {@link ProductJsonDto} shape
+ * used by {@code products.json}, users and cart contents.
+ *
+ * Every record is derived only from the seed and its own index, so output is reproducible,
+ * can be produced lazily as a stream of any length without holding earlier records, and any
+ * slice can be regenerated independently.
+ */
+public class SyntheticDataGenerator {
+    
+    private static final long PRODUCT_STREAM = 0x5DEECE66DL;
+    private static final long CART_STREAM = 0x9E3779B97F4A7C15L;
+    
+    private static final Category[] CATEGORIES = {
+        new Category("Power Tools", 45, 4.9, 0.55,
+                new String[]{"Drill", "Impact Driver", "Angle Grinder", "Hammer Drill", "Jigsaw", "Rotary Hammer",
+                        "Circular Saw", "Planer", "Heat Gun", "Reciprocating Saw", "Multi-Tool"},
+                new String[]{"GSR", "GDR", "GWS", "GBH", "GST", "GKS", "GHO", "GHG", "GSA", "GOP"}),
+        new Category("Measurement Tools", 12, 4.8, 0.6,
+                new String[]{"Laser Level", "Laser Measure", "Line Laser", "Laser Receiver", "Wall Scanner"},
+                new String[]{"GLL", "GLM", "GCL", "LR", "GMS"}),
+        new Category("Accessories", 23, 3.4, 0.8,
+                new String[]{"Drill Bit Set", "Saw Blade", "Cutting Disc", "Battery Pack", "Charger", "Dust Extractor"},
+                new String[]{"GBA", "GAL", "GDE", "X-LOCK", "SDS"}),
+        new Category("Garden Tools", 10, 4.6, 0.5,
+                new String[]{"Hedge Trimmer", "Grass Trimmer", "Leaf Blower", "Chain Saw", "Pressure Washer"},
+                new String[]{"AHS", "ART", "ALB", "AKE", "AQT"}),
+        new Category("Hand Tools", 10, 3.2, 0.6,
+                new String[]{"Screwdriver Set", "Spirit Level", "Utility Knife", "Hammer", "Tape Measure"},
+                new String[]{"HT", "SL", "UK", "HM", "TM"})
+    };
+    
+    private static final String[] SERIES = {"Professional", "Cordless", "Compact", "Heavy Duty", "Precision", "Advanced"};
+    private static final String[] BENEFITS = {
+        "delivers outstanding power in a compact design",
+        "is built for demanding everyday jobsite use",
+        "combines low weight with long runtime",
+        "offers precise control for detailed work",
+        "reduces vibration for fatigue-free operation",
+        "is designed for fast, clean and accurate results"
+    };
+    private static final String[] SPEC_KEYS = {
+        "Battery Voltage", "Power Input", "Max Torque", "No Load Speed", "Weight", "Chuck Size",
+        "Disc Diameter", "Impact Energy", "Measuring Range", "Accuracy", "Stroke Length", "Bluetooth"
+    };
+    private static final int CATEGORY_WEIGHT_TOTAL;
+    
+    static {
+        int total = 0;
+        for (Category category : CATEGORIES) {
+            total += category.weight;
+        }
+        CATEGORY_WEIGHT_TOTAL = total;
+    }
+    
+    private final long seed;
+    
+    public SyntheticDataGenerator(long seed) {
+        this.seed = seed;
+    }
+    
+    /**
+     * Lazily generate {@code count} products. Product {@code i} always has id {@code i + 1}.
+     */
+    public Stream<ProductJsonDto> products(long count) {
+        return LongStream.range(0, count).mapToObj(this::product);
+    }
+    
+    /**
+     * Lazily generate {@code count} users. All share {@code password}, so callers can hash it once.
+     */
+    public Stream<RegisterRequest> users(long count, String password) {
+        return LongStream.range(0, count).mapToObj(index -> user(index, password));
+    }
+    
+    /**
+     * Lazily generate cart contents for {@code userCount} users over a catalog of {@code productCount}
+     * products. Carts hold 0-8 distinct lines and product choice is skewed towards a popular head.
+     */
+    public Stream<CartLine> cartLines(long userCount, long productCount) {
+        return LongStream.range(0, userCount).boxed().flatMap(user -> cart(user, productCount).stream());
+    }
+    
+    /**
+     * Cart contents of a single user; identical to that user's lines in {@link #cartLines(long, long)}.
+     */
+    public List<CartLine> cart(long userIndex, long productCount) {
+        SplittableRandom random = randomFor(CART_STREAM, userIndex);
+        // Most users have an empty or small cart; a few have large ones
+        int lines = (int) Math.min(8, Math.floor(-Math.log(1 - random.nextDouble()) * 1.5));
+        List<CartLine> cart = new ArrayList<>(lines);
+        long[] chosen = new long[lines];
+        for (int i = 0; i < lines; i++) {
+            long productIndex = skewedIndex(random, productCount);
+            boolean duplicate = false;
+            for (int j = 0; j < i; j++) {
+                duplicate |= chosen[j] == productIndex;
+            }
+            chosen[i] = productIndex;
+            if (!duplicate) {
+                cart.add(new CartLine(userIndex, productIndex, 1 + (random.nextInt(10) == 0 ? random.nextInt(5) : 0)));
+            }
+        }
+        return cart;
+    }
+    
+    /**
+     * Write {@code count} products as a JSON array in the {@code products.json} format, one record at a time.
+     */
+    public void writeProductsJson(long count, OutputStream out) throws IOException {
+        try (JsonGenerator json = new JsonFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartArray();
+            for (long i = 0; i < count; i++) {
+                ProductJsonDto product = product(i);
+                json.writeStartObject();
+                json.writeStringField("id", product.getId());
+                json.writeStringField("name", product.getName());
+                json.writeNumberField("price", product.getPrice());
+                json.writeStringField("shortDescription", product.getShortDescription());
+                json.writeStringField("fullDescription", product.getFullDescription());
+                json.writeArrayFieldStart("images");
+                for (String image : product.getImages()) {
+                    json.writeString(image);
+                }
+                json.writeEndArray();
+                json.writeObjectFieldStart("technicalSpecifications");
+                for (Map.Entry<String, String> spec : product.getTechnicalSpecifications().entrySet()) {
+                    json.writeStringField(spec.getKey(), spec.getValue());
+                }
+                json.writeEndObject();
+                json.writeNumberField("stockQuantity", product.getStockQuantity());
+                json.writeStringField("category", product.getCategory());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+    }
+    
+    public ProductJsonDto product(long index) {
+        SplittableRandom random = randomFor(PRODUCT_STREAM, index);
+        Category category = pickCategory(random);
+        String kind = category.kinds[random.nextInt(category.kinds.length)];
+        String model = category.modelPrefixes[random.nextInt(category.modelPrefixes.length)] + " "
+                + (random.nextBoolean() ? (10 + random.nextInt(9) * 2) + "V-" + (10 + random.nextInt(190)) : String.valueOf(2 + random.nextInt(60)));
+        String name = SERIES[random.nextInt(SERIES.length)] + " " + kind + " " + model;
+        
+        ProductJsonDto product = new ProductJsonDto();
+        product.setId(String.valueOf(index + 1));
+        product.setName(name);
+        product.setCategory(category.name);
+        product.setPrice(price(random, category));
+        product.setStockQuantity(stock(random));
+        product.setShortDescription(kind + " that " + BENEFITS[random.nextInt(BENEFITS.length)] + ".");
+        product.setFullDescription("The " + name + " " + BENEFITS[random.nextInt(BENEFITS.length)]
+                + ". It " + BENEFITS[random.nextInt(BENEFITS.length)]
+                + ", making it a reliable choice for professionals and ambitious DIY users alike.");
+        product.setImages(images(random, index + 1));
+        product.setTechnicalSpecifications(specifications(random));
+        return product;
+    }
+    
+    public RegisterRequest user(long index, String password) {
+        String username = String.format(Locale.ROOT, "user%07d", index + 1);
+        return new RegisterRequest(username, username + "@synthetic.example.com", password);
+    }
+    
+    /**
+     * Power-law skew: a small head of the catalog receives most of the picks.
+     */
+    private static long skewedIndex(SplittableRandom random, long productCount) {
+        double u = random.nextDouble();
+        return Math.min(productCount - 1, (long) (productCount * u * u * u));
+    }
+    
+    private static Category pickCategory(SplittableRandom random) {
+        int target = random.nextInt(CATEGORY_WEIGHT_TOTAL);
+        for (Category category : CATEGORIES) {
+            target -= category.weight;
+            if (target < 0) {
+                return category;
+            }
+        }
+        return CATEGORIES[0];
+    }
+    
+    /**
+     * Log-normal price around the category median, with retail-style .99 endings.
+     */
+    private static BigDecimal price(SplittableRandom random, Category category) {
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        double value = Math.exp(category.logMedianPrice + category.logPriceSpread * gaussian);
+        long whole = Math.max(1, Math.min(9999, Math.round(value)));
+        return BigDecimal.valueOf(whole).subtract(new BigDecimal("0.01")).max(new BigDecimal("0.99"))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    private static int stock(SplittableRandom random) {
+        // Entity validation requires a positive stock level
+        return 1 + (int) Math.min(999, Math.floor(-Math.log(1 - random.nextDouble()) * 60));
+    }
+    
+    private static List<String> images(SplittableRandom random, long productId) {
+        int count = 1 + random.nextInt(4);
+        List<String> images = new ArrayList<>(count);
+        images.add("images/product_" + productId + "/product_" + productId + ".jpg");
+        for (int i = 1; i < count; i++) {
+            images.add("images/product_" + productId + "/product_" + productId + "." + i + ".jpeg");
+        }
+        return images;
+    }
+    
+    private static Map<String, String> specifications(SplittableRandom random) {
+        int count = 3 + random.nextInt(4);
+        Map<String, String> specs = new LinkedHashMap<>();
+        int start = random.nextInt(SPEC_KEYS.length);
+        for (int i = 0; i < count; i++) {
+            String key = SPEC_KEYS[(start + i) % SPEC_KEYS.length];
+            specs.put(key, specValue(random, key));
+        }
+        return specs;
+    }
+    
+    private static String specValue(SplittableRandom random, String key) {
+        return switch (key) {
+            case "Battery Voltage" -> new String[]{"10.8 V", "12 V", "18 V", "36 V"}[random.nextInt(4)];
+            case "Power Input" -> (400 + random.nextInt(33) * 50) + " W";
+            case "Max Torque" -> (20 + random.nextInt(280)) + " Nm";
+            case "No Load Speed" -> "0-" + (1000 + random.nextInt(120) * 100) + " rpm";
+            case "Weight" -> String.format(Locale.ROOT, "%.1f kg", 0.2 + random.nextDouble() * 6);
+            case "Chuck Size" -> new String[]{"10 mm", "13 mm", "SDS-plus", "6.35 mm Hex"}[random.nextInt(4)];
+            case "Disc Diameter" -> new String[]{"115 mm", "125 mm", "150 mm", "230 mm"}[random.nextInt(4)];
+            case "Impact Energy" -> String.format(Locale.ROOT, "%.1f J", 1 + random.nextDouble() * 8);
+            case "Measuring Range" -> "0.05 - " + (20 + random.nextInt(9) * 10) + " m";
+            case "Accuracy" -> String.format(Locale.ROOT, "±%.1f mm", 0.5 + random.nextInt(4) * 0.5);
+            case "Stroke Length" -> (18 + random.nextInt(15)) + " mm";
+            default -> random.nextBoolean() ? "Yes" : "No";
+        };
+    }
+    
+    private SplittableRandom randomFor(long stream, long index) {
+        return new SplittableRandom(mix(seed ^ stream) + index * 0x9E3779B97F4A7C15L);
+    }
+    
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * One cart line: product {@code productIndex} (0-based position in id order) in the cart of user {@code userIndex}.
+     */
+    public record CartLine(long userIndex, long productIndex, int quantity) {
+    }
+    
+    private record Category(String name, int weight, double logMedianPrice, double logPriceSpread,
+                            String[] kinds, String[] modelPrefixes) {
+    }
+} 
\ No newline at end of file
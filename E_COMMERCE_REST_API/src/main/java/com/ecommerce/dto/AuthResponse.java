@@ -1,11 +1,15 @@
 package com.ecommerce.dto;
 
+import java.util.List;
+
 public class AuthResponse {
     
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private String username;
     private String role;
+    private List<CartOperationError> guestCartErrors = List.of();
     
     // Constructors
     public AuthResponse() {}
@@ -16,6 +20,11 @@ public class AuthResponse {
         this.role = role;
     }
     
+    public AuthResponse(String token, String refreshToken, String username, String role) {
+        this(token, username, role);
+        this.refreshToken = refreshToken;
+    }
+    
     // Getters and Setters
     public String getToken() {
         return token;
@@ -25,6 +34,14 @@ public class AuthResponse {
         this.token = token;
     }
     
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
     public String getType() {
         return type;
     }
@@ -48,4 +65,15 @@ public class AuthResponse {
     public void setRole(String role) {
         this.role = role;
     }
+    
+    /**
+     * Guest cart lines that could not be merged at login; they are still in the guest cart.
+     */
+    public List<CartOperationError> getGuestCartErrors() {
+        return guestCartErrors;
+    }
+    
+    public void setGuestCartErrors(List<CartOperationError> guestCartErrors) {
+        this.guestCartErrors = guestCartErrors;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.ecommerce.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class CartBatchRequest {
+    
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 100, message = "A batch cannot have more than 100 operations")
+    private List<@Valid CartOperation> operations;
+    
+    // Constructors
+    public CartBatchRequest() {}
+    
+    public CartBatchRequest(List<CartOperation> operations) {
+        this.operations = operations;
+    }
+    
+    // Getters and Setters
+    public List<CartOperation> getOperations() {
+        return operations;
+    }
+    
+    public void setOperations(List<CartOperation> operations) {
+        this.operations = operations;
+    }
+} 
\ No newline at end of file
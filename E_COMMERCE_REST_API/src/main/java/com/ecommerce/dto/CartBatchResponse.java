@@ -0,0 +1,58 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The cart after a batch update, with its total and item count, and the operations that were skipped.
+ */
+public class CartBatchResponse {
+    
+    private List<CartItemDto> items;
+    private BigDecimal total;
+    private int itemCount;
+    private List<CartOperationError> errors;
+    
+    // Constructors
+    public CartBatchResponse() {}
+    
+    public CartBatchResponse(List<CartItemDto> items, BigDecimal total, int itemCount, List<CartOperationError> errors) {
+        this.items = items;
+        this.total = total;
+        this.itemCount = itemCount;
+        this.errors = errors;
+    }
+    
+    // Getters and Setters
+    public List<CartItemDto> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<CartItemDto> items) {
+        this.items = items;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public int getItemCount() {
+        return itemCount;
+    }
+    
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+    
+    public List<CartOperationError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<CartOperationError> errors) {
+        this.errors = errors;
+    }
+} 
\ No newline at end of file
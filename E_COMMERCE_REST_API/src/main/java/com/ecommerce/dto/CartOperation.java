@@ -0,0 +1,76 @@
+package com.ecommerce.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One step of a batch cart update. {@code ADD} takes {@code productId} and {@code quantity},
+ * {@code SET} takes {@code cartItemId} and {@code quantity}, {@code REMOVE} takes {@code cartItemId}.
+ */
+public class CartOperation {
+    
+    @NotNull(message = "Operation type is required")
+    private Type type;
+    
+    private Long productId;
+    private Long cartItemId;
+    private Integer quantity;
+    
+    // Constructors
+    public CartOperation() {}
+    
+    public CartOperation(Type type, Long productId, Long cartItemId, Integer quantity) {
+        this.type = type;
+        this.productId = productId;
+        this.cartItemId = cartItemId;
+        this.quantity = quantity;
+    }
+    
+    public static CartOperation add(Long productId, Integer quantity) {
+        return new CartOperation(Type.ADD, productId, null, quantity);
+    }
+    
+    public static CartOperation set(Long cartItemId, Integer quantity) {
+        return new CartOperation(Type.SET, null, cartItemId, quantity);
+    }
+    
+    public static CartOperation remove(Long cartItemId) {
+        return new CartOperation(Type.REMOVE, null, cartItemId, null);
+    }
+    
+    // Getters and Setters
+    public Type getType() {
+        return type;
+    }
+    
+    public void setType(Type type) {
+        this.type = type;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Long getCartItemId() {
+        return cartItemId;
+    }
+    
+    public void setCartItemId(Long cartItemId) {
+        this.cartItemId = cartItemId;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public enum Type {
+        ADD, SET, REMOVE
+    }
+} 
\ No newline at end of file
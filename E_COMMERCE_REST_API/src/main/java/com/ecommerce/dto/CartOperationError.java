@@ -0,0 +1,35 @@
+package com.ecommerce.dto;
+
+/**
+ * Why the operation at {@code index} of a batch was skipped.
+ */
+public class CartOperationError {
+    
+    private int index;
+    private String message;
+    
+    // Constructors
+    public CartOperationError() {}
+    
+    public CartOperationError(int index, String message) {
+        this.index = index;
+        this.message = message;
+    }
+    
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+} 
\ No newline at end of file
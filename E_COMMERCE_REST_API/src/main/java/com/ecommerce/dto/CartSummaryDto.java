@@ -0,0 +1,48 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The cart's items together with its total and item count.
+ */
+public class CartSummaryDto {
+    
+    private List<CartItemDto> items;
+    private BigDecimal total;
+    private int itemCount;
+    
+    // Constructors
+    public CartSummaryDto() {}
+    
+    public CartSummaryDto(List<CartItemDto> items, BigDecimal total, int itemCount) {
+        this.items = items;
+        this.total = total;
+        this.itemCount = itemCount;
+    }
+    
+    // Getters and Setters
+    public List<CartItemDto> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<CartItemDto> items) {
+        this.items = items;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public int getItemCount() {
+        return itemCount;
+    }
+    
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+} 
\ No newline at end of file
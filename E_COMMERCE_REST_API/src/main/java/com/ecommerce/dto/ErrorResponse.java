@@ -0,0 +1,55 @@
+package com.ecommerce.dto;
+
+/**
+ * Body of every error response produced by {@link com.ecommerce.controller.ApiExceptionHandler}.
+ */
+public class ErrorResponse {
+    
+    private int status;
+    private String error;
+    private String message;
+    private String path;
+    
+    // Constructors
+    public ErrorResponse() {}
+    
+    public ErrorResponse(int status, String error, String message, String path) {
+        this.status = status;
+        this.error = error;
+        this.message = message;
+        this.path = path;
+    }
+    
+    // Getters and Setters
+    public int getStatus() {
+        return status;
+    }
+    
+    public void setStatus(int status) {
+        this.status = status;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public String getPath() {
+        return path;
+    }
+    
+    public void setPath(String path) {
+        this.path = path;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OrderDto {
+    
+    private Long id;
+    private String status;
+    private BigDecimal totalAmount;
+    private LocalDateTime createdAt;
+    private List<OrderItemDto> items;
+    
+    // Constructors
+    public OrderDto() {}
+    
+    public OrderDto(Long id, String status, BigDecimal totalAmount, LocalDateTime createdAt, List<OrderItemDto> items) {
+        this.id = id;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.createdAt = createdAt;
+        this.items = items;
+    }
+    
+    public static OrderDto from(Order order) {
+        return new OrderDto(order.getId(), order.getStatus().name(), order.getTotalAmount(), order.getCreatedAt(),
+                order.getItems().stream().map(OrderItemDto::from).toList());
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public List<OrderItemDto> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<OrderItemDto> items) {
+        this.items = items;
+    }
+} 
\ No newline at end of file
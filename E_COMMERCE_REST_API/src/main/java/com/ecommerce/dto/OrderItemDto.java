@@ -0,0 +1,71 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.entity.OrderItem;
+
+import java.math.BigDecimal;
+
+public class OrderItemDto {
+    
+    private Long productId;
+    private String productName;
+    private BigDecimal unitPrice;
+    private Integer quantity;
+    private BigDecimal lineTotal;
+    
+    // Constructors
+    public OrderItemDto() {}
+    
+    public OrderItemDto(Long productId, String productName, BigDecimal unitPrice, Integer quantity, BigDecimal lineTotal) {
+        this.productId = productId;
+        this.productName = productName;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+        this.lineTotal = lineTotal;
+    }
+    
+    public static OrderItemDto from(OrderItem item) {
+        return new OrderItemDto(item.getProductId(), item.getProductName(), item.getUnitPrice(),
+                item.getQuantity(), item.getLineTotal());
+    }
+    
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public BigDecimal getLineTotal() {
+        return lineTotal;
+    }
+    
+    public void setLineTotal(BigDecimal lineTotal) {
+        this.lineTotal = lineTotal;
+    }
+} 
\ No newline at end of file
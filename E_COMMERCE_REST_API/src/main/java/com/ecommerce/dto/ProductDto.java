@@ -1,11 +1,13 @@
 package com.ecommerce.dto;
 
+import com.ecommerce.entity.Product;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ProductDto {
@@ -56,6 +58,25 @@ public class ProductDto {
         this.technicalSpecifications = technicalSpecifications;
     }
     
+    /**
+     * Detached snapshot of a product; the image list is copied so the DTO can outlive the session.
+     */
+    public static ProductDto from(Product product) {
+        List<String> images = product.getImages() != null ? new ArrayList<>(product.getImages()) : null;
+        return new ProductDto(
+                product.getId(),
+                product.getName(),
+                product.getShortDescription(),
+                product.getFullDescription(),
+                product.getPrice(),
+                product.getStockQuantity(),
+                product.getCategory(),
+                product.getImageUrl(),
+                images,
+                product.getTechnicalSpecifications()
+        );
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
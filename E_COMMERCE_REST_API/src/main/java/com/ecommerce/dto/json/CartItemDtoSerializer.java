@@ -0,0 +1,61 @@
+package com.ecommerce.dto.json;
+
+import com.ecommerce.dto.CartItemDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Hand-written serializer for {@link CartItemDto}; see {@link ProductDtoSerializer}.
+ *
+ * Timestamps go through the configured {@code LocalDateTime} serializer so they keep
+ * following the application's date format settings.
+ */
+@JsonComponent
+public class CartItemDtoSerializer extends StdSerializer<CartItemDto> {
+    
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString PRODUCT_ID = new SerializedString("productId");
+    private static final SerializedString PRODUCT_NAME = new SerializedString("productName");
+    private static final SerializedString PRODUCT_DESCRIPTION = new SerializedString("productDescription");
+    private static final SerializedString PRODUCT_PRICE = new SerializedString("productPrice");
+    private static final SerializedString PRODUCT_IMAGE_URL = new SerializedString("productImageUrl");
+    private static final SerializedString QUANTITY = new SerializedString("quantity");
+    private static final SerializedString TOTAL_PRICE = new SerializedString("totalPrice");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    
+    public CartItemDtoSerializer() {
+        super(CartItemDto.class);
+    }
+    
+    @Override
+    public void serialize(CartItemDto item, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(item);
+        gen.writeFieldName(ID);
+        JsonWriters.writeNumber(gen, item.getId());
+        gen.writeFieldName(PRODUCT_ID);
+        JsonWriters.writeNumber(gen, item.getProductId());
+        gen.writeFieldName(PRODUCT_NAME);
+        gen.writeString(item.getProductName());
+        gen.writeFieldName(PRODUCT_DESCRIPTION);
+        gen.writeString(item.getProductDescription());
+        gen.writeFieldName(PRODUCT_PRICE);
+        gen.writeNumber(item.getProductPrice());
+        gen.writeFieldName(PRODUCT_IMAGE_URL);
+        gen.writeString(item.getProductImageUrl());
+        gen.writeFieldName(QUANTITY);
+        JsonWriters.writeNumber(gen, item.getQuantity());
+        gen.writeFieldName(TOTAL_PRICE);
+        gen.writeNumber(item.getTotalPrice());
+        gen.writeFieldName(CREATED_AT);
+        provider.defaultSerializeValue(item.getCreatedAt(), gen);
+        gen.writeFieldName(UPDATED_AT);
+        provider.defaultSerializeValue(item.getUpdatedAt(), gen);
+        gen.writeEndObject();
+    }
+} 
\ No newline at end of file
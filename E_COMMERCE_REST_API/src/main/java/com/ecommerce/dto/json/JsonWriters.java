@@ -0,0 +1,29 @@
+package com.ecommerce.dto.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Null-safe write helpers shared by the hand-written DTO serializers.
+ */
+final class JsonWriters {
+    
+    private JsonWriters() {}
+    
+    static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+    
+    static void writeNumber(JsonGenerator gen, Integer value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+} 
\ No newline at end of file
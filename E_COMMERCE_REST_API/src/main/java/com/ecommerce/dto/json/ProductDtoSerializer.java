@@ -0,0 +1,78 @@
+package com.ecommerce.dto.json;
+
+import com.ecommerce.dto.ProductDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Hand-written serializer for {@link ProductDto}, the element type of every catalog page.
+ *
+ * Produces exactly the same properties as Jackson's reflective bean serializer but writes
+ * them directly from the getters with pre-encoded field names, skipping property
+ * introspection and per-field serializer lookups.
+ */
+@JsonComponent
+public class ProductDtoSerializer extends StdSerializer<ProductDto> {
+    
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString SHORT_DESCRIPTION = new SerializedString("shortDescription");
+    private static final SerializedString FULL_DESCRIPTION = new SerializedString("fullDescription");
+    private static final SerializedString PRICE = new SerializedString("price");
+    private static final SerializedString STOCK_QUANTITY = new SerializedString("stockQuantity");
+    private static final SerializedString CATEGORY = new SerializedString("category");
+    private static final SerializedString IMAGE_URL = new SerializedString("imageUrl");
+    private static final SerializedString IMAGES = new SerializedString("images");
+    private static final SerializedString TECHNICAL_SPECIFICATIONS = new SerializedString("technicalSpecifications");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    
+    public ProductDtoSerializer() {
+        super(ProductDto.class);
+    }
+    
+    @Override
+    public void serialize(ProductDto product, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(product);
+        gen.writeFieldName(ID);
+        JsonWriters.writeNumber(gen, product.getId());
+        gen.writeFieldName(NAME);
+        gen.writeString(product.getName());
+        gen.writeFieldName(SHORT_DESCRIPTION);
+        gen.writeString(product.getShortDescription());
+        gen.writeFieldName(FULL_DESCRIPTION);
+        gen.writeString(product.getFullDescription());
+        gen.writeFieldName(PRICE);
+        gen.writeNumber(product.getPrice());
+        gen.writeFieldName(STOCK_QUANTITY);
+        JsonWriters.writeNumber(gen, product.getStockQuantity());
+        gen.writeFieldName(CATEGORY);
+        gen.writeString(product.getCategory());
+        gen.writeFieldName(IMAGE_URL);
+        gen.writeString(product.getImageUrl());
+        gen.writeFieldName(IMAGES);
+        writeImages(gen, product.getImages());
+        gen.writeFieldName(TECHNICAL_SPECIFICATIONS);
+        gen.writeString(product.getTechnicalSpecifications());
+        gen.writeFieldName(DESCRIPTION);
+        gen.writeString(product.getDescription());
+        gen.writeEndObject();
+    }
+    
+    private static void writeImages(JsonGenerator gen, List<String> images) throws IOException {
+        if (images == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray(images, images.size());
+        for (String image : images) {
+            gen.writeString(image);
+        }
+        gen.writeEndArray();
+    }
+} 
\ No newline at end of file
@@ -8,11 +8,15 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", indexes = {
+        @Index(name = "idx_cart_items_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_cart_items_product_id", columnList = "product_id")
+})
 public class CartItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_seq")
+    @SequenceGenerator(name = "cart_items_seq", sequenceName = "cart_items_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -28,6 +32,10 @@ public class CartItem {
     @Column(nullable = false)
     private Integer quantity;
     
+    // Price per unit when the line was added, kept current by repricing
+    @Column(name = "unit_price", precision = 10, scale = 2)
+    private BigDecimal unitPrice;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
@@ -37,6 +45,7 @@ public class CartItem {
     // Constructors
     public CartItem() {
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
     }
     
     public CartItem(User user, Product product, Integer quantity) {
@@ -44,6 +53,7 @@ public class CartItem {
         this.user = user;
         this.product = product;
         this.quantity = quantity;
+        this.unitPrice = product != null ? product.getPrice() : null;
     }
     
     // Getters and Setters
@@ -80,6 +90,20 @@ public class CartItem {
         this.updatedAt = LocalDateTime.now();
     }
     
+    /**
+     * The recorded unit price; lines stored before prices were recorded fall back to the product's price.
+     */
+    public BigDecimal getUnitPrice() {
+        if (unitPrice == null && product != null) {
+            return product.getPrice();
+        }
+        return unitPrice;
+    }
+    
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -98,8 +122,9 @@ public class CartItem {
     
     // Helper method to calculate total price for this cart item
     public BigDecimal getTotalPrice() {
-        if (product != null && product.getPrice() != null && quantity != null) {
-            return product.getPrice().multiply(BigDecimal.valueOf(quantity));
+        BigDecimal price = getUnitPrice();
+        if (price != null && quantity != null) {
+            return price.multiply(BigDecimal.valueOf(quantity));
         }
         return BigDecimal.ZERO;
     }
@@ -0,0 +1,44 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Directory entry that pins a user's cart to a shard other than the one its hash would pick.
+ * Written by the rebalancer when a cart is moved.
+ */
+@Entity
+@Table(name = "cart_shard_directory")
+public class CartShardAssignment {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(nullable = false)
+    private Integer shard;
+    
+    // Constructors
+    public CartShardAssignment() {}
+    
+    public CartShardAssignment(Long userId, Integer shard) {
+        this.userId = userId;
+        this.shard = shard;
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Integer getShard() {
+        return shard;
+    }
+    
+    public void setShard(Integer shard) {
+        this.shard = shard;
+    }
+} 
\ No newline at end of file
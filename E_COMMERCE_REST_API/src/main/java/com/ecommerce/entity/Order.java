@@ -0,0 +1,128 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A checked-out cart. Lines snapshot the product name and price at checkout so later catalog
+ * changes don't rewrite order history.
+ *
+ * Ids come from a pooled sequence rather than an identity column so Hibernate can batch the
+ * order and line-item inserts.
+ */
+@Entity
+@Table(name = "orders", uniqueConstraints = @UniqueConstraint(
+        name = "uk_orders_user_idempotency_key", columnNames = {"user_id", "idempotency_key"}))
+public class Order {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PLACED;
+    
+    @Column(name = "total_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    private List<OrderItem> items = new ArrayList<>();
+    
+    // Constructors
+    public Order() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public Order(User user, String idempotencyKey) {
+        this();
+        this.user = user;
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    /**
+     * Attach a line and add it to the order total.
+     */
+    public void addItem(OrderItem item) {
+        item.setOrder(this);
+        items.add(item);
+        totalAmount = totalAmount.add(item.getLineTotal());
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+    }
+    
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public List<OrderItem> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<OrderItem> items) {
+        this.items = items;
+    }
+    
+    public enum Status {
+        PLACED
+    }
+} 
\ No newline at end of file
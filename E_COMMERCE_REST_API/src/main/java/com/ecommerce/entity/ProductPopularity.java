@@ -0,0 +1,56 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Lifetime view and cart-add counts of a product, added to in batches by
+ * {@link com.ecommerce.popularity.PopularityService}. Read only to seed the popularity ranking at startup.
+ */
+@Entity
+@Table(name = "product_popularity")
+public class ProductPopularity {
+    
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+    
+    @Column(nullable = false)
+    private long views;
+    
+    @Column(name = "cart_adds", nullable = false)
+    private long cartAdds;
+    
+    // Constructors
+    public ProductPopularity() {}
+    
+    public ProductPopularity(Long productId, long views, long cartAdds) {
+        this.productId = productId;
+        this.views = views;
+        this.cartAdds = cartAdds;
+    }
+    
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public long getViews() {
+        return views;
+    }
+    
+    public void setViews(long views) {
+        this.views = views;
+    }
+    
+    public long getCartAdds() {
+        return cartAdds;
+    }
+    
+    public void setCartAdds(long cartAdds) {
+        this.cartAdds = cartAdds;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.ecommerce.exception;
+
+/**
+ * The request clashes with the current state, such as a username that is already taken. Maps to 409.
+ */
+public class ConflictException extends DomainException {
+    
+    public ConflictException(String message) {
+        super(message);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.ecommerce.exception;
+
+/**
+ * An expected, client-caused outcome of a service call: something doesn't exist, is already
+ * taken, or the request can't be applied. {@link com.ecommerce.controller.ApiExceptionHandler}
+ * turns each subtype into its HTTP status.
+ *
+ * These are rejections, not faults, and are thrown on every bad lookup or duplicate submit, so
+ * they skip filling in the stack trace (the expensive part of throwing) and take no suppressed
+ * exceptions. Instances with a fixed message carry no state and can be preallocated and rethrown.
+ */
+public abstract class DomainException extends RuntimeException {
+    
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.ecommerce.exception;
+
+/**
+ * The request is well-formed but can't be applied, such as a non-positive quantity or checking
+ * out an empty cart. Maps to 400.
+ */
+public class InvalidRequestException extends DomainException {
+    
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.ecommerce.exception;
+
+/**
+ * The requested resource doesn't exist, or doesn't belong to the caller. Maps to 404.
+ */
+public class NotFoundException extends DomainException {
+    
+    private final String resource;
+    private final Object id;
+    
+    public NotFoundException(String message) {
+        super(message);
+        this.resource = null;
+        this.id = null;
+    }
+    
+    /**
+     * The message is only built if someone reads it; most rejections are just mapped to a status.
+     */
+    public NotFoundException(String resource, Object id) {
+        super(null);
+        this.resource = resource;
+        this.id = id;
+    }
+    
+    @Override
+    public String getMessage() {
+        return resource == null ? super.getMessage() : resource + " not found with id: " + id;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.ecommerce.exception;
+
+/**
+ * The work was refused because the capacity set aside for it is in use. Maps to 503.
+ */
+public class ServiceBusyException extends DomainException {
+    
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.ecommerce.limit;
+
+import com.ecommerce.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds requests with 503 once their lane is at its concurrency limit, instead of letting them
+ * wait for a request thread or a database connection until they time out.
+ *
+ * Authenticated requests are high priority; anonymous ones (browsing, login attempts, guest
+ * carts) are low priority and are shed first. Runs right after the
+ * {@link com.ecommerce.security.JwtAuthenticationFilter}, so priority comes from a verified
+ * token rather than the mere presence of an {@code Authorization} header; checking a token is a
+ * signature check without a database lookup, so a shed request still costs little. A token
+ * refresh carries its refresh token in the body, which is only checked against the database
+ * later, so it stays low priority like a login. Also marks the request's {@link LaneContext},
+ * which picks the connection pool its transactions use.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private static final ErrorResponse BUSY = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(),
+            HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(), "Server is busy, please retry shortly", null);
+    
+    private final ConcurrencyLimiters limiters;
+    private final byte[] busyBody;
+    
+    public ConcurrencyLimitFilter(ConcurrencyLimiters limiters, ObjectMapper objectMapper) throws IOException {
+        this.limiters = limiters;
+        this.busyBody = objectMapper.writeValueAsBytes(BUSY);
+    }
+    
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Lane lane = Lane.of(path);
+        Lane previous = LaneContext.enter(lane);
+        try {
+            limit(lane, request, response, filterChain);
+        } finally {
+            LaneContext.restore(previous);
+        }
+    }
+    
+    private void limit(Lane lane, HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        ConcurrencyLimiter limiter = limiters.get(lane);
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        boolean authenticated = isAuthenticated(SecurityContextHolder.getContext().getAuthentication());
+        if (!limiter.tryAcquire(authenticated ? ConcurrencyLimiter.Priority.HIGH : ConcurrencyLimiter.Priority.LOW)) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(busyBody);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            limiter.release(System.nanoTime() - start, completed && response.getStatus() < 500);
+        }
+    }
+    
+    private static boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+} 
\ No newline at end of file
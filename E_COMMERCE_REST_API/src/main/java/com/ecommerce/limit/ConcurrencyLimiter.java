@@ -0,0 +1,64 @@
+package com.ecommerce.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admits requests while fewer than the current {@link GradientLimit} are in flight. Low-priority
+ * requests only get {@code lowPriorityShare} of the limit, so they are shed first and the rest
+ * stays free for high-priority ones.
+ */
+public class ConcurrencyLimiter {
+    
+    private final GradientLimit limit;
+    private final double lowPriorityShare;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    
+    public ConcurrencyLimiter(GradientLimit limit, double lowPriorityShare) {
+        this.limit = limit;
+        this.lowPriorityShare = lowPriorityShare;
+    }
+    
+    /**
+     * Take a slot if one is free for this priority. Every successful call must be paired with
+     * {@link #release}.
+     */
+    public boolean tryAcquire(Priority priority) {
+        int max = priority == Priority.HIGH ? limit.getLimit() : Math.max(1, (int) (limit.getLimit() * lowPriorityShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= max) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.increment();
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Give the slot back. Only requests that completed normally feed their latency to the limit;
+     * failures say little about how long work takes.
+     */
+    public void release(long rttNanos, boolean sample) {
+        int current = inFlight.getAndDecrement();
+        if (sample) {
+            limit.onSample(rttNanos, current);
+        }
+    }
+    
+    public Stats getStats() {
+        return new Stats(limit.getLimit(), inFlight.get(), admitted.sum(), rejected.sum());
+    }
+    
+    public enum Priority {
+        HIGH,
+        LOW
+    }
+    
+    public record Stats(int limit, int inFlight, long admitted, long rejected) {}
+} 
\ No newline at end of file
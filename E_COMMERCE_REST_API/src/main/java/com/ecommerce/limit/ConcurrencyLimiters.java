@@ -0,0 +1,45 @@
+package com.ecommerce.limit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One {@link ConcurrencyLimiter} per {@link Lane}, all tuned by the {@code concurrency-limit}
+ * settings but each adapting to the latency of its own lane.
+ */
+@Component
+public class ConcurrencyLimiters {
+    
+    private final Map<Lane, ConcurrencyLimiter> limiters = new EnumMap<>(Lane.class);
+    private final boolean enabled;
+    
+    public ConcurrencyLimiters(@Value("${concurrency-limit.enabled:true}") boolean enabled,
+                               @Value("${concurrency-limit.initial-limit:20}") int initialLimit,
+                               @Value("${concurrency-limit.min-limit:4}") int minLimit,
+                               @Value("${concurrency-limit.max-limit:200}") int maxLimit,
+                               @Value("${concurrency-limit.rtt-tolerance:1.5}") double rttTolerance,
+                               @Value("${concurrency-limit.smoothing:0.2}") double smoothing,
+                               @Value("${concurrency-limit.low-priority-share:0.5}") double lowPriorityShare) {
+        this.enabled = enabled;
+        for (Lane lane : Lane.values()) {
+            limiters.put(lane, new ConcurrencyLimiter(new GradientLimit(initialLimit, minLimit, maxLimit, rttTolerance, smoothing),
+                    lowPriorityShare));
+        }
+    }
+    
+    /**
+     * The limiter for a lane, or {@code null} when limiting is off or the path has no lane.
+     */
+    public ConcurrencyLimiter get(Lane lane) {
+        return enabled && lane != null ? limiters.get(lane) : null;
+    }
+    
+    public Map<Lane, ConcurrencyLimiter.Stats> getStats() {
+        Map<Lane, ConcurrencyLimiter.Stats> stats = new EnumMap<>(Lane.class);
+        limiters.forEach((lane, limiter) -> stats.put(lane, limiter.getStats()));
+        return stats;
+    }
+} 
\ No newline at end of file
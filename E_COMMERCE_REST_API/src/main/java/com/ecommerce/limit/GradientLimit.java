@@ -0,0 +1,72 @@
+package com.ecommerce.limit;
+
+/**
+ * Concurrency limit that follows observed latency, in the style of the gradient algorithm used
+ * by adaptive concurrency limiters (TCP Vegas applied to request latency).
+ *
+ * Two moving averages of the round-trip time are kept: a short one for what requests take now
+ * and a long one for what they normally take. While the short average stays within
+ * {@code rttTolerance} of the long one the limit grows by about its square root per sample;
+ * once requests slow down (queueing in the pool, a slow database) the limit shrinks in
+ * proportion, down to half per sample. The long average slowly absorbs a lasting change in
+ * latency so the limit recovers once the system has settled at its new speed.
+ */
+public class GradientLimit {
+    
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+    private volatile int limit;
+    
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance, double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    /**
+     * Record a completed request that took {@code rttNanos} while {@code inFlight} requests
+     * (itself included) were running.
+     */
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        double rtt = Math.max(rttNanos, 1);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return;
+        }
+        shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+        longRtt += (rtt - longRtt) / LONG_WINDOW;
+        // Latency fell well below normal (recovered from an incident): let the baseline follow quickly
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+        // Too few requests to tell whether the limit is too high; don't grow it
+        if (inFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.ecommerce.limit;
+
+/**
+ * Groups of work that get their own concurrency limit and, where configured, their own
+ * connection pool, so a slow lane can't take all request threads or connections from the others.
+ */
+public enum Lane {
+    
+    ADMIN,
+    AUTH,
+    CART,
+    CATALOG;
+    
+    private static final String RELOAD_PATH = "/api/products/reload";
+    
+    /**
+     * The lane of an application path, or {@code null} for unlimited paths (docs, console).
+     */
+    public static Lane of(String path) {
+        if (path.startsWith("/api/admin/") || path.equals(RELOAD_PATH)) {
+            return ADMIN;
+        }
+        if (path.startsWith("/api/products")) {
+            return CATALOG;
+        }
+        if (path.startsWith("/api/cart") || path.startsWith("/api/guest-cart") || path.startsWith("/api/orders")) {
+            return CART;
+        }
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        return null;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.ecommerce.limit;
+
+/**
+ * The {@link Lane} the current thread is working for. {@link LaneRoutingDataSource} reads it to
+ * pick the connection pool, so a transaction draws from the pool of the lane that started it.
+ */
+public final class LaneContext {
+    
+    private static final ThreadLocal<Lane> current = new ThreadLocal<>();
+    
+    private LaneContext() {}
+    
+    /**
+     * The lane of this thread, or {@code null} outside any lane.
+     */
+    public static Lane current() {
+        return current.get();
+    }
+    
+    /**
+     * Switch this thread to {@code lane}. Returns the previous lane, to hand to {@link #restore}.
+     */
+    public static Lane enter(Lane lane) {
+        Lane previous = current.get();
+        set(lane);
+        return previous;
+    }
+    
+    public static void restore(Lane previous) {
+        set(previous);
+    }
+    
+    /**
+     * Run {@code task} on this thread in {@code lane}.
+     */
+    public static void run(Lane lane, Runnable task) {
+        Lane previous = enter(lane);
+        try {
+            task.run();
+        } finally {
+            restore(previous);
+        }
+    }
+    
+    private static void set(Lane lane) {
+        if (lane == null) {
+            current.remove();
+        } else {
+            current.set(lane);
+        }
+    }
+} 
\ No newline at end of file
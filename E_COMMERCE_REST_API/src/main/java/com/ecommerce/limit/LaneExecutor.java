@@ -0,0 +1,60 @@
+package com.ecommerce.limit;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed number of threads with a bounded queue, running every task in one {@link Lane}.
+ *
+ * Work handed to it never runs on a request thread, can't use more threads than configured and
+ * is refused once the queue is full, so a burst of background work waits here rather than
+ * taking threads or connections from other lanes.
+ */
+public class LaneExecutor implements AutoCloseable {
+    
+    private final Lane lane;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+    
+    public LaneExecutor(Lane lane, int threads, int queueCapacity) {
+        this.lane = lane;
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "lane-" + lane.name().toLowerCase() + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Queue {@code task}. Throws {@link RejectedExecutionException} when every thread is busy and the queue is full.
+     */
+    public void execute(Runnable task) {
+        try {
+            executor.execute(() -> LaneContext.run(lane, task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+    
+    public Stats getStats() {
+        return new Stats(lane, executor.getMaximumPoolSize(), executor.getActiveCount(), executor.getQueue().size(),
+                executor.getCompletedTaskCount(), rejected.sum());
+    }
+    
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+    
+    public record Stats(Lane lane, int threads, int active, int queued, long completed, long rejected) {
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.ecommerce.limit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the current thread's {@link Lane}.
+ *
+ * Lanes with a pool of their own can exhaust only that pool: a bulk reload holding every admin
+ * connection leaves the catalog and cart pools untouched. Lanes without one, and work outside
+ * any lane, use the main pool.
+ */
+public class LaneRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    
+    private static final String MAIN_POOL = "main";
+    
+    private final HikariDataSource mainPool;
+    private final Map<Lane, HikariDataSource> lanePools;
+    
+    public LaneRoutingDataSource(HikariDataSource mainPool, Map<Lane, HikariDataSource> lanePools) {
+        this.mainPool = mainPool;
+        this.lanePools = new EnumMap<>(Lane.class);
+        this.lanePools.putAll(lanePools);
+        setDefaultTargetDataSource(mainPool);
+        setTargetDataSources(new HashMap<>(lanePools));
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return LaneContext.current();
+    }
+    
+    /**
+     * Threads waiting for a connection anywhere but the admin pool, i.e. customer requests
+     * that are queueing.
+     */
+    public int getCustomerThreadsAwaitingConnection() {
+        int awaiting = awaiting(mainPool);
+        for (Map.Entry<Lane, HikariDataSource> entry : lanePools.entrySet()) {
+            if (entry.getKey() != Lane.ADMIN) {
+                awaiting += awaiting(entry.getValue());
+            }
+        }
+        return awaiting;
+    }
+    
+    public Map<String, PoolStats> getPoolStats() {
+        Map<String, PoolStats> stats = new LinkedHashMap<>();
+        stats.put(MAIN_POOL, stats(mainPool));
+        lanePools.forEach((lane, pool) -> stats.put(lane.name().toLowerCase(), stats(pool)));
+        return stats;
+    }
+    
+    @Override
+    public void close() {
+        lanePools.values().forEach(HikariDataSource::close);
+    }
+    
+    private static int awaiting(HikariDataSource pool) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        return bean != null ? bean.getThreadsAwaitingConnection() : 0;
+    }
+    
+    private static PoolStats stats(HikariDataSource pool) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        if (bean == null) {
+            return new PoolStats(pool.getMaximumPoolSize(), 0, 0, 0);
+        }
+        return new PoolStats(pool.getMaximumPoolSize(), bean.getActiveConnections(), bean.getIdleConnections(),
+                bean.getThreadsAwaitingConnection());
+    }
+    
+    public record PoolStats(int maxSize, int active, int idle, int awaiting) {
+    }
+} 
\ No newline at end of file
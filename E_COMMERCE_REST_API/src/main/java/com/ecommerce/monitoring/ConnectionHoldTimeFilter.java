@@ -0,0 +1,50 @@
+package com.ecommerce.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Attributes connection checkouts to the request running on the thread and logs requests that
+ * held connections for longer than {@code jdbc.hold-time.warn-threshold} in total.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConnectionHoldTimeFilter extends OncePerRequestFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(ConnectionHoldTimeFilter.class);
+    
+    @Autowired
+    private ConnectionHoldTimeTracker tracker;
+    
+    @Value("${jdbc.hold-time.warn-threshold:500ms}")
+    private Duration warnThreshold;
+    
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        tracker.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long heldMillis = tracker.endRequest();
+            if (heldMillis > warnThreshold.toMillis()) {
+                log.warn("{} {} held database connections for {} ms", request.getMethod(), request.getRequestURI(), heldMillis);
+            }
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.ecommerce.monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * How long connections of the main pool are held, per checkout and per HTTP request.
+ *
+ * Hikari reports each checkout's duration when the connection is returned, on the thread that
+ * returns it. {@link ConnectionHoldTimeFilter} marks the request running on that thread, so a
+ * request's hold time is the sum of its checkouts. Request hold times go into power-of-two
+ * millisecond buckets for percentiles.
+ */
+@Component
+public class ConnectionHoldTimeTracker implements BeanPostProcessor, MetricsTrackerFactory {
+    
+    private static final int BUCKETS = 64;
+    
+    private static final ThreadLocal<long[]> currentRequest = new ThreadLocal<>();
+    
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder checkoutMillis = new LongAdder();
+    private final AtomicLong maxCheckoutMillis = new AtomicLong();
+    
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder requestsUsingConnections = new LongAdder();
+    private final LongAdder requestHoldMillis = new LongAdder();
+    private final AtomicLong maxRequestHoldMillis = new AtomicLong();
+    private final AtomicLongArray requestHistogram = new AtomicLongArray(BUCKETS);
+    
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource hikari && hikari.getMetricsTrackerFactory() == null) {
+            hikari.setMetricsTrackerFactory(this);
+        }
+        return bean;
+    }
+    
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                recordCheckout(elapsedBorrowedMillis);
+            }
+        };
+    }
+    
+    void recordCheckout(long millis) {
+        checkouts.increment();
+        checkoutMillis.add(millis);
+        maxCheckoutMillis.accumulateAndGet(millis, Math::max);
+        long[] request = currentRequest.get();
+        if (request != null) {
+            request[0]++;
+            request[1] += millis;
+        }
+    }
+    
+    void beginRequest() {
+        currentRequest.set(new long[2]);
+    }
+    
+    /**
+     * Record the finished request on this thread. Returns its total hold time in milliseconds.
+     */
+    long endRequest() {
+        long[] request = currentRequest.get();
+        currentRequest.remove();
+        if (request == null) {
+            return 0;
+        }
+        long millis = request[1];
+        requests.increment();
+        if (request[0] > 0) {
+            requestsUsingConnections.increment();
+            requestHoldMillis.add(millis);
+            maxRequestHoldMillis.accumulateAndGet(millis, Math::max);
+            requestHistogram.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(millis));
+        }
+        return millis;
+    }
+    
+    public Stats getStats() {
+        long usingConnections = requestsUsingConnections.sum();
+        long checkoutCount = checkouts.sum();
+        return new Stats(
+                requests.sum(),
+                usingConnections,
+                usingConnections == 0 ? 0 : (double) requestHoldMillis.sum() / usingConnections,
+                requestPercentileMillis(0.99, usingConnections),
+                maxRequestHoldMillis.get(),
+                checkoutCount,
+                checkoutCount == 0 ? 0 : (double) checkoutMillis.sum() / checkoutCount,
+                maxCheckoutMillis.get());
+    }
+    
+    /**
+     * Upper bound of the bucket holding the given percentile of requests that used a connection.
+     */
+    private long requestPercentileMillis(double percentile, long count) {
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += requestHistogram.get(bucket);
+            if (seen >= rank && seen > 0) {
+                return bucket == 0 ? 0 : (1L << bucket) - 1;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Connection hold time per request (only requests that used one) and per checkout.
+     */
+    public record Stats(long requests, long requestsUsingConnections, double meanRequestHoldMillis,
+                        long p99RequestHoldMillis, long maxRequestHoldMillis, long checkouts,
+                        double meanCheckoutMillis, long maxCheckoutMillis) {}
+} 
\ No newline at end of file
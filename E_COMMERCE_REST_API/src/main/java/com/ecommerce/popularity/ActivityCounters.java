@@ -0,0 +1,133 @@
+package com.ecommerce.popularity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-product view and cart-add counts, recorded without locks or allocation.
+ *
+ * A count goes to one of several stripes picked by the recording thread, so threads hitting the
+ * same popular product mostly update different memory. Each stripe is a fixed-size
+ * open-addressing table of product ids. A product that can't find a slot within
+ * {@value #MAX_PROBES} probes is counted as dropped rather than growing the table.
+ *
+ * {@link #drain()} swaps in a second set of tables and collects the counts of the ones just
+ * retired. A retired set is only cleared at the following drain, a whole interval later, so a
+ * recorder still holding it can't lose a count.
+ */
+public class ActivityCounters {
+    
+    public static final int VIEW = 0;
+    public static final int CART_ADD = 1;
+    
+    private static final int KINDS = 2;
+    private static final int MAX_PROBES = 16;
+    private static final long EMPTY = 0;
+    
+    private final int stripeShift;
+    private final int stripeMask;
+    private final int slotMask;
+    private final LongAdder dropped = new LongAdder();
+    
+    private volatile Tables active;
+    private Tables retired;
+    
+    /**
+     * @param stripes number of stripes, rounded up to a power of two
+     * @param slotsPerStripe products one stripe can count per interval, rounded up to a power of two
+     */
+    public ActivityCounters(int stripes, int slotsPerStripe) {
+        int stripeCount = powerOfTwo(stripes);
+        int slots = powerOfTwo(slotsPerStripe);
+        this.stripeShift = Integer.numberOfTrailingZeros(slots);
+        this.stripeMask = stripeCount - 1;
+        this.slotMask = slots - 1;
+        this.active = new Tables(stripeCount * slots);
+        this.retired = new Tables(stripeCount * slots);
+    }
+    
+    /**
+     * Count one {@link #VIEW} or {@link #CART_ADD} of {@code productId}. Ids must be positive.
+     */
+    public void record(long productId, int kind) {
+        if (productId <= 0) {
+            return;
+        }
+        Tables tables = active;
+        int base = (mix((int) Thread.currentThread().threadId()) & stripeMask) << stripeShift;
+        int hash = mix(Long.hashCode(productId));
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = base + ((hash + probe) & slotMask);
+            long key = tables.keys.get(slot);
+            if (key == EMPTY && tables.keys.compareAndSet(slot, EMPTY, productId)) {
+                key = productId;
+            } else if (key == EMPTY) {
+                key = tables.keys.get(slot);
+            }
+            if (key == productId) {
+                tables.counts.getAndIncrement(slot * KINDS + kind);
+                return;
+            }
+        }
+        dropped.increment();
+    }
+    
+    /**
+     * Counts recorded since the previous drain, per product: {@code [views, cartAdds]}.
+     */
+    public synchronized Map<Long, long[]> drain() {
+        Map<Long, long[]> totals = new HashMap<>();
+        // Idle for a whole interval: collect any late count and clear it for reuse
+        Tables fresh = retired;
+        collect(fresh, totals, true);
+        retired = active;
+        active = fresh;
+        collect(retired, totals, false);
+        return totals;
+    }
+    
+    public long getDropped() {
+        return dropped.sum();
+    }
+    
+    private static void collect(Tables tables, Map<Long, long[]> totals, boolean clear) {
+        for (int slot = 0; slot < tables.keys.length(); slot++) {
+            long key = tables.keys.get(slot);
+            if (key == EMPTY) {
+                continue;
+            }
+            long views = tables.counts.getAndSet(slot * KINDS + VIEW, 0);
+            long cartAdds = tables.counts.getAndSet(slot * KINDS + CART_ADD, 0);
+            if (views > 0 || cartAdds > 0) {
+                long[] total = totals.computeIfAbsent(key, id -> new long[KINDS]);
+                total[VIEW] += views;
+                total[CART_ADD] += cartAdds;
+            }
+            if (clear) {
+                tables.keys.set(slot, EMPTY);
+            }
+        }
+    }
+    
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+    
+    private static int powerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+    
+    private static final class Tables {
+        
+        private final AtomicLongArray keys;
+        private final AtomicLongArray counts;
+        
+        private Tables(int slots) {
+            this.keys = new AtomicLongArray(slots);
+            this.counts = new AtomicLongArray(slots * KINDS);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.ecommerce.popularity;
+
+import com.ecommerce.entity.ProductPopularity;
+import com.ecommerce.limit.Lane;
+import com.ecommerce.limit.LaneContext;
+import com.ecommerce.repository.ProductPopularityRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Product popularity from views and cart adds, without a database write per event.
+ *
+ * Events are counted in {@link ActivityCounters}. Every flush interval the counts are drained,
+ * fed as views plus weighted cart adds into a {@link SpaceSavingSketch} whose counts decay with
+ * {@code popularity.half-life}, and added to {@code product_popularity} with batched statements.
+ * The top {@code popularity.top-k} products of the sketch form the ranking that popularity
+ * sorting reads; requests never touch the counter table. At startup the sketch is seeded from
+ * that table.
+ *
+ * Counts not yet written are lost if the node stops abruptly; on shutdown they are flushed.
+ */
+@Service
+public class PopularityService {
+    
+    private static final Logger log = LoggerFactory.getLogger(PopularityService.class);
+    
+    private static final String UPDATE_SQL =
+            "UPDATE product_popularity SET views = views + ?, cart_adds = cart_adds + ? WHERE product_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO product_popularity (product_id, views, cart_adds) VALUES (?, ?, ?)";
+    
+    // Decayed scores below this are forgotten
+    private static final double MIN_SCORE = 0.01;
+    
+    @Autowired
+    private ProductPopularityRepository popularityRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${popularity.stripes:0}")
+    private int stripes;
+    
+    @Value("${popularity.slots-per-stripe:4096}")
+    private int slotsPerStripe;
+    
+    @Value("${popularity.top-k:100}")
+    private int topK;
+    
+    @Value("${popularity.sketch-capacity:1000}")
+    private int sketchCapacity;
+    
+    @Value("${popularity.cart-add-weight:5}")
+    private double cartAddWeight;
+    
+    @Value("${popularity.half-life:6h}")
+    private Duration halfLife;
+    
+    private ActivityCounters counters;
+    private SpaceSavingSketch sketch;
+    private volatile List<Long> ranking = List.of();
+    
+    // Drained counts not yet written to product_popularity
+    private final Map<Long, long[]> pending = new HashMap<>();
+    private long lastFlushNanos = System.nanoTime();
+    private long flushes;
+    
+    @PostConstruct
+    void init() {
+        counters = new ActivityCounters(stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors(), slotsPerStripe);
+        sketch = new SpaceSavingSketch(sketchCapacity);
+        for (ProductPopularity popularity : popularityRepository.findMostPopular(cartAddWeight, PageRequest.of(0, sketchCapacity))) {
+            sketch.add(popularity.getProductId(), score(popularity.getViews(), popularity.getCartAdds()));
+        }
+        ranking = List.copyOf(sketch.top(topK));
+    }
+    
+    public void recordView(long productId) {
+        counters.record(productId, ActivityCounters.VIEW);
+    }
+    
+    public void recordCartAdd(long productId) {
+        counters.record(productId, ActivityCounters.CART_ADD);
+    }
+    
+    /**
+     * Ids of the most popular products, most popular first. Updated every flush.
+     */
+    public List<Long> getRanking() {
+        return ranking;
+    }
+    
+    /**
+     * Fold the counts since the last flush into the ranking and write them to the database.
+     */
+    @Scheduled(fixedDelayString = "${popularity.flush-interval-ms:10000}", initialDelayString = "${popularity.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        Map<Long, long[]> counts = counters.drain();
+        long now = System.nanoTime();
+        sketch.decay(Math.pow(0.5, (double) (now - lastFlushNanos) / halfLife.toNanos()), MIN_SCORE);
+        lastFlushNanos = now;
+        counts.forEach((productId, count) -> {
+            sketch.add(productId, score(count[ActivityCounters.VIEW], count[ActivityCounters.CART_ADD]));
+            long[] unwritten = pending.computeIfAbsent(productId, id -> new long[2]);
+            unwritten[ActivityCounters.VIEW] += count[ActivityCounters.VIEW];
+            unwritten[ActivityCounters.CART_ADD] += count[ActivityCounters.CART_ADD];
+        });
+        ranking = List.copyOf(sketch.top(topK));
+        flushes++;
+        // Background work: use the admin lane's connections
+        LaneContext.run(Lane.ADMIN, this::writeBack);
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+    
+    public synchronized Stats getStats() {
+        return new Stats(flushes, counters.getDropped(), sketch.size(), pending.size(), ranking);
+    }
+    
+    /**
+     * Add the pending counts to existing rows, then insert rows for products seen for the first time.
+     * Counts stay pending, to be retried next flush, until their statement succeeded.
+     */
+    private void writeBack() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>(pending.keySet());
+        List<Object[]> updates = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            long[] count = pending.get(productId);
+            updates.add(new Object[]{count[ActivityCounters.VIEW], count[ActivityCounters.CART_ADD], productId});
+        }
+        try {
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            List<Object[]> inserts = new ArrayList<>();
+            for (int i = 0; i < productIds.size(); i++) {
+                long[] count = pending.get(productIds.get(i));
+                if (updated[i] == 0) {
+                    inserts.add(new Object[]{productIds.get(i), count[ActivityCounters.VIEW], count[ActivityCounters.CART_ADD]});
+                } else {
+                    pending.remove(productIds.get(i));
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            }
+            pending.clear();
+        } catch (DataAccessException e) {
+            log.warn("Popularity write-back failed for {} products, will retry: {}", pending.size(), e.getMessage());
+        }
+    }
+    
+    private double score(long views, long cartAdds) {
+        return views + cartAddWeight * cartAdds;
+    }
+    
+    /**
+     * {@code dropped} events found no free counter slot; {@code tracked} products are in the sketch.
+     */
+    public record Stats(long flushes, long dropped, int tracked, int pendingWrites, List<Long> ranking) {
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.ecommerce.popularity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Streaming heavy hitters with the Space-Saving algorithm: a fixed number of counters that,
+ * whatever the number of distinct products, always includes every product whose share of the
+ * total weight exceeds {@code 1 / capacity}.
+ *
+ * A product without a counter takes over the smallest one and starts from its count, so counts
+ * may be overestimated by at most the smallest count. Counts can decay so that recent activity
+ * outweighs old activity.
+ */
+class SpaceSavingSketch {
+    
+    private static final Comparator<Counter> BY_COUNT = Comparator.<Counter>comparingDouble(counter -> counter.count)
+            .thenComparingLong(counter -> counter.productId);
+    
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> ordered = new TreeSet<>(BY_COUNT);
+    
+    SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+    }
+    
+    synchronized void add(long productId, double weight) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter(productId, 0);
+            } else {
+                Counter smallest = ordered.pollFirst();
+                counters.remove(smallest.productId);
+                counter = new Counter(productId, smallest.count);
+            }
+            counters.put(productId, counter);
+        } else {
+            ordered.remove(counter);
+        }
+        counter.count += weight;
+        ordered.add(counter);
+    }
+    
+    /**
+     * Multiply every count by {@code factor}, dropping counters that fall below {@code floor}.
+     */
+    synchronized void decay(double factor, double floor) {
+        List<Counter> all = new ArrayList<>(ordered);
+        ordered.clear();
+        for (Counter counter : all) {
+            counter.count *= factor;
+            if (counter.count < floor) {
+                counters.remove(counter.productId);
+            } else {
+                ordered.add(counter);
+            }
+        }
+    }
+    
+    /**
+     * Up to {@code k} product ids, highest count first.
+     */
+    synchronized List<Long> top(int k) {
+        List<Long> top = new ArrayList<>(Math.min(k, ordered.size()));
+        Iterator<Counter> descending = ordered.descendingIterator();
+        while (descending.hasNext() && top.size() < k) {
+            top.add(descending.next().productId);
+        }
+        return top;
+    }
+    
+    synchronized int size() {
+        return counters.size();
+    }
+    
+    private static final class Counter {
+        
+        private final long productId;
+        private double count;
+        
+        private Counter(long productId, double count) {
+            this.productId = productId;
+            this.count = count;
+        }
+    }
+} 
\ No newline at end of file
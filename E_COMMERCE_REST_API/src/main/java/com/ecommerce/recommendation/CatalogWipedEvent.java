@@ -0,0 +1,8 @@
+package com.ecommerce.recommendation;
+
+/**
+ * Raised when every product and cart has been deleted ahead of a catalog reload. The new
+ * products get new ids, so everything learned about the old ones is dropped.
+ */
+public record CatalogWipedEvent() {
+} 
\ No newline at end of file
@@ -0,0 +1,194 @@
+package com.ecommerce.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * Sparse, symmetric counts of how often two products were in the same cart.
+ *
+ * Each product has a row of at most {@code maxNeighbours} neighbours. When a row is full, a new
+ * neighbour takes over the least frequent one and starts from its count (Space-Saving), so the
+ * most frequent pairs survive while memory stays bounded. Rows live in {@link LongObjectMap}s
+ * split into stripes by product id, each with its own lock, and at most {@code maxProducts} rows
+ * are kept. Updates lock one stripe at a time, so they never deadlock.
+ */
+class CoOccurrenceMatrix {
+    
+    private final Stripe[] stripes;
+    private final int maxNeighbours;
+    private final int maxRowsPerStripe;
+    
+    CoOccurrenceMatrix(int stripes, int maxNeighbours, int maxProducts) {
+        int count = Integer.highestOneBit(Math.max(1, stripes) * 2 - 1);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.maxNeighbours = maxNeighbours;
+        this.maxRowsPerStripe = Math.max(1, maxProducts / count);
+    }
+    
+    /**
+     * Count every pair of distinct products in one cart.
+     */
+    void addCart(long[] productIds) {
+        for (long productId : productIds) {
+            increment(productId, productIds);
+        }
+    }
+    
+    /**
+     * Count {@code productId} as added to a cart already holding {@code cartProductIds}.
+     */
+    void addToCart(long productId, long[] cartProductIds) {
+        increment(productId, cartProductIds);
+        for (long other : cartProductIds) {
+            if (other != productId) {
+                Stripe stripe = stripeFor(other);
+                synchronized (stripe) {
+                    Row row = stripe.row(other, maxRowsPerStripe);
+                    if (row != null) {
+                        row.increment(productId, maxNeighbours);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Up to {@code limit} products most often in a cart with {@code productId}, most frequent first.
+     */
+    long[] related(long productId, int limit) {
+        Stripe stripe = stripeFor(productId);
+        synchronized (stripe) {
+            Row row = stripe.rows.get(productId);
+            return row != null ? row.top(limit) : new long[0];
+        }
+    }
+    
+    void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.rows.clear();
+            }
+        }
+    }
+    
+    Stats getStats() {
+        long products = 0;
+        long pairs = 0;
+        long droppedRows = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                products += stripe.rows.size();
+                long[] neighbours = new long[1];
+                stripe.rows.forEachValue(row -> neighbours[0] += row.size);
+                pairs += neighbours[0];
+                droppedRows += stripe.droppedRows;
+            }
+        }
+        return new Stats(products, pairs, droppedRows);
+    }
+    
+    private void increment(long productId, long[] neighbours) {
+        Stripe stripe = stripeFor(productId);
+        synchronized (stripe) {
+            Row row = stripe.row(productId, maxRowsPerStripe);
+            if (row == null) {
+                return;
+            }
+            for (long neighbour : neighbours) {
+                if (neighbour != productId) {
+                    row.increment(neighbour, maxNeighbours);
+                }
+            }
+        }
+    }
+    
+    private Stripe stripeFor(long productId) {
+        return stripes[(int) (productId ^ (productId >>> 32)) & (stripes.length - 1)];
+    }
+    
+    private static final class Stripe {
+        
+        private final LongObjectMap<Row> rows = new LongObjectMap<>(64);
+        private long droppedRows;
+        
+        /**
+         * The product's row, created if there is room; {@code null} when the stripe is full.
+         */
+        Row row(long productId, int maxRows) {
+            Row row = rows.get(productId);
+            if (row == null) {
+                if (rows.size() >= maxRows) {
+                    droppedRows++;
+                    return null;
+                }
+                row = new Row();
+                rows.put(productId, row);
+            }
+            return row;
+        }
+    }
+    
+    /**
+     * One product's neighbours and counts in parallel arrays, grown up to the row limit.
+     */
+    private static final class Row {
+        
+        private long[] ids = new long[4];
+        private long[] counts = new long[4];
+        private int size;
+        
+        void increment(long neighbour, int maxNeighbours) {
+            int smallest = 0;
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == neighbour) {
+                    counts[i]++;
+                    return;
+                }
+                if (counts[i] < counts[smallest]) {
+                    smallest = i;
+                }
+            }
+            if (size < maxNeighbours) {
+                if (size == ids.length) {
+                    int capacity = Math.min(maxNeighbours, size * 2);
+                    ids = Arrays.copyOf(ids, capacity);
+                    counts = Arrays.copyOf(counts, capacity);
+                }
+                ids[size] = neighbour;
+                counts[size++] = 1;
+            } else {
+                ids[smallest] = neighbour;
+                counts[smallest]++;
+            }
+        }
+        
+        /**
+         * Selection of the {@code limit} highest counts; rows are short, so no sorting structure is needed.
+         */
+        long[] top(int limit) {
+            int n = Math.min(limit, size);
+            long[] top = new long[n];
+            boolean[] taken = new boolean[size];
+            for (int k = 0; k < n; k++) {
+                int best = -1;
+                for (int i = 0; i < size; i++) {
+                    if (!taken[i] && (best < 0 || counts[i] > counts[best] || (counts[i] == counts[best] && ids[i] < ids[best]))) {
+                        best = i;
+                    }
+                }
+                taken[best] = true;
+                top[k] = ids[best];
+            }
+            return top;
+        }
+    }
+    
+    /**
+     * {@code products} have a row, holding {@code pairs} neighbours in all; {@code droppedRows}
+     * updates found their stripe full.
+     */
+    record Stats(long products, long pairs, long droppedRows) {
+    }
+} 
\ No newline at end of file
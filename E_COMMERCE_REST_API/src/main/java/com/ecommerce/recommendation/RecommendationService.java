@@ -0,0 +1,121 @@
+package com.ecommerce.recommendation;
+
+import com.ecommerce.cart.CartStore;
+import com.ecommerce.limit.LaneExecutor;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * "Frequently added together" recommendations from an in-memory {@link CoOccurrenceMatrix}.
+ *
+ * Once the application is ready, the matrix is built from every stored cart with a parallel
+ * {@link CartStore#scanCarts scan} on the admin lane. From then on each product added to a cart
+ * is counted against the products already in it, so requests only read the matrix and never
+ * query {@code cart_items}. Lines added while the bootstrap scan runs may be counted twice.
+ * The matrix is per node and starts over when the catalog is wiped.
+ */
+@Service
+public class RecommendationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+    
+    @Autowired
+    private CartStore cartStore;
+    
+    @Autowired
+    private LaneExecutor adminLaneExecutor;
+    
+    @Value("${recommendations.stripes:0}")
+    private int stripes;
+    
+    @Value("${recommendations.max-neighbours:32}")
+    private int maxNeighbours;
+    
+    @Value("${recommendations.max-products:100000}")
+    private int maxProducts;
+    
+    @Value("${recommendations.bootstrap-parallelism:4}")
+    private int bootstrapParallelism;
+    
+    private CoOccurrenceMatrix matrix;
+    private final AtomicLong cartsScanned = new AtomicLong();
+    private volatile boolean bootstrapped;
+    
+    @PostConstruct
+    void init() {
+        matrix = new CoOccurrenceMatrix(stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors(),
+                maxNeighbours, maxProducts);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrapInBackground() {
+        try {
+            adminLaneExecutor.execute(this::bootstrap);
+        } catch (RejectedExecutionException e) {
+            log.warn("Recommendations not bootstrapped, the admin lane is busy");
+        }
+    }
+    
+    /**
+     * Count every pair of products in every stored cart.
+     */
+    public void bootstrap() {
+        long started = System.nanoTime();
+        cartStore.scanCarts(bootstrapParallelism, cart -> {
+            matrix.addCart(cart);
+            cartsScanned.incrementAndGet();
+        });
+        bootstrapped = true;
+        log.info("Recommendations bootstrapped from {} carts in {} ms",
+                cartsScanned.get(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    /**
+     * Count {@code productId}, newly added to a cart, against the products already in it.
+     */
+    public void recordCartAdd(long productId, long[] cartProductIds) {
+        matrix.addToCart(productId, cartProductIds);
+    }
+    
+    /**
+     * Ids of up to {@code limit} products most often in a cart together with {@code productId}.
+     */
+    public List<Long> getRelated(long productId, int limit) {
+        long[] related = matrix.related(productId, limit);
+        List<Long> ids = new ArrayList<>(related.length);
+        for (long id : related) {
+            ids.add(id);
+        }
+        return ids;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogWiped(CatalogWipedEvent event) {
+        matrix.clear();
+        cartsScanned.set(0);
+    }
+    
+    public Stats getStats() {
+        CoOccurrenceMatrix.Stats matrixStats = matrix.getStats();
+        return new Stats(bootstrapped, cartsScanned.get(), matrixStats.products(), matrixStats.pairs(), matrixStats.droppedRows());
+    }
+    
+    /**
+     * {@code products} have neighbours, {@code pairs} in all; {@code droppedRows} updates found no
+     * room for a new product's row.
+     */
+    public record Stats(boolean bootstrapped, long cartsScanned, long products, long pairs, long droppedRows) {
+    }
+} 
\ No newline at end of file
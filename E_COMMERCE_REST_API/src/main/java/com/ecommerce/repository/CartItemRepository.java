@@ -2,28 +2,104 @@ package com.ecommerce.repository;
 
 import com.ecommerce.entity.CartItem;
 import com.ecommerce.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     
-    List<CartItem> findByUser(User user);
+    /**
+     * A user's cart with each item's product fetched in the same statement, so rendering the
+     * cart doesn't load the products one by one.
+     */
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product WHERE ci.user = :user ORDER BY ci.id")
+    List<CartItem> findByUser(@Param("user") User user);
     
-    Optional<CartItem> findByUserAndProductId(User user, Long productId);
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product WHERE ci.user = :user AND ci.product.id = :productId")
+    Optional<CartItem> findByUserAndProductId(@Param("user") User user, @Param("productId") Long productId);
     
-    @Query("SELECT ci FROM CartItem ci WHERE ci.user.id = :userId")
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product WHERE ci.user.id = :userId ORDER BY ci.id")
     List<CartItem> findByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT ci FROM CartItem ci WHERE ci.user.id = :userId AND ci.id = :cartItemId")
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product WHERE ci.user.id = :userId AND ci.id = :cartItemId")
     Optional<CartItem> findByUserIdAndCartItemId(@Param("userId") Long userId, @Param("cartItemId") Long cartItemId);
     
-    void deleteByUserAndProductId(User user, Long productId);
+    /**
+     * Empty a user's cart with a single statement instead of loading and removing each item.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CartItem ci WHERE ci.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
     
-    void deleteByUser(User user);
+    /**
+     * Remove a product from every cart with a single statement.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CartItem ci WHERE ci.product.id = :productId")
+    int deleteAllByProductId(@Param("productId") Long productId);
+    
+    @Query("SELECT DISTINCT ci.user.id FROM CartItem ci WHERE ci.product.id = :productId "
+            + "AND (ci.unitPrice IS NULL OR ci.unitPrice <> :unitPrice)")
+    List<Long> findUserIdsToReprice(@Param("productId") Long productId, @Param("unitPrice") BigDecimal unitPrice);
+    
+    /**
+     * Reprice up to {@code limit} lines of a product; {@code updated_at} is left alone since the
+     * user did not touch the line.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE cart_items SET unit_price = :unitPrice WHERE id IN (SELECT id FROM cart_items "
+            + "WHERE product_id = :productId AND (unit_price IS NULL OR unit_price <> :unitPrice) LIMIT :limit)", nativeQuery = true)
+    int repriceBatch(@Param("productId") Long productId, @Param("unitPrice") BigDecimal unitPrice, @Param("limit") int limit);
+    
+    /**
+     * Delete up to {@code limit} items not touched since {@code cutoff}. Rows written before
+     * {@code updated_at} was set on insert fall back to {@code created_at}.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM cart_items WHERE id IN (SELECT id FROM cart_items "
+            + "WHERE updated_at < :cutoff OR (updated_at IS NULL AND created_at < :cutoff) LIMIT :limit)", nativeQuery = true)
+    int deleteIdleBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+    
+    /**
+     * Ids of up to {@code limit} items not touched since {@code cutoff}, for callers that need to
+     * know which rows {@link #deleteIdleByIds} removed.
+     */
+    @Query(value = "SELECT id FROM cart_items "
+            + "WHERE updated_at < :cutoff OR (updated_at IS NULL AND created_at < :cutoff) LIMIT :limit", nativeQuery = true)
+    List<Long> findIdleIdsBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+    
+    /**
+     * Delete the items among {@code ids} that are still not touched since {@code cutoff}.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM cart_items WHERE id IN (:ids) "
+            + "AND (updated_at < :cutoff OR (updated_at IS NULL AND created_at < :cutoff))", nativeQuery = true)
+    int deleteIdleByIds(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+    
+    /**
+     * User id, item id and product id of the lines after ({@code userId}, {@code itemId}) among
+     * users whose id is {@code partition} modulo {@code partitions}, in that order.
+     */
+    @Query("SELECT ci.user.id, ci.id, ci.product.id FROM CartItem ci "
+            + "WHERE MOD(ci.user.id, :partitions) = :partition "
+            + "AND (ci.user.id > :userId OR (ci.user.id = :userId AND ci.id > :itemId)) "
+            + "ORDER BY ci.user.id, ci.id")
+    List<Object[]> findCartLinesAfter(@Param("partitions") int partitions, @Param("partition") int partition,
+                                      @Param("userId") long userId, @Param("itemId") long itemId, Pageable pageable);
 } 
\ No newline at end of file
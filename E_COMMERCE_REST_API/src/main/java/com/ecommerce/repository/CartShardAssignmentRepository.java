@@ -0,0 +1,9 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.CartShardAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CartShardAssignmentRepository extends JpaRepository<CartShardAssignment, Long> {
+} 
\ No newline at end of file
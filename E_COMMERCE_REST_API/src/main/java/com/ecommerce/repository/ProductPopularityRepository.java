@@ -0,0 +1,20 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.ProductPopularity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductPopularityRepository extends JpaRepository<ProductPopularity, Long> {
+    
+    /**
+     * The most popular products by views plus weighted cart adds, for seeding the in-memory ranking.
+     */
+    @Query("SELECT pp FROM ProductPopularity pp ORDER BY pp.views + pp.cartAdds * :cartAddWeight DESC")
+    List<ProductPopularity> findMostPopular(@Param("cartAddWeight") double cartAddWeight, Pageable pageable);
+} 
\ No newline at end of file
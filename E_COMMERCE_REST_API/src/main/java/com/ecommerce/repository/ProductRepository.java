@@ -4,10 +4,15 @@ import com.ecommerce.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
@@ -27,4 +32,70 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             @Param("maxPrice") Double maxPrice,
             Pageable pageable
     );
+    
+    /**
+     * The products among {@code ids} that pass the same filters as {@link #findByFilters}, in no particular order.
+     */
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids AND " +
+           "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
+           "(:category IS NULL OR p.category = :category) AND " +
+           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.price <= :maxPrice)")
+    List<Product> findByIdInAndFilters(
+            @Param("ids") Collection<Long> ids,
+            @Param("name") String name,
+            @Param("category") String category,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice
+    );
+    
+    /**
+     * The products outside {@code excludedIds} that pass the same filters as {@link #findByFilters}.
+     */
+    @Query("SELECT p FROM Product p WHERE p.id NOT IN :excludedIds AND " +
+           "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
+           "(:category IS NULL OR p.category = :category) AND " +
+           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.price <= :maxPrice)")
+    Page<Product> findByIdNotInAndFilters(
+            @Param("excludedIds") Collection<Long> excludedIds,
+            @Param("name") String name,
+            @Param("category") String category,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice,
+            Pageable pageable
+    );
+    
+    /**
+     * A product with its images fetched in the same statement, for rendering outside a transaction.
+     */
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.images WHERE p.id = :id")
+    Optional<Product> findWithImagesById(@Param("id") Long id);
+    
+    @Query("SELECT p.category FROM Product p WHERE p.category IS NOT NULL AND p.category <> '' " +
+           "GROUP BY p.category ORDER BY MIN(p.id)")
+    List<String> findDistinctCategories();
+    
+    @Query("SELECT MIN(p.id) FROM Product p")
+    Long findMinId();
+    
+    @Query("SELECT p.id FROM Product p ORDER BY p.id")
+    List<Long> findAllIds();
+    
+    @Query("SELECT p.id AS id, p.stockQuantity AS stockQuantity FROM Product p WHERE p.id IN :ids")
+    List<StockLevel> findStockLevels(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Empty the {@code product_images} collection table. Bulk deletes skip the element collection
+     * cascade, so this must run before {@link #deleteAllInBatch()}.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM product_images", nativeQuery = true)
+    int deleteAllImages();
+    
+    interface StockLevel {
+        Long getId();
+        
+        Integer getStockQuantity();
+    }
 } 
\ No newline at end of file
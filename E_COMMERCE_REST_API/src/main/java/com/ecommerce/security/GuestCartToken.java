@@ -0,0 +1,105 @@
+package com.ecommerce.security;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.WebUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Signed handle for a guest cart: the 8-byte guest id followed by a truncated HMAC-SHA256 of it,
+ * base64url-encoded into 32 characters. Much cheaper to issue and check than a JWT, and a client
+ * can't reach another guest's cart by guessing ids.
+ */
+@Component
+public class GuestCartToken {
+    
+    public static final String HEADER = "X-Guest-Cart";
+    public static final String COOKIE = "guest_cart";
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_BYTES = 16;
+    
+    private final SecretKeySpec key;
+    
+    public GuestCartToken(@Value("${cart.guest.secret:${jwt.secret}}") String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(), ALGORITHM);
+    }
+    
+    public String issue(long guestId) {
+        byte[] id = ByteBuffer.allocate(Long.BYTES).putLong(guestId).array();
+        byte[] token = Arrays.copyOf(id, Long.BYTES + MAC_BYTES);
+        System.arraycopy(mac(id), 0, token, Long.BYTES, MAC_BYTES);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+    
+    /**
+     * The guest id of a valid token; empty if the token is missing, malformed or not signed by us.
+     */
+    public Optional<Long> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        byte[] decoded;
+        try {
+            decoded = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (decoded.length != Long.BYTES + MAC_BYTES) {
+            return Optional.empty();
+        }
+        byte[] id = Arrays.copyOf(decoded, Long.BYTES);
+        byte[] expected = Arrays.copyOf(mac(id), MAC_BYTES);
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(decoded, Long.BYTES, decoded.length))) {
+            return Optional.empty();
+        }
+        return Optional.of(ByteBuffer.wrap(id).getLong());
+    }
+    
+    /**
+     * The guest id carried by the request, from the {@value #HEADER} header or else the
+     * {@value #COOKIE} cookie.
+     */
+    public Optional<Long> resolve(HttpServletRequest request) {
+        String token = request.getHeader(HEADER);
+        if (token == null) {
+            Cookie cookie = WebUtils.getCookie(request, COOKIE);
+            token = cookie == null ? null : cookie.getValue();
+        }
+        return verify(token);
+    }
+    
+    /**
+     * Cookie carrying {@code token} for browser clients; an empty token with a zero max age clears it.
+     */
+    public static ResponseCookie cookie(String token, Duration maxAge) {
+        return ResponseCookie.from(COOKIE, token)
+                .path("/api")
+                .httpOnly(true)
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build();
+    }
+    
+    private byte[] mac(byte[] data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is unavailable", e);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.ecommerce.security;
+
+/**
+ * Thrown when a refresh token is unknown, expired or has already been used.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+    
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+} 
\ No newline at end of file
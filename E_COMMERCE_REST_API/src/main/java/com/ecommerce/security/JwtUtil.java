@@ -3,6 +3,7 @@ package com.ecommerce.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -10,11 +11,19 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+/**
+ * Issues and parses the short-lived access tokens. Each token carries its own id ({@code jti})
+ * so it can be revoked, and the user's roles so requests can be authenticated from the token
+ * alone.
+ */
 @Component
 public class JwtUtil {
     
+    public static final String ROLES_CLAIM = "roles";
+    
     @Value("${jwt.secret}")
     private String secret;
     
@@ -38,6 +47,18 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
     
+    /**
+     * Verify the signature and expiry and return the claims; throws {@link JwtException} otherwise.
+     * A token without an id is rejected too, as it could never be revoked.
+     */
+    public Claims parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        if (claims.getId() == null) {
+            throw new MalformedJwtException("Token has no id");
+        }
+        return claims;
+    }
+    
     private Claims extractAllClaims(String token) {
         return Jwts.parser()
                 .verifyWith(getSigningKey())
@@ -52,6 +73,7 @@ public class JwtUtil {
     
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
         return createToken(claims, userDetails.getUsername());
     }
     
@@ -59,6 +81,7 @@ public class JwtUtil {
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(getSigningKey(), Jwts.SIG.HS256)
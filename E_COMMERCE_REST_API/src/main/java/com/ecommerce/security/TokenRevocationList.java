@@ -0,0 +1,103 @@
+package com.ecommerce.security;
+
+import com.ecommerce.entity.RevokedToken;
+import com.ecommerce.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens revoked before they expired, checked on every authenticated request.
+ *
+ * The {@code revoked_tokens} table is mirrored in memory as an exact set fronted by a Bloom
+ * filter. Almost every token is not revoked, and for those the filter answers from a few bit
+ * probes without touching the set or the database. Revocations made on this node apply
+ * immediately; the mirror is rebuilt every {@code jwt.revocation.refresh-interval-ms} to pick up
+ * other nodes' revocations and drop entries whose tokens have expired anyway.
+ */
+@Component
+public class TokenRevocationList {
+    
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+    
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    @Value("${jwt.revocation.min-capacity:10000}")
+    private int minCapacity;
+    
+    // Serializes revocations with rebuilds so a rebuild can't drop one made while it was reading
+    private final Object lock = new Object();
+    private volatile Snapshot snapshot;
+    
+    @PostConstruct
+    void load() {
+        rebuild();
+    }
+    
+    public boolean isRevoked(String jti) {
+        Snapshot current = snapshot;
+        return current.filter().mightContain(jti) && current.jtis().contains(jti);
+    }
+    
+    /**
+     * Revoke the token with id {@code jti} until {@code expiresAt}, when it stops being valid anyway.
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        synchronized (lock) {
+            transactionTemplate.executeWithoutResult(status ->
+                    revokedTokenRepository.save(new RevokedToken(jti, LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))));
+            snapshot.add(jti);
+        }
+    }
+    
+    /**
+     * Reload the revocations that are still relevant, sizing a fresh filter for them.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:30000}", initialDelayString = "${jwt.revocation.refresh-interval-ms:30000}")
+    public void rebuild() {
+        synchronized (lock) {
+            LocalDateTime now = LocalDateTime.now();
+            List<String> jtis = transactionTemplate.execute(status -> {
+                revokedTokenRepository.deleteExpiredBefore(now);
+                return revokedTokenRepository.findActiveJtis(now);
+            });
+            // Room for twice the current revocations before the false-positive rate degrades
+            Snapshot next = new Snapshot(new BloomFilter(Math.max(minCapacity, jtis.size() * 2), falsePositiveRate),
+                    ConcurrentHashMap.newKeySet(jtis.size()));
+            jtis.forEach(next::add);
+            snapshot = next;
+            log.debug("Loaded {} revoked tokens", jtis.size());
+        }
+    }
+    
+    public int getRevokedCount() {
+        return snapshot.jtis().size();
+    }
+    
+    private record Snapshot(BloomFilter filter, Set<String> jtis) {
+        
+        void add(String jti) {
+            jtis.add(jti);
+            filter.add(jti);
+        }
+    }
+} 
\ No newline at end of file
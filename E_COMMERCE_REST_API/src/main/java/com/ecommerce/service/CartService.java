@@ -1,21 +1,51 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.CacheInvalidationBus;
+import com.ecommerce.cache.CacheInvalidationEvent;
+import com.ecommerce.cache.CacheRegion;
+import com.ecommerce.cache.LocalCache;
+import com.ecommerce.cart.CartStore;
+import com.ecommerce.cart.GuestCartStore;
+import com.ecommerce.dto.CartOperation;
+import com.ecommerce.dto.CartOperationError;
 import com.ecommerce.entity.CartItem;
 import com.ecommerce.entity.Product;
 import com.ecommerce.entity.User;
-import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.exception.InvalidRequestException;
+import com.ecommerce.exception.NotFoundException;
+import com.ecommerce.popularity.PopularityService;
+import com.ecommerce.recommendation.RecommendationService;
+import com.ecommerce.stock.InsufficientStockException;
+import com.ecommerce.stock.StockReservationService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class CartService {
     
+    private static final NotFoundException CART_ITEM_NOT_FOUND = new NotFoundException("Cart item not found or does not belong to user");
+    private static final InvalidRequestException INVALID_QUANTITY = new InvalidRequestException("Quantity must be positive");
+    
     @Autowired
-    private CartItemRepository cartItemRepository;
+    private CartStore cartStore;
     
     @Autowired
     private ProductService productService;
@@ -23,81 +53,345 @@ public class CartService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private StockReservationService stockReservationService;
+    
+    @Autowired
+    private GuestCartStore guestCartStore;
+    
+    @Autowired
+    private PopularityService popularityService;
+    
+    @Autowired
+    private RecommendationService recommendationService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${cache.cart-totals.max-size:100000}")
+    private int cartTotalsCacheSize;
+    
+    private LocalCache<Long, CartTotals> totalsCache;
+    
+    @PostConstruct
+    void registerCache() {
+        totalsCache = new LocalCache<>("cart-totals", Long::valueOf, cartTotalsCacheSize);
+        cacheInvalidationBus.register(CacheRegion.CART_TOTALS, totalsCache);
+    }
+    
+    @Transactional(readOnly = true)
     public List<CartItem> getUserCart(Long userId) {
         Optional<User> user = userService.findById(userId);
         if (user.isPresent()) {
-            return cartItemRepository.findByUser(user.get());
+            return cartStore.findByUser(user.get());
         } else {
-            throw new RuntimeException("User not found with id: " + userId);
+            throw new NotFoundException("User", userId);
         }
     }
     
     public CartItem addToCart(Long userId, Long productId, Integer quantity) {
         Optional<User> user = userService.findById(userId);
         if (user.isEmpty()) {
-            throw new RuntimeException("User not found with id: " + userId);
+            throw new NotFoundException("User", userId);
         }
         
         Optional<Product> product = productService.getProductById(productId);
         if (product.isEmpty()) {
-            throw new RuntimeException("Product not found with id: " + productId);
+            throw new NotFoundException("Product", productId);
         }
         
-        // Check if product is already in cart
-        Optional<CartItem> existingCartItem = cartItemRepository.findByUserAndProductId(user.get(), productId);
+        // Read the whole cart once: it holds any line of the product, and the products a new
+        // line counts as added together with
+        List<CartItem> cart = cartStore.findByUser(user.get());
+        Optional<CartItem> existingCartItem = Optional.ofNullable(findByProduct(cart, productId));
         
+        CartItem saved;
         if (existingCartItem.isPresent()) {
             // Update quantity
             CartItem cartItem = existingCartItem.get();
-            cartItem.setQuantity(cartItem.getQuantity() + quantity);
-            return cartItemRepository.save(cartItem);
+            int previousQuantity = cartItem.getQuantity();
+            cartItem.setQuantity(previousQuantity + quantity);
+            saved = saveWithReservation(userId, productId, cartItem, previousQuantity);
         } else {
             // Create new cart item
             CartItem cartItem = new CartItem(user.get(), product.get(), quantity);
-            return cartItemRepository.save(cartItem);
+            saved = saveWithReservation(userId, productId, cartItem, 0);
+            recommendationService.recordCartAdd(productId, cart.stream().mapToLong(item -> item.getProduct().getId()).toArray());
         }
+        popularityService.recordCartAdd(productId);
+        return saved;
     }
     
     public CartItem updateCartItemQuantity(Long userId, Long cartItemId, Integer quantity) {
-        Optional<CartItem> cartItem = cartItemRepository.findByUserIdAndCartItemId(userId, cartItemId);
+        requirePositive(quantity);
+        Optional<CartItem> cartItem = cartStore.findByUserIdAndCartItemId(userId, cartItemId);
         if (cartItem.isPresent()) {
             CartItem item = cartItem.get();
+            int previousQuantity = item.getQuantity();
             item.setQuantity(quantity);
-            return cartItemRepository.save(item);
+            return saveWithReservation(userId, item.getProduct().getId(), item, previousQuantity);
         } else {
-            throw new RuntimeException("Cart item not found or does not belong to user");
+            throw CART_ITEM_NOT_FOUND;
         }
     }
     
     public void removeFromCart(Long userId, Long cartItemId) {
-        Optional<CartItem> cartItem = cartItemRepository.findByUserIdAndCartItemId(userId, cartItemId);
+        Optional<CartItem> cartItem = cartStore.findByUserIdAndCartItemId(userId, cartItemId);
         if (cartItem.isPresent()) {
-            cartItemRepository.delete(cartItem.get());
+            cartStore.delete(cartItem.get());
+            stockReservationService.release(userId, cartItem.get().getProduct().getId());
+            cartChanged(userId);
         } else {
-            throw new RuntimeException("Cart item not found or does not belong to user");
+            throw CART_ITEM_NOT_FOUND;
         }
     }
     
+    @Transactional
     public void clearCart(Long userId) {
         Optional<User> user = userService.findById(userId);
         if (user.isPresent()) {
-            cartItemRepository.deleteByUser(user.get());
+            cartStore.deleteByUser(user.get());
+            stockReservationService.releaseAll(userId);
+            cartChanged(userId);
         } else {
-            throw new RuntimeException("User not found with id: " + userId);
+            throw new NotFoundException("User", userId);
         }
     }
     
     public BigDecimal getCartTotal(Long userId) {
-        List<CartItem> cartItems = getUserCart(userId);
-        return cartItems.stream()
-                .map(CartItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return getCartTotals(userId).total();
     }
     
     public int getCartItemCount(Long userId) {
-        List<CartItem> cartItems = getUserCart(userId);
-        return cartItems.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
+        return getCartTotals(userId).itemCount();
+    }
+    
+    /**
+     * Total and item count of a cart, cached per user until the cart changes or a product in it
+     * is repriced.
+     */
+    public CartTotals getCartTotals(Long userId) {
+        return totalsCache.get(userId, id -> Optional.of(CartTotals.of(getUserCart(id)))).orElseThrow();
+    }
+    
+    /**
+     * The cart with its total and item count, all computed from a single read of the items.
+     */
+    @Transactional(readOnly = true)
+    public CartSummary getCartSummary(Long userId) {
+        return new CartSummary(getUserCart(userId));
+    }
+    
+    /**
+     * Apply a burst of add/set/remove operations in one transaction. The cart and the referenced
+     * products are read once, the operations are applied in memory in order, and the changes are
+     * written with batched statements. An operation that is invalid or can't get stock is skipped
+     * and reported by its index; the others still apply.
+     */
+    public CartBatchResult applyBatch(Long userId, List<CartOperation> operations) {
+        // Cart quantity of every product the batch touched, before its first change
+        Map<Long, Integer> previousQuantities = new HashMap<>();
+        try {
+            CartBatchResult result = transactionTemplate.execute(status -> applyOperations(userId, operations, previousQuantities));
+            cartChanged(userId);
+            return result;
+        } catch (RuntimeException e) {
+            // Nothing was written: put the holds back the way the stored cart had them
+            previousQuantities.forEach((productId, quantity) -> {
+                try {
+                    stockReservationService.reserve(userId, productId, quantity);
+                } catch (InsufficientStockException ignored) {
+                    // taken meanwhile; same outcome as the hold expiring
+                }
+            });
+            throw e;
+        }
+    }
+    
+    /**
+     * Move a guest's cart into the user's cart at login. The guest lines are added as one batch,
+     * so the user's cart is read once and the new and updated rows go out as batched statements.
+     * Lines that can't be added (product gone, not enough stock) are reported as batch errors and
+     * stay in the guest cart. If the batch fails as a whole, the guest cart is put back.
+     */
+    public Optional<CartBatchResult> mergeGuestCart(Long userId, long guestId) {
+        List<GuestCartStore.Line> lines = guestCartStore.take(guestId);
+        if (lines.isEmpty()) {
+            return Optional.empty();
+        }
+        CartBatchResult result;
+        try {
+            result = applyBatch(userId, lines.stream()
+                    .map(line -> CartOperation.add(line.productId(), line.quantity()))
+                    .toList());
+        } catch (RuntimeException e) {
+            lines.forEach(line -> guestCartStore.add(guestId, line.productId(), line.quantity()));
+            throw e;
+        }
+        for (CartOperationError error : result.errors()) {
+            GuestCartStore.Line line = lines.get(error.getIndex());
+            guestCartStore.add(guestId, line.productId(), line.quantity());
+        }
+        return Optional.of(result);
+    }
+    
+    private CartBatchResult applyOperations(Long userId, List<CartOperation> operations, Map<Long, Integer> previousQuantities) {
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User", userId));
+        List<CartItem> cart = new ArrayList<>(cartStore.findByUser(user));
+        Map<Long, Product> products = productService.getProductsByIds(operations.stream()
+                        .filter(operation -> operation.getType() == CartOperation.Type.ADD)
+                        .map(CartOperation::getProductId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
+        Set<CartItem> saved = new LinkedHashSet<>();
+        Map<Long, CartItem> removed = new LinkedHashMap<>();
+        List<CartOperationError> errors = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            CartOperation operation = operations.get(i);
+            try {
+                switch (operation.getType()) {
+                    case ADD -> {
+                        Product product = products.get(operation.getProductId());
+                        if (product == null) {
+                            throw new NotFoundException("Product", operation.getProductId());
+                        }
+                        int quantity = requirePositive(operation.getQuantity());
+                        CartItem item = findByProduct(cart, product.getId());
+                        if (item == null && (item = removed.remove(product.getId())) != null) {
+                            // Removed earlier in this batch: keep the row, start over at the new quantity
+                            reserve(userId, product.getId(), quantity, 0, previousQuantities);
+                            item.setQuantity(quantity);
+                            cart.add(item);
+                        } else if (item == null) {
+                            reserve(userId, product.getId(), quantity, 0, previousQuantities);
+                            item = new CartItem(user, product, quantity);
+                            cart.add(item);
+                        } else {
+                            reserve(userId, product.getId(), item.getQuantity() + quantity, item.getQuantity(), previousQuantities);
+                            item.setQuantity(item.getQuantity() + quantity);
+                        }
+                        saved.add(item);
+                    }
+                    case SET -> {
+                        CartItem item = findById(cart, operation.getCartItemId());
+                        int quantity = requirePositive(operation.getQuantity());
+                        reserve(userId, item.getProduct().getId(), quantity, item.getQuantity(), previousQuantities);
+                        item.setQuantity(quantity);
+                        saved.add(item);
+                    }
+                    case REMOVE -> {
+                        CartItem item = findById(cart, operation.getCartItemId());
+                        Long productId = item.getProduct().getId();
+                        previousQuantities.putIfAbsent(productId, item.getQuantity());
+                        stockReservationService.release(userId, productId);
+                        cart.remove(item);
+                        saved.remove(item);
+                        if (item.getId() != null) {
+                            removed.put(productId, item);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                errors.add(new CartOperationError(i, e.getMessage()));
+            }
+        }
+        
+        cartStore.applyChanges(new ArrayList<>(saved), new ArrayList<>(removed.values()));
+        return new CartBatchResult(cart, errors);
+    }
+    
+    private void reserve(Long userId, Long productId, int quantity, int currentQuantity, Map<Long, Integer> previousQuantities) {
+        stockReservationService.reserve(userId, productId, quantity);
+        previousQuantities.putIfAbsent(productId, currentQuantity);
+    }
+    
+    private static int requirePositive(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw INVALID_QUANTITY;
+        }
+        return quantity;
+    }
+    
+    private static CartItem findByProduct(List<CartItem> cart, Long productId) {
+        return cart.stream().filter(item -> item.getProduct().getId().equals(productId)).findFirst().orElse(null);
+    }
+    
+    private static CartItem findById(List<CartItem> cart, Long cartItemId) {
+        return cart.stream()
+                .filter(item -> item.getId() != null && item.getId().equals(cartItemId))
+                .findFirst()
+                .orElseThrow(() -> CART_ITEM_NOT_FOUND);
+    }
+    
+    /**
+     * What a cart adds up to, at the unit prices recorded on its lines.
+     */
+    public record CartTotals(BigDecimal total, int itemCount) {
+        
+        public static CartTotals of(List<CartItem> items) {
+            return new CartTotals(items.stream().map(CartItem::getTotalPrice).reduce(BigDecimal.ZERO, BigDecimal::add),
+                    items.stream().mapToInt(CartItem::getQuantity).sum());
+        }
+    }
+    
+    /**
+     * A cart's items with the totals derived from them.
+     */
+    public record CartSummary(List<CartItem> items) {
+        
+        public BigDecimal total() {
+            return CartTotals.of(items).total();
+        }
+        
+        public int itemCount() {
+            return CartTotals.of(items).itemCount();
+        }
+    }
+    
+    /**
+     * The cart after a batch, and the operations that were skipped.
+     */
+    public record CartBatchResult(List<CartItem> items, List<CartOperationError> errors) {
+        
+        public BigDecimal total() {
+            return CartTotals.of(items).total();
+        }
+        
+        public int itemCount() {
+            return CartTotals.of(items).itemCount();
+        }
+    }
+    
+    /**
+     * Hold stock for the item's new quantity before saving it, and give the hold back if the save fails.
+     */
+    private CartItem saveWithReservation(Long userId, Long productId, CartItem cartItem, int previousQuantity) {
+        stockReservationService.reserve(userId, productId, cartItem.getQuantity());
+        CartItem saved;
+        try {
+            saved = cartStore.save(cartItem);
+        } catch (RuntimeException e) {
+            stockReservationService.reserve(userId, productId, previousQuantity);
+            throw e;
+        }
+        cartChanged(userId);
+        return saved;
+    }
+    
+    /**
+     * Drop the user's cached totals on every node once the change is committed.
+     */
+    private void cartChanged(Long userId) {
+        eventPublisher.publishEvent(CacheInvalidationEvent.of(CacheRegion.CART_TOTALS, userId));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.ConflictException;
+import com.ecommerce.exception.ServiceBusyException;
+import com.ecommerce.limit.LaneExecutor;
+import com.ecommerce.warmup.CacheWarmer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs catalog reloads in the background on the admin lane.
+ *
+ * A reload wipes and re-imports the whole catalog in one long transaction. Running it on the
+ * admin executor keeps it off request threads, and the admin lane's connection pool keeps it
+ * from taking connections the storefront needs. One reload runs at a time. A successful reload
+ * starts a cache warm-up, since it emptied the product cache.
+ */
+@Service
+public class CatalogReloadService {
+    
+    private static final Logger log = LoggerFactory.getLogger(CatalogReloadService.class);
+    
+    private static final ConflictException ALREADY_RUNNING = new ConflictException("A catalog reload is already running");
+    private static final ServiceBusyException ADMIN_LANE_BUSY = new ServiceBusyException("The admin lane is busy, please retry shortly");
+    
+    @Autowired
+    private ProductDataService productDataService;
+    
+    @Autowired
+    private LaneExecutor adminLaneExecutor;
+    
+    @Autowired
+    private CacheWarmer cacheWarmer;
+    
+    private final AtomicReference<ReloadStatus> status = new AtomicReference<>(ReloadStatus.IDLE);
+    
+    /**
+     * Queue a reload and return its status right away. Throws {@link ConflictException} while
+     * another reload is queued or running.
+     */
+    public ReloadStatus start() {
+        ReloadStatus previous = status.get();
+        ReloadStatus running = new ReloadStatus(State.RUNNING, Instant.now(), null, null, null);
+        if (previous.state() == State.RUNNING || !status.compareAndSet(previous, running)) {
+            throw ALREADY_RUNNING;
+        }
+        try {
+            adminLaneExecutor.execute(() -> reload(running));
+        } catch (RejectedExecutionException e) {
+            status.set(previous);
+            throw ADMIN_LANE_BUSY;
+        }
+        return running;
+    }
+    
+    public ReloadStatus getStatus() {
+        return status.get();
+    }
+    
+    private void reload(ReloadStatus running) {
+        try {
+            productDataService.reloadProducts();
+            long count = productDataService.getProductCount();
+            status.set(new ReloadStatus(State.SUCCEEDED, running.startedAt(), Instant.now(), count, null));
+            log.info("Catalog reloaded: {} products", count);
+            cacheWarmer.warmInBackground(CacheWarmer.Trigger.RELOAD);
+        } catch (Exception e) {
+            status.set(new ReloadStatus(State.FAILED, running.startedAt(), Instant.now(), null, e.getMessage()));
+            log.warn("Catalog reload failed: {}", e.getMessage());
+        }
+    }
+    
+    public enum State {
+        IDLE,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+    
+    /**
+     * The latest reload. {@code productCount} is set once it succeeded, {@code error} once it failed.
+     */
+    public record ReloadStatus(State state, Instant startedAt, Instant finishedAt, Long productCount, String error) {
+        
+        static final ReloadStatus IDLE = new ReloadStatus(State.IDLE, null, null, null, null);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.CacheInvalidationEvent;
+import com.ecommerce.cache.CacheRegion;
+import com.ecommerce.cart.CartStore;
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.exception.InvalidRequestException;
+import com.ecommerce.exception.NotFoundException;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.stock.InsufficientStockException;
+import com.ecommerce.stock.StockReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Turns a user's cart into an order.
+ *
+ * Checkout runs in one transaction: the order and its lines are inserted in JDBC batches at the
+ * prices recorded on the cart lines, stock is decremented with one batched conditional update,
+ * and the cart is cleared. The stock reservations held by the cart are settled only after that
+ * transaction commits.
+ *
+ * An idempotency key makes retries safe: a second checkout with the same key returns the order
+ * the first one created. The key is unique per user in the database, so two concurrent
+ * requests with the same key cannot both create an order.
+ */
+@Service
+public class OrderService {
+    
+    private static final InvalidRequestException CART_EMPTY = new InvalidRequestException("Cart is empty");
+    
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ? AND stock_quantity >= ?";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+    private static final int STOCK_BATCH_SIZE = 50;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private CartStore cartStore;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private StockReservationService stockReservationService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    /**
+     * Place an order for everything in the user's cart.
+     *
+     * @param idempotencyKey optional client-chosen key; repeating it returns the original order
+     * @throws InsufficientStockException if a line can no longer be fulfilled; nothing is written
+     */
+    public CheckoutResult checkout(Long userId, String idempotencyKey) {
+        String key = normalizeKey(idempotencyKey);
+        if (key != null) {
+            Optional<Order> existing = orderRepository.findByUserIdAndIdempotencyKey(userId, key);
+            if (existing.isPresent()) {
+                return new CheckoutResult(existing.get(), true);
+            }
+        }
+        
+        Order order;
+        try {
+            order = transactionTemplate.execute(status -> placeOrder(userId, key));
+        } catch (RuntimeException e) {
+            // Lost a race with a concurrent request carrying the same key: its insert won, or it
+            // already emptied the cart
+            if (key != null) {
+                Optional<Order> existing = orderRepository.findByUserIdAndIdempotencyKey(userId, key);
+                if (existing.isPresent()) {
+                    return new CheckoutResult(existing.get(), true);
+                }
+            }
+            throw e;
+        }
+        
+        for (OrderItem item : order.getItems()) {
+            stockReservationService.settle(userId, item.getProductId(), item.getQuantity());
+        }
+        return new CheckoutResult(order, false);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Order> getUserOrders(Long userId) {
+        return orderRepository.findByUserId(userId);
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<Order> getUserOrder(Long userId, Long orderId) {
+        return orderRepository.findByUserIdAndOrderId(userId, orderId);
+    }
+    
+    private Order placeOrder(Long userId, String idempotencyKey) {
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User", userId));
+        List<CartItem> cartItems = cartStore.findByUser(user);
+        if (cartItems.isEmpty()) {
+            throw CART_EMPTY;
+        }
+        
+        Order order = new Order(user, idempotencyKey);
+        for (CartItem cartItem : cartItems) {
+            Product product = cartItem.getProduct();
+            // Refresh the hold so it cannot expire before it is settled
+            stockReservationService.reserve(userId, product.getId(), cartItem.getQuantity());
+            // Charge the price the cart showed, not whatever the catalog says right now
+            order.addItem(new OrderItem(product.getId(), product.getName(), cartItem.getUnitPrice(), cartItem.getQuantity()));
+        }
+        
+        // Flush first so a duplicate idempotency key fails before any stock is touched
+        orderRepository.saveAndFlush(order);
+        decrementStock(order.getItems());
+        cartStore.deleteByUser(user);
+        eventPublisher.publishEvent(CacheInvalidationEvent.of(CacheRegion.CART_TOTALS, userId));
+        return order;
+    }
+    
+    private void decrementStock(List<OrderItem> items) {
+        int[][] updated = jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, items, STOCK_BATCH_SIZE, (ps, item) -> {
+            ps.setInt(1, item.getQuantity());
+            ps.setLong(2, item.getProductId());
+            ps.setInt(3, item.getQuantity());
+        });
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int rows : batch) {
+                OrderItem item = items.get(index++);
+                if (rows == 0) {
+                    throw new InsufficientStockException(item.getProductId(), item.getQuantity());
+                }
+                eventPublisher.publishEvent(CacheInvalidationEvent.of(CacheRegion.PRODUCT, item.getProductId()));
+            }
+        }
+    }
+    
+    private static String normalizeKey(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return null;
+        }
+        String key = idempotencyKey.trim();
+        if (key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        return key;
+    }
+    
+    /**
+     * The order a checkout produced, and whether it was replayed from an earlier request with the same key.
+     */
+    public record CheckoutResult(Order order, boolean replayed) {
+    }
+} 
\ No newline at end of file
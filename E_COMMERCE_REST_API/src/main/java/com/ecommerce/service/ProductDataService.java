@@ -1,25 +1,60 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.CacheInvalidationEvent;
+import com.ecommerce.cache.CacheRegion;
+import com.ecommerce.cart.CartStore;
+import com.ecommerce.data.SyntheticDataGenerator;
 import com.ecommerce.dto.ProductJsonDto;
 import com.ecommerce.entity.Product;
+import com.ecommerce.recommendation.CatalogWipedEvent;
 import com.ecommerce.repository.ProductRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 @Service
 public class ProductDataService {
     
+    private static final int IMPORT_BATCH_SIZE = 500;
+    
     @Autowired
     private ProductRepository productRepository;
     
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private CartStore cartStore;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${catalog.source:json}")
+    private String catalogSource;
+    
+    @Value("${catalog.synthetic.products:10000}")
+    private long syntheticProductCount;
+    
+    @Value("${catalog.synthetic.seed:42}")
+    private long syntheticSeed;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     /**
@@ -28,37 +63,119 @@ public class ProductDataService {
     @Transactional
     public void reloadProductsFromJson() throws IOException {
         // Clear existing products
-        productRepository.deleteAll();
+        wipeCatalog();
+        eventPublisher.publishEvent(CacheInvalidationEvent.all(CacheRegion.PRODUCT));
         
-        // Load from JSON file
+        importProductsFromJson();
+    }
+    
+    /**
+     * Replace existing data with the configured catalog source (products.json or synthetic)
+     */
+    @Transactional
+    public void reloadProducts() throws IOException {
+        wipeCatalog();
+        eventPublisher.publishEvent(CacheInvalidationEvent.all(CacheRegion.PRODUCT));
+        loadProducts();
+    }
+    
+    /**
+     * Delete all products with set-based statements: carts first (they reference products), then
+     * the images collection table (a bulk delete does not cascade to it), then the products.
+     */
+    private void wipeCatalog() {
+        cartStore.deleteAll();
+        productRepository.deleteAllImages();
+        productRepository.deleteAllInBatch();
+        entityManager.clear();
+        eventPublisher.publishEvent(CacheInvalidationEvent.all(CacheRegion.CART_TOTALS));
+        eventPublisher.publishEvent(new CatalogWipedEvent());
+    }
+    
+    /**
+     * Import the configured catalog source without touching existing data. Returns the number of products imported.
+     */
+    @Transactional
+    public long loadProducts() throws IOException {
+        if (isSyntheticSource()) {
+            return importProducts(new SyntheticDataGenerator(syntheticSeed).products(syntheticProductCount));
+        }
+        return importProductsFromJson();
+    }
+    
+    /**
+     * Stream products.json into the database without materializing the whole file
+     */
+    @Transactional
+    public long importProductsFromJson() throws IOException {
         ClassPathResource resource = new ClassPathResource("products.json");
-        InputStream inputStream = resource.getInputStream();
-        
-        List<ProductJsonDto> productDtos = objectMapper.readValue(inputStream, new TypeReference<List<ProductJsonDto>>() {});
-        
-        for (ProductJsonDto dto : productDtos) {
-            Product product = new Product();
-            product.setName(dto.getName());
-            product.setShortDescription(dto.getShortDescription());
-            product.setFullDescription(dto.getFullDescription());
-            product.setPrice(dto.getPrice());
-            product.setStockQuantity(dto.getStockQuantity());
-            product.setCategory(dto.getCategory());
-            product.setImages(dto.getImages());
-            
-            // Convert technical specifications to JSON string
-            if (dto.getTechnicalSpecifications() != null) {
-                String techSpecsJson = objectMapper.writeValueAsString(dto.getTechnicalSpecifications());
-                product.setTechnicalSpecifications(techSpecsJson);
+        try (InputStream inputStream = resource.getInputStream();
+             JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("products.json must contain a JSON array");
             }
-            
-            // Set primary image URL from images list
-            if (dto.getImages() != null && !dto.getImages().isEmpty()) {
-                product.setImageUrl(dto.getImages().get(0));
+            return importProducts(new JsonArrayIterator(parser));
+        }
+    }
+    
+    /**
+     * Persist products in fixed-size batches, flushing and detaching each batch so memory
+     * stays flat regardless of catalog size.
+     */
+    @Transactional
+    public long importProducts(Stream<ProductJsonDto> productDtos) {
+        try (productDtos) {
+            return importProducts(productDtos.iterator());
+        }
+    }
+    
+    private long importProducts(Iterator<ProductJsonDto> productDtos) {
+        List<Product> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        long imported = 0;
+        while (productDtos.hasNext()) {
+            batch.add(toProduct(productDtos.next()));
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                imported += saveBatch(batch);
             }
-            
-            productRepository.save(product);
         }
+        return imported + saveBatch(batch);
+    }
+    
+    private int saveBatch(List<Product> batch) {
+        int size = batch.size();
+        if (size > 0) {
+            productRepository.saveAll(batch);
+            entityManager.flush();
+            entityManager.clear();
+            batch.clear();
+        }
+        return size;
+    }
+    
+    private Product toProduct(ProductJsonDto dto) {
+        Product product = new Product();
+        product.setName(dto.getName());
+        product.setShortDescription(dto.getShortDescription());
+        product.setFullDescription(dto.getFullDescription());
+        product.setPrice(dto.getPrice());
+        product.setStockQuantity(dto.getStockQuantity());
+        product.setCategory(dto.getCategory());
+        product.setImages(dto.getImages());
+        
+        // Convert technical specifications to JSON string
+        if (dto.getTechnicalSpecifications() != null) {
+            try {
+                product.setTechnicalSpecifications(objectMapper.writeValueAsString(dto.getTechnicalSpecifications()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize technical specifications", e);
+            }
+        }
+        
+        // Set primary image URL from images list
+        if (dto.getImages() != null && !dto.getImages().isEmpty()) {
+            product.setImageUrl(dto.getImages().get(0));
+        }
+        return product;
     }
     
     /**
@@ -79,4 +196,44 @@ public class ProductDataService {
             return false;
         }
     }
+    
+    /**
+     * Check if the catalog is generated rather than read from products.json
+     */
+    public boolean isSyntheticSource() {
+        return "synthetic".equalsIgnoreCase(catalogSource);
+    }
+    
+    /**
+     * Reads one array element at a time from a parser positioned inside a JSON array.
+     */
+    private final class JsonArrayIterator implements Iterator<ProductJsonDto> {
+        
+        private final JsonParser parser;
+        private JsonToken current;
+        
+        private JsonArrayIterator(JsonParser parser) throws IOException {
+            this.parser = parser;
+            this.current = parser.nextToken();
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return current == JsonToken.START_OBJECT;
+        }
+        
+        @Override
+        public ProductJsonDto next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                ProductJsonDto dto = objectMapper.readValue(parser, ProductJsonDto.class);
+                current = parser.nextToken();
+                return dto;
+            } catch (IOException e) {
+                throw new IllegalStateException("Invalid product entry in products.json", e);
+            }
+        }
+    }
 } 
\ No newline at end of file
@@ -1,49 +1,307 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.CacheInvalidationBus;
+import com.ecommerce.cache.CacheInvalidationEvent;
+import com.ecommerce.cache.CacheRegion;
+import com.ecommerce.cache.LocalCache;
+import com.ecommerce.cache.SingleFlight;
+import com.ecommerce.cart.CartStore;
+import com.ecommerce.cart.ProductPriceChangedEvent;
+import com.ecommerce.dto.ProductDto;
 import com.ecommerce.entity.Product;
+import com.ecommerce.exception.NotFoundException;
+import com.ecommerce.popularity.PopularityService;
+import com.ecommerce.recommendation.RecommendationService;
 import com.ecommerce.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Catalog reads run in read-only transactions: Hibernate loads the products without keeping
+ * dirty-checking snapshots and never flushes. The page methods build their DTOs before the
+ * transaction ends, so lazy image lists are read inside it too.
+ *
+ * Catalog pages and product details go through a {@link SingleFlight}: identical requests that
+ * arrive while one is being loaded share its result. The shared load opens its own transaction,
+ * so callers waiting for it hold no connection.
+ *
+ * {@link #warmProduct} loads a product into the cache without counting a view, so the cache can
+ * be filled before traffic arrives.
+ */
 @Service
 public class ProductService {
     
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private CartStore cartStore;
+    
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private PopularityService popularityService;
+    
+    @Autowired
+    private RecommendationService recommendationService;
+    
+    @Value("${cache.products.max-size:10000}")
+    private int productCacheSize;
+    
+    @Value("${catalog.single-flight.enabled:true}")
+    private boolean singleFlightEnabled;
+    
+    private LocalCache<Long, ProductDto> productCache;
+    private SingleFlight<Long, Optional<ProductDto>> productFlights;
+    private SingleFlight<PageQuery, Page<ProductDto>> pageFlights;
+    private TransactionTemplate readOnlyTransaction;
+    
+    @PostConstruct
+    void registerCache() {
+        productCache = new LocalCache<>("products", Long::valueOf, productCacheSize);
+        cacheInvalidationBus.register(CacheRegion.PRODUCT, productCache);
+        productFlights = new SingleFlight<>("products");
+        pageFlights = new SingleFlight<>("product-pages");
+        productFlights.setCoalescing(singleFlightEnabled);
+        pageFlights.setCoalescing(singleFlightEnabled);
+        cacheInvalidationBus.register(CacheRegion.PRODUCT, productFlights);
+        cacheInvalidationBus.register(CacheRegion.PRODUCT, pageFlights);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @Transactional(readOnly = true)
     public Page<Product> getAllProducts(Pageable pageable) {
         return productRepository.findAll(pageable);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
     
+    /**
+     * Product detail served from the local cache; kept coherent across nodes by the invalidation bus.
+     * Counts as a view for popularity.
+     */
+    public Optional<ProductDto> getProductDtoById(Long id) {
+        Optional<ProductDto> product = loadProduct(id);
+        if (product.isPresent()) {
+            popularityService.recordView(id);
+        }
+        return product;
+    }
+    
+    /**
+     * Load a product into the local cache without counting a view. Returns whether it exists.
+     */
+    public boolean warmProduct(Long id) {
+        return loadProduct(id).isPresent();
+    }
+    
+    /**
+     * Products most often added to a cart together with {@code id}, from the in-memory
+     * recommendations and the product cache. Empty if the product does not exist.
+     */
+    public Optional<List<ProductDto>> getRelatedProducts(Long id, int limit) {
+        if (loadProduct(id).isEmpty()) {
+            return Optional.empty();
+        }
+        List<ProductDto> related = new ArrayList<>(limit);
+        for (Long relatedId : recommendationService.getRelated(id, limit)) {
+            // Products deleted since they were last in a cart are left out
+            loadProduct(relatedId).ifPresent(related::add);
+        }
+        return Optional.of(related);
+    }
+    
+    private Optional<ProductDto> loadProduct(Long id) {
+        return productCache.get(id, key -> productFlights.execute(key,
+                () -> productRepository.findWithImagesById(key).map(ProductDto::from)));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Product> getProductsByIds(Collection<Long> ids) {
+        return productRepository.findAllById(ids);
+    }
+    
+    @Transactional(readOnly = true)
     public Page<Product> getProductsByCategory(String category, Pageable pageable) {
         return productRepository.findByCategory(category, pageable);
     }
     
+    @Transactional(readOnly = true)
     public Page<Product> searchProductsByName(String name, Pageable pageable) {
         return productRepository.findByNameContainingIgnoreCase(name, pageable);
     }
     
+    @Transactional(readOnly = true)
     public Page<Product> getProductsByFilters(String name, String category, Double minPrice, Double maxPrice, Pageable pageable) {
         return productRepository.findByFilters(name, category, minPrice, maxPrice, pageable);
     }
     
+    /**
+     * A catalog page, filtered when any filter is given.
+     */
+    public Page<ProductDto> getProductPage(String name, String category, Double minPrice, Double maxPrice, Pageable pageable) {
+        return loadPage(new PageQuery(PageQuery.Kind.FILTER, normalizeName(name), category, minPrice, maxPrice, pageable));
+    }
+    
+    public Page<ProductDto> getProductPageByCategory(String category, Pageable pageable) {
+        return loadPage(new PageQuery(PageQuery.Kind.CATEGORY, null, category, null, null, pageable));
+    }
+    
+    public Page<ProductDto> searchProductPage(String name, Pageable pageable) {
+        return loadPage(new PageQuery(PageQuery.Kind.SEARCH, normalizeName(name), null, null, null, pageable));
+    }
+    
+    /**
+     * A page of products, most popular first, optionally filtered. Products in the in-memory
+     * popularity ranking come first in rank order, looked up by id so no counter table is read;
+     * every other matching product follows in id order.
+     */
+    public Page<ProductDto> getPopularProductPage(String name, String category, Double minPrice, Double maxPrice, Pageable pageable) {
+        return loadPage(new PageQuery(PageQuery.Kind.POPULAR, normalizeName(name), category, minPrice, maxPrice, pageable));
+    }
+    
+    private Page<ProductDto> loadPage(PageQuery query) {
+        if (query.kind() == PageQuery.Kind.POPULAR) {
+            return loadPopularPage(query);
+        }
+        return pageFlights.execute(query, () -> readOnlyTransaction.execute(status -> findPage(query).map(ProductDto::from)));
+    }
+    
+    private Page<Product> findPage(PageQuery query) {
+        Pageable pageable = query.pageable();
+        return switch (query.kind()) {
+            case FILTER -> query.hasFilters()
+                    ? productRepository.findByFilters(query.name(), query.category(), query.minPrice(), query.maxPrice(), pageable)
+                    : productRepository.findAll(pageable);
+            case CATEGORY -> productRepository.findByCategory(query.category(), pageable);
+            case SEARCH -> productRepository.findByNameContainingIgnoreCase(query.name(), pageable);
+            case POPULAR -> throw new IllegalArgumentException("Popular pages are not read from a query");
+        };
+    }
+    
+    private Page<ProductDto> loadPopularPage(PageQuery query) {
+        List<Long> ranking = popularityService.getRanking();
+        Pageable pageable = query.pageable();
+        return pageFlights.execute(query, () -> readOnlyTransaction.execute(status -> {
+            List<Product> ranked = rankedProducts(ranking, query);
+            int size = pageable.getPageSize();
+            long offset = pageable.getOffset();
+            List<Product> products = new ArrayList<>(size);
+            if (offset < ranked.size()) {
+                products.addAll(ranked.subList((int) offset, (int) Math.min(offset + size, ranked.size())));
+            }
+            // The unranked rest is read in pages of the same size; a window that starts inside
+            // one of them spills into the next
+            List<Long> excluded = ranked.stream().map(Product::getId).toList();
+            long restOffset = Math.max(0, offset - ranked.size());
+            int skip = (int) (restOffset % size);
+            Pageable restPage = PageRequest.of((int) (restOffset / size), size, Sort.by("id"));
+            Page<Product> rest = findUnranked(excluded, query, restPage);
+            List<Product> restContent = rest.getContent();
+            for (int i = skip; i < restContent.size() && products.size() < size; i++) {
+                products.add(restContent.get(i));
+            }
+            if (products.size() < size && skip > 0 && rest.hasNext()) {
+                restContent = findUnranked(excluded, query, restPage.next()).getContent();
+                for (int i = 0; i < restContent.size() && products.size() < size; i++) {
+                    products.add(restContent.get(i));
+                }
+            }
+            List<ProductDto> content = products.stream().map(ProductDto::from).toList();
+            return new PageImpl<>(content, pageable, ranked.size() + rest.getTotalElements());
+        }));
+    }
+    
+    /**
+     * The products outside {@code ranked} that pass the query's filters. An empty {@code NOT IN}
+     * list matches nothing, so without ranked products the plain filter query is used.
+     */
+    private Page<Product> findUnranked(List<Long> ranked, PageQuery query, Pageable pageable) {
+        if (ranked.isEmpty()) {
+            return productRepository.findByFilters(query.name(), query.category(), query.minPrice(), query.maxPrice(), pageable);
+        }
+        return productRepository.findByIdNotInAndFilters(ranked, query.name(), query.category(), query.minPrice(), query.maxPrice(), pageable);
+    }
+    
+    /**
+     * The ranked products that pass the query's filters, most popular first.
+     */
+    private List<Product> rankedProducts(List<Long> ranking, PageQuery query) {
+        if (ranking.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ranking.size(); i++) {
+            rank.put(ranking.get(i), i);
+        }
+        List<Product> products = new ArrayList<>(productRepository.findByIdInAndFilters(
+                ranking, query.name(), query.category(), query.minPrice(), query.maxPrice()));
+        products.sort(Comparator.comparing(product -> rank.get(product.getId())));
+        return products;
+    }
+    
+    /**
+     * How many catalog reads were answered by a load another request had in flight.
+     */
+    public Map<String, SingleFlight.Stats> getSingleFlightStats() {
+        Map<String, SingleFlight.Stats> stats = new LinkedHashMap<>();
+        stats.put(pageFlights.getName(), pageFlights.getStats());
+        stats.put(productFlights.getName(), productFlights.getStats());
+        return stats;
+    }
+    
+    /**
+     * Name matching ignores case, so names differing only in case are the same query.
+     */
+    private static String normalizeName(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : null;
+    }
+    
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(CacheInvalidationEvent.of(CacheRegion.PRODUCT, savedProduct.getId()));
+        return savedProduct;
     }
     
+    @Transactional
     public Product updateProduct(Long id, Product productDetails) {
         Optional<Product> optionalProduct = productRepository.findById(id);
         if (optionalProduct.isPresent()) {
             Product product = optionalProduct.get();
+            BigDecimal previousPrice = product.getPrice();
             product.setName(productDetails.getName());
             product.setShortDescription(productDetails.getShortDescription());
             product.setFullDescription(productDetails.getFullDescription());
@@ -53,25 +311,55 @@ public class ProductService {
             product.setImageUrl(productDetails.getImageUrl());
             product.setImages(productDetails.getImages());
             product.setTechnicalSpecifications(productDetails.getTechnicalSpecifications());
-            return productRepository.save(product);
+            Product savedProduct = productRepository.save(product);
+            eventPublisher.publishEvent(CacheInvalidationEvent.of(CacheRegion.PRODUCT, id));
+            if (previousPrice == null || previousPrice.compareTo(savedProduct.getPrice()) != 0) {
+                eventPublisher.publishEvent(new ProductPriceChangedEvent(id, savedProduct.getPrice()));
+            }
+            return savedProduct;
         } else {
-            throw new RuntimeException("Product not found with id: " + id);
+            throw new NotFoundException("Product", id);
         }
     }
     
+    /**
+     * Delete a product and take it out of every cart, each with a single statement.
+     */
+    @Transactional
     public void deleteProduct(Long id) {
         if (productRepository.existsById(id)) {
+            cartStore.deleteByProductId(id);
             productRepository.deleteById(id);
+            eventPublisher.publishEvent(CacheInvalidationEvent.of(CacheRegion.PRODUCT, id));
+            eventPublisher.publishEvent(CacheInvalidationEvent.all(CacheRegion.CART_TOTALS));
         } else {
-            throw new RuntimeException("Product not found with id: " + id);
+            throw new NotFoundException("Product", id);
         }
     }
     
+    /**
+     * Distinct categories in the order they first appear, read as a projection instead of
+     * loading every product.
+     */
+    @Transactional(readOnly = true)
     public List<String> getAllCategories() {
-        return productRepository.findAll().stream()
-                .map(Product::getCategory)
-                .distinct()
-                .filter(category -> category != null && !category.isEmpty())
-                .toList();
+        return productRepository.findDistinctCategories();
+    }
+    
+    /**
+     * Identity of a catalog page read: which query, its normalized filters, and page, size and sort.
+     */
+    private record PageQuery(Kind kind, String name, String category, Double minPrice, Double maxPrice, Pageable pageable) {
+        
+        private boolean hasFilters() {
+            return name != null || category != null || minPrice != null || maxPrice != null;
+        }
+        
+        private enum Kind {
+            FILTER,
+            CATEGORY,
+            SEARCH,
+            POPULAR
+        }
     }
 } 
\ No newline at end of file
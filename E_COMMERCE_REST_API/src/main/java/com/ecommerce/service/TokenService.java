@@ -0,0 +1,135 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.RefreshToken;
+import com.ecommerce.entity.User;
+import com.ecommerce.exception.NotFoundException;
+import com.ecommerce.repository.RefreshTokenRepository;
+import com.ecommerce.security.InvalidRefreshTokenException;
+import com.ecommerce.security.JwtUtil;
+import com.ecommerce.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Access and refresh tokens. Access tokens are short-lived JWTs checked without a database
+ * lookup; refresh tokens are random values, stored hashed, that rotate on every use. Reusing a
+ * rotated refresh token means it leaked, so the whole chain it belongs to is revoked.
+ */
+@Service
+public class TokenService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+    
+    private static final int REFRESH_TOKEN_BYTES = 32;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    
+    @Autowired
+    private TokenRevocationList revocationList;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpiration;
+    
+    private final SecureRandom random = new SecureRandom();
+    
+    /**
+     * Tokens for a user who just logged in, starting a new refresh token chain.
+     */
+    @Transactional
+    public TokenPair issue(User user) {
+        return new TokenPair(user, jwtUtil.generateToken(user), newRefreshToken(user, UUID.randomUUID().toString()));
+    }
+    
+    /**
+     * Exchange a refresh token for a new access token and the next refresh token of its chain.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public TokenPair refresh(String refreshToken) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+        if (stored.isRevoked()) {
+            throw reused(stored);
+        }
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+        // Two concurrent refreshes may both have read the token as unused; only one claims it
+        if (refreshTokenRepository.claim(stored.getId()) == 0) {
+            throw reused(stored);
+        }
+        User user = stored.getUser();
+        return new TokenPair(user, jwtUtil.generateToken(user), newRefreshToken(user, stored.getFamilyId()));
+    }
+    
+    /**
+     * Revoke the access token and every refresh token of its user.
+     */
+    @Transactional
+    public void logout(String accessToken) {
+        Claims claims = jwtUtil.parseToken(accessToken);
+        User user = userService.findByUsername(claims.getSubject())
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        refreshTokenRepository.revokeAllForUser(user.getId());
+        revocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.refresh-token-purge-interval-ms:3600000}", initialDelayString = "${jwt.refresh-token-purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpiredRefreshTokens() {
+        int purged = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired refresh tokens", purged);
+        }
+    }
+    
+    private InvalidRefreshTokenException reused(RefreshToken stored) {
+        int revoked = refreshTokenRepository.revokeFamily(stored.getFamilyId());
+        log.warn("Refresh token reused for user {}; revoked {} tokens of its chain", stored.getUser().getId(), revoked);
+        return new InvalidRefreshTokenException("Refresh token has already been used");
+    }
+    
+    private String newRefreshToken(User user, String familyId) {
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(token), familyId, user,
+                LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration))));
+        return token;
+    }
+    
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is unavailable", e);
+        }
+    }
+    
+    /**
+     * An access token for {@code user} and the refresh token to renew it with.
+     */
+    public record TokenPair(User user, String accessToken, String refreshToken) {}
+} 
\ No newline at end of file
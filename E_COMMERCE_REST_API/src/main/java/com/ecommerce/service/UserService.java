@@ -1,28 +1,58 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.CacheInvalidationBus;
+import com.ecommerce.cache.CacheInvalidationEvent;
+import com.ecommerce.cache.CacheRegion;
+import com.ecommerce.cache.LocalCache;
 import com.ecommerce.entity.User;
+import com.ecommerce.exception.ConflictException;
 import com.ecommerce.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Service
 public class UserService implements UserDetailsService {
     
+    private static final ConflictException USERNAME_TAKEN = new ConflictException("Username already exists");
+    private static final ConflictException EMAIL_TAKEN = new ConflictException("Email already exists");
+    
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${cache.users.max-size:10000}")
+    private int userCacheSize;
+    
+    private LocalCache<String, User> userCache;
+    
+    @PostConstruct
+    void registerCache() {
+        // Every authenticated request resolves its user by name, so this keeps the lookup off the database
+        userCache = new LocalCache<>("users", username -> username, userCacheSize);
+        cacheInvalidationBus.register(CacheRegion.USER, userCache);
+    }
+    
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<User> user = userRepository.findByUsername(username);
+        Optional<User> user = findByUsername(username);
         if (user.isPresent()) {
             return user.get();
         } else {
@@ -33,12 +63,12 @@ public class UserService implements UserDetailsService {
     public User registerUser(User user) {
         // Check if username already exists
         if (userRepository.existsByUsername(user.getUsername())) {
-            throw new RuntimeException("Username already exists");
+            throw USERNAME_TAKEN;
         }
         
         // Check if email already exists
         if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Email already exists");
+            throw EMAIL_TAKEN;
         }
         
         // Encode password
@@ -49,13 +79,16 @@ public class UserService implements UserDetailsService {
             user.setRole(User.Role.USER);
         }
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(CacheInvalidationEvent.of(CacheRegion.USER, savedUser.getUsername()));
+        return savedUser;
     }
     
     public Optional<User> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userCache.get(username, userRepository::findByUsername);
     }
     
+    @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
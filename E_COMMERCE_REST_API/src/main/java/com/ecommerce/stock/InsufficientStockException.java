@@ -0,0 +1,17 @@
+package com.ecommerce.stock;
+
+import com.ecommerce.exception.ConflictException;
+
+/**
+ * Thrown when a reservation asks for more units than are currently available.
+ */
+public class InsufficientStockException extends ConflictException {
+    
+    public InsufficientStockException(Long productId, int requested, int available) {
+        super("Insufficient stock for product " + productId + ": requested " + requested + ", available " + available);
+    }
+    
+    public InsufficientStockException(Long productId, int requested) {
+        super("Insufficient stock for product " + productId + ": requested " + requested);
+    }
+} 
\ No newline at end of file
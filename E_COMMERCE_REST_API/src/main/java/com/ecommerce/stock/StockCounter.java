@@ -0,0 +1,87 @@
+package com.ecommerce.stock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stock of one product.
+ *
+ * {@code available} is what can still be reserved and is only ever changed with compare-and-set,
+ * so concurrent reservations of a hot product never block each other. Committed (sold) units
+ * accumulate in {@code pendingWriteBack} until the next batched database update. {@code knownStock}
+ * is the database value this counter was last reconciled with; it is only touched while holding
+ * the counter's monitor, by write-back and reconciliation.
+ */
+class StockCounter {
+    
+    private final Long productId;
+    private final AtomicInteger available;
+    private final AtomicInteger pendingWriteBack = new AtomicInteger();
+    private int knownStock;
+    
+    StockCounter(Long productId, int stockQuantity) {
+        this.productId = productId;
+        this.available = new AtomicInteger(stockQuantity);
+        this.knownStock = stockQuantity;
+    }
+    
+    /**
+     * Take {@code units} if available. Lock-free: retries only when another thread changed the counter.
+     */
+    void acquire(int units) {
+        while (true) {
+            int current = available.get();
+            if (current < units) {
+                throw new InsufficientStockException(productId, units, current);
+            }
+            if (available.compareAndSet(current, current - units)) {
+                return;
+            }
+        }
+    }
+    
+    void release(int units) {
+        available.addAndGet(units);
+    }
+    
+    /**
+     * Reserved units were sold: they stay out of {@code available} and must reach the database.
+     */
+    void commit(int units) {
+        pendingWriteBack.addAndGet(units);
+    }
+    
+    int drainPendingWriteBack() {
+        return pendingWriteBack.getAndSet(0);
+    }
+    
+    void restorePendingWriteBack(int units) {
+        pendingWriteBack.addAndGet(units);
+    }
+    
+    /**
+     * The database now reflects {@code units} more sold units, written by this counter.
+     */
+    synchronized void writtenBack(int units) {
+        knownStock -= units;
+    }
+    
+    /**
+     * Fold a change made to the database by someone else (an admin edit, another node) into
+     * {@code available}. Reservations and unflushed sales are unaffected.
+     */
+    synchronized void reconcile(int stockQuantity) {
+        int externalChange = stockQuantity - knownStock;
+        if (externalChange != 0) {
+            knownStock = stockQuantity;
+            available.addAndGet(externalChange);
+        }
+    }
+    
+    Long getProductId() {
+        return productId;
+    }
+    
+    int getAvailable() {
+        return available.get();
+    }
+} 
\ No newline at end of file
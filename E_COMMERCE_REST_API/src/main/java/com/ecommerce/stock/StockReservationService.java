@@ -0,0 +1,264 @@
+package com.ecommerce.stock;
+
+import com.ecommerce.cache.CacheInvalidationEvent;
+import com.ecommerce.cache.CacheRegion;
+import com.ecommerce.exception.NotFoundException;
+import com.ecommerce.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds stock for carts so that nobody can reserve more units than exist.
+ *
+ * Each product has an in-memory {@link StockCounter} seeded from {@code products.stock_quantity}.
+ * A reservation is the number of units one owner (a user's cart) holds for one product; setting
+ * it takes or returns the difference atomically. Reservations expire after a TTL and give their
+ * units back. Committed reservations become sales that are written back to the database in
+ * batches, which also pulls in stock changes made elsewhere.
+ *
+ * Reservations live only in memory: after a restart, counters reload from the database and every
+ * hold is gone, which is the same outcome as all of them expiring. Unflushed sales are written
+ * on shutdown. Each node keeps its own counters; with several nodes they converge on the
+ * database every write-back cycle.
+ */
+@Service
+public class StockReservationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+    
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${stock.reservation-ttl:15m}")
+    private Duration reservationTtl;
+    
+    private Clock clock = Clock.systemUTC();
+    
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final Map<ReservationKey, Reservation> reservations = new ConcurrentHashMap<>();
+    
+    /**
+     * Set the units {@code ownerId} holds for {@code productId} to {@code quantity}, taking or
+     * returning the difference, and restart the hold's TTL.
+     *
+     * @throws InsufficientStockException if the extra units are not available
+     */
+    public void reserve(Long ownerId, Long productId, int quantity) {
+        if (quantity <= 0) {
+            release(ownerId, productId);
+            return;
+        }
+        StockCounter counter = counter(productId);
+        Instant expiresAt = clock.instant().plus(reservationTtl);
+        reservations.compute(new ReservationKey(ownerId, productId), (key, current) -> {
+            int held = current != null ? current.quantity() : 0;
+            if (quantity > held) {
+                counter.acquire(quantity - held);
+            } else if (quantity < held) {
+                counter.release(held - quantity);
+            }
+            return new Reservation(quantity, expiresAt);
+        });
+    }
+    
+    /**
+     * Units {@code ownerId} currently holds for {@code productId}.
+     */
+    public int getReservedQuantity(Long ownerId, Long productId) {
+        Reservation reservation = reservations.get(new ReservationKey(ownerId, productId));
+        return reservation != null ? reservation.quantity() : 0;
+    }
+    
+    public void release(Long ownerId, Long productId) {
+        Reservation reservation = reservations.remove(new ReservationKey(ownerId, productId));
+        if (reservation != null) {
+            returnUnits(productId, reservation.quantity());
+        }
+    }
+    
+    public void releaseAll(Long ownerId) {
+        for (ReservationKey key : List.copyOf(reservations.keySet())) {
+            if (key.ownerId().equals(ownerId)) {
+                release(key.ownerId(), key.productId());
+            }
+        }
+    }
+    
+    /**
+     * Turn the hold into a sale: its units leave stock for good and are written back to the database.
+     *
+     * @throws InsufficientStockException if there is no hold of {@code quantity} units
+     */
+    public void commit(Long ownerId, Long productId, int quantity) {
+        ReservationKey key = new ReservationKey(ownerId, productId);
+        Reservation reservation = reservations.get(key);
+        if (reservation == null || reservation.quantity() < quantity || !reservations.remove(key, reservation)) {
+            throw new InsufficientStockException(productId, quantity, reservation != null ? reservation.quantity() : 0);
+        }
+        StockCounter counter = counter(productId);
+        counter.commit(quantity);
+        if (reservation.quantity() > quantity) {
+            counter.release(reservation.quantity() - quantity);
+        }
+    }
+    
+    /**
+     * The hold was sold and the caller has already taken {@code quantity} units off
+     * {@code products.stock_quantity} in its own transaction: drop the hold without queueing a write-back.
+     *
+     * Sold units that were not covered by the hold are left to the next reconcile, which sees them
+     * as a change made elsewhere. A reconcile that runs between the caller's commit and this call
+     * briefly under-counts {@code available} by the same amount and corrects itself on the next cycle.
+     */
+    public void settle(Long ownerId, Long productId, int quantity) {
+        Reservation reservation = reservations.remove(new ReservationKey(ownerId, productId));
+        StockCounter counter = counters.get(productId);
+        if (counter == null) {
+            return; // seeded from the already decremented database value on first use
+        }
+        int held = reservation != null ? reservation.quantity() : 0;
+        if (held > quantity) {
+            counter.release(held - quantity);
+        }
+        counter.writtenBack(Math.min(held, quantity));
+    }
+    
+    /**
+     * Units that can still be reserved.
+     */
+    public int getAvailableQuantity(Long productId) {
+        return counter(productId).getAvailable();
+    }
+    
+    /**
+     * Return the units of every expired reservation to stock.
+     */
+    @Scheduled(fixedDelayString = "${stock.expiry-interval-ms:5000}")
+    public int expireReservations() {
+        Instant now = clock.instant();
+        int expired = 0;
+        for (Map.Entry<ReservationKey, Reservation> entry : reservations.entrySet()) {
+            Reservation reservation = entry.getValue();
+            if (reservation.expiresAt().isBefore(now) && reservations.remove(entry.getKey(), reservation)) {
+                returnUnits(entry.getKey().productId(), reservation.quantity());
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            log.debug("Expired {} stock reservations", expired);
+        }
+        return expired;
+    }
+    
+    /**
+     * Write committed sales to {@code products.stock_quantity} in one JDBC batch, then reconcile the
+     * counters with the database so edits made elsewhere are picked up.
+     */
+    @Scheduled(fixedDelayString = "${stock.write-back-interval-ms:500}")
+    public synchronized void writeBack() {
+        List<StockCounter> flushed = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        for (StockCounter counter : counters.values()) {
+            int sold = counter.drainPendingWriteBack();
+            if (sold > 0) {
+                flushed.add(counter);
+                batch.add(new Object[]{sold, counter.getProductId()});
+            }
+        }
+        
+        if (!batch.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate("UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ?", batch);
+            } catch (RuntimeException e) {
+                for (int i = 0; i < flushed.size(); i++) {
+                    flushed.get(i).restorePendingWriteBack((Integer) batch.get(i)[0]);
+                }
+                log.warn("Stock write-back failed, will retry: {}", e.getMessage());
+                return;
+            }
+            for (int i = 0; i < flushed.size(); i++) {
+                StockCounter counter = flushed.get(i);
+                counter.writtenBack((Integer) batch.get(i)[0]);
+                eventPublisher.publishEvent(CacheInvalidationEvent.of(CacheRegion.PRODUCT, counter.getProductId()));
+            }
+        }
+        
+        reconcile();
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        writeBack();
+    }
+    
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+    
+    private void reconcile() {
+        List<Long> productIds = List.copyOf(counters.keySet());
+        for (int from = 0; from < productIds.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, productIds.size()));
+            Map<Long, Integer> stock = new HashMap<>();
+            productRepository.findStockLevels(chunk).forEach(level -> stock.put(level.getId(), level.getStockQuantity()));
+            for (Long productId : chunk) {
+                Integer stockQuantity = stock.get(productId);
+                if (stockQuantity == null) {
+                    counters.remove(productId); // product deleted
+                } else {
+                    counters.get(productId).reconcile(stockQuantity);
+                }
+            }
+        }
+    }
+    
+    private StockCounter counter(Long productId) {
+        StockCounter counter = counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        Integer stockQuantity = productRepository.findStockLevels(List.of(productId)).stream()
+                .findFirst()
+                .map(ProductRepository.StockLevel::getStockQuantity)
+                .orElseThrow(() -> new NotFoundException("Product", productId));
+        // Units already held or sold by this node are accounted for in the existing counter, if any
+        return counters.computeIfAbsent(productId, id -> new StockCounter(id, stockQuantity));
+    }
+    
+    private void returnUnits(Long productId, int units) {
+        StockCounter counter = counters.get(productId);
+        if (counter != null) {
+            counter.release(units);
+        }
+    }
+    
+    private record ReservationKey(Long ownerId, Long productId) {
+    }
+    
+    private record Reservation(int quantity, Instant expiresAt) {
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,205 @@
+package com.ecommerce.warmup;
+
+import com.ecommerce.limit.Lane;
+import com.ecommerce.limit.LaneContext;
+import com.ecommerce.popularity.PopularityService;
+import com.ecommerce.service.ProductService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fills the product cache after startup and after a catalog reload, so the first minutes of
+ * product reads don't all go to the database.
+ *
+ * It loads the most popular products (product reads count as views in the
+ * {@link PopularityService} ranking, which is stored and seeded at startup). Catalog pages are
+ * not warmed: they have no cache of their own, so replaying them would only warm the database.
+ * Reads are paced to {@code warmup.max-reads-per-second} on the admin lane and stop after
+ * {@code warmup.time-budget}. A newer warm-up supersedes one still running.
+ *
+ * The node reports ready once the startup warm-up has finished or run out of time; warm-ups after
+ * a reload run while it keeps serving.
+ */
+@Component
+public class CacheWarmer {
+    
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmer.class);
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private PopularityService popularityService;
+    
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${warmup.products:100}")
+    private int productLimit;
+    
+    @Value("${warmup.max-reads-per-second:200}")
+    private int maxReadsPerSecond;
+    
+    @Value("${warmup.time-budget:30s}")
+    private Duration timeBudget;
+    
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-warmer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong generation = new AtomicLong();
+    private volatile WarmupStatus status = WarmupStatus.PENDING;
+    private volatile boolean ready;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmAfterStartup() {
+        if (!enabled) {
+            ready = true;
+            return;
+        }
+        warmInBackground(Trigger.STARTUP);
+    }
+    
+    /**
+     * Start a warm-up in the background, superseding any that is still running.
+     */
+    public void warmInBackground(Trigger trigger) {
+        if (!enabled) {
+            return;
+        }
+        long run = generation.incrementAndGet();
+        executor.execute(() -> warm(trigger, run));
+    }
+    
+    /**
+     * Whether the startup warm-up has finished or run out of time.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public WarmupStatus getStatus() {
+        return status;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void warm(Trigger trigger, long run) {
+        Instant startedAt = Instant.now();
+        status = new WarmupStatus(trigger, State.RUNNING, startedAt, null, 0, 0);
+        Replay replay = new Replay(run, System.nanoTime() + timeBudget.toNanos(),
+                TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxReadsPerSecond));
+        // Background work: use the admin lane's connections
+        Lane previous = LaneContext.enter(Lane.ADMIN);
+        State outcome;
+        try {
+            outcome = replay.run();
+        } finally {
+            LaneContext.restore(previous);
+        }
+        status = new WarmupStatus(trigger, outcome, startedAt, Instant.now(), replay.products, replay.failures);
+        if (trigger == Trigger.STARTUP) {
+            ready = true;
+        }
+        log.info("Cache warm-up after {} {}: {} products, {} failed in {} ms",
+                trigger, outcome, replay.products, replay.failures,
+                Duration.between(startedAt, status.finishedAt()).toMillis());
+    }
+    
+    /**
+     * One paced pass over the popular products. A read that fails is counted and skipped.
+     */
+    private final class Replay {
+        
+        private final long run;
+        private final long deadline;
+        private final long interval;
+        private int products;
+        private int failures;
+        
+        private Replay(long run, long deadline, long interval) {
+            this.run = run;
+            this.deadline = deadline;
+            this.interval = interval;
+        }
+        
+        private State run() {
+            List<Long> productIds = popularityService.getRanking();
+            for (int i = 0; i < productIds.size() && i < productLimit; i++) {
+                State stop = pace();
+                if (stop != null) {
+                    return stop;
+                }
+                try {
+                    if (productService.warmProduct(productIds.get(i))) {
+                        products++;
+                    }
+                } catch (RuntimeException e) {
+                    failed(e);
+                }
+            }
+            return State.WARM;
+        }
+        
+        /**
+         * Wait for the next read slot. Returns why to stop, or {@code null} to go on.
+         */
+        private State pace() {
+            if (generation.get() != run || Thread.currentThread().isInterrupted()) {
+                return State.SUPERSEDED;
+            }
+            long now = System.nanoTime();
+            if (now - deadline >= 0) {
+                return State.TIMED_OUT;
+            }
+            LockSupport.parkNanos(Math.min(interval, deadline - now));
+            return null;
+        }
+        
+        private void failed(RuntimeException e) {
+            failures++;
+            log.debug("Cache warm-up read failed: {}", e.getMessage());
+        }
+    }
+    
+    public enum Trigger {
+        STARTUP,
+        RELOAD
+    }
+    
+    public enum State {
+        PENDING,
+        RUNNING,
+        WARM,
+        TIMED_OUT,
+        SUPERSEDED
+    }
+    
+    /**
+     * The latest warm-up: {@code products} were loaded, {@code failures} could not be.
+     */
+    public record WarmupStatus(Trigger trigger, State state, Instant startedAt, Instant finishedAt,
+                               int products, int failures) {
+        
+        static final WarmupStatus PENDING = new WarmupStatus(null, State.PENDING, null, null, 0, 0);
+    }
+} 
\ No newline at end of file
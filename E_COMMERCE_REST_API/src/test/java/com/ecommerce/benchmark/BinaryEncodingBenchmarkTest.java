@@ -0,0 +1,103 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.data.SyntheticDataGenerator;
+import com.ecommerce.dto.PageResponse;
+import com.ecommerce.dto.ProductDto;
+import com.ecommerce.dto.ProductJsonDto;
+import com.ecommerce.dto.json.CartItemDtoSerializer;
+import com.ecommerce.dto.json.ProductDtoSerializer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Payload size and encode/decode throughput of a catalog page as JSON, CBOR and Smile,
+ * all written through the same DTO serializers the controllers use.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class BinaryEncodingBenchmarkTest {
+    
+    private static final int[] PAGE_SIZES = {20, 100};
+    private static final int WARMUP_ITERATIONS = 10_000;
+    private static final int MEASURED_ITERATIONS = 20_000;
+    private static final TypeReference<PageResponse<ProductDto>> PAGE_TYPE = new TypeReference<>() {};
+    
+    private final ObjectMapper json = mapper(new JsonFactory());
+    
+    @Test
+    void catalogPageEncodings() throws Exception {
+        ObjectMapper cbor = mapper(new CBORFactory());
+        ObjectMapper smile = mapper(new SmileFactory());
+        
+        for (int pageSize : PAGE_SIZES) {
+            PageResponse<ProductDto> page = page(pageSize);
+            System.out.printf("%-24s %10s %12s %12s%n", "Page of " + pageSize + " products", "bytes", "encode ns", "decode ns");
+            report("JSON", json, page);
+            report("CBOR", cbor, page);
+            report("Smile", smile, page);
+        }
+    }
+    
+    private void report(String label, ObjectMapper mapper, PageResponse<ProductDto> page) throws Exception {
+        byte[] encoded = mapper.writeValueAsBytes(page);
+        // Round trip must preserve the contract before the numbers mean anything
+        assertEquals(json.writeValueAsString(page), json.writeValueAsString(mapper.readValue(encoded, PAGE_TYPE)));
+        
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += mapper.writeValueAsBytes(page).length;
+            sink += mapper.readValue(encoded, PAGE_TYPE).getContent().size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += mapper.writeValueAsBytes(page).length;
+        }
+        long encodeNs = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += mapper.readValue(encoded, PAGE_TYPE).getContent().size();
+        }
+        long decodeNs = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+        System.out.printf("%-24s %10d %12d %12d%s%n", label, encoded.length, encodeNs, decodeNs, sink == 0 ? " (no output)" : "");
+    }
+    
+    private PageResponse<ProductDto> page(int size) {
+        List<ProductDto> content = new SyntheticDataGenerator(42).products(size)
+                .map(this::toDto)
+                .toList();
+        return new PageResponse<>(content, 0, size, 10_000, 10_000 / size);
+    }
+    
+    private ProductDto toDto(ProductJsonDto product) {
+        try {
+            return new ProductDto((long) product.getId().hashCode(), product.getName(), product.getShortDescription(),
+                    product.getFullDescription(), product.getPrice(), product.getStockQuantity(), product.getCategory(),
+                    product.getImages().get(0), product.getImages(), json.writeValueAsString(product.getTechnicalSpecifications()));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new SimpleModule()
+                        .addSerializer(new ProductDtoSerializer())
+                        .addSerializer(new CartItemDtoSerializer()))
+                .build();
+    }
+} 
\ No newline at end of file
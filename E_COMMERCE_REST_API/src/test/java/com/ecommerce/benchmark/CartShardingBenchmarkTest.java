@@ -0,0 +1,115 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.cache.LoopbackCacheInvalidationBus;
+import com.ecommerce.cart.CartShardDirectory;
+import com.ecommerce.cart.ShardedCartStore;
+import com.ecommerce.config.CartShardingProperties;
+import com.ecommerce.config.CartStoreConfig;
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CartShardAssignmentRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cart write throughput (add-to-cart: lookup, then insert or update) as the number of embedded
+ * H2 shards grows, with concurrent writers spread over many users.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pbenchmark}. On a single-core
+ * machine the numbers mostly reflect per-shard lock contention rather than parallel I/O.
+ */
+@Tag("benchmark")
+class CartShardingBenchmarkTest {
+    
+    private static final int[] SHARD_COUNTS = {1, 2, 4, 8};
+    private static final int WRITERS = 16;
+    private static final int USERS = 5_000;
+    private static final int PRODUCTS = 50;
+    private static final int WARMUP_OPERATIONS = 20_000;
+    private static final int MEASURED_OPERATIONS = 100_000;
+    
+    @Test
+    void cartWriteThroughput() throws Exception {
+        System.out.printf("%-8s %12s %14s%n", "shards", "writes/s", "avg us/write");
+        for (int shardCount : SHARD_COUNTS) {
+            try (ShardedCartStore store = store(shardCount)) {
+                run(store, WARMUP_OPERATIONS, 1);
+                long start = System.nanoTime();
+                run(store, MEASURED_OPERATIONS, 2);
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("%-8d %12.0f %14.1f%n", shardCount,
+                        MEASURED_OPERATIONS / (elapsed / 1e9), elapsed / 1e3 / MEASURED_OPERATIONS * WRITERS);
+            }
+        }
+    }
+    
+    private static void run(ShardedCartStore store, int operations, long seed) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                SplittableRandom random = new SplittableRandom(seed * 1_000 + w);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < operations / WRITERS; i++) {
+                        addToCart(store, random.nextLong(1, USERS + 1), random.nextLong(1, PRODUCTS + 1));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    private static void addToCart(ShardedCartStore store, long userId, long productId) {
+        User user = new User();
+        user.setId(userId);
+        Optional<CartItem> existing = store.findByUserAndProductId(user, productId);
+        if (existing.isPresent()) {
+            CartItem cartItem = existing.get();
+            cartItem.setQuantity(cartItem.getQuantity() + 1);
+            store.save(cartItem);
+        } else {
+            Product product = new Product();
+            product.setId(productId);
+            try {
+                store.save(new CartItem(user, product, 1));
+            } catch (RuntimeException e) {
+                // Another writer added the same product for this user first
+            }
+        }
+    }
+    
+    private static ShardedCartStore store(int shardCount) {
+        CartShardAssignmentRepository assignmentRepository = mock(CartShardAssignmentRepository.class);
+        when(assignmentRepository.findById(anyLong())).thenReturn(Optional.empty());
+        ProductRepository productRepository = mock(ProductRepository.class);
+        
+        CartShardingProperties properties = new CartShardingProperties();
+        properties.setEmbeddedShards(shardCount);
+        properties.setEmbeddedName("cart_bench_" + shardCount);
+        properties.setPoolSize(WRITERS);
+        CartShardDirectory directory = new CartShardDirectory(assignmentRepository, event -> {},
+                new LoopbackCacheInvalidationBus(), shardCount, USERS * 2);
+        return new ShardedCartStore(CartStoreConfig.createShardDataSources(properties), directory,
+                productRepository, mock(UserRepository.class), Duration.ZERO);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.cache.CacheInvalidationBus;
+import com.ecommerce.cart.CartStore;
+import com.ecommerce.cart.WriteBehindCartStore;
+import com.ecommerce.config.CartStoreConfig;
+import com.ecommerce.config.CartWriteBehindProperties;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.service.CartService;
+import com.ecommerce.stock.StockReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The same cart workload through {@link CartService} (70% cart summary reads, 30% add-to-cart,
+ * many users, concurrent clients) with the default JPA store and with the write-behind memory
+ * store swapped in.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:writebehindbench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "logging.level.org.hibernate=ERROR"
+})
+class CartWriteBehindBenchmarkTest {
+    
+    private static final int USERS = 500;
+    private static final int PRODUCTS = 50;
+    private static final int THREADS = 16;
+    private static final int WARMUP_OPERATIONS = 10_000;
+    private static final int MEASURED_OPERATIONS = 50_000;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private CartStore jpaCartStore;
+    
+    @Autowired
+    private StockReservationService stockReservationService;
+    
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void cartServiceThroughputByStore() throws Exception {
+        List<Long> userIds = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            userIds.add(userRepository.save(new User("cart-bench-" + i, "cart-bench-" + i + "@example.com", "password123")).getId());
+        }
+        List<Long> productIds = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            productIds.add(productRepository.save(new Product("Cart Bench " + i, "Cart workload", new BigDecimal("9.99"), 1_000_000, "Bench")).getId());
+        }
+        
+        System.out.printf("%-14s %12s %10s %10s%n", "store", "ops/s", "p50 us", "p99 us");
+        measure("jpa", userIds, productIds);
+        
+        CartWriteBehindProperties properties = new CartWriteBehindProperties();
+        try (WriteBehindCartStore store = new CartStoreConfig().writeBehindCartStore(properties, cartItemRepository,
+                userRepository, productRepository, dataSource, transactionManager, entityManagerFactory, cacheInvalidationBus)) {
+            ReflectionTestUtils.setField(cartService, "cartStore", store);
+            measure("memory", userIds, productIds);
+            store.flush();
+            
+            long inMemory = 0;
+            for (Long userId : userIds) {
+                inMemory += cartService.getCartItemCount(userId);
+            }
+            assertEquals(inMemory, jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM cart_items", Long.class));
+            System.out.printf("memory store: %d flushes, %d rows written%n", store.getFlushCount(), store.getRowsWritten());
+        } finally {
+            ReflectionTestUtils.setField(cartService, "cartStore", jpaCartStore);
+        }
+    }
+    
+    private void measure(String store, List<Long> userIds, List<Long> productIds) throws Exception {
+        cartItemRepository.deleteAllInBatch();
+        userIds.forEach(stockReservationService::releaseAll);
+        run(userIds, productIds, WARMUP_OPERATIONS, 1);
+        long start = System.nanoTime();
+        long[] latencies = run(userIds, productIds, MEASURED_OPERATIONS, 2);
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        System.out.printf("%-14s %12.0f %10.0f %10.0f%n", store, MEASURED_OPERATIONS / (elapsed / 1e9),
+                latencies[latencies.length / 2] / 1e3, latencies[latencies.length * 99 / 100] / 1e3);
+    }
+    
+    private long[] run(List<Long> userIds, List<Long> productIds, int operations, long seed) throws Exception {
+        int perThread = operations / THREADS;
+        long[] latencies = new long[perThread * THREADS];
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t * perThread;
+                SplittableRandom random = new SplittableRandom(seed * 1_000 + t);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        Long userId = userIds.get(random.nextInt(userIds.size()));
+                        long began = System.nanoTime();
+                        if (random.nextInt(10) < 7) {
+                            cartService.getCartSummary(userId);
+                        } else {
+                            cartService.addToCart(userId, productIds.get(random.nextInt(productIds.size())), 1);
+                        }
+                        latencies[offset + i] = System.nanoTime() - began;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return latencies;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.dto.ProductDto;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.ProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Heap allocated and latency per catalog page, read the way the endpoints did before (a
+ * read-write transaction, so every product is snapshotted for dirty checking and flushed at
+ * commit) and through the read-only page methods now used.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalogreadbench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "catalog.source=synthetic",
+        "catalog.synthetic.products=5000",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "logging.level.org.hibernate=ERROR"
+})
+class CatalogReadBenchmarkTest {
+    
+    private static final int[] PAGE_SIZES = {20, 100};
+    private static final int WARMUP_PAGES = 2_000;
+    private static final int MEASURED_PAGES = 2_000;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void catalogPageReads() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        Function<Pageable, Page<ProductDto>> before = pageable ->
+                readWrite.execute(status -> productRepository.findAll(pageable).map(ProductDto::from));
+        Function<Pageable, Page<ProductDto>> after = pageable ->
+                productService.getProductPage(null, null, null, null, pageable);
+        
+        System.out.printf("%-28s %14s %12s%n", "Catalog page", "bytes/page", "us/page");
+        for (int pageSize : PAGE_SIZES) {
+            assertEquals(before.apply(page(0, pageSize)).getContent().size(), after.apply(page(0, pageSize)).getContent().size());
+            run(before, pageSize, WARMUP_PAGES);
+            run(after, pageSize, WARMUP_PAGES);
+            report(pageSize + " products, read-write", before, pageSize);
+            report(pageSize + " products, read-only", after, pageSize);
+        }
+    }
+    
+    private void report(String label, Function<Pageable, Page<ProductDto>> read, int pageSize) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long sink = run(read, pageSize, MEASURED_PAGES);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        System.out.printf("%-28s %14d %12.1f%s%n", label, allocated / MEASURED_PAGES, elapsed / 1e3 / MEASURED_PAGES,
+                sink == 0 ? " (no output)" : "");
+    }
+    
+    private static long run(Function<Pageable, Page<ProductDto>> read, int pageSize, int pages) {
+        int pageCount = 5_000 / pageSize;
+        long sink = 0;
+        for (int i = 0; i < pages; i++) {
+            sink += read.apply(page(i % pageCount, pageSize)).getContent().size();
+        }
+        return sink;
+    }
+    
+    private static Pageable page(int number, int size) {
+        return PageRequest.of(number, size, Sort.by("id"));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.dto.PageResponse;
+import com.ecommerce.dto.ProductDto;
+import com.ecommerce.dto.json.CartItemDtoSerializer;
+import com.ecommerce.dto.json.ProductDtoSerializer;
+import com.ecommerce.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the old catalog response ({@code PageImpl<Product>} through reflective bean serialization)
+ * with the compact {@link PageResponse} of {@link ProductDto} written by the hand-written serializers.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class CatalogSerializationBenchmarkTest {
+    
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 50_000;
+    
+    @Test
+    void catalogPageSerialization() throws Exception {
+        ObjectMapper reflectiveMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ObjectMapper handWrittenMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new SimpleModule()
+                        .addSerializer(new ProductDtoSerializer())
+                        .addSerializer(new CartItemDtoSerializer()))
+                .build();
+        
+        List<Product> products = products(PAGE_SIZE);
+        Page<Product> before = new PageImpl<>(products, PageRequest.of(0, PAGE_SIZE, Sort.by("price")), 10_000);
+        PageResponse<ProductDto> after = PageResponse.from(before, CatalogSerializationBenchmarkTest::toDto);
+        
+        System.out.printf("%-40s %12s %12s%n", "Catalog page (" + PAGE_SIZE + " products)", "bytes", "ns/op");
+        report("PageImpl<Product>, reflective", reflectiveMapper, before);
+        report("PageResponse<ProductDto>, reflective", reflectiveMapper, after);
+        report("PageResponse<ProductDto>, hand-written", handWrittenMapper, after);
+    }
+    
+    private static void report(String label, ObjectMapper mapper, Object value) throws Exception {
+        int bytes = mapper.writeValueAsBytes(value).length;
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += mapper.writeValueAsBytes(value).length;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += mapper.writeValueAsBytes(value).length;
+        }
+        long nsPerOp = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+        System.out.printf("%-40s %12d %12d%s%n", label, bytes, nsPerOp, sink == 0 ? " (no output)" : "");
+    }
+    
+    private static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product("Cordless Drill " + i, "18V brushless drill", "Brushless 18V drill with two batteries and a charger",
+                    new BigDecimal("149.90").add(BigDecimal.valueOf(i)), 25 + i, "Power Tools");
+            product.setId((long) i + 1);
+            product.setImageUrl("/images/drill-" + i + ".jpg");
+            product.setImages(List.of("/images/drill-" + i + ".jpg", "/images/drill-" + i + "-side.jpg"));
+            product.setTechnicalSpecifications("{\"voltage\":\"18V\",\"torque\":\"60Nm\"}");
+            products.add(product);
+        }
+        return products;
+    }
+    
+    private static ProductDto toDto(Product product) {
+        return new ProductDto(product.getId(), product.getName(), product.getShortDescription(), product.getFullDescription(),
+                product.getPrice(), product.getStockQuantity(), product.getCategory(), product.getImageUrl(),
+                product.getImages(), product.getTechnicalSpecifications());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.stock.InsufficientStockException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Concurrent checkouts competing for limited stock. Carts are written straight to the database,
+ * as if their reservations had expired, so demand exceeds supply and checkout itself has to
+ * arbitrate. Afterwards every checkout is retried with its idempotency key.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:checkoutbench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "logging.level.org.hibernate=ERROR"
+})
+class CheckoutBenchmarkTest {
+    
+    private static final int PRODUCTS = 20;
+    private static final int STOCK_PER_PRODUCT = 100;
+    private static final int USERS = 1_000;
+    private static final int THREADS = 8;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void checkoutThroughputUnderContention() throws Exception {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(productRepository.save(new Product("Checkout Bench " + i, "Limited stock", new BigDecimal("19.99"), STOCK_PER_PRODUCT, "Bench")));
+        }
+        List<Long> userIds = seedCarts(products);
+        
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        long[] latencies = new long[USERS];
+        long start = System.nanoTime();
+        runAll(userIds, (index, userId) -> {
+            long began = System.nanoTime();
+            try {
+                orderService.checkout(userId, "bench-" + userId);
+                placed.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+            latencies[index] = System.nanoTime() - began;
+        });
+        long elapsed = System.nanoTime() - start;
+        
+        AtomicInteger replayed = new AtomicInteger();
+        runAll(userIds, (index, userId) -> {
+            try {
+                if (orderService.checkout(userId, "bench-" + userId).replayed()) {
+                    replayed.incrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                // rejected the first time and the cart is still over-subscribed
+            }
+        });
+        
+        for (Product product : products) {
+            int stock = jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, product.getId());
+            Integer sold = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM order_items WHERE product_id = ?", Integer.class, product.getId());
+            assertEquals(STOCK_PER_PRODUCT, stock + sold, "stock and sales disagree for product " + product.getId());
+        }
+        assertEquals(placed.get(), replayed.get());
+        
+        Arrays.sort(latencies);
+        System.out.printf("%-32s %10s%n", USERS + " checkouts, " + THREADS + " threads", "value");
+        System.out.printf("%-32s %10d%n", "orders placed", placed.get());
+        System.out.printf("%-32s %10d%n", "rejected (sold out)", rejected.get());
+        System.out.printf("%-32s %10.0f%n", "checkouts/s", USERS / (elapsed / 1e9));
+        System.out.printf("%-32s %10.2f%n", "p50 ms", latencies[USERS / 2] / 1e6);
+        System.out.printf("%-32s %10.2f%n", "p99 ms", latencies[USERS * 99 / 100] / 1e6);
+        System.out.printf("%-32s %10d%n", "retries replayed", replayed.get());
+    }
+    
+    private List<Long> seedCarts(List<Product> products) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Long> userIds = new ArrayList<>(USERS);
+        List<CartItem> cartItems = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = userRepository.save(new User("checkout-bench-" + i, "checkout-bench-" + i + "@example.com", "password123"));
+            userIds.add(user.getId());
+            int lines = 1 + random.nextInt(3);
+            int first = random.nextInt(PRODUCTS);
+            for (int line = 0; line < lines; line++) {
+                cartItems.add(new CartItem(user, products.get((first + line) % PRODUCTS), 1 + random.nextInt(2)));
+            }
+        }
+        cartItemRepository.saveAll(cartItems);
+        return userIds;
+    }
+    
+    private static void runAll(List<Long> userIds, CheckoutTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>(userIds.size());
+            for (int i = 0; i < userIds.size(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> task.run(index, userIds.get(index))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface CheckoutTask {
+        void run(int index, Long userId);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.dto.RegisterRequest;
+import com.ecommerce.entity.User;
+import com.ecommerce.service.ProductService;
+import com.ecommerce.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Latency and heap allocated per rejected request: deleting a product that doesn't exist and
+ * registering a username that is taken, called on the service and through the full web stack.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:errorpathbench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class ErrorPathBenchmarkTest {
+    
+    private static final long MISSING_PRODUCT_ID = 999_999_999L;
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 20_000;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void rejectedRequests() throws Exception {
+        userService.registerUser(new User("taken", "taken@example.com", "password123"));
+        User duplicate = new User("taken", "other@example.com", "password123");
+        RequestBuilder deleteMissing = delete("/api/products/" + MISSING_PRODUCT_ID);
+        RequestBuilder registerDuplicate = post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(new RegisterRequest("taken", "other@example.com", "password123")));
+        assertEquals(404, mockMvc.perform(deleteMissing).andReturn().getResponse().getStatus());
+        
+        Operation[] operations = {
+                () -> productService.deleteProduct(MISSING_PRODUCT_ID),
+                () -> userService.registerUser(duplicate),
+                () -> mockMvc.perform(deleteMissing),
+                () -> mockMvc.perform(registerDuplicate)
+        };
+        String[] labels = {"service: missing product", "service: duplicate user", "http: missing product", "http: duplicate user"};
+        for (Operation operation : operations) {
+            run(operation, WARMUP);
+        }
+        System.out.printf("%-28s %12s %12s%n", "Rejected request", "us/op", "bytes/op");
+        for (int i = 0; i < operations.length; i++) {
+            report(labels[i], operations[i]);
+        }
+    }
+    
+    private static void report(String label, Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        run(operation, MEASURED);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        System.out.printf("%-28s %12.2f %12d%n", label, elapsed / 1e3 / MEASURED, allocated / MEASURED);
+    }
+    
+    private static void run(Operation operation, int times) throws Exception {
+        for (int i = 0; i < times; i++) {
+            try {
+                operation.run();
+            } catch (RuntimeException expected) {
+                // the rejection being measured
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.cart.GuestCartStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measured heap per guest cart against the store's own footprint estimate, for carts of a few
+ * typical sizes.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class GuestCartMemoryBenchmarkTest {
+    
+    private static final int CARTS = 200_000;
+    private static final int[] LINES_PER_CART = {1, 4, 10, 50};
+    
+    @Test
+    void heapPerGuestCart() {
+        System.out.printf("%-16s %16s %16s%n", "Lines per cart", "measured bytes", "estimated bytes");
+        for (int lines : LINES_PER_CART) {
+            GuestCartStore store = new GuestCartStore();
+            ReflectionTestUtils.setField(store, "maxCarts", CARTS);
+            ReflectionTestUtils.setField(store, "maxLines", 50);
+            ReflectionTestUtils.setField(store, "ttl", Duration.ofHours(2));
+            
+            long before = usedHeap();
+            for (long guest = 0; guest < CARTS; guest++) {
+                for (int line = 0; line < lines; line++) {
+                    store.add(guest, line + 1, 1);
+                }
+            }
+            long measured = (usedHeap() - before) / CARTS;
+            assertEquals(CARTS, store.getCartCount());
+            System.out.printf("%-16d %16d %16d%n", lines, measured, store.getFootprintBytes() / CARTS);
+        }
+    }
+    
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+} 
\ No newline at end of file
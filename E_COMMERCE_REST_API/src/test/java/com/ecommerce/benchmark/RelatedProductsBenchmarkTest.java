@@ -0,0 +1,106 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.recommendation.CatalogWipedEvent;
+import com.ecommerce.recommendation.RecommendationService;
+import com.ecommerce.service.ProductService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * "Frequently added together" lookups for {@value #PRODUCTS} carted products, answered by a
+ * co-occurrence query over {@code cart_items} and by the in-memory matrix, plus the time to
+ * bootstrap the matrix from every cart with one and with several scan partitions.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:relatedbench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "catalog.source=synthetic",
+        "catalog.synthetic.products=20000",
+        "catalog.synthetic.users=20000",
+        "concurrency-limit.enabled=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+class RelatedProductsBenchmarkTest {
+    
+    private static final int PRODUCTS = 200;
+    private static final int LIMIT = 10;
+    private static final String CO_OCCURRENCE_SQL = "SELECT other.product_id FROM cart_items item "
+            + "JOIN cart_items other ON other.user_id = item.user_id AND other.product_id <> item.product_id "
+            + "WHERE item.product_id = ? GROUP BY other.product_id ORDER BY COUNT(*) DESC, other.product_id LIMIT " + LIMIT;
+    
+    @Autowired
+    private RecommendationService recommendationService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void relatedLookups() throws Exception {
+        for (int i = 0; i < 600 && !recommendationService.getStats().bootstrapped(); i++) {
+            Thread.sleep(100);
+        }
+        for (int parallelism : new int[]{1, 4}) {
+            recommendationService.onCatalogWiped(new CatalogWipedEvent());
+            ReflectionTestUtils.setField(recommendationService, "bootstrapParallelism", parallelism);
+            long started = System.nanoTime();
+            recommendationService.bootstrap();
+            System.out.printf("Bootstrap, %d partition(s): %d ms%n", parallelism, (System.nanoTime() - started) / 1_000_000);
+        }
+        System.out.println(recommendationService.getStats());
+        
+        List<Long> productIds = jdbcTemplate.queryForList(
+                "SELECT product_id FROM cart_items GROUP BY product_id ORDER BY COUNT(*) DESC LIMIT " + PRODUCTS, Long.class);
+        long[] ids = productIds.stream().mapToLong(Long::longValue).toArray();
+        
+        System.out.printf("%-26s %10s %10s%n", PRODUCTS + " products", "p50 us", "p99 us");
+        double[] query = measure(ids, 1, id -> jdbcTemplate.queryForList(CO_OCCURRENCE_SQL, Long.class, id));
+        double[] matrix = measure(ids, 50, id -> recommendationService.getRelated(id, LIMIT));
+        double[] endpoint = measure(ids, 50, id -> productService.getRelatedProducts(id, LIMIT));
+        print("co-occurrence query", query);
+        print("matrix", matrix);
+        print("matrix + product cache", endpoint);
+        
+        assertTrue(matrix[1] < query[0], "matrix lookups should beat the co-occurrence query");
+    }
+    
+    /**
+     * p50 and p99 latency in microseconds over {@code rounds} passes, after one warm-up pass.
+     */
+    private static double[] measure(long[] ids, int rounds, LongConsumer lookup) {
+        for (long id : ids) {
+            lookup.accept(id);
+        }
+        long[] latencies = new long[ids.length * rounds];
+        int n = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (long id : ids) {
+                long started = System.nanoTime();
+                lookup.accept(id);
+                latencies[n++] = System.nanoTime() - started;
+            }
+        }
+        Arrays.sort(latencies);
+        return new double[]{latencies[n / 2] / 1000.0, latencies[(int) (n * 0.99)] / 1000.0};
+    }
+    
+    private static void print(String label, double[] latencies) {
+        System.out.printf("%-26s %10.1f %10.1f%n", label, latencies[0], latencies[1]);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.cache.LocalCache;
+import com.ecommerce.cache.SingleFlight;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bursts of identical concurrent catalog reads, as on a campaign launch: {@value #BURST_SIZE}
+ * callers released at once ask for the same category page, or the same product detail, and
+ * the database statements they cause are counted. Each read runs with coalescing off and on,
+ * and product details also behind a cold cache.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coalescingbench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "catalog.source=synthetic",
+        "catalog.synthetic.products=20000",
+        "concurrency-limit.enabled=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "logging.level.org.hibernate=ERROR"
+})
+class RequestCoalescingBenchmarkTest {
+    
+    private static final int BURST_SIZE = 100;
+    private static final int BURSTS = 20;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void identicalConcurrentReads() throws Exception {
+        ProductService target = AopTestUtils.getTargetObject(productService);
+        SingleFlight<?, ?> pageFlights = (SingleFlight<?, ?>) ReflectionTestUtils.getField(target, "pageFlights");
+        SingleFlight<?, ?> productFlights = (SingleFlight<?, ?>) ReflectionTestUtils.getField(target, "productFlights");
+        LocalCache<?, ?> productCache = (LocalCache<?, ?>) ReflectionTestUtils.getField(target, "productCache");
+        
+        String category = productService.getAllCategories().get(0);
+        Pageable page = PageRequest.of(0, 20, Sort.by("price"));
+        Long productId = productRepository.findMinId();
+        Runnable readPage = () -> productService.getProductPage(null, category, null, null, page);
+        Runnable readProduct = () -> productService.getProductDtoById(productId);
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ExecutorService callers = Executors.newFixedThreadPool(BURST_SIZE);
+        try {
+            System.out.printf("%-34s %8s %12s %10s %10s%n", "Burst of " + BURST_SIZE, "calls", "statements", "saved", "p99 ms");
+            
+            productCache.setEnabled(false);
+            pageFlights.setCoalescing(false);
+            Result pageOff = run(callers, statistics, readPage, null);
+            pageFlights.setCoalescing(true);
+            Result pageOn = run(callers, statistics, readPage, null);
+            pageOff.print("category page, coalescing off", pageOff);
+            pageOn.print("category page, coalescing on", pageOff);
+            
+            productFlights.setCoalescing(false);
+            Result detailOff = run(callers, statistics, readProduct, null);
+            productFlights.setCoalescing(true);
+            Result detailOn = run(callers, statistics, readProduct, null);
+            productCache.setEnabled(true);
+            Result detailCached = run(callers, statistics, readProduct, productCache::invalidateAll);
+            detailOff.print("detail, no cache, coalescing off", detailOff);
+            detailOn.print("detail, no cache, coalescing on", detailOff);
+            detailCached.print("detail, cold cache, coalescing on", detailOff);
+            
+            assertTrue(pageOn.statements() < pageOff.statements(), "page statements: " + pageOn.statements());
+            assertTrue(detailOn.statements() < detailOff.statements(), "detail statements: " + detailOn.statements());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+    
+    /**
+     * Run {@value #BURSTS} bursts, calling {@code beforeBurst} ahead of each one.
+     */
+    private Result run(ExecutorService callers, Statistics statistics, Runnable read, Runnable beforeBurst) throws Exception {
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long[] latencies = new long[BURSTS * BURST_SIZE];
+        int recorded = 0;
+        for (int burst = 0; burst < BURSTS; burst++) {
+            if (beforeBurst != null) {
+                beforeBurst.run();
+            }
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> calls = new ArrayList<>(BURST_SIZE);
+            for (int i = 0; i < BURST_SIZE; i++) {
+                calls.add(callers.submit(() -> {
+                    start.await();
+                    long begin = System.nanoTime();
+                    read.run();
+                    return System.nanoTime() - begin;
+                }));
+            }
+            start.countDown();
+            for (Future<Long> call : calls) {
+                latencies[recorded++] = call.get();
+            }
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies.length, statistics.getPrepareStatementCount() - statementsBefore,
+                latencies[(int) Math.ceil(0.99 * latencies.length) - 1] / 1_000_000.0);
+    }
+    
+    private record Result(long calls, long statements, double p99Millis) {
+        
+        void print(String label, Result baseline) {
+            System.out.printf("%-34s %8d %12d %10d %10.2f%n", label, calls, statements, baseline.statements - statements, p99Millis);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.stock.InsufficientStockException;
+import com.ecommerce.stock.StockReservationService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Thousands of threads reserving the same hot SKU. Measures reserve/release throughput under
+ * contention and checks that a sell-out never oversells.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class StockContentionBenchmarkTest {
+    
+    private static final Long HOT_SKU = 1L;
+    private static final int STOCK = 1_000;
+    private static final int THREADS = 2_000;
+    private static final int OPERATIONS_PER_THREAD = 500;
+    
+    @Test
+    void hotSkuContention() throws Exception {
+        StockReservationService service = service();
+        
+        // Sell-out: every thread wants one unit, only STOCK of them may get it
+        AtomicInteger granted = new AtomicInteger();
+        runThreads(owner -> {
+            try {
+                service.reserve(owner, HOT_SKU, 1);
+                granted.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                // sold out
+            }
+        });
+        assertEquals(STOCK, granted.get());
+        assertEquals(0, service.getAvailableQuantity(HOT_SKU));
+        runThreads(owner -> service.release(owner, HOT_SKU));
+        assertEquals(STOCK, service.getAvailableQuantity(HOT_SKU));
+        
+        // Throughput: reserve and release repeatedly; at most STOCK units are ever held at once
+        AtomicInteger rejected = new AtomicInteger();
+        long start = System.nanoTime();
+        runThreads(owner -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                try {
+                    service.reserve(owner, HOT_SKU, 1);
+                    service.release(owner, HOT_SKU);
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+        long operations = (long) THREADS * OPERATIONS_PER_THREAD * 2;
+        
+        assertEquals(STOCK, service.getAvailableQuantity(HOT_SKU));
+        System.out.printf("%-36s %12s%n", THREADS + " threads on one SKU", "value");
+        System.out.printf("%-36s %12d%n", "sell-out grants (stock " + STOCK + ")", granted.get());
+        System.out.printf("%-36s %12.0f%n", "reserve+release ops/s", operations / (elapsed / 1e9));
+        System.out.printf("%-36s %12.1f%n", "avg ns/op", (double) elapsed / operations);
+        System.out.printf("%-36s %12d%n", "rejected (momentarily sold out)", rejected.get());
+    }
+    
+    private static void runThreads(OwnerTask task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(THREADS);
+        for (long owner = 1; owner <= THREADS; owner++) {
+            long ownerId = owner;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    task.run(ownerId);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+    
+    private static StockReservationService service() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        ProductRepository.StockLevel level = mock(ProductRepository.StockLevel.class);
+        when(level.getStockQuantity()).thenReturn(STOCK);
+        when(productRepository.findStockLevels(anyList())).thenReturn(List.of(level));
+        
+        StockReservationService service = new StockReservationService();
+        ReflectionTestUtils.setField(service, "productRepository", productRepository);
+        ReflectionTestUtils.setField(service, "reservationTtl", Duration.ofMinutes(15));
+        return service;
+    }
+    
+    @FunctionalInterface
+    private interface OwnerTask {
+        void run(long ownerId);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.entity.User;
+import com.ecommerce.security.BloomFilter;
+import com.ecommerce.security.JwtUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cost of the per-request revocation check for tokens that aren't revoked (the common case),
+ * with and without the Bloom filter in front of the exact set, next to the cost of verifying
+ * the token's signature.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class TokenRevocationBenchmarkTest {
+    
+    private static final int[] REVOKED_COUNTS = {1_000, 100_000};
+    private static final int LOOKUPS = 2_000_000;
+    
+    @Test
+    void revocationCheck() {
+        String[] tokenIds = new String[4096];
+        for (int i = 0; i < tokenIds.length; i++) {
+            tokenIds[i] = UUID.randomUUID().toString();
+        }
+        System.out.printf("%-10s %14s %14s %16s %12s%n", "Revoked", "bloom+set ns", "set only ns", "false positives", "filter KB");
+        for (int revokedCount : REVOKED_COUNTS) {
+            BloomFilter filter = new BloomFilter(revokedCount * 2, 0.01);
+            Set<String> revoked = ConcurrentHashMap.newKeySet(revokedCount);
+            for (int i = 0; i < revokedCount; i++) {
+                String jti = UUID.randomUUID().toString();
+                revoked.add(jti);
+                filter.add(jti);
+            }
+            
+            int falsePositives = 0;
+            for (String tokenId : tokenIds) {
+                if (filter.mightContain(tokenId)) {
+                    falsePositives++;
+                }
+            }
+            measureBloom(filter, revoked, tokenIds);
+            measureSet(revoked, tokenIds);
+            long bloomNs = measureBloom(filter, revoked, tokenIds);
+            long setNs = measureSet(revoked, tokenIds);
+            System.out.printf("%-10d %14.1f %14.1f %15.2f%% %12d%n", revokedCount, (double) bloomNs / LOOKUPS,
+                    (double) setNs / LOOKUPS, 100.0 * falsePositives / tokenIds.length, filter.sizeInBytes() / 1024);
+            assertTrue(falsePositives < tokenIds.length / 20);
+        }
+        
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900_000L);
+        User user = new User("benchmark", "benchmark@example.com", "password123");
+        user.setRole(User.Role.USER);
+        String token = jwtUtil.generateToken(user);
+        int parses = 50_000;
+        long sink = 0;
+        for (int i = 0; i < parses; i++) {
+            sink += jwtUtil.parseToken(token).getId().length();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < parses; i++) {
+            sink += jwtUtil.parseToken(token).getId().length();
+        }
+        System.out.printf("Signature and expiry check: %.0f ns per token%s%n", (double) (System.nanoTime() - start) / parses,
+                sink == 0 ? " (no output)" : "");
+    }
+    
+    private static long measureBloom(BloomFilter filter, Set<String> revoked, String[] tokenIds) {
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            String tokenId = tokenIds[i & (tokenIds.length - 1)];
+            if (filter.mightContain(tokenId) && revoked.contains(tokenId)) {
+                hits++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(hits == 0);
+        return elapsed;
+    }
+    
+    private static long measureSet(Set<String> revoked, String[] tokenIds) {
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (revoked.contains(tokenIds[i & (tokenIds.length - 1)])) {
+                hits++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(hits == 0);
+        return elapsed;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.ecommerce.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheInvalidationBusTest {
+    
+    private LoopbackCacheInvalidationBus nodeA;
+    private LoopbackCacheInvalidationBus nodeB;
+    private LocalCache<Long, String> productsA;
+    private LocalCache<Long, String> productsB;
+    private LocalCache<String, String> usersB;
+    
+    @BeforeEach
+    void setUp() {
+        nodeA = new LoopbackCacheInvalidationBus();
+        nodeB = new LoopbackCacheInvalidationBus();
+        nodeA.connect(nodeB);
+        
+        productsA = new LocalCache<>("products", Long::valueOf, 100);
+        productsB = new LocalCache<>("products", Long::valueOf, 100);
+        usersB = new LocalCache<>("users", key -> key, 100);
+        nodeA.register(CacheRegion.PRODUCT, productsA);
+        nodeB.register(CacheRegion.PRODUCT, productsB);
+        nodeB.register(CacheRegion.USER, usersB);
+        
+        productsA.get(1L, id -> Optional.of("drill"));
+        productsB.get(1L, id -> Optional.of("drill"));
+        productsB.get(2L, id -> Optional.of("saw"));
+        usersB.get("alice", name -> Optional.of("alice"));
+    }
+    
+    @Test
+    void publish_InvalidatesKeyOnEveryNode() {
+        nodeA.publish(CacheRegion.PRODUCT, "1");
+        
+        assertEquals(0, productsA.size());
+        assertEquals(1, productsB.size());
+        assertEquals(Optional.of("cordless drill"), productsB.get(1L, id -> Optional.of("cordless drill")));
+        assertEquals(1, usersB.size());
+    }
+    
+    @Test
+    void publish_NullKeyClearsRegion() {
+        nodeA.publish(CacheRegion.PRODUCT, null);
+        
+        assertEquals(0, productsB.size());
+        assertEquals(1, usersB.size());
+    }
+    
+    @Test
+    void receive_SequenceGapTriggersFullResync() {
+        nodeB.receive(InvalidationMessage.invalidate("node-c", 1, CacheRegion.PRODUCT, "1").encode());
+        assertEquals(1, productsB.size());
+        assertEquals(1, usersB.size());
+        
+        // Message 2 from node-c was lost
+        nodeB.receive(InvalidationMessage.invalidate("node-c", 3, CacheRegion.PRODUCT, "1").encode());
+        
+        assertEquals(0, productsB.size());
+        assertEquals(0, usersB.size());
+    }
+    
+    @Test
+    void receive_HeartbeatAheadOfLastSequenceTriggersResync() {
+        nodeB.receive(InvalidationMessage.invalidate("node-c", 1, CacheRegion.PRODUCT, "1").encode());
+        nodeB.receive(InvalidationMessage.heartbeat("node-c", 1).encode());
+        assertEquals(1, usersB.size());
+        
+        nodeB.receive(InvalidationMessage.heartbeat("node-c", 2).encode());
+        
+        assertEquals(0, usersB.size());
+    }
+    
+    @Test
+    void get_LoadRacingWithInvalidationIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        
+        productsB.get(3L, id -> {
+            loads.incrementAndGet();
+            nodeA.publish(CacheRegion.PRODUCT, "3");
+            return Optional.of("stale hammer");
+        });
+        productsB.get(3L, id -> {
+            loads.incrementAndGet();
+            return Optional.of("hammer");
+        });
+        
+        assertEquals(2, loads.get());
+        assertEquals(Optional.of("hammer"), productsB.get(3L, id -> Optional.of("unexpected")));
+    }
+} 
\ No newline at end of file
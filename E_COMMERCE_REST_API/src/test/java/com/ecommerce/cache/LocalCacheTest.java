@@ -0,0 +1,69 @@
+package com.ecommerce.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocalCacheTest {
+    
+    @Test
+    void get_KeysPastCapacityAreStillCached() {
+        LocalCache<Long, String> cache = new LocalCache<>("products", Long::valueOf, 3);
+        AtomicInteger loads = new AtomicInteger();
+        
+        for (long id = 1; id <= 10; id++) {
+            load(cache, id, loads);
+        }
+        assertEquals(3, cache.size());
+        
+        // The newest key was admitted by evicting an older one, so it is a hit now
+        load(cache, 10L, loads);
+        assertEquals(10, loads.get());
+    }
+    
+    @Test
+    void get_RecentlyReadKeysOutliveUnreadOnes() {
+        LocalCache<Long, String> cache = new LocalCache<>("products", Long::valueOf, 3);
+        AtomicInteger loads = new AtomicInteger();
+        load(cache, 1L, loads);
+        load(cache, 2L, loads);
+        load(cache, 3L, loads);
+        load(cache, 1L, loads);
+        
+        load(cache, 4L, loads);
+        load(cache, 1L, loads);
+        assertEquals(4, loads.get());
+        
+        // Key 2 was the oldest unread entry, so it made room for key 4
+        load(cache, 2L, loads);
+        assertEquals(5, loads.get());
+        assertEquals(3, cache.size());
+    }
+    
+    @Test
+    void invalidate_FreedSlotsAreReusedWithoutEvicting() {
+        LocalCache<Long, String> cache = new LocalCache<>("products", Long::valueOf, 2);
+        AtomicInteger loads = new AtomicInteger();
+        for (int round = 0; round < 50; round++) {
+            load(cache, 1L, loads);
+            cache.invalidate(1L);
+        }
+        load(cache, 2L, loads);
+        load(cache, 3L, loads);
+        
+        load(cache, 2L, loads);
+        load(cache, 3L, loads);
+        assertEquals(52, loads.get());
+        assertEquals(2, cache.size());
+    }
+    
+    private static void load(LocalCache<Long, String> cache, long id, AtomicInteger loads) {
+        cache.get(id, key -> {
+            loads.incrementAndGet();
+            return Optional.of("product " + key);
+        });
+    }
+} 
\ No newline at end of file
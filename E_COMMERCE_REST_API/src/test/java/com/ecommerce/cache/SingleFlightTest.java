@@ -0,0 +1,133 @@
+package com.ecommerce.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    
+    private static final int CALLERS = 8;
+    
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final SingleFlight<String, String> flights = new SingleFlight<>("test");
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void concurrentIdenticalCalls_ShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        List<Future<String>> results = callConcurrently("page-0", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "products";
+        });
+        awaitWaiters(CALLERS - 1);
+        release.countDown();
+        
+        for (Future<String> result : results) {
+            assertEquals("products", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(new SingleFlight.Stats(CALLERS, 1, CALLERS - 1, 0), flights.getStats());
+    }
+    
+    @Test
+    void loaderFailure_IsRethrownToEveryWaiter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database down");
+        List<Future<String>> results = callConcurrently("page-0", () -> {
+            await(release);
+            throw failure;
+        });
+        awaitWaiters(CALLERS - 1);
+        release.countDown();
+        
+        for (Future<String> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        // Nothing is remembered: the next call loads again
+        assertEquals("recovered", flights.execute("page-0", () -> "recovered"));
+    }
+    
+    @Test
+    void invalidation_StartsAFreshLoadForLaterCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> before = executor.submit(() -> flights.execute("page-0", () -> {
+            await(release);
+            return "old";
+        }));
+        awaitInFlight();
+        
+        flights.applyInvalidation("42");
+        assertEquals("new", flights.execute("page-0", () -> "new"));
+        
+        release.countDown();
+        assertEquals("old", before.get(5, TimeUnit.SECONDS));
+        assertEquals(2, flights.getStats().loads());
+    }
+    
+    @Test
+    void differentKeys_LoadIndependently() {
+        assertEquals("a", flights.execute("page-0", () -> "a"));
+        assertEquals("b", flights.execute("page-1", () -> "b"));
+        assertEquals(2, flights.getStats().loads());
+        
+        flights.setCoalescing(false);
+        assertEquals("c", flights.execute("page-0", () -> "c"));
+        assertEquals(3, flights.getStats().loads());
+    }
+    
+    private List<Future<String>> callConcurrently(String key, Supplier<String> loader) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> flights.execute(key, loader)));
+        }
+        return results;
+    }
+    
+    /**
+     * Wait until {@code waiters} callers have joined the load in flight.
+     */
+    private void awaitWaiters(int waiters) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flights.getStats().shared() < waiters && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(waiters, flights.getStats().shared());
+    }
+    
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flights.getStats().inFlight() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(flights.getStats().inFlight() > 0);
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.ecommerce.cart;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartExpirySweeperTest {
+    
+    private static final Instant NOW = Instant.parse("2024-01-15T10:00:00Z");
+    
+    @Mock
+    private CartStore cartStore;
+    
+    @Mock
+    private DataSource dataSource;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @InjectMocks
+    private CartExpirySweeper sweeper;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sweeper, "idleTtl", Duration.ofDays(7));
+        ReflectionTestUtils.setField(sweeper, "batchSize", 500);
+        ReflectionTestUtils.setField(sweeper, "dutyCycle", 1.0);
+        ReflectionTestUtils.setField(sweeper, "maxPassDuration", Duration.ofSeconds(30));
+        sweeper.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+    
+    @Test
+    void sweep_ShouldDeleteInBatchesUntilAShortBatch() {
+        LocalDateTime cutoff = LocalDateTime.of(2024, 1, 8, 10, 0);
+        when(cartStore.deleteIdleBefore(cutoff, 500)).thenReturn(500, 500, 120);
+        
+        CartExpirySweeper.Pass pass = sweeper.sweep();
+        
+        assertEquals(1120, pass.reclaimed());
+        assertEquals(3, pass.batches());
+        assertTrue(pass.complete());
+        assertEquals(1, sweeper.getPassCount());
+        assertEquals(1120, sweeper.getTotalReclaimed());
+        assertSame(pass, sweeper.getLastPass());
+    }
+    
+    @Test
+    void sweep_ShouldStopWhenPassBudgetIsSpent() {
+        ReflectionTestUtils.setField(sweeper, "maxPassDuration", Duration.ZERO);
+        when(cartStore.deleteIdleBefore(any(), eq(500))).thenReturn(500);
+        
+        CartExpirySweeper.Pass pass = sweeper.sweep();
+        
+        assertEquals(1, pass.batches());
+        assertFalse(pass.complete());
+        verify(cartStore, times(1)).deleteIdleBefore(any(), eq(500));
+    }
+} 
\ No newline at end of file
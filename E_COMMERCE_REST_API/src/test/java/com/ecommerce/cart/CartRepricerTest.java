@@ -0,0 +1,83 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.service.CartService;
+import com.ecommerce.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:repricing;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "cart.repricing.batch-size=2",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+class CartRepricerTest {
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void priceChange_RepricesOnlyCartsHoldingTheProductAndRefreshesTheirTotals() throws Exception {
+        Product repriced = productRepository.save(new Product("Repriced", "Price change test", new BigDecimal("10.00"), 100, "Tests"));
+        Product untouched = productRepository.save(new Product("Untouched", "Price change test", new BigDecimal("3.00"), 100, "Tests"));
+        List<User> holders = List.of(user("reprice-a"), user("reprice-b"), user("reprice-c"));
+        holders.forEach(user -> cartItemRepository.save(new CartItem(user, repriced, 2)));
+        User other = user("reprice-other");
+        cartItemRepository.save(new CartItem(other, untouched, 1));
+        holders.forEach(user -> assertEquals(0, new BigDecimal("20.00").compareTo(cartService.getCartTotal(user.getId()))));
+        assertEquals(0, new BigDecimal("3.00").compareTo(cartService.getCartTotal(other.getId())));
+        
+        Product details = productRepository.findById(repriced.getId()).orElseThrow();
+        details.setPrice(new BigDecimal("12.50"));
+        productService.updateProduct(repriced.getId(), details);
+        
+        // Repricing runs on the admin lane after the update returns; the totals are dropped last
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!holders.stream().allMatch(user -> new BigDecimal("25.00").compareTo(cartService.getCartTotal(user.getId())) == 0)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(3, repricedLines(repriced));
+        holders.forEach(user -> assertEquals(0, new BigDecimal("25.00").compareTo(cartService.getCartTotal(user.getId()))));
+        assertEquals(0, new BigDecimal("3.00").compareTo(cartService.getCartTotal(other.getId())));
+    }
+    
+    private int repricedLines(Product product) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items WHERE product_id = ? AND unit_price = 12.50",
+                Integer.class, product.getId());
+    }
+    
+    private User user(String username) {
+        return userRepository.save(new User(username, username + "@example.com", "password123"));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.ecommerce.cart;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GuestCartStoreTest {
+    
+    private static final Instant START = Instant.parse("2024-01-01T10:00:00Z");
+    
+    private GuestCartStore store;
+    
+    @BeforeEach
+    void setUp() {
+        store = new GuestCartStore();
+        ReflectionTestUtils.setField(store, "maxCarts", 2);
+        ReflectionTestUtils.setField(store, "maxLines", 3);
+        ReflectionTestUtils.setField(store, "ttl", Duration.ofHours(2));
+        setClock(START);
+    }
+    
+    @Test
+    void add_MergesQuantitiesPerProductAndKeepsInsertionOrder() {
+        store.add(1L, 10L, 1);
+        store.add(1L, 20L, 2);
+        store.add(1L, 10L, 3);
+        store.remove(1L, 20L);
+        store.add(1L, 30L, 1);
+        
+        assertEquals(List.of(new GuestCartStore.Line(10L, 4), new GuestCartStore.Line(30L, 1)), store.getLines(1L));
+        assertTrue(store.setQuantity(1L, 30L, 5));
+        assertFalse(store.setQuantity(1L, 99L, 5));
+        assertEquals(List.of(new GuestCartStore.Line(10L, 4), new GuestCartStore.Line(30L, 5)), store.take(1L));
+        assertEquals(0, store.getCartCount());
+    }
+    
+    @Test
+    void add_EnforcesLineAndCartLimits() {
+        store.add(1L, 10L, 1);
+        store.add(1L, 20L, 1);
+        store.add(1L, 30L, 1);
+        assertThrows(RuntimeException.class, () -> store.add(1L, 40L, 1));
+        
+        store.add(2L, 10L, 1);
+        assertThrows(RuntimeException.class, () -> store.add(3L, 10L, 1));
+        assertEquals(2, store.getCartCount());
+        assertEquals(176, GuestCart.footprintBytes(GuestCart.INITIAL_CAPACITY));
+        assertEquals(2 * GuestCart.footprintBytes(GuestCart.INITIAL_CAPACITY), store.getFootprintBytes());
+    }
+    
+    @Test
+    void expiredCarts_AreInvisibleAndFreeTheirSlots() {
+        store.add(1L, 10L, 1);
+        store.add(2L, 10L, 1);
+        setClock(START.plus(Duration.ofMinutes(90)));
+        store.getLines(2L); // keeps guest 2 alive
+        
+        setClock(START.plus(Duration.ofMinutes(150)));
+        assertEquals(List.of(), store.getLines(1L));
+        store.add(3L, 10L, 1); // the full store makes room by evicting guest 1
+        
+        assertEquals(2, store.getCartCount());
+        assertEquals(List.of(new GuestCartStore.Line(10L, 1)), store.getLines(2L));
+    }
+    
+    private void setClock(Instant now) {
+        ReflectionTestUtils.setField(store, "clock", Clock.fixed(now, ZoneOffset.UTC));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,271 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.cache.CacheInvalidationEvent;
+import com.ecommerce.cache.LoopbackCacheInvalidationBus;
+import com.ecommerce.config.CartShardingProperties;
+import com.ecommerce.config.CartStoreConfig;
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.CartShardAssignment;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CartShardAssignmentRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShardedCartStoreTest {
+    
+    private static final int SHARDS = 3;
+    
+    private final Map<Long, CartShardAssignment> assignments = new ConcurrentHashMap<>();
+    private List<DataSource> dataSources;
+    private CartShardDirectory directory;
+    private ProductRepository productRepository;
+    private ShardedCartStore store;
+    
+    @BeforeEach
+    void setUp() {
+        CartShardAssignmentRepository assignmentRepository = mock(CartShardAssignmentRepository.class);
+        when(assignmentRepository.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(assignments.get(invocation.<Long>getArgument(0))));
+        when(assignmentRepository.save(any())).thenAnswer(invocation -> {
+            CartShardAssignment assignment = invocation.getArgument(0);
+            assignments.put(assignment.getUserId(), assignment);
+            return assignment;
+        });
+        
+        productRepository = mock(ProductRepository.class);
+        when(productRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(product(invocation.getArgument(0))));
+        when(productRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Product> products = new ArrayList<>();
+            ids.forEach(id -> products.add(product(id)));
+            return products;
+        });
+        
+        LoopbackCacheInvalidationBus bus = new LoopbackCacheInvalidationBus();
+        ApplicationEventPublisher eventPublisher = event -> {
+            CacheInvalidationEvent invalidation = (CacheInvalidationEvent) event;
+            bus.publish(invalidation.region(), invalidation.key());
+        };
+        
+        CartShardingProperties properties = new CartShardingProperties();
+        properties.setEmbeddedShards(SHARDS);
+        properties.setEmbeddedName("cart_test_" + UUID.randomUUID().toString().replace("-", ""));
+        directory = new CartShardDirectory(assignmentRepository, eventPublisher, bus, SHARDS, 1000);
+        dataSources = CartStoreConfig.createShardDataSources(properties);
+        store = new ShardedCartStore(dataSources, directory, productRepository, mock(UserRepository.class), Duration.ZERO);
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+    }
+    
+    @Test
+    void save_RoutesEachCartToItsHashedShard() {
+        for (long userId = 1; userId <= 30; userId++) {
+            store.save(new CartItem(user(userId), product(100L), 1));
+            store.save(new CartItem(user(userId), product(200L), 2));
+        }
+        
+        long total = 0;
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertTrue(store.countItems(shard) > 0, "every shard should receive some carts");
+            total += store.countItems(shard);
+        }
+        assertEquals(60, total);
+        
+        List<CartItem> cart = store.findByUser(user(7L));
+        assertEquals(2, cart.size());
+        assertEquals(200L, cart.get(1).getProduct().getId());
+        assertEquals(CartShardDirectory.hashShard(7L, SHARDS), store.shardFor(7L));
+    }
+    
+    @Test
+    void scanCarts_PassesEveryCartOnceFromAllShards() {
+        for (long userId = 1; userId <= 30; userId++) {
+            store.save(new CartItem(user(userId), product(100L), 1));
+            store.save(new CartItem(user(userId), product(200L + userId), 1));
+        }
+        
+        List<long[]> carts = Collections.synchronizedList(new ArrayList<>());
+        store.scanCarts(2, carts::add);
+        
+        assertEquals(30, carts.size());
+        Set<Long> others = new HashSet<>();
+        for (long[] cart : carts) {
+            assertEquals(2, cart.length);
+            assertEquals(100L, cart[0]);
+            others.add(cart[1]);
+        }
+        assertEquals(30, others.size());
+    }
+    
+    @Test
+    void updateAndDelete_AreScopedToTheOwningUser() {
+        CartItem item = store.save(new CartItem(user(1L), product(100L), 1));
+        
+        assertTrue(store.findByUserIdAndCartItemId(2L, item.getId()).isEmpty());
+        
+        item.setQuantity(5);
+        store.save(item);
+        assertEquals(5, store.findByUserAndProductId(user(1L), 100L).orElseThrow().getQuantity());
+        
+        store.delete(item);
+        assertTrue(store.findByUser(user(1L)).isEmpty());
+    }
+    
+    @Test
+    void deleteByUser_InsideATransactionWaitsForItToCommit() {
+        User user = user(7L);
+        store.save(new CartItem(user, product(100L), 1));
+        
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.deleteByUser(user);
+            assertEquals(1, store.findByUser(user).size());
+            
+            // Rolled back: the cart stays
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            assertEquals(1, store.findByUser(user).size());
+            TransactionSynchronizationManager.clearSynchronization();
+            
+            TransactionSynchronizationManager.initSynchronization();
+            store.deleteByUser(user);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertTrue(store.findByUser(user).isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void applyChanges_WritesDeletesUpdatesAndInsertsTogether() {
+        User user = user(5L);
+        CartItem kept = store.save(new CartItem(user, product(100L), 1));
+        CartItem dropped = store.save(new CartItem(user, product(200L), 1));
+        kept.setQuantity(7);
+        CartItem added = new CartItem(user, product(300L), 2);
+        
+        store.applyChanges(List.of(kept, added), List.of(dropped));
+        
+        assertNotNull(added.getId());
+        List<CartItem> cart = store.findByUser(user);
+        assertEquals(List.of(100L, 300L), cart.stream().map(item -> item.getProduct().getId()).toList());
+        assertEquals(7, cart.get(0).getQuantity());
+    }
+    
+    @Test
+    void moveUser_MovesWholeCartAndKeepsItemIds() {
+        User user = user(42L);
+        CartItem first = store.save(new CartItem(user, product(100L), 1));
+        CartItem second = store.save(new CartItem(user, product(200L), 3));
+        int source = store.shardFor(42L);
+        int target = (source + 1) % SHARDS;
+        
+        assertEquals(2, store.moveUser(42L, target));
+        
+        assertEquals(target, store.shardFor(42L));
+        assertEquals(0, store.countItems(source));
+        List<CartItem> cart = store.findByUser(user);
+        assertEquals(List.of(first.getId(), second.getId()), cart.stream().map(CartItem::getId).toList());
+        
+        // Ids allocated on the target never collide with the moved ones
+        Set<Long> ids = new HashSet<>(List.of(first.getId(), second.getId()));
+        assertTrue(ids.add(store.save(new CartItem(user, product(300L), 1)).getId()));
+        assertEquals(3, store.findByUser(user).size());
+    }
+    
+    @Test
+    void moveUser_CarriesOverRemovalsFromOtherNodesWithoutBlockingDuringGrace() throws Exception {
+        // Same shards and directory, but with a grace period; shares the data sources closed in tearDown
+        ShardedCartStore slowStore = new ShardedCartStore(dataSources, directory, productRepository,
+                mock(UserRepository.class), Duration.ofMillis(500));
+        User user = user(42L);
+        CartItem first = store.save(new CartItem(user, product(100L), 1));
+        CartItem second = store.save(new CartItem(user, product(200L), 3));
+        int source = store.shardFor(42L);
+        int target = (source + 1) % SHARDS;
+        
+        CompletableFuture<Integer> move = CompletableFuture.supplyAsync(() -> slowStore.moveUser(42L, target));
+        while (slowStore.shardFor(42L) != target) {
+            Thread.sleep(5);
+        }
+        // A node still on the old route removes an item from the source copy
+        new CartShard(source, dataSources.get(source)).delete(42L, second.getId());
+        
+        assertEquals(2, slowStore.findByUser(user).size());
+        assertFalse(move.isDone(), "reads on this node should not wait for the grace period");
+        
+        assertEquals(1, move.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(first.getId()), slowStore.findByUser(user).stream().map(CartItem::getId).toList());
+        assertEquals(0, store.countItems(source));
+    }
+    
+    @Test
+    void deleteIdleBefore_RemovesOnlyIdleItemsAcrossShardsUpToLimit() {
+        LocalDateTime now = LocalDateTime.now();
+        for (long userId = 1; userId <= 30; userId++) {
+            CartItem item = new CartItem(user(userId), product(100L), 1);
+            if (userId % 2 == 0) {
+                item.setCreatedAt(now.minusDays(30));
+                item.setUpdatedAt(now.minusDays(30));
+            }
+            store.save(item);
+        }
+        
+        assertEquals(10, store.deleteIdleBefore(now.minusDays(7), 10));
+        assertEquals(5, store.deleteIdleBefore(now.minusDays(7), 10));
+        assertEquals(0, store.deleteIdleBefore(now.minusDays(7), 10));
+        
+        assertEquals(1, store.findByUser(user(1L)).size());
+        assertTrue(store.findByUser(user(2L)).isEmpty());
+    }
+    
+    @Test
+    void moveUser_RejectsUnknownShard() {
+        assertThrows(IllegalArgumentException.class, () -> store.moveUser(1L, SHARDS));
+    }
+    
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+    
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(new BigDecimal("10.00"));
+        return product;
+    }
+} 
\ No newline at end of file
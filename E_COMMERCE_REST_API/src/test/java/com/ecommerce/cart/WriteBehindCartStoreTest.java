@@ -0,0 +1,122 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:writebehind;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "cart.store=memory",
+        "cart.write-behind.flush-interval=1h",
+        "cart.write-behind.idle-timeout=0s",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+class WriteBehindCartStoreTest {
+    
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    @Autowired
+    private WriteBehindCartStore store;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void changesAreVisibleAtOnceAndWrittenCoalescedOnFlush() {
+        User user = user();
+        Product kept = product();
+        Product dropped = product();
+        
+        CartItem item = store.save(new CartItem(user, kept, 1));
+        for (int quantity = 2; quantity <= 5; quantity++) {
+            CartItem current = store.findByUserIdAndCartItemId(user.getId(), item.getId()).orElseThrow();
+            current.setQuantity(quantity);
+            store.save(current);
+        }
+        store.delete(store.save(new CartItem(user, dropped, 1)));
+        
+        assertEquals(List.of(5), store.findByUser(user).stream().map(CartItem::getQuantity).toList());
+        assertEquals(0, rowsOf(user).size());
+        
+        long before = store.getRowsWritten();
+        store.flush();
+        
+        assertEquals(1, store.getRowsWritten() - before);
+        List<Map<String, Object>> rows = rowsOf(user);
+        assertEquals(1, rows.size());
+        assertEquals(item.getId(), ((Number) rows.get(0).get("ID")).longValue());
+        assertEquals(5, ((Number) rows.get(0).get("QUANTITY")).intValue());
+    }
+    
+    @Test
+    void idleCartIsEvictedOnceWrittenAndReloadedFromDatabase() {
+        User user = user();
+        Product product = product();
+        CartItem item = store.save(new CartItem(user, product, 3));
+        
+        store.evictIdle();
+        assertEquals(3, store.findByUserAndProductId(user, product.getId()).orElseThrow().getQuantity()); // unwritten, kept
+        
+        store.flush();
+        store.evictIdle();
+        CartItem reloaded = store.findByUserIdAndCartItemId(user.getId(), item.getId()).orElseThrow();
+        
+        assertEquals(3, reloaded.getQuantity());
+        assertEquals(product.getName(), reloaded.getProduct().getName());
+    }
+    
+    @Test
+    void deleteIdleBefore_DropsFromMemoryOnlyTheItemsItDeleted() {
+        LocalDateTime cutoff = LocalDateTime.now().plusDays(1);
+        while (store.deleteIdleBefore(cutoff, 1000) > 0) {
+            // clear what other tests left behind, so the next batch can only hit this test's items
+        }
+        User user = user();
+        for (int i = 0; i < 3; i++) {
+            store.save(new CartItem(user, product(), 1));
+        }
+        store.flush();
+        
+        assertEquals(2, store.deleteIdleBefore(cutoff, 2));
+        
+        List<Long> remaining = rowsOf(user).stream().map(row -> ((Number) row.get("ID")).longValue()).toList();
+        assertEquals(1, remaining.size());
+        assertEquals(remaining, store.findByUser(user).stream().map(CartItem::getId).toList());
+    }
+    
+    private List<Map<String, Object>> rowsOf(User user) {
+        return jdbcTemplate.queryForList("SELECT id, quantity FROM cart_items WHERE user_id = ?", user.getId());
+    }
+    
+    private User user() {
+        int n = SEQUENCE.incrementAndGet();
+        return userRepository.save(new User("write-behind-" + n, "write-behind-" + n + "@example.com", "password123"));
+    }
+    
+    private Product product() {
+        return productRepository.save(new Product("Write-behind " + SEQUENCE.incrementAndGet(), "Write-behind test",
+                new BigDecimal("4.00"), 100, "Tests"));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.AddToCartRequest;
+import com.ecommerce.dto.ErrorResponse;
+import com.ecommerce.dto.RegisterRequest;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:apierrors;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class ApiExceptionHandlerTest {
+    
+    private static final String USERNAME = "error-shopper";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void missingProduct_Returns404WithErrorBody() throws Exception {
+        ErrorResponse error = perform(delete("/api/products/987654321"), 404);
+        
+        assertEquals("Product not found with id: 987654321", error.getMessage());
+        assertEquals("/api/products/987654321", error.getPath());
+        assertEquals("Not Found", error.getError());
+    }
+    
+    @Test
+    void duplicateRegistration_Returns409() throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(new RegisterRequest("error-duplicate", "duplicate@example.com", "password123"));
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(body));
+        
+        ErrorResponse error = perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(body), 409);
+        
+        assertEquals("Username already exists", error.getMessage());
+    }
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void invalidRequests_Return400InsteadOf403() throws Exception {
+        userRepository.save(new User(USERNAME, "error-shopper@example.com", "password123"));
+        
+        ErrorResponse invalidBody = perform(post("/api/cart/add").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(new AddToCartRequest(1L, 0))), 400);
+        assertTrue(invalidBody.getMessage().startsWith("quantity: "), invalidBody.getMessage());
+        
+        perform(put("/api/cart/item/1"), 400);
+        ErrorResponse missingItem = perform(put("/api/cart/item/987654321").param("quantity", "2"), 404);
+        assertEquals("Cart item not found or does not belong to user", missingItem.getMessage());
+    }
+    
+    private ErrorResponse perform(RequestBuilder request, int expectedStatus) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        assertEquals(expectedStatus, response.getStatus(), response.getContentAsString());
+        ErrorResponse error = objectMapper.readValue(response.getContentAsByteArray(), ErrorResponse.class);
+        assertEquals(expectedStatus, error.getStatus());
+        return error;
+    }
+} 
\ No newline at end of file
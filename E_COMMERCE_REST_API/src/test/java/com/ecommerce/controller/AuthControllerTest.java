@@ -0,0 +1,150 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.AuthRequest;
+import com.ecommerce.dto.AuthResponse;
+import com.ecommerce.dto.RefreshRequest;
+import com.ecommerce.dto.RegisterRequest;
+import com.ecommerce.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:authtokens;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class AuthControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${jwt.secret}")
+    private String secret;
+    
+    @Test
+    void refreshTokens_RotateAndReuseRevokesTheChain() throws Exception {
+        AuthResponse login = register("refresher");
+        assertEquals(200, getCart(login.getToken()));
+        
+        AuthResponse refreshed = readAuth(refresh(login.getRefreshToken()));
+        assertNotEquals(login.getRefreshToken(), refreshed.getRefreshToken());
+        assertEquals("refresher", refreshed.getUsername());
+        assertEquals(200, getCart(refreshed.getToken()));
+        
+        // The first token was already used: replaying it revokes the token issued in its place too
+        assertEquals(401, refresh(login.getRefreshToken()).getStatus());
+        assertEquals(401, refresh(refreshed.getRefreshToken()).getStatus());
+    }
+    
+    @Test
+    void refreshTokens_ConcurrentRefreshesOfOneTokenLetOnlyOneThrough() throws Exception {
+        AuthResponse login = register("racer");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<MockHttpServletResponse>> attempts = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    return refresh(login.getRefreshToken());
+                }));
+            }
+            start.countDown();
+            
+            List<MockHttpServletResponse> winners = new ArrayList<>();
+            for (Future<MockHttpServletResponse> attempt : attempts) {
+                MockHttpServletResponse response = attempt.get(10, TimeUnit.SECONDS);
+                if (response.getStatus() == 200) {
+                    winners.add(response);
+                } else {
+                    assertEquals(401, response.getStatus());
+                }
+            }
+            assertEquals(1, winners.size());
+            // The losing attempt is a reuse, so the chain the winner continued is revoked as well
+            assertEquals(401, refresh(readAuth(winners.get(0)).getRefreshToken()).getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void logout_RevokesTheAccessAndRefreshTokens() throws Exception {
+        AuthResponse login = register("leaver");
+        
+        MockHttpServletResponse logout = mockMvc.perform(post("/api/auth/logout")
+                .header("Authorization", "Bearer " + login.getToken())).andReturn().getResponse();
+        
+        assertEquals(204, logout.getStatus());
+        assertEquals(403, getCart(login.getToken()));
+        assertEquals(401, refresh(login.getRefreshToken()).getStatus());
+    }
+    
+    @Test
+    void tokenWithoutId_IsRejectedBecauseItCouldNotBeRevoked() throws Exception {
+        register("legacy");
+        String token = Jwts.builder()
+                .subject("legacy")
+                .claim(JwtUtil.ROLES_CLAIM, List.of("ROLE_USER"))
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                .compact();
+        
+        assertEquals(403, getCart(token));
+        assertEquals(401, mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + token))
+                .andReturn().getResponse().getStatus());
+    }
+    
+    private AuthResponse register(String username) throws Exception {
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegisterRequest(username, username + "@example.com", "password123"))));
+        return readAuth(mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequest(username, "password123"))))
+                .andReturn().getResponse());
+    }
+    
+    private MockHttpServletResponse refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequest(refreshToken))))
+                .andReturn().getResponse();
+    }
+    
+    private int getCart(String accessToken) throws Exception {
+        return mockMvc.perform(get("/api/cart").header("Authorization", "Bearer " + accessToken))
+                .andReturn().getResponse().getStatus();
+    }
+    
+    private AuthResponse readAuth(MockHttpServletResponse response) throws Exception {
+        assertEquals(200, response.getStatus());
+        return objectMapper.readValue(response.getContentAsByteArray(), AuthResponse.class);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.CartSummaryDto;
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cartsummary;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class CartControllerTest {
+    
+    private static final String USERNAME = "summary-shopper";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void cartSummary_ReadsItemsWithProductsInAtMostTwoStatements() throws Exception {
+        User user = userRepository.save(new User(USERNAME, "summary@example.com", "password123"));
+        List<CartItem> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Product product = productRepository.save(new Product("Summary " + i, "Cart summary test", new BigDecimal("2.50"), 100, "Tests"));
+            items.add(new CartItem(user, product, 2));
+        }
+        cartItemRepository.saveAll(items);
+        fetchSummary(); // loads the user into the user cache
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CartSummaryDto summary = fetchSummary();
+        
+        assertTrue(statistics.getPrepareStatementCount() <= 2, "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(20, summary.getItems().size());
+        assertEquals(40, summary.getItemCount());
+        assertEquals(0, new BigDecimal("100.00").compareTo(summary.getTotal()));
+        assertEquals("Summary 0", summary.getItems().get(0).getProductName());
+    }
+    
+    private CartSummaryDto fetchSummary() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/cart/summary")).andReturn().getResponse();
+        assertEquals(200, response.getStatus());
+        return objectMapper.readValue(response.getContentAsByteArray(), CartSummaryDto.class);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.PageResponse;
+import com.ecommerce.dto.ProductDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:negotiation;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class ContentNegotiationTest {
+    
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final TypeReference<PageResponse<ProductDto>> PAGE_TYPE = new TypeReference<>() {};
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void productPage_SameContractInEveryEncoding() throws Exception {
+        MockHttpServletResponse json = fetch(MediaType.APPLICATION_JSON);
+        MockHttpServletResponse cbor = fetch(MediaType.APPLICATION_CBOR);
+        MockHttpServletResponse smile = fetch(SMILE);
+        
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(json.getContentType())));
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, cbor.getContentType());
+        assertEquals(SMILE.toString(), smile.getContentType());
+        
+        PageResponse<ProductDto> expected = objectMapper.readValue(json.getContentAsByteArray(), PAGE_TYPE);
+        assertFalse(expected.getContent().isEmpty());
+        String expectedJson = objectMapper.writeValueAsString(expected);
+        assertEquals(expectedJson, objectMapper.writeValueAsString(new CBORMapper().readValue(cbor.getContentAsByteArray(), PAGE_TYPE)));
+        assertEquals(expectedJson, objectMapper.writeValueAsString(new SmileMapper().readValue(smile.getContentAsByteArray(), PAGE_TYPE)));
+    }
+    
+    @Test
+    void productResponses_VaryOnAccept() throws Exception {
+        assertTrue(fetch(MediaType.APPLICATION_CBOR).getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+    }
+    
+    private MockHttpServletResponse fetch(MediaType accept) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/products").param("size", "5").accept(accept))
+                .andReturn().getResponse();
+        assertEquals(200, response.getStatus());
+        return response;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.AddToCartRequest;
+import com.ecommerce.dto.AuthRequest;
+import com.ecommerce.dto.AuthResponse;
+import com.ecommerce.dto.CartSummaryDto;
+import com.ecommerce.dto.RegisterRequest;
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.GuestCartToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:guestcart;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class GuestCartControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    
+    @Test
+    void guestCart_IsMergedIntoTheUsersCartAtLogin() throws Exception {
+        Product kept = productRepository.save(new Product("Guest kept", "Guest cart test", new BigDecimal("4.00"), 100, "Tests"));
+        Product added = productRepository.save(new Product("Guest added", "Guest cart test", new BigDecimal("1.50"), 100, "Tests"));
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegisterRequest("guest-merger", "guest-merger@example.com", "password123"))));
+        User user = userRepository.findByUsername("guest-merger").orElseThrow();
+        cartItemRepository.save(new CartItem(user, kept, 1));
+        
+        MockHttpServletResponse first = addAsGuest(null, added.getId(), 2);
+        String token = first.getHeader(GuestCartToken.HEADER);
+        assertNotNull(token);
+        addAsGuest(token, kept.getId(), 3);
+        CartSummaryDto guestCart = objectMapper.readValue(mockMvc.perform(get("/api/guest-cart").header(GuestCartToken.HEADER, token))
+                .andReturn().getResponse().getContentAsByteArray(), CartSummaryDto.class);
+        assertEquals(5, guestCart.getItemCount());
+        assertEquals(0, new BigDecimal("15.00").compareTo(guestCart.getTotal()));
+        
+        MockHttpServletResponse login = mockMvc.perform(post("/api/auth/login").header(GuestCartToken.HEADER, token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequest("guest-merger", "password123"))))
+                .andReturn().getResponse();
+        
+        assertEquals(200, login.getStatus());
+        List<CartItem> cart = cartItemRepository.findByUser(user);
+        assertEquals(List.of(kept.getId(), added.getId()), cart.stream().map(item -> item.getProduct().getId()).toList());
+        assertEquals(List.of(4, 2), cart.stream().map(CartItem::getQuantity).toList());
+        CartSummaryDto afterLogin = objectMapper.readValue(mockMvc.perform(get("/api/guest-cart").header(GuestCartToken.HEADER, token))
+                .andReturn().getResponse().getContentAsByteArray(), CartSummaryDto.class);
+        assertEquals(0, afterLogin.getItemCount());
+    }
+    
+    @Test
+    void guestCartLinesThatCannotBeMerged_StayInTheGuestCartAndAreReported() throws Exception {
+        Product plentiful = productRepository.save(new Product("Guest plentiful", "Guest cart test", new BigDecimal("3.00"), 100, "Tests"));
+        Product scarce = productRepository.save(new Product("Guest scarce", "Guest cart test", new BigDecimal("9.00"), 2, "Tests"));
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegisterRequest("guest-partial", "guest-partial@example.com", "password123"))));
+        User user = userRepository.findByUsername("guest-partial").orElseThrow();
+        String token = addAsGuest(null, plentiful.getId(), 1).getHeader(GuestCartToken.HEADER);
+        addAsGuest(token, scarce.getId(), 5);
+        
+        MockHttpServletResponse login = mockMvc.perform(post("/api/auth/login").header(GuestCartToken.HEADER, token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequest("guest-partial", "password123"))))
+                .andReturn().getResponse();
+        
+        assertEquals(200, login.getStatus());
+        AuthResponse auth = objectMapper.readValue(login.getContentAsByteArray(), AuthResponse.class);
+        assertEquals(1, auth.getGuestCartErrors().size());
+        assertEquals(1, auth.getGuestCartErrors().get(0).getIndex());
+        assertEquals(List.of(plentiful.getId()), cartItemRepository.findByUser(user).stream().map(item -> item.getProduct().getId()).toList());
+        CartSummaryDto guestCart = objectMapper.readValue(mockMvc.perform(get("/api/guest-cart").header(GuestCartToken.HEADER, token))
+                .andReturn().getResponse().getContentAsByteArray(), CartSummaryDto.class);
+        assertEquals(5, guestCart.getItemCount());
+        assertEquals(scarce.getId(), guestCart.getItems().get(0).getProductId());
+    }
+    
+    @Test
+    void tamperedToken_IsNotAccepted() throws Exception {
+        Product product = productRepository.save(new Product("Guest tamper", "Guest cart test", new BigDecimal("2.00"), 100, "Tests"));
+        String token = addAsGuest(null, product.getId(), 1).getHeader(GuestCartToken.HEADER);
+        char last = token.charAt(token.length() - 1);
+        String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+        
+        MockHttpServletResponse response = addAsGuest(tampered, product.getId(), 1);
+        
+        assertEquals(200, response.getStatus());
+        assertEquals(1, objectMapper.readValue(response.getContentAsByteArray(), CartSummaryDto.class).getItemCount());
+    }
+    
+    private MockHttpServletResponse addAsGuest(String token, Long productId, int quantity) throws Exception {
+        var request = post("/api/guest-cart/add").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AddToCartRequest(productId, quantity)));
+        if (token != null) {
+            request.header(GuestCartToken.HEADER, token);
+        }
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        assertEquals(200, response.getStatus());
+        return response;
+    }
+} 
\ No newline at end of file
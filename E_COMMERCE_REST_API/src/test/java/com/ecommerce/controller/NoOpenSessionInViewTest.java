@@ -0,0 +1,138 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.AddToCartRequest;
+import com.ecommerce.dto.CartBatchRequest;
+import com.ecommerce.dto.CartOperation;
+import com.ecommerce.dto.ProductDto;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.monitoring.ConnectionHoldTimeTracker;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * With open-in-view off, the persistence context closes with the service transaction. Any
+ * endpoint rendering something that wasn't fetched there fails with a lazy initialization
+ * error, which the controllers turn into a 4xx/5xx; every call here must succeed.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:noosiv;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class NoOpenSessionInViewTest {
+    
+    private static final String USERNAME = "no-osiv-shopper";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ConnectionHoldTimeTracker connectionHoldTimeTracker;
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void productEndpoints_RenderWithoutLazyLoading() throws Exception {
+        Product product = new Product("Lazy lamp", "No OSIV test", new BigDecimal("12.00"), 10, "NoOsivLamps");
+        product.setImages(List.of("lamp-1.jpg", "lamp-2.jpg"));
+        product = productRepository.save(product);
+        
+        JsonNode page = json(perform(get("/api/products").param("category", "NoOsivLamps")));
+        assertEquals(List.of("lamp-1.jpg", "lamp-2.jpg"),
+                objectMapper.convertValue(page.get("content").get(0).get("images"), List.class));
+        perform(get("/api/products").param("size", "50"));
+        perform(get("/api/products/" + product.getId()));
+        perform(get("/api/products/category/NoOsivLamps"));
+        perform(get("/api/products/search").param("name", "lamp"));
+        perform(get("/api/products/categories"));
+        perform(get("/api/products/count"));
+        
+        ProductDto body = ProductDto.from(product);
+        body.setImages(List.of("lamp-3.jpg"));
+        JsonNode created = json(perform(post("/api/products").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(body))));
+        long createdId = created.get("id").asLong();
+        body.setName("Lazy lamp v2");
+        JsonNode updated = json(perform(put("/api/products/" + createdId).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(body))));
+        assertEquals("lamp-3.jpg", updated.get("images").get(0).asText());
+        perform(delete("/api/products/" + createdId));
+        
+        ConnectionHoldTimeTracker.Stats stats = connectionHoldTimeTracker.getStats();
+        assertTrue(stats.requestsUsingConnections() >= 10, "requests: " + stats.requestsUsingConnections());
+        assertTrue(stats.checkouts() >= stats.requestsUsingConnections());
+    }
+    
+    @Test
+    @WithMockUser(username = USERNAME)
+    void cartEndpoints_RenderWithoutLazyLoading() throws Exception {
+        userRepository.save(new User(USERNAME, "no-osiv@example.com", "password123"));
+        Product first = productRepository.save(new Product("Lazy mug", "No OSIV test", new BigDecimal("3.00"), 100, "NoOsiv"));
+        Product second = productRepository.save(new Product("Lazy plate", "No OSIV test", new BigDecimal("5.00"), 100, "NoOsiv"));
+        
+        JsonNode added = json(perform(post("/api/cart/add").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(new AddToCartRequest(first.getId(), 1)))));
+        assertEquals("Lazy mug", added.get("productName").asText());
+        JsonNode increased = json(perform(post("/api/cart/add").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(new AddToCartRequest(first.getId(), 2)))));
+        assertEquals("Lazy mug", increased.get("productName").asText());
+        assertEquals(3, increased.get("quantity").asInt());
+        long itemId = increased.get("id").asLong();
+        
+        JsonNode changed = json(perform(put("/api/cart/item/" + itemId).param("quantity", "4")));
+        assertEquals("Lazy mug", changed.get("productName").asText());
+        perform(post("/api/cart/batch").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(new CartBatchRequest(List.of(
+                        CartOperation.add(second.getId(), 1), CartOperation.set(itemId, 2))))));
+        perform(get("/api/cart"));
+        JsonNode summary = json(perform(get("/api/cart/summary")));
+        assertEquals(2, summary.get("items").size());
+        perform(get("/api/cart/total"));
+        perform(get("/api/cart/count"));
+        perform(delete("/api/cart/item/" + itemId));
+        perform(delete("/api/cart/clear"));
+    }
+    
+    private MockHttpServletResponse perform(RequestBuilder request) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        assertTrue(response.getStatus() >= 200 && response.getStatus() < 300,
+                "status " + response.getStatus() + ": " + response.getContentAsString());
+        return response;
+    }
+    
+    private JsonNode json(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readTree(response.getContentAsByteArray());
+    }
+} 
\ No newline at end of file
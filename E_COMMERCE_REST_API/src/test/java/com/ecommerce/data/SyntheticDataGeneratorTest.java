@@ -0,0 +1,93 @@
+package com.ecommerce.data;
+
+import com.ecommerce.dto.ProductJsonDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataGeneratorTest {
+    
+    private final SyntheticDataGenerator generator = new SyntheticDataGenerator(42L);
+    
+    @Test
+    void products_WithSameSeed_ShouldBeIdentical() throws Exception {
+        // Arrange
+        ObjectMapper mapper = new ObjectMapper();
+        SyntheticDataGenerator sameSeed = new SyntheticDataGenerator(42L);
+        
+        // Act
+        String first = mapper.writeValueAsString(generator.products(50).toList());
+        String second = mapper.writeValueAsString(sameSeed.products(50).toList());
+        
+        // Assert
+        assertEquals(first, second);
+        assertEquals(mapper.writeValueAsString(generator.product(37)), mapper.writeValueAsString(generator.products(50).toList().get(37)));
+    }
+    
+    @Test
+    void products_WithDifferentSeed_ShouldDiffer() {
+        // Act
+        ProductJsonDto product = generator.product(0);
+        ProductJsonDto other = new SyntheticDataGenerator(7L).product(0);
+        
+        // Assert
+        assertNotEquals(product.getName() + product.getPrice(), other.getName() + other.getPrice());
+    }
+    
+    @Test
+    void products_ShouldSatisfyEntityConstraints() {
+        // Act & Assert
+        generator.products(2000).forEach(product -> {
+            assertFalse(product.getName().isBlank());
+            assertTrue(product.getName().length() <= 255);
+            assertTrue(product.getShortDescription().length() <= 500);
+            assertTrue(product.getFullDescription().length() <= 2000);
+            assertTrue(product.getPrice().compareTo(BigDecimal.ZERO) > 0);
+            assertTrue(product.getStockQuantity() > 0);
+            assertFalse(product.getImages().isEmpty());
+            assertFalse(product.getTechnicalSpecifications().isEmpty());
+            assertNotNull(product.getCategory());
+        });
+    }
+    
+    @Test
+    void writeProductsJson_ShouldProduceProductsJsonFormat() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // Act
+        generator.writeProductsJson(25, out);
+        List<ProductJsonDto> parsed = new ObjectMapper().readValue(out.toByteArray(), new TypeReference<List<ProductJsonDto>>() {});
+        
+        // Assert
+        assertEquals(25, parsed.size());
+        assertEquals("1", parsed.get(0).getId());
+        assertEquals(generator.product(24).getName(), parsed.get(24).getName());
+        assertEquals(generator.product(24).getTechnicalSpecifications(), parsed.get(24).getTechnicalSpecifications());
+    }
+    
+    @Test
+    void cartLines_ShouldReferenceDistinctProductsWithinCatalog() {
+        // Act & Assert
+        for (long user = 0; user < 500; user++) {
+            Set<Long> products = new HashSet<>();
+            for (SyntheticDataGenerator.CartLine line : generator.cart(user, 100)) {
+                assertEquals(user, line.userIndex());
+                assertTrue(line.productIndex() >= 0 && line.productIndex() < 100);
+                assertTrue(line.quantity() > 0);
+                assertTrue(products.add(line.productIndex()));
+            }
+        }
+        assertEquals(generator.cartLines(500, 100).count(),
+                LongStream.range(0, 500).map(user -> generator.cart(user, 100).size()).sum());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.ecommerce.dto.json;
+
+import com.ecommerce.dto.CartItemDto;
+import com.ecommerce.dto.ProductDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The hand-written serializers must stay byte-for-byte compatible with Jackson's reflective output
+ * under Spring Boot's default settings (ISO-8601 dates).
+ */
+class DtoSerializerTest {
+    
+    private final ObjectMapper reflectiveMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    
+    private final ObjectMapper handWrittenMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(new SimpleModule()
+                    .addSerializer(new ProductDtoSerializer())
+                    .addSerializer(new CartItemDtoSerializer()))
+            .build();
+    
+    @Test
+    void productDto_MatchesReflectiveOutput() throws Exception {
+        ProductDto product = new ProductDto(7L, "Cordless Drill \"Pro\"", "18V drill", "Brushless 18V drill with two batteries",
+                new BigDecimal("149.90"), 12, "Power Tools", "/img/drill.jpg",
+                List.of("/img/drill.jpg", "/img/drill-side.jpg"), "{\"voltage\":\"18V\"}");
+        
+        assertEquals(reflectiveMapper.writeValueAsString(product), handWrittenMapper.writeValueAsString(product));
+    }
+    
+    @Test
+    void productDto_WithNulls_MatchesReflectiveOutput() throws Exception {
+        ProductDto product = new ProductDto();
+        
+        assertEquals(reflectiveMapper.writeValueAsString(product), handWrittenMapper.writeValueAsString(product));
+    }
+    
+    @Test
+    void cartItemDto_MatchesReflectiveOutput() throws Exception {
+        CartItemDto item = new CartItemDto(3L, 7L, "Cordless Drill", "18V drill", new BigDecimal("149.90"), "/img/drill.jpg",
+                2, new BigDecimal("299.80"), LocalDateTime.of(2024, 1, 15, 9, 30, 5, 123_000_000), null);
+        
+        assertEquals(reflectiveMapper.writeValueAsString(item), handWrittenMapper.writeValueAsString(item));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.ecommerce.limit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+    
+    @Test
+    void lowPriorityRequests_AreShedBeforeHighPriorityOnes() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new GradientLimit(10, 1, 10, 1.5, 0.2), 0.5);
+        
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.LOW));
+        }
+        assertFalse(limiter.tryAcquire(ConcurrencyLimiter.Priority.LOW));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.HIGH));
+        }
+        assertFalse(limiter.tryAcquire(ConcurrencyLimiter.Priority.HIGH));
+        
+        limiter.release(1_000_000, false);
+        assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.HIGH));
+        assertEquals(11, limiter.getStats().admitted());
+        assertEquals(2, limiter.getStats().rejected());
+    }
+    
+    @Test
+    void limit_ShrinksWhenLatencyRisesAndGrowsWhileItHolds() {
+        GradientLimit limit = new GradientLimit(20, 4, 100, 1.5, 0.2);
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(2_000_000, 20);
+        }
+        int steady = limit.getLimit();
+        assertTrue(steady > 20, "limit: " + steady);
+        
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(40_000_000, steady);
+        }
+        // settles where halving is balanced by the square-root headroom, just above the minimum
+        assertTrue(limit.getLimit() <= 5, "limit: " + limit.getLimit());
+    }
+    
+    @Test
+    void lanes_FollowTheApiPaths() {
+        assertEquals(Lane.CATALOG, Lane.of("/api/products/12"));
+        assertEquals(Lane.CART, Lane.of("/api/guest-cart/add"));
+        assertEquals(Lane.CART, Lane.of("/api/orders/checkout"));
+        assertEquals(Lane.AUTH, Lane.of("/api/auth/login"));
+        assertEquals(Lane.ADMIN, Lane.of("/api/admin/connections"));
+        assertEquals(Lane.ADMIN, Lane.of("/api/products/reload"));
+        assertNull(Lane.of("/swagger-ui/index.html"));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,156 @@
+package com.ecommerce.limit;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.CatalogReloadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Saturates the admin lane (every admin thread busy, the admin connection pool exhausted and
+ * more admin work queued) and checks that storefront catalog requests are still served from
+ * their own pool without waiting for a connection, while admin work on the same database waits.
+ * Only pool statistics are asserted; the latencies are printed for information.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lanes;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "lanes.pools.admin=1",
+        "lanes.pools.catalog=4",
+        "lanes.admin-executor.threads=2",
+        "lanes.admin-executor.queue-capacity=2"
+})
+@AutoConfigureMockMvc
+class LaneIsolationTest {
+    
+    private static final int REQUESTS = 100;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private LaneExecutor adminLaneExecutor;
+    
+    @Autowired
+    private LaneRoutingDataSource dataSource;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private CatalogReloadService catalogReloadService;
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void saturatedAdminLane_LeavesStorefrontPoolsUntouched() throws Exception {
+        productRepository.save(new Product("Bulkhead lamp", "Lane isolation test", new BigDecimal("9.00"), 10, "LaneLamps"));
+        long[] baseline = catalogLatencies();
+        
+        // Both admin threads hold a transaction; the pool has one connection, so one holds it and the other waits
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            adminLaneExecutor.execute(() -> {
+                started.countDown();
+                transactionTemplate.executeWithoutResult(status -> {
+                    productRepository.count();
+                    await(release);
+                });
+            });
+        }
+        CompletableFuture<Void> adminQuery = null;
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // A reload queues behind them instead of running on this request thread
+            mockMvc.perform(post("/api/products/reload")).andExpect(status().isAccepted());
+            mockMvc.perform(post("/api/products/reload")).andExpect(status().isConflict());
+            awaitAdminWaiters(1);
+            
+            long[] saturated = catalogLatencies();
+            
+            System.out.printf("%-16s %10s %10s%n", "Admin lane", "p50 ms", "p99 ms");
+            System.out.printf("%-16s %10.2f %10.2f%n", "idle", millis(baseline, 0.50), millis(baseline, 0.99));
+            System.out.printf("%-16s %10.2f %10.2f%n", "saturated", millis(saturated, 0.50), millis(saturated, 0.99));
+            
+            // Every catalog request was served while the admin pool stayed exhausted
+            LaneRoutingDataSource.PoolStats adminPool = dataSource.getPoolStats().get("admin");
+            assertEquals(1, adminPool.active());
+            assertTrue(adminPool.awaiting() >= 1, "admin pool waiters: " + adminPool.awaiting());
+            assertEquals(0, dataSource.getCustomerThreadsAwaitingConnection());
+            assertEquals(0, dataSource.getPoolStats().get("catalog").active());
+            
+            // The same query on the admin lane has to wait for the busy admin connection
+            adminQuery = CompletableFuture.runAsync(() -> LaneContext.run(Lane.ADMIN,
+                    () -> transactionTemplate.executeWithoutResult(status -> productRepository.count())));
+            awaitAdminWaiters(2);
+            assertFalse(adminQuery.isDone(), "admin lane query did not wait");
+        } finally {
+            release.countDown();
+        }
+        adminQuery.get(30, TimeUnit.SECONDS);
+        
+        awaitReload();
+        assertEquals(CatalogReloadService.State.SUCCEEDED, catalogReloadService.getStatus().state());
+    }
+    
+    private long[] catalogLatencies() throws Exception {
+        long[] latencies = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            long start = System.nanoTime();
+            mockMvc.perform(get("/api/products").param("category", "LaneLamps")).andExpect(status().isOk());
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+    
+    private void awaitAdminWaiters(int waiters) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dataSource.getPoolStats().get("admin").awaiting() < waiters && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+    
+    private void awaitReload() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (catalogReloadService.getStatus().state() == CatalogReloadService.State.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+    
+    private static double millis(long[] sortedNanos, double quantile) {
+        int index = Math.min(sortedNanos.length - 1, (int) Math.ceil(quantile * sortedNanos.length) - 1);
+        return sortedNanos[index] / 1_000_000.0;
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.ecommerce.limit;
+
+import com.ecommerce.security.JwtAuthenticationFilter;
+import com.ecommerce.security.JwtUtil;
+import com.ecommerce.security.TokenRevocationList;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives the limit filter with a steady stream of catalog requests served by a simulated
+ * database: a pool of {@value #DB_CONNECTIONS} connections, each query holding one for the
+ * injected latency. Halfway through, the database slows down so that it can serve fewer
+ * requests than arrive. Without the limiter, requests queue for request threads and
+ * connections and their latency keeps growing; with it, the excess is shed with 503 and the
+ * admitted requests stay close to the database's own latency. That run depends on wall-clock
+ * timing, so it is tagged as a benchmark; the priority checks run in the default suite.
+ */
+class LoadSheddingTest {
+    
+    private static final int DB_CONNECTIONS = 8;
+    private static final int REQUEST_THREADS = 200;
+    private static final int ARRIVALS_PER_SECOND = 300;
+    private static final long NORMAL_LATENCY_MS = 2;
+    private static final long SLOW_LATENCY_MS = 40;
+    private static final long NORMAL_PHASE_MS = 1_000;
+    private static final long SLOW_PHASE_MS = 2_000;
+    
+    @Test
+    @Tag("benchmark")
+    void admittedLatency_StaysBoundedWhenTheDatabaseSlowsDown() throws Exception {
+        Result unlimited = run(new ConcurrencyLimiters(false, 20, 4, 200, 1.5, 0.2, 0.5));
+        Result limited = run(new ConcurrencyLimiters(true, 20, 4, 200, 1.5, 0.2, 0.5));
+        
+        System.out.printf("%-10s %10s %10s %12s %12s%n", "Limiter", "admitted", "shed", "p99 ms", "shed low/high");
+        unlimited.print("off");
+        limited.print("on");
+        
+        assertTrue(limited.p99Millis() < 250, "p99 with limiter: " + limited.p99Millis());
+        assertTrue(unlimited.p99Millis() > 2 * limited.p99Millis(), "p99 without limiter: " + unlimited.p99Millis());
+        assertTrue(limited.shedLow() > limited.shedHigh(), "low-priority requests must be shed first");
+    }
+    
+    @Test
+    void forgedBearerToken_IsShedLikeAnAnonymousRequest() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "load-shedding-test-secret-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+        JwtAuthenticationFilter authentication = new JwtAuthenticationFilter(jwtUtil, null, mock(TokenRevocationList.class));
+        ConcurrencyLimiters limiters = new ConcurrencyLimiters(true, 2, 2, 2, 1.5, 0.2, 0.5);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiters, new ObjectMapper());
+        String validToken = jwtUtil.generateToken(User.withUsername("shopper").password("secret").roles("USER").build());
+        
+        // One request in flight: the catalog lane only has room left for a high-priority one
+        assertTrue(limiters.get(Lane.CATALOG).tryAcquire(ConcurrencyLimiter.Priority.HIGH));
+        
+        assertEquals(503, catalogRequest(authentication, filter, null));
+        assertEquals(503, catalogRequest(authentication, filter, "forged"));
+        assertEquals(503, catalogRequest(authentication, filter, validToken + "x"));
+        assertEquals(200, catalogRequest(authentication, filter, validToken));
+    }
+    
+    @Test
+    void tokenRefresh_IsShedLikeAnAnonymousRequest() throws Exception {
+        ConcurrencyLimiters limiters = new ConcurrencyLimiters(true, 2, 2, 2, 1.5, 0.2, 0.5);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiters, new ObjectMapper());
+        
+        // The refresh token is only checked later, so a flood of refreshes must not take the high-priority share
+        assertTrue(limiters.get(Lane.AUTH).tryAcquire(ConcurrencyLimiter.Priority.HIGH));
+        
+        assertEquals(503, request((request, response, chain) -> chain.doFilter(request, response), filter, "POST", "/api/auth/refresh", null));
+    }
+    
+    private static int catalogRequest(Filter authentication, Filter limit, String bearerToken) throws Exception {
+        return request(authentication, limit, "GET", "/api/products", bearerToken);
+    }
+    
+    private static int request(Filter authentication, Filter limit, String method, String path, String bearerToken) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (bearerToken != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + bearerToken);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet catalog = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                resp.setStatus(200);
+            }
+        };
+        try {
+            new MockFilterChain(catalog, authentication, limit).doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+    
+    private Result run(ConcurrencyLimiters limiters) throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiters, new ObjectMapper());
+        Semaphore connections = new Semaphore(DB_CONNECTIONS, true);
+        AtomicLong latencyMillis = new AtomicLong(NORMAL_LATENCY_MS);
+        FilterChain database = (request, response) -> {
+            connections.acquireUninterruptibly();
+            try {
+                Thread.sleep(latencyMillis.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                connections.release();
+            }
+        };
+        
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        List<Long> admittedNanos = Collections.synchronizedList(new ArrayList<>());
+        // shed requests by priority: [0] low, [1] high
+        AtomicLongArray shed = new AtomicLongArray(2);
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / ARRIVALS_PER_SECOND;
+        long start = System.nanoTime();
+        long slowFrom = start + TimeUnit.MILLISECONDS.toNanos(NORMAL_PHASE_MS);
+        long end = slowFrom + TimeUnit.MILLISECONDS.toNanos(SLOW_PHASE_MS);
+        for (long i = 0; ; i++) {
+            long arrival = start + i * periodNanos;
+            if (arrival >= end) {
+                break;
+            }
+            LockSupport.parkNanos(arrival - System.nanoTime());
+            if (arrival >= slowFrom) {
+                latencyMillis.set(SLOW_LATENCY_MS);
+            }
+            boolean high = i % 2 == 0;
+            boolean measured = arrival >= slowFrom;
+            requestThreads.execute(() -> {
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+                if (high) {
+                    SecurityContextHolder.getContext().setAuthentication(
+                            UsernamePasswordAuthenticationToken.authenticated("shopper", null, List.of()));
+                }
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                try {
+                    filter.doFilter(request, response, database);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+                if (!measured) {
+                    return;
+                }
+                if (response.getStatus() == 503) {
+                    shed.incrementAndGet(high ? 1 : 0);
+                } else {
+                    admittedNanos.add(System.nanoTime() - arrival);
+                }
+            });
+        }
+        requestThreads.shutdown();
+        assertTrue(requestThreads.awaitTermination(1, TimeUnit.MINUTES));
+        
+        List<Long> latencies = new ArrayList<>(admittedNanos);
+        Collections.sort(latencies);
+        long p99 = latencies.isEmpty() ? 0 : latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+        return new Result(latencies.size(), shed.get(0), shed.get(1), TimeUnit.NANOSECONDS.toMillis(p99));
+    }
+    
+    private record Result(int admitted, long shedLow, long shedHigh, long p99Millis) {
+        
+        void print(String label) {
+            System.out.printf("%-10s %10d %10d %12d %7d/%d%n", label, admitted, shedLow + shedHigh, p99Millis, shedLow, shedHigh);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.ecommerce.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Collects raw latency samples for one endpoint. Samples are kept exactly (not bucketed)
+ * because a load test run produces at most a few hundred thousand of them.
+ */
+final class LatencyRecorder {
+    
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+    
+    synchronized void record(long latencyNanos, boolean success) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = latencyNanos;
+        if (!success) {
+            errors++;
+        }
+    }
+    
+    synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted, errors);
+    }
+    
+    static final class Snapshot {
+        
+        private final long[] sorted;
+        final long errors;
+        
+        private Snapshot(long[] sorted, long errors) {
+            this.sorted = sorted;
+            this.errors = errors;
+        }
+        
+        int count() {
+            return sorted.length;
+        }
+        
+        /**
+         * Latency at the given percentile (0-100) in milliseconds, nearest-rank method.
+         */
+        double percentileMillis(double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            int index = Math.min(sorted.length - 1, Math.max(0, rank - 1));
+            return sorted[index] / 1_000_000.0;
+        }
+        
+        double maxMillis() {
+            return sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.ecommerce.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load generator.
+ *
+ * Requests are released on a fixed schedule derived from the target arrival rate, independently
+ * of how fast the server answers, and latency is measured from the scheduled send time rather
+ * than the actual one. A slow server therefore shows up as queueing delay in the percentiles
+ * instead of silently lowering the offered load (coordinated omission).
+ */
+final class LoadGenerator {
+    
+    static final String USER_PASSWORD = "loadtest-password";
+    
+    private final String baseUrl;
+    private final List<SyntheticUser> users;
+    private final List<Long> productIds;
+    private final List<String> categories;
+    private final List<String> searchTerms;
+    private final int maxInFlight;
+    private final SplittableRandom random;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+    private final AtomicInteger registrations = new AtomicInteger();
+    
+    LoadGenerator(String baseUrl, List<SyntheticUser> users, List<Long> productIds,
+                  List<String> categories, List<String> searchTerms, int maxInFlight, long seed) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.productIds = productIds;
+        this.categories = categories;
+        this.searchTerms = searchTerms;
+        this.maxInFlight = maxInFlight;
+        this.random = new SplittableRandom(seed);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+    
+    /**
+     * Drive the mixed workload for {@code duration} at {@code ratePerSecond} and return the
+     * per-endpoint report. The calling thread acts as the arrival scheduler.
+     */
+    LoadReport run(double ratePerSecond, Duration duration) throws InterruptedException {
+        Map<Scenario, LatencyRecorder> recorders = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            recorders.put(scenario, new LatencyRecorder());
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong dropped = new AtomicLong();
+        
+        long intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long next = start;
+        
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long scheduledAt = next;
+            next += intervalNanos;
+            
+            Scenario scenario = Scenario.pick(random.nextDouble());
+            HttpRequest request = buildRequest(scenario);
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                dropped.incrementAndGet();
+                continue;
+            }
+            LatencyRecorder recorder = recorders.get(scenario);
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - scheduledAt;
+                        boolean success = error == null && response.statusCode() < 400;
+                        recorder.record(latency, success);
+                        inFlight.decrementAndGet();
+                    });
+        }
+        
+        // Let the tail of the schedule finish so its latencies are counted
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return new LoadReport(recorders, Duration.ofNanos(System.nanoTime() - start), dropped.get());
+    }
+    
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private HttpRequest buildRequest(Scenario scenario) {
+        SyntheticUser user = users.get(random.nextInt(users.size()));
+        return switch (scenario) {
+            case BROWSE -> get("/api/products?page=" + random.nextInt(20) + "&size=20&sortBy=price&sortDir=ASC", null);
+            case BROWSE_CATEGORY -> get("/api/products?category=" + encode(pick(categories)) + "&page=0&size=20", null);
+            case SEARCH -> get("/api/products/search?name=" + encode(pick(searchTerms)) + "&size=20", null);
+            case PRODUCT_DETAIL -> get("/api/products/" + pick(productIds), null);
+            case REGISTER -> {
+                String name = "lt-new-" + registrations.incrementAndGet() + "-" + random.nextInt(1_000_000);
+                yield post("/api/auth/register", "{\"username\":\"" + name + "\",\"email\":\"" + name
+                        + "@loadtest.local\",\"password\":\"" + USER_PASSWORD + "\"}", null);
+            }
+            case LOGIN -> post("/api/auth/login", "{\"username\":\"" + user.username
+                    + "\",\"password\":\"" + USER_PASSWORD + "\"}", null);
+            case ADD_TO_CART -> post("/api/cart/add", "{\"productId\":" + pick(productIds)
+                    + ",\"quantity\":" + (1 + random.nextInt(3)) + "}", user.token);
+            case VIEW_CART -> get("/api/cart", user.token);
+            case CART_TOTAL -> get("/api/cart/total", user.token);
+            case CART_COUNT -> get("/api/cart/count", user.token);
+        };
+    }
+    
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+    
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+    
+    private HttpRequest post(String path, String json, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+    
+    static final class SyntheticUser {
+        
+        final String username;
+        final String token;
+        
+        SyntheticUser(String username, String token) {
+            this.username = username;
+            this.token = token;
+        }
+    }
+} 
\ No newline at end of file
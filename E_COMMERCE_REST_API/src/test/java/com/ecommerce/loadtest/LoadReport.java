@@ -0,0 +1,43 @@
+package com.ecommerce.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-endpoint throughput and latency percentiles for one measured phase.
+ */
+final class LoadReport {
+    
+    private final Map<Scenario, LatencyRecorder.Snapshot> snapshots = new EnumMap<>(Scenario.class);
+    private final Duration elapsed;
+    private final long dropped;
+    
+    LoadReport(Map<Scenario, LatencyRecorder> recorders, Duration elapsed, long dropped) {
+        recorders.forEach((scenario, recorder) -> snapshots.put(scenario, recorder.snapshot()));
+        this.elapsed = elapsed;
+        this.dropped = dropped;
+    }
+    
+    long totalRequests() {
+        return snapshots.values().stream().mapToLong(LatencyRecorder.Snapshot::count).sum();
+    }
+    
+    long totalErrors() {
+        return snapshots.values().stream().mapToLong(snapshot -> snapshot.errors).sum();
+    }
+    
+    String format() {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-32s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        snapshots.forEach((scenario, s) -> out.append(String.format("%-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                scenario.endpoint, s.count(), s.errors, s.count() / seconds,
+                s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99),
+                s.percentileMillis(99.9), s.maxMillis())));
+        out.append(String.format("total: %d requests, %d errors, %.1f req/s over %.1fs, %d dropped (in-flight limit)%n",
+                totalRequests(), totalErrors(), totalRequests() / seconds, seconds, dropped));
+        return out.toString();
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.ecommerce.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Load test parameters, read from system properties so they can be passed straight
+ * through Maven, e.g. {@code mvn test -Pload-test -Dloadtest.rate=500 -Dloadtest.duration=60}.
+ */
+final class LoadTestSettings {
+    
+    final double ratePerSecond;
+    final Duration warmup;
+    final Duration duration;
+    final int products;
+    final int users;
+    final long seed;
+    final int maxInFlight;
+    
+    private LoadTestSettings(double ratePerSecond, Duration warmup, Duration duration,
+                             int products, int users, long seed, int maxInFlight) {
+        this.ratePerSecond = ratePerSecond;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.products = products;
+        this.users = users;
+        this.seed = seed;
+        this.maxInFlight = maxInFlight;
+    }
+    
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup", 5L)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration", 20L)),
+                Integer.getInteger("loadtest.products", 2000),
+                Integer.getInteger("loadtest.users", 50),
+                Long.getLong("loadtest.seed", 42L),
+                Integer.getInteger("loadtest.max-in-flight", 2000)
+        );
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("rate=%.0f req/s, warmup=%ds, duration=%ds, products=%d, users=%d, seed=%d",
+                ratePerSecond, warmup.toSeconds(), duration.toSeconds(), products, users, seed);
+    }
+} 
\ No newline at end of file
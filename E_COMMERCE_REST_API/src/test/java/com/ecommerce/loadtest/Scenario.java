@@ -0,0 +1,52 @@
+package com.ecommerce.loadtest;
+
+/**
+ * Request types in the mixed workload, with their relative weight in the arrival stream.
+ * The weights approximate storefront traffic: mostly catalog reads, some cart activity
+ * and a trickle of logins and sign-ups.
+ */
+enum Scenario {
+    
+    BROWSE("GET /api/products", 30),
+    BROWSE_CATEGORY("GET /api/products?category", 10),
+    SEARCH("GET /api/products/search", 15),
+    PRODUCT_DETAIL("GET /api/products/{id}", 12),
+    REGISTER("POST /api/auth/register", 1),
+    LOGIN("POST /api/auth/login", 2),
+    ADD_TO_CART("POST /api/cart/add", 12),
+    VIEW_CART("GET /api/cart", 10),
+    CART_TOTAL("GET /api/cart/total", 4),
+    CART_COUNT("GET /api/cart/count", 4);
+    
+    private static final int TOTAL_WEIGHT;
+    
+    static {
+        int total = 0;
+        for (Scenario scenario : values()) {
+            total += scenario.weight;
+        }
+        TOTAL_WEIGHT = total;
+    }
+    
+    final String endpoint;
+    final int weight;
+    
+    Scenario(String endpoint, int weight) {
+        this.endpoint = endpoint;
+        this.weight = weight;
+    }
+    
+    /**
+     * Pick a scenario for a uniformly distributed value in {@code [0, 1)}.
+     */
+    static Scenario pick(double uniform) {
+        int target = (int) (uniform * TOTAL_WEIGHT);
+        for (Scenario scenario : values()) {
+            target -= scenario.weight;
+            if (target < 0) {
+                return scenario;
+            }
+        }
+        return BROWSE;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.data.SyntheticDataGenerator;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.JwtUtil;
+import com.ecommerce.service.ProductDataService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test: boots the application on a random port, seeds a synthetic catalog and
+ * user base, then drives the mixed storefront workload and prints a per-endpoint report.
+ *
+ * Excluded from the regular build; run it with {@code mvn test -Pload-test} and tune it with
+ * the {@code loadtest.*} system properties described in {@link LoadTestSettings}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+class StorefrontLoadTest {
+    
+    private static final List<String> CATEGORIES = List.of("Power Tools", "Measurement Tools", "Accessories", "Garden Tools", "Hand Tools");
+    private static final List<String> SEARCH_TERMS = List.of("Drill", "Impact Driver", "Grinder", "Laser", "Saw", "Trimmer", "Hammer", "Professional");
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductDataService productDataService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Test
+    void mixedStorefrontWorkload() throws InterruptedException {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        System.out.println("Load test settings: " + settings);
+        
+        List<Long> productIds = seedCatalog(settings.products, settings.seed);
+        List<LoadGenerator.SyntheticUser> users = seedUsers(settings.users);
+        
+        LoadGenerator generator = new LoadGenerator("http://localhost:" + port, users, productIds,
+                CATEGORIES, SEARCH_TERMS, settings.maxInFlight, settings.seed);
+        try {
+            generator.run(settings.ratePerSecond, settings.warmup);
+            LoadReport report = generator.run(settings.ratePerSecond, settings.duration);
+            System.out.println(report.format());
+            assertTrue(report.totalRequests() > 0, "No requests completed");
+        } finally {
+            generator.shutdown();
+        }
+    }
+    
+    private List<Long> seedCatalog(int count, long seed) {
+        productDataService.importProducts(new SyntheticDataGenerator(seed).products(count));
+        return productRepository.findAllIds();
+    }
+    
+    private List<LoadGenerator.SyntheticUser> seedUsers(int count) {
+        // Hash once: BCrypt per user would dominate setup time for large user counts
+        String passwordHash = passwordEncoder.encode(LoadGenerator.USER_PASSWORD);
+        List<LoadGenerator.SyntheticUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User("lt-user-" + i, "lt-user-" + i + "@loadtest.local", passwordHash);
+            user.setRole(User.Role.USER);
+            userRepository.save(user);
+            users.add(new LoadGenerator.SyntheticUser(user.getUsername(), jwtUtil.generateToken(user)));
+        }
+        return users;
+    }
+} 
\ No newline at end of file
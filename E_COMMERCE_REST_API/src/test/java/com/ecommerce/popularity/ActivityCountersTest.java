@@ -0,0 +1,95 @@
+package com.ecommerce.popularity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActivityCountersTest {
+    
+    @Test
+    void concurrentRecords_AreAllCounted() throws Exception {
+        ActivityCounters counters = new ActivityCounters(4, 64);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        // One hot product and a spread of others
+                        counters.record(i % 2 == 0 ? 1 : 2 + i % 10, ActivityCounters.VIEW);
+                        if (i % 100 == 0) {
+                            counters.record(1, ActivityCounters.CART_ADD);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        Map<Long, long[]> counts = counters.drain();
+        assertArrayEquals(new long[]{threads * perThread / 2, threads * perThread / 100}, counts.get(1L));
+        long views = counts.values().stream().mapToLong(count -> count[ActivityCounters.VIEW]).sum();
+        assertEquals((long) threads * perThread, views);
+        assertEquals(0, counters.getDropped());
+    }
+    
+    @Test
+    void drain_StartsAFreshInterval() {
+        ActivityCounters counters = new ActivityCounters(1, 16);
+        counters.record(7, ActivityCounters.VIEW);
+        assertArrayEquals(new long[]{1, 0}, counters.drain().get(7L));
+        
+        assertTrue(counters.drain().isEmpty());
+        counters.record(7, ActivityCounters.CART_ADD);
+        counters.record(8, ActivityCounters.VIEW);
+        Map<Long, long[]> counts = counters.drain();
+        assertArrayEquals(new long[]{0, 1}, counts.get(7L));
+        assertArrayEquals(new long[]{1, 0}, counts.get(8L));
+    }
+    
+    @Test
+    void fullTable_DropsInsteadOfGrowing() {
+        ActivityCounters counters = new ActivityCounters(1, 4);
+        for (long productId = 1; productId <= 6; productId++) {
+            counters.record(productId, ActivityCounters.VIEW);
+        }
+        assertEquals(4, counters.drain().size());
+        assertEquals(2, counters.getDropped());
+    }
+    
+    @Test
+    void sketch_KeepsTheHeavyHitters() {
+        // 1 and 2 take half and a third of the weight, far above the 1 / capacity guarantee
+        SpaceSavingSketch sketch = new SpaceSavingSketch(4);
+        for (long productId = 100; productId < 200; productId++) {
+            sketch.add(productId, 1);
+            sketch.add(1, 3);
+            sketch.add(2, 2);
+        }
+        assertEquals(List.of(1L, 2L), sketch.top(2));
+        
+        sketch.decay(0.5, 1);
+        assertEquals(List.of(1L, 2L), sketch.top(2));
+        assertTrue(sketch.size() <= 4);
+    }
+} 
\ No newline at end of file
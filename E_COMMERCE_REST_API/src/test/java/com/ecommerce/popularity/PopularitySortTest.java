@@ -0,0 +1,128 @@
+package com.ecommerce.popularity;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductPopularityRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:popularity;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "popularity.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class PopularitySortTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductPopularityRepository popularityRepository;
+    
+    @Autowired
+    private PopularityService popularityService;
+    
+    @Test
+    void sortByPopularity_ListsTheMostViewedFirst() throws Exception {
+        Product quiet = save("Quiet fan");
+        Product popular = save("Popular fan");
+        Product liked = save("Liked fan");
+        view(popular, 5);
+        view(liked, 2);
+        popularityService.flush();
+        
+        assertEquals(List.of(popular.getId(), liked.getId(), quiet.getId()), popularPage("PopularFans", 0, 10));
+        assertEquals(List.of(liked.getId()), popularPage("PopularFans", 1, 1));
+        
+        // Counts are added to the table once, however often it is flushed
+        popularityService.flush();
+        assertEquals(5, popularityRepository.findById(popular.getId()).orElseThrow().getViews());
+        view(popular, 1);
+        popularityService.flush();
+        assertEquals(6, popularityRepository.findById(popular.getId()).orElseThrow().getViews());
+        assertFalse(popularityRepository.existsById(quiet.getId()));
+    }
+    
+    @Test
+    void sortByPopularity_ListsEveryMatchingProductWhenFewOrNoneAreRanked() throws Exception {
+        List<Long> lamps = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            lamps.add(save("Lamp " + i, "PopularLamps").getId());
+        }
+        
+        // Nothing in the category is ranked yet: every lamp is listed, in id order
+        assertEquals(lamps, popularPage("PopularLamps", 0, 10));
+        assertEquals(5, popularTotal("PopularLamps"));
+        
+        view(productRepository.findById(lamps.get(3)).orElseThrow(), 3);
+        popularityService.flush();
+        
+        List<Long> expected = List.of(lamps.get(3), lamps.get(0), lamps.get(1), lamps.get(2), lamps.get(4));
+        assertEquals(expected, popularPage("PopularLamps", 0, 10));
+        assertEquals(expected.subList(0, 2), popularPage("PopularLamps", 0, 2));
+        assertEquals(expected.subList(2, 4), popularPage("PopularLamps", 1, 2));
+        assertEquals(expected.subList(4, 5), popularPage("PopularLamps", 2, 2));
+        assertEquals(expected.subList(3, 5), popularPage("PopularLamps", 1, 3));
+        assertEquals(5, popularTotal("PopularLamps"));
+    }
+    
+    private Product save(String name) {
+        return save(name, "PopularFans");
+    }
+    
+    private Product save(String name, String category) {
+        return productRepository.save(new Product(name, "Popularity test", new BigDecimal("30.00"), 10, category));
+    }
+    
+    private void view(Product product, int times) throws Exception {
+        for (int i = 0; i < times; i++) {
+            mockMvc.perform(get("/api/products/" + product.getId())).andExpect(status().isOk());
+        }
+    }
+    
+    private List<Long> popularPage(String category, int page, int size) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode product : readPopularPage(category, page, size).get("content")) {
+            ids.add(product.get("id").asLong());
+        }
+        return ids;
+    }
+    
+    private long popularTotal(String category) throws Exception {
+        return readPopularPage(category, 0, 1).get("totalElements").asLong();
+    }
+    
+    private JsonNode readPopularPage(String category, int page, int size) throws Exception {
+        String body = mockMvc.perform(get("/api/products")
+                        .param("sortBy", "popularity")
+                        .param("category", category)
+                        .param("page", String.valueOf(page))
+                        .param("size", String.valueOf(size)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.ecommerce.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoOccurrenceMatrixTest {
+    
+    @Test
+    void cartsAndAdds_CountPairsInBothDirections() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix(4, 8, 1000);
+        matrix.addCart(new long[]{1, 2, 3});
+        matrix.addCart(new long[]{1, 2});
+        matrix.addToCart(4, new long[]{1, 2});
+        matrix.addToCart(4, new long[]{1});
+        
+        assertArrayEquals(new long[]{2, 4, 3}, matrix.related(1, 10));
+        assertArrayEquals(new long[]{1, 2}, matrix.related(4, 2));
+        assertArrayEquals(new long[]{1, 2}, matrix.related(3, 10));
+        assertArrayEquals(new long[0], matrix.related(99, 10));
+        assertEquals(4, matrix.getStats().products());
+    }
+    
+    @Test
+    void fullRow_KeepsTheFrequentNeighbours() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix(1, 3, 1000);
+        for (long other = 100; other < 200; other++) {
+            matrix.addToCart(1, new long[]{other});
+            matrix.addCart(new long[]{1, 2, 3});
+            matrix.addCart(new long[]{1, 2, 3});
+        }
+        long[] related = matrix.related(1, 3);
+        assertEquals(3, related.length);
+        assertArrayEquals(new long[]{2, 3}, new long[]{related[0], related[1]});
+    }
+    
+    @Test
+    void fullStripe_DropsNewRowsAndClearStartsOver() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix(1, 8, 2);
+        matrix.addCart(new long[]{1, 2, 3});
+        assertEquals(2, matrix.getStats().products());
+        assertEquals(1, matrix.getStats().droppedRows());
+        
+        matrix.clear();
+        assertEquals(0, matrix.getStats().products());
+        assertArrayEquals(new long[0], matrix.related(1, 10));
+    }
+    
+    @Test
+    void concurrentAdds_AreAllCounted() throws Exception {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix(8, 64, 100_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                for (long product = 1; product <= 1000; product++) {
+                    matrix.addToCart(product, new long[]{0});
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        
+        // Product 0's row is capped at 64 neighbours
+        assertEquals(1001, matrix.getStats().products());
+        assertEquals(1000 + 64, matrix.getStats().pairs());
+        assertArrayEquals(new long[]{0}, matrix.related(500, 10));
+    }
+} 
\ No newline at end of file
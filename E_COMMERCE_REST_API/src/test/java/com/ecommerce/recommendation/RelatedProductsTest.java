@@ -0,0 +1,116 @@
+package com.ecommerce.recommendation;
+
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.service.CartService;
+import com.ecommerce.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:recommendations;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class RelatedProductsTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private RecommendationService recommendationService;
+    
+    @Test
+    void related_FromExistingCartsAndNewAdds() throws Exception {
+        for (int i = 0; i < 100 && !recommendationService.getStats().bootstrapped(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(recommendationService.getStats().bootstrapped());
+        Product lamp = save("Related lamp");
+        Product bulb = save("Related bulb");
+        Product shade = save("Related shade");
+        Product cable = save("Related cable");
+        
+        // Carts stored before the bootstrap scan
+        User first = user("related1");
+        User second = user("related2");
+        cartItemRepository.save(new CartItem(first, lamp, 1));
+        cartItemRepository.save(new CartItem(first, bulb, 1));
+        cartItemRepository.save(new CartItem(first, shade, 1));
+        cartItemRepository.save(new CartItem(second, lamp, 1));
+        cartItemRepository.save(new CartItem(second, bulb, 1));
+        recommendationService.bootstrap();
+        assertEquals(List.of(bulb.getId(), shade.getId()), related(lamp, 10));
+        
+        // Adds counted as they happen; adding more of a product already in the cart is not a new pair
+        for (String username : List.of("related3", "related4")) {
+            Long userId = user(username).getId();
+            cartService.addToCart(userId, lamp.getId(), 1);
+            cartService.addToCart(userId, cable.getId(), 1);
+            cartService.addToCart(userId, cable.getId(), 1);
+        }
+        assertEquals(List.of(bulb.getId(), cable.getId()), related(lamp, 2));
+        assertEquals(List.of(lamp.getId()), related(cable, 10));
+        
+        productService.deleteProduct(shade.getId());
+        assertEquals(List.of(bulb.getId(), cable.getId()), related(lamp, 10));
+        mockMvc.perform(get("/api/products/" + shade.getId() + "/related")).andExpect(status().isNotFound());
+    }
+    
+    private Product save(String name) {
+        return productRepository.save(new Product(name, "Recommendation test", new BigDecimal("8.00"), 100, "RelatedLamps"));
+    }
+    
+    private User user(String username) {
+        return userRepository.save(new User(username, username + "@example.com", "password123"));
+    }
+    
+    private List<Long> related(Product product, int limit) throws Exception {
+        String body = mockMvc.perform(get("/api/products/" + product.getId() + "/related").param("limit", String.valueOf(limit)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode related : objectMapper.readTree(body)) {
+            ids.add(related.get("id").asLong());
+        }
+        return ids;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class CartItemRepositoryTest {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Test
+    void deleteIdleBefore_ShouldDeleteOnlyIdleItemsInBoundedBatches() {
+        User user = userRepository.save(new User("sweeper", "sweeper@example.com", "password123"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            Product product = productRepository.save(new Product("Sweep " + i, "Idle cart test", new BigDecimal("5.00"), 10, "Tests"));
+            CartItem item = new CartItem(user, product, 1);
+            if (i < 3) {
+                item.setCreatedAt(now.minusDays(10));
+                item.setUpdatedAt(i == 0 ? null : now.minusDays(10)); // row from before updated_at was set on insert
+            }
+            cartItemRepository.save(item);
+        }
+        
+        assertEquals(2, cartItemRepository.deleteIdleBefore(now.minusDays(7), 2));
+        assertEquals(1, cartItemRepository.deleteIdleBefore(now.minusDays(7), 2));
+        assertEquals(0, cartItemRepository.deleteIdleBefore(now.minusDays(7), 2));
+        assertEquals(2, cartItemRepository.count());
+    }
+    
+    @Test
+    void deleteAllByUserId_ShouldClearLargeCartWithOneStatement() {
+        User user = userRepository.save(new User("bulk", "bulk@example.com", "password123"));
+        Product product = productRepository.save(new Product("Bulk", "Bulk delete test", new BigDecimal("5.00"), 10, "Tests"));
+        List<CartItem> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(new CartItem(user, product, 1));
+        }
+        cartItemRepository.saveAll(items);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        assertEquals(1000, cartItemRepository.deleteAllByUserId(user.getId()));
+        
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, cartItemRepository.count());
+    }
+} 
\ No newline at end of file
@@ -1,23 +1,39 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cart.JpaCartStore;
+import com.ecommerce.dto.CartOperation;
+import com.ecommerce.dto.CartOperationError;
 import com.ecommerce.entity.CartItem;
 import com.ecommerce.entity.Product;
 import com.ecommerce.entity.User;
+import com.ecommerce.exception.InvalidRequestException;
+import com.ecommerce.popularity.PopularityService;
+import com.ecommerce.recommendation.RecommendationService;
 import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.stock.InsufficientStockException;
+import com.ecommerce.stock.StockReservationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +48,21 @@ class CartServiceTest {
     @Mock
     private UserService userService;
     
+    @Mock
+    private StockReservationService stockReservationService;
+    
+    @Mock
+    private PopularityService popularityService;
+    
+    @Mock
+    private RecommendationService recommendationService;
+    
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
     @InjectMocks
     private CartService cartService;
     
@@ -41,6 +72,8 @@ class CartServiceTest {
     
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(cartService, "cartStore", new JpaCartStore(cartItemRepository));
+        
         testUser = new User();
         testUser.setId(1L);
         testUser.setUsername("testuser");
@@ -93,7 +126,10 @@ class CartServiceTest {
         // Arrange
         when(userService.findById(1L)).thenReturn(Optional.of(testUser));
         when(productService.getProductById(1L)).thenReturn(Optional.of(testProduct));
-        when(cartItemRepository.findByUserAndProductId(testUser, 1L)).thenReturn(Optional.empty());
+        Product otherProduct = new Product();
+        otherProduct.setId(2L);
+        CartItem otherCartItem = new CartItem(testUser, otherProduct, 1);
+        when(cartItemRepository.findByUser(testUser)).thenReturn(List.of(otherCartItem));
         when(cartItemRepository.save(any(CartItem.class))).thenReturn(testCartItem);
         
         // Act
@@ -104,19 +140,39 @@ class CartServiceTest {
         assertEquals(testCartItem, result);
         verify(userService).findById(1L);
         verify(productService).getProductById(1L);
-        verify(cartItemRepository).findByUserAndProductId(testUser, 1L);
+        verify(cartItemRepository).findByUser(testUser);
         verify(cartItemRepository).save(any(CartItem.class));
+        verify(popularityService).recordCartAdd(1L);
+        verify(recommendationService).recordCartAdd(eq(1L), aryEq(new long[]{2L}));
+    }
+    
+    @Test
+    void addToCart_WhenStockInsufficient_ShouldNotSaveCartItem() {
+        // Arrange
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(productService.getProductById(1L)).thenReturn(Optional.of(testProduct));
+        when(cartItemRepository.findByUser(testUser)).thenReturn(List.of());
+        doThrow(new InsufficientStockException(1L, 10000, 20)).when(stockReservationService).reserve(1L, 1L, 10000);
+        
+        // Act & Assert
+        assertThrows(InsufficientStockException.class, () -> {
+            cartService.addToCart(1L, 1L, 10000);
+        });
+        verify(cartItemRepository, never()).save(any());
+        verify(popularityService, never()).recordCartAdd(anyLong());
+        verify(recommendationService, never()).recordCartAdd(anyLong(), any());
     }
     
     @Test
     void addToCart_WhenProductAlreadyInCart_ShouldUpdateQuantity() {
         // Arrange
         CartItem existingCartItem = new CartItem();
+        existingCartItem.setProduct(testProduct);
         existingCartItem.setQuantity(1);
         
         when(userService.findById(1L)).thenReturn(Optional.of(testUser));
         when(productService.getProductById(1L)).thenReturn(Optional.of(testProduct));
-        when(cartItemRepository.findByUserAndProductId(testUser, 1L)).thenReturn(Optional.of(existingCartItem));
+        when(cartItemRepository.findByUser(testUser)).thenReturn(List.of(existingCartItem));
         when(cartItemRepository.save(any(CartItem.class))).thenReturn(existingCartItem);
         
         // Act
@@ -125,7 +181,9 @@ class CartServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(3, existingCartItem.getQuantity()); // 1 + 2
+        verify(stockReservationService).reserve(1L, 1L, 3);
         verify(cartItemRepository).save(existingCartItem);
+        verify(recommendationService, never()).recordCartAdd(anyLong(), any());
     }
     
     @Test
@@ -153,7 +211,7 @@ class CartServiceTest {
         });
         verify(userService).findById(1L);
         verify(productService).getProductById(1L);
-        verify(cartItemRepository, never()).findByUserAndProductId(any(), any());
+        verify(cartItemRepository, never()).findByUser(any());
     }
     
     @Test
@@ -185,6 +243,16 @@ class CartServiceTest {
         verify(cartItemRepository, never()).save(any());
     }
     
+    @Test
+    void updateCartItemQuantity_WhenQuantityIsNotPositive_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(InvalidRequestException.class, () -> cartService.updateCartItemQuantity(1L, 1L, 0));
+        assertThrows(InvalidRequestException.class, () -> cartService.updateCartItemQuantity(1L, 1L, -3));
+        verify(cartItemRepository, never()).findByUserIdAndCartItemId(any(), any());
+        verify(cartItemRepository, never()).save(any());
+        verifyNoInteractions(stockReservationService);
+    }
+    
     @Test
     void removeFromCart_WhenCartItemExists_ShouldDeleteCartItem() {
         // Arrange
@@ -210,4 +278,69 @@ class CartServiceTest {
         verify(cartItemRepository).findByUserIdAndCartItemId(1L, 1L);
         verify(cartItemRepository, never()).delete(any());
     }
+    
+    @Test
+    void applyBatch_ShouldApplyOperationsInOrderAndReportFailures() {
+        // Arrange
+        Product otherProduct = new Product();
+        otherProduct.setId(2L);
+        otherProduct.setPrice(new BigDecimal("10.00"));
+        stubBatch(List.of(testProduct, otherProduct));
+        
+        // Act
+        CartService.CartBatchResult result = cartService.applyBatch(1L, List.of(
+                CartOperation.add(1L, 1),
+                CartOperation.add(99L, 1),
+                CartOperation.add(2L, 4),
+                CartOperation.set(1L, 0),
+                CartOperation.remove(7L)
+        ));
+        
+        // Assert
+        assertEquals(List.of(1, 3, 4), result.errors().stream().map(CartOperationError::getIndex).toList());
+        assertEquals(2, result.items().size());
+        assertEquals(7, result.itemCount());
+        assertEquals(new BigDecimal("339.97"), result.total());
+        verify(stockReservationService).reserve(1L, 1L, 3);
+        verify(stockReservationService).reserve(1L, 2L, 4);
+        verify(cartItemRepository).saveAll(argThat((List<CartItem> items) -> items.size() == 2 && items.get(0) == testCartItem));
+        verify(cartItemRepository, never()).deleteAllInBatch(any());
+    }
+    
+    @Test
+    void applyBatch_RemoveThenAddSameProduct_ShouldKeepRow() {
+        // Arrange
+        stubBatch(List.of(testProduct));
+        
+        // Act
+        CartService.CartBatchResult result = cartService.applyBatch(1L, List.of(CartOperation.remove(1L), CartOperation.add(1L, 5)));
+        
+        // Assert
+        assertTrue(result.errors().isEmpty());
+        assertEquals(5, testCartItem.getQuantity());
+        verify(stockReservationService).release(1L, 1L);
+        verify(stockReservationService).reserve(1L, 1L, 5);
+        verify(cartItemRepository).saveAll(List.of(testCartItem));
+        verify(cartItemRepository, never()).deleteAllInBatch(any());
+    }
+    
+    @Test
+    void applyBatch_WhenWriteFails_ShouldRestoreHolds() {
+        // Arrange
+        stubBatch(List.of(testProduct));
+        when(cartItemRepository.saveAll(anyList())).thenThrow(new RuntimeException("database unavailable"));
+        
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> cartService.applyBatch(1L, List.of(CartOperation.set(1L, 6))));
+        verify(stockReservationService).reserve(1L, 1L, 6);
+        verify(stockReservationService).reserve(1L, 1L, 2);
+    }
+    
+    private void stubBatch(List<Product> products) {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(cartItemRepository.findByUser(testUser)).thenReturn(new ArrayList<>(List.of(testCartItem)));
+        when(productService.getProductsByIds(any())).thenReturn(products);
+        lenient().when(cartItemRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
 } 
\ No newline at end of file
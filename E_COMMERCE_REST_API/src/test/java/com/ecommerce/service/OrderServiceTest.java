@@ -0,0 +1,169 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.stock.InsufficientStockException;
+import com.ecommerce.stock.StockReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+class OrderServiceTest {
+    
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private CartService cartService;
+    
+    @Autowired
+    private StockReservationService stockReservationService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void checkout_ShouldSnapshotPricesDecrementStockAndClearCart() {
+        User user = newUser();
+        Product product = newProduct(new BigDecimal("25.00"), 10);
+        cartService.addToCart(user.getId(), product.getId(), 3);
+        
+        Order order = orderService.checkout(user.getId(), null).order();
+        
+        jdbcTemplate.update("UPDATE products SET price = 30.00 WHERE id = ?", product.getId());
+        Order stored = orderService.getUserOrder(user.getId(), order.getId()).orElseThrow();
+        assertEquals(1, stored.getItems().size());
+        assertEquals(0, new BigDecimal("25.00").compareTo(stored.getItems().get(0).getUnitPrice()));
+        assertEquals(0, new BigDecimal("75.00").compareTo(stored.getTotalAmount()));
+        assertEquals(7, stockInDatabase(product));
+        assertEquals(7, stockReservationService.getAvailableQuantity(product.getId()));
+        assertEquals(0, stockReservationService.getReservedQuantity(user.getId(), product.getId()));
+        assertTrue(cartItemRepository.findByUserId(user.getId()).isEmpty());
+    }
+    
+    @Test
+    void checkout_ShouldChargeTheCartPriceRatherThanTheLivePrice() {
+        User user = newUser();
+        Product product = newProduct(new BigDecimal("20.00"), 10);
+        cartService.addToCart(user.getId(), product.getId(), 2);
+        // Changed behind the application's back, so the cart line is not repriced
+        jdbcTemplate.update("UPDATE products SET price = 35.00 WHERE id = ?", product.getId());
+        
+        Order order = orderService.checkout(user.getId(), null).order();
+        
+        assertEquals(0, new BigDecimal("20.00").compareTo(order.getItems().get(0).getUnitPrice()));
+        assertEquals(0, new BigDecimal("40.00").compareTo(order.getTotalAmount()));
+    }
+    
+    @Test
+    void checkout_WithRepeatedKey_ShouldReturnOriginalOrder() {
+        User user = newUser();
+        Product product = newProduct(new BigDecimal("10.00"), 10);
+        cartService.addToCart(user.getId(), product.getId(), 2);
+        
+        OrderService.CheckoutResult first = orderService.checkout(user.getId(), "retry-1");
+        OrderService.CheckoutResult second = orderService.checkout(user.getId(), "retry-1");
+        
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(first.order().getId(), second.order().getId());
+        assertEquals(1, orderService.getUserOrders(user.getId()).size());
+        assertEquals(8, stockInDatabase(product));
+    }
+    
+    @Test
+    void checkout_ConcurrentRetriesWithSameKey_ShouldCreateOneOrder() throws Exception {
+        User user = newUser();
+        Product product = newProduct(new BigDecimal("10.00"), 10);
+        cartService.addToCart(user.getId(), product.getId(), 1);
+        
+        List<OrderService.CheckoutResult> results = runConcurrently(8, () -> orderService.checkout(user.getId(), "double-click"));
+        
+        assertEquals(1, results.stream().filter(result -> !result.replayed()).count());
+        assertEquals(1, results.stream().map(result -> result.order().getId()).distinct().count());
+        assertEquals(1, orderService.getUserOrders(user.getId()).size());
+        assertEquals(9, stockInDatabase(product));
+    }
+    
+    @Test
+    void checkout_WhenStockWasSoldElsewhere_ShouldWriteNothing() {
+        User user = newUser();
+        Product product = newProduct(new BigDecimal("10.00"), 2);
+        cartService.addToCart(user.getId(), product.getId(), 2);
+        // Another node sold one unit; this node's counter has not caught up yet
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 1 WHERE id = ?", product.getId());
+        
+        assertThrows(InsufficientStockException.class, () -> orderService.checkout(user.getId(), "k"));
+        
+        assertTrue(orderService.getUserOrders(user.getId()).isEmpty());
+        assertEquals(1, cartItemRepository.findByUserId(user.getId()).size());
+        assertEquals(1, stockInDatabase(product));
+    }
+    
+    private <T> List<T> runConcurrently(int threads, Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(task));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    private User newUser() {
+        int n = SEQUENCE.incrementAndGet();
+        return userRepository.save(new User("order-user-" + n, "order-user-" + n + "@example.com", "password123"));
+    }
+    
+    private Product newProduct(BigDecimal price, int stock) {
+        return productRepository.save(new Product("Order Test Product " + SEQUENCE.incrementAndGet(), "For checkout tests", price, stock, "Tests"));
+    }
+    
+    private int stockInDatabase(Product product) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, product.getId());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cart.CartStore;
+import com.ecommerce.cart.JpaCartStore;
+import com.ecommerce.entity.CartItem;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({ProductDataService.class, ProductDataServiceTest.CartStoreConfig.class})
+class ProductDataServiceTest {
+    
+    @Autowired
+    private ProductDataService productDataService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void reloadProductsFromJson_ShouldWipeCartsImagesAndProducts() throws Exception {
+        Product old = new Product("Old Product", "Replaced on reload", new BigDecimal("5.00"), 10, "Tests");
+        old.setImages(List.of("old-1.png", "old-2.png"));
+        old = productRepository.save(old);
+        User user = userRepository.save(new User("reload", "reload@example.com", "password123"));
+        cartItemRepository.save(new CartItem(user, old, 1));
+        
+        productDataService.reloadProductsFromJson();
+        
+        assertTrue(productRepository.findById(old.getId()).isEmpty());
+        assertEquals(0, cartItemRepository.count());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM product_images WHERE image_url LIKE 'old-%'", Integer.class));
+        assertTrue(productRepository.count() > 0);
+    }
+    
+    @TestConfiguration
+    static class CartStoreConfig {
+        
+        @Bean
+        CartStore cartStore(CartItemRepository cartItemRepository) {
+            return new JpaCartStore(cartItemRepository);
+        }
+    }
+} 
\ No newline at end of file
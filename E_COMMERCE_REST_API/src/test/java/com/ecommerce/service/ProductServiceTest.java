@@ -1,6 +1,13 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.CacheInvalidationBus;
+import com.ecommerce.cart.CartStore;
+import com.ecommerce.cart.ProductPriceChangedEvent;
+import com.ecommerce.dto.ProductDto;
 import com.ecommerce.entity.Product;
+import com.ecommerce.exception.NotFoundException;
+import com.ecommerce.popularity.PopularityService;
+import com.ecommerce.recommendation.RecommendationService;
 import com.ecommerce.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,10 +15,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -28,6 +37,24 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private CartStore cartStore;
+    
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Mock
+    private PopularityService popularityService;
+    
+    @Mock
+    private RecommendationService recommendationService;
+    
     @InjectMocks
     private ProductService productService;
     
@@ -45,6 +72,7 @@ class ProductServiceTest {
         testProduct.setCategory("Electronics");
         
         pageable = PageRequest.of(0, 10);
+        productService.registerCache();
     }
     
     @Test
@@ -64,6 +92,21 @@ class ProductServiceTest {
         verify(productRepository).findAll(pageable);
     }
     
+    @Test
+    void getProductPage_WithFilter_ShouldQueryByFiltersAndReturnDtos() {
+        // Arrange
+        Page<Product> productPage = new PageImpl<>(List.of(testProduct), pageable, 1);
+        when(productRepository.findByFilters(null, "Electronics", null, null, pageable)).thenReturn(productPage);
+        
+        // Act
+        Page<ProductDto> result = productService.getProductPage(null, "Electronics", null, null, pageable);
+        
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Test Product", result.getContent().get(0).getName());
+        verify(productRepository, never()).findAll(any(Pageable.class));
+    }
+    
     @Test
     void getProductById_WhenProductExists_ShouldReturnProduct() {
         // Arrange
@@ -122,6 +165,7 @@ class ProductServiceTest {
         assertNotNull(result);
         verify(productRepository).findById(1L);
         verify(productRepository).save(any(Product.class));
+        verify(eventPublisher).publishEvent(new ProductPriceChangedEvent(1L, new BigDecimal("149.99")));
     }
     
     @Test
@@ -130,7 +174,7 @@ class ProductServiceTest {
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
         
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> {
+        assertThrows(NotFoundException.class, () -> {
             productService.updateProduct(1L, testProduct);
         });
         verify(productRepository).findById(1L);
@@ -147,6 +191,7 @@ class ProductServiceTest {
         
         // Assert
         verify(productRepository).existsById(1L);
+        verify(cartStore).deleteByProductId(1L);
         verify(productRepository).deleteById(1L);
     }
     
@@ -156,7 +201,7 @@ class ProductServiceTest {
         when(productRepository.existsById(1L)).thenReturn(false);
         
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> {
+        assertThrows(NotFoundException.class, () -> {
             productService.deleteProduct(1L);
         });
         verify(productRepository).existsById(1L);
@@ -0,0 +1,130 @@
+package com.ecommerce.stock;
+
+import com.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+    
+    private static final Instant NOW = Instant.parse("2024-01-15T10:00:00Z");
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @InjectMocks
+    private StockReservationService stockReservationService;
+    
+    private int databaseStock = 20;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(stockReservationService, "reservationTtl", Duration.ofMinutes(15));
+        stockReservationService.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        lenient().when(productRepository.findStockLevels(anyList())).thenAnswer(invocation -> List.of(stockLevel(1L, databaseStock)));
+    }
+    
+    @Test
+    void reserve_BeyondAvailableStock_ShouldThrowAndHoldNothing() {
+        stockReservationService.reserve(1L, 1L, 15);
+        
+        assertThrows(InsufficientStockException.class, () -> stockReservationService.reserve(2L, 1L, 10000));
+        assertEquals(5, stockReservationService.getAvailableQuantity(1L));
+        assertEquals(0, stockReservationService.getReservedQuantity(2L, 1L));
+    }
+    
+    @Test
+    void reserve_ShouldAdjustExistingHoldByDifference() {
+        stockReservationService.reserve(1L, 1L, 5);
+        stockReservationService.reserve(1L, 1L, 8);
+        assertEquals(12, stockReservationService.getAvailableQuantity(1L));
+        
+        stockReservationService.reserve(1L, 1L, 2);
+        assertEquals(18, stockReservationService.getAvailableQuantity(1L));
+        
+        stockReservationService.release(1L, 1L);
+        assertEquals(20, stockReservationService.getAvailableQuantity(1L));
+    }
+    
+    @Test
+    void expireReservations_ShouldReturnStockAfterTtl() {
+        stockReservationService.reserve(1L, 1L, 20);
+        assertEquals(0, stockReservationService.expireReservations());
+        
+        stockReservationService.setClock(Clock.fixed(NOW.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+        
+        assertEquals(1, stockReservationService.expireReservations());
+        assertEquals(20, stockReservationService.getAvailableQuantity(1L));
+        assertEquals(0, stockReservationService.getReservedQuantity(1L, 1L));
+    }
+    
+    @Test
+    void writeBack_ShouldBatchCommittedSalesAndKeepCounterInStep() {
+        stockReservationService.reserve(1L, 1L, 3);
+        stockReservationService.commit(1L, 1L, 3);
+        
+        stockReservationService.writeBack();
+        
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> batch) ->
+                batch.size() == 1 && batch.get(0)[0].equals(3) && batch.get(0)[1].equals(1L)));
+        verify(eventPublisher).publishEvent(any(Object.class));
+        
+        // The database now holds the decremented value; reconciling must not count the sale twice
+        databaseStock = 17;
+        stockReservationService.writeBack();
+        assertEquals(17, stockReservationService.getAvailableQuantity(1L));
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+    
+    @Test
+    void writeBack_ShouldPickUpStockChangedElsewhere() {
+        stockReservationService.reserve(1L, 1L, 5);
+        
+        databaseStock = 50; // restocked by an admin
+        stockReservationService.writeBack();
+        
+        assertEquals(45, stockReservationService.getAvailableQuantity(1L));
+        verify(jdbcTemplate, never()).batchUpdate(eq("UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ?"), anyList());
+    }
+    
+    private static ProductRepository.StockLevel stockLevel(Long id, Integer stockQuantity) {
+        return new ProductRepository.StockLevel() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+            
+            @Override
+            public Integer getStockQuantity() {
+                return stockQuantity;
+            }
+        };
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.ecommerce.warmup;
+
+import com.ecommerce.cache.CacheInvalidationEvent;
+import com.ecommerce.cache.CacheRegion;
+import com.ecommerce.entity.Product;
+import com.ecommerce.popularity.PopularityService;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:warmup;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ecommerce=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "popularity.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class CacheWarmingTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private PopularityService popularityService;
+    
+    @Autowired
+    private CacheWarmer cacheWarmer;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Test
+    void readiness_ReportedOnceStartupWarmupIsDone() throws Exception {
+        awaitReady();
+        mockMvc.perform(get("/api/health/ready"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ready").value(true))
+                .andExpect(jsonPath("$.warmup.trigger").value("STARTUP"));
+    }
+    
+    @Test
+    void warmup_LoadsPopularProductsIntoTheCache() throws Exception {
+        awaitReady();
+        Product lamp = productRepository.save(new Product("Warm lamp", "Warm-up test", new BigDecimal("12.00"), 10, "WarmLamps"));
+        mockMvc.perform(get("/api/products/" + lamp.getId())).andExpect(status().isOk());
+        popularityService.flush();
+        
+        // A reload empties the cache; the warm-up fills it again without another database load
+        eventPublisher.publishEvent(CacheInvalidationEvent.all(CacheRegion.PRODUCT));
+        cacheWarmer.warmInBackground(CacheWarmer.Trigger.RELOAD);
+        CacheWarmer.WarmupStatus status = awaitWarmup(CacheWarmer.Trigger.RELOAD);
+        assertEquals(CacheWarmer.State.WARM, status.state());
+        assertEquals(0, status.failures());
+        assertTrue(status.products() >= 1);
+        
+        long loads = productService.getSingleFlightStats().get("products").loads();
+        mockMvc.perform(get("/api/products/" + lamp.getId())).andExpect(status().isOk());
+        assertEquals(loads, productService.getSingleFlightStats().get("products").loads());
+    }
+    
+    private void awaitReady() throws InterruptedException {
+        for (int i = 0; i < 100 && !cacheWarmer.isReady(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(cacheWarmer.isReady());
+    }
+    
+    private CacheWarmer.WarmupStatus awaitWarmup(CacheWarmer.Trigger trigger) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            CacheWarmer.WarmupStatus status = cacheWarmer.getStatus();
+            if (status.trigger() == trigger && status.finishedAt() != null) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Warm-up did not finish: " + cacheWarmer.getStatus());
+    }
+} 
\ No newline at end of file